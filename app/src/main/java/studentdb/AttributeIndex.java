@@ -0,0 +1,309 @@
+package studentdb;
+
+import java.util.BitSet;
+
+/**
+ * 🗂️ AttributeIndex class - secondary indexes on age, GPA and active status
+ * Question: How do we find "aged 18-22" or "GPA >= 3.5" without looking at every student?
+ * Solution: Validation keeps both values in small ranges, so each age (16-100) and each
+ * hundredth of GPA (0.00-4.00) gets its own list of rows - the lists are in value order,
+ * so a range is a run of neighbouring lists. Active students are bits in a BitSet.
+ * Like the name index, one writer appends while any number of readers look things up.
+ */
+class AttributeIndex {
+    private static final int GPA_BUCKETS = gpaBucket(Student.MAX_GPA) + 1;
+    
+    private final RowList[] ageBuckets = new RowList[Student.MAX_AGE - Student.MIN_AGE + 1];
+    private final RowList[] gpaBuckets = new RowList[GPA_BUCKETS];
+    private final RowList[] gradeMembers = new RowList[Grade.values().length];
+    private final BitSet active = new BitSet();
+    private int activeCount;
+    
+    // Deleted rows stay in the lists above; these count them per list, so sizes can leave them out
+    private final Tombstones tombstones;
+    private final int[] deadAges = new int[ageBuckets.length];
+    private final int[] deadGpas = new int[GPA_BUCKETS];
+    private final int[] deadGrades = new int[gradeMembers.length];
+    
+    // Written last in add(), so a reader that sees a row count also sees those rows in every index
+    private volatile int size;
+    
+    AttributeIndex(Tombstones tombstones) {
+        this.tombstones = tombstones;
+        for (int i = 0; i < ageBuckets.length; i++) {
+            ageBuckets[i] = new RowList();
+        }
+        for (int i = 0; i < gpaBuckets.length; i++) {
+            gpaBuckets[i] = new RowList();
+        }
+        for (int i = 0; i < gradeMembers.length; i++) {
+            gradeMembers[i] = new RowList();
+        }
+    }
+    
+    /**
+     * ➕ Index the next row - rows must arrive in order 0, 1, 2, ...
+     */
+    void add(int row, int age, double gpa, Grade grade, boolean isActive) {
+        ageBuckets[age - Student.MIN_AGE].add(row);
+        gpaBuckets[gpaBucket(gpa)].add(row);
+        gradeMembers[grade.ordinal()].add(row);
+        if (isActive) {
+            active.set(row);
+            activeCount++;
+        }
+        size = row + 1;
+    }
+    
+    /**
+     * 📦 Index rows 0..count-1 of a store at once - on a new index
+     * Rows are appended without publishing each one, and every list is published at the end
+     */
+    void addAll(StudentStore store, int count) {
+        for (int row = 0; row < count; row++) {
+            ageBuckets[store.getAge(row) - Student.MIN_AGE].append(row);
+            gpaBuckets[gpaBucket(store.getGpa(row))].append(row);
+            gradeMembers[store.getGrade(row).ordinal()].append(row);
+            if (store.isActive(row)) {
+                active.set(row);
+                activeCount++;
+            }
+        }
+        for (RowList[] lists : new RowList[][] {ageBuckets, gpaBuckets, gradeMembers}) {
+            for (RowList list : lists) {
+                list.publish();
+            }
+        }
+        size = count;
+    }
+    
+    /**
+     * ➖ Count a row as deleted - its bit must already be set in the tombstones; the row stays
+     * in every list, and readers skip it there
+     */
+    void remove(int age, double gpa, Grade grade, boolean isActive) {
+        deadAges[age - Student.MIN_AGE]++;
+        deadGpas[gpaBucket(gpa)]++;
+        deadGrades[grade.ordinal()]++;
+        if (isActive) {
+            activeCount--;
+        }
+    }
+    
+    /**
+     * 🎓 Every row with this grade, in insertion order - the list itself, nothing is copied
+     * (deleted rows included)
+     */
+    RowList gradeMembers(Grade grade) {
+        return gradeMembers[grade.ordinal()];
+    }
+    
+    /**
+     * 🔢 Students with this grade, deleted ones left out - O(1)
+     */
+    int countGrade(Grade grade) {
+        return Math.max(gradeMembers[grade.ordinal()].size() - deadGrades[grade.ordinal()], 0);
+    }
+    
+    int size() { return size; }
+    
+    /**
+     * 📶 How many students have a GPA strictly above 'gpa'
+     * Every bucket above gpa's own holds only higher GPAs, so their sizes are added up; only
+     * gpa's bucket has its rows compared one by one
+     */
+    int countGpaAbove(double gpa, StudentStore store) {
+        int rows = size;
+        int own = gpaBucket(gpa);
+        long count = countRows(gpaBuckets, own + 1, GPA_BUCKETS - 1);
+        for (int bucket = own + 1; bucket < GPA_BUCKETS; bucket++) {
+            count -= deadGpas[bucket];
+        }
+        RowList bucket = gpaBuckets[own];
+        int length = bucket.size();
+        int[] members = bucket.array();
+        for (int i = 0; i < length && members[i] < rows; i++) {
+            if (store.getGpa(members[i]) > gpa && !tombstones.isDead(members[i])) {
+                count++;
+            }
+        }
+        return (int) Math.max(0, Math.min(count, rows - tombstones.count()));
+    }
+    
+    /**
+     * 🎂 Lowest or highest age among live rows, or -1 if there is none - writer only
+     * Question: How do statistics find the new youngest student when the youngest is deleted?
+     * Solution: Each age has its own list, and the list size minus its deleted rows says
+     * whether anyone of that age is left - at most 85 lists are looked at
+     */
+    int liveAgeBound(boolean highest) {
+        for (int i = 0; i < ageBuckets.length; i++) {
+            int bucket = highest ? ageBuckets.length - 1 - i : i;
+            if (ageBuckets[bucket].size() > deadAges[bucket]) {
+                return bucket + Student.MIN_AGE;
+            }
+        }
+        return -1;
+    }
+    
+    /**
+     * 🎓 Lowest or highest GPA among live rows, or NaN if there is none - writer only; only the
+     * outermost GPA list that still has a live row is read
+     */
+    double liveGpaBound(boolean highest, StudentStore store) {
+        for (int i = 0; i < GPA_BUCKETS; i++) {
+            int bucket = highest ? GPA_BUCKETS - 1 - i : i;
+            RowList rows = gpaBuckets[bucket];
+            if (rows.size() == deadGpas[bucket]) {
+                continue;
+            }
+            double bound = highest ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+            for (int j = 0; j < rows.size(); j++) {
+                int row = rows.get(j);
+                if (!tombstones.isDead(row)) {
+                    bound = highest ? Math.max(bound, store.getGpa(row)) : Math.min(bound, store.getGpa(row));
+                }
+            }
+            return bound;
+        }
+        return Double.NaN;
+    }
+    
+    /**
+     * 🏆 Offer the best live rows to an empty TopStudents until it is full - writer only
+     * Every GPA in a list is below every GPA in the lists above it, so the lists are walked from
+     * the top and the walk stops after the first list that leaves the heap full
+     */
+    void fillTop(TopStudents top, StudentStore store) {
+        for (int bucket = GPA_BUCKETS - 1; bucket >= 0 && !top.isFull(); bucket--) {
+            RowList rows = gpaBuckets[bucket];
+            for (int i = 0; i < rows.size(); i++) {
+                int row = rows.get(i);
+                if (!tombstones.isDead(row)) {
+                    top.offer(row, store.getGpa(row));
+                }
+            }
+        }
+    }
+    
+    /**
+     * 🪣 Hundredths of a GPA, clamped to the valid range
+     * Question: Is (int) (gpa * 100) exact for values like 0.29?
+     * Solution: It doesn't need to be - it never decreases as the GPA grows, so every GPA in a
+     * range lands between the range ends' buckets, and only those two buckets are checked exactly
+     */
+    static int gpaBucket(double gpa) {
+        int bucket = (int) (gpa * 100);
+        return Math.max(0, Math.min(bucket, (int) (Student.MAX_GPA * 100)));
+    }
+    
+    /**
+     * 🎯 Matching row numbers in insertion order
+     */
+    int[] select(StudentQuery query, StudentStore store) {
+        int rows = size;
+        int minAge = Math.max(query.getMinAge(), Student.MIN_AGE);
+        int maxAge = Math.min(query.getMaxAge(), Student.MAX_AGE);
+        if (rows == 0 || minAge > maxAge || query.getMinGpa() > query.getMaxGpa()
+                || query.getMaxGpa() < Student.MIN_GPA || query.getMinGpa() > Student.MAX_GPA) {
+            return new int[0];
+        }
+        int firstGpa = gpaBucket(query.getMinGpa());
+        int lastGpa = gpaBucket(query.getMaxGpa());
+        Boolean wantActive = query.getActive();
+        
+        // Question: Which index goes first?
+        // Solution: The one promising the fewest rows - list sizes and the active count are exact
+        long ageRows = query.restrictsAge() ? countRows(ageBuckets, minAge - Student.MIN_AGE, maxAge - Student.MIN_AGE) : rows;
+        long gpaRows = query.restrictsGpa() ? countRows(gpaBuckets, firstGpa, lastGpa) : rows;
+        int activeRows = Math.min(activeCount, rows);
+        long statusRows = wantActive == null ? rows : wantActive ? activeRows : rows - activeRows;
+        Grade grade = query.getGrade();
+        long gradeRows = grade == null ? rows : gradeMembers[grade.ordinal()].size();
+        
+        IntArray matches = new IntArray();
+        if (grade != null && gradeRows <= ageRows && gradeRows <= gpaRows && gradeRows <= statusRows) {
+            // A grade list is already in insertion order, so no sort is needed afterwards
+            collect(gradeMembers[grade.ordinal()], rows, query, store,
+                query.restrictsAge(), query.restrictsGpa(), false, matches);
+        } else if (query.restrictsAge() && ageRows <= gpaRows && ageRows <= statusRows) {
+            for (int bucket = minAge - Student.MIN_AGE; bucket <= maxAge - Student.MIN_AGE; bucket++) {
+                // Every row in an age list has exactly that age, so only GPA and status need checking
+                collect(ageBuckets[bucket], rows, query, store, false, query.restrictsGpa(), grade != null, matches);
+            }
+            matches.sort();
+        } else if (query.restrictsGpa() && gpaRows <= statusRows) {
+            for (int bucket = firstGpa; bucket <= lastGpa; bucket++) {
+                // Inner lists lie wholly inside the range; only the two end lists need an exact check
+                boolean edge = bucket == firstGpa || bucket == lastGpa;
+                collect(gpaBuckets[bucket], rows, query, store, query.restrictsAge(), edge, grade != null, matches);
+            }
+            matches.sort();
+        } else if (wantActive != null) {
+            // Walk only the set (or clear) bits; status is known, ages and GPAs are checked in the store
+            boolean checkValues = query.restrictsAge() || query.restrictsGpa() || grade != null;
+            for (int row = wantActive ? active.nextSetBit(0) : active.nextClearBit(0);
+                 row >= 0 && row < rows;
+                 row = wantActive ? active.nextSetBit(row + 1) : active.nextClearBit(row + 1)) {
+                if (!checkValues || matchesValues(query, store, row)) {
+                    matches.add(row);
+                }
+            }
+        } else {
+            // Nothing narrows the search (e.g. "aged 16-100"), so every row is checked
+            for (int row = 0; row < rows; row++) {
+                if (matchesValues(query, store, row)) {
+                    matches.add(row);
+                }
+            }
+        }
+        return tombstones.retainLive(matches.toArray());
+    }
+    
+    private void collect(RowList bucket, int rows, StudentQuery query, StudentStore store,
+                         boolean checkAge, boolean checkGpa, boolean checkGrade, IntArray matches) {
+        Boolean wantActive = query.getActive();
+        int count = bucket.size();
+        for (int i = 0; i < count; i++) {
+            int row = bucket.get(i);
+            if (row >= rows) {
+                break; // added after this query started; later entries are newer still
+            }
+            if (wantActive != null && active.get(row) != wantActive) {
+                continue;
+            }
+            if (checkAge) {
+                int age = store.getAge(row);
+                if (age < query.getMinAge() || age > query.getMaxAge()) {
+                    continue;
+                }
+            }
+            if (checkGpa) {
+                double gpa = store.getGpa(row);
+                if (gpa < query.getMinGpa() || gpa > query.getMaxGpa()) {
+                    continue;
+                }
+            }
+            if (checkGrade && store.getGrade(row) != query.getGrade()) {
+                continue;
+            }
+            matches.add(row);
+        }
+    }
+    
+    private static boolean matchesValues(StudentQuery query, StudentStore store, int row) {
+        int age = store.getAge(row);
+        double gpa = store.getGpa(row);
+        return age >= query.getMinAge() && age <= query.getMaxAge()
+            && gpa >= query.getMinGpa() && gpa <= query.getMaxGpa()
+            && (query.getGrade() == null || store.getGrade(row) == query.getGrade());
+    }
+    
+    private static long countRows(RowList[] buckets, int first, int last) {
+        long count = 0;
+        for (int bucket = first; bucket <= last; bucket++) {
+            count += buckets[bucket].size();
+        }
+        return count;
+    }
+}
@@ -0,0 +1,158 @@
+package studentdb;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * 🧱 ColumnarStudentStore class - one primitive array per field
+ * Question: Why store columns instead of objects?
+ * Solution: Parallel arrays sit next to each other in memory, so loops over one field are
+ * cache-friendly and there is no per-record object for the garbage collector to trace
+ */
+class ColumnarStudentStore implements StudentStore {
+    private int[] ages = new int[16];
+    private double[] gpas = new double[16];
+    private byte[] grades = new byte[16];
+    private final BitSet active = new BitSet();
+    
+    // Names are dictionary-encoded: an id per row, and each distinct name's text once in the pool
+    // (packed, so getName() builds a String per call, as the packed name column always did)
+    private final NamePool namePool;
+    private int[] nameIds = new int[16];
+    
+    // Written last in add(), so a reader that sees the new size also sees the new row
+    private volatile int size;
+    
+    public ColumnarStudentStore() {
+        this(new NamePool());
+    }
+    
+    public ColumnarStudentStore(NamePool namePool) {
+        this.namePool = namePool;
+    }
+    
+    public void add(Student student) {
+        if (size == ages.length) {
+            ensureCapacity(size * 2);
+        }
+        nameIds[size] = namePool.intern(student.getName());
+        ages[size] = student.getAge();
+        gpas[size] = student.getGpa();
+        grades[size] = (byte) student.getGradeLevel().ordinal();
+        active.set(size, student.isActive());
+        size = size + 1;
+    }
+    
+    // Whole columns are copied in; only the grade is worked out row by row
+    public void addAll(int count, int[] rowNameIds, byte[] rowAges, double[] rowGpas, BitSet rowsActive) {
+        int start = size;
+        if (start + count > ages.length) {
+            ensureCapacity(Math.max(start + count, ages.length * 2));
+        }
+        System.arraycopy(rowNameIds, 0, nameIds, start, count);
+        System.arraycopy(rowGpas, 0, gpas, start, count);
+        for (int i = 0; i < count; i++) {
+            ages[start + i] = rowAges[i];
+            grades[start + i] = (byte) Grade.of(rowGpas[i]).ordinal();
+        }
+        for (int i = rowsActive.nextSetBit(0); i >= 0 && i < count; i = rowsActive.nextSetBit(i + 1)) {
+            active.set(start + i);
+        }
+        size = start + count;
+    }
+    
+    private void ensureCapacity(int capacity) {
+        ages = Arrays.copyOf(ages, capacity);
+        gpas = Arrays.copyOf(gpas, capacity);
+        grades = Arrays.copyOf(grades, capacity);
+        nameIds = Arrays.copyOf(nameIds, capacity);
+    }
+    
+    /**
+     * 🏭 Materialise a Student only when a caller really needs the object
+     */
+    public Student get(int row) {
+        checkRow(row);
+        return new Student(getName(row), ages[row], gpas[row], active.get(row));
+    }
+    
+    public String getName(int row) {
+        checkRow(row);
+        return namePool.get(nameIds[row]);
+    }
+    
+    public void appendName(int row, StringBuilder out) {
+        checkRow(row);
+        namePool.appendTo(nameIds[row], out);
+    }
+    
+    public int getNameId(int row) { checkRow(row); return nameIds[row]; }
+    public NamePool getNamePool() { return namePool; }
+    
+    public int getAge(int row) { checkRow(row); return ages[row]; }
+    public double getGpa(int row) { checkRow(row); return gpas[row]; }
+    public Grade getGrade(int row) { checkRow(row); return Grade.ofOrdinal(grades[row]); }
+    public boolean isActive(int row) { checkRow(row); return active.get(row); }
+    public int size() { return size; }
+    
+    // Block reads check the rows against one read of the size, and index the arrays directly
+    public void readAges(int[] rows, int count, int[] out) {
+        checkRows(rows, count);
+        int[] column = ages;
+        for (int i = 0; i < count; i++) {
+            out[i] = column[rows[i]];
+        }
+    }
+    
+    public void readGpas(int[] rows, int count, double[] out) {
+        checkRows(rows, count);
+        double[] column = gpas;
+        for (int i = 0; i < count; i++) {
+            out[i] = column[rows[i]];
+        }
+    }
+    
+    public void readGrades(int[] rows, int count, int[] out) {
+        checkRows(rows, count);
+        byte[] column = grades;
+        for (int i = 0; i < count; i++) {
+            out[i] = column[rows[i]];
+        }
+    }
+    
+    public void readActive(int[] rows, int count, int[] out) {
+        checkRows(rows, count);
+        for (int i = 0; i < count; i++) {
+            out[i] = active.get(rows[i]) ? 1 : 0;
+        }
+    }
+    
+    public void readNameIds(int[] rows, int count, int[] out) {
+        checkRows(rows, count);
+        int[] column = nameIds;
+        for (int i = 0; i < count; i++) {
+            out[i] = column[rows[i]];
+        }
+    }
+    
+    public void clear() {
+        size = 0;
+        active.clear();
+    }
+    
+    private void checkRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Row " + row + " out of bounds for size " + size);
+        }
+    }
+    
+    // Reads the size once; arrays read after it are at least that long
+    private void checkRows(int[] rows, int count) {
+        int limit = size;
+        for (int i = 0; i < count; i++) {
+            if (rows[i] < 0 || rows[i] >= limit) {
+                throw new IndexOutOfBoundsException("Row " + rows[i] + " out of bounds for size " + limit);
+            }
+        }
+    }
+}
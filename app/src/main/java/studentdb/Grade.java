@@ -0,0 +1,62 @@
+package studentdb;
+
+/**
+ * 🎓 Grade enum - letter grades from best to worst
+ * Question: Why an enum instead of the letter String?
+ * Solution: An ordinal is a small number - it fits in one byte per student, indexes
+ * histograms and per-grade lists directly, and compares without looking at text
+ */
+enum Grade {
+    A("A"), B_PLUS("B+"), B("B"), C_PLUS("C+"), C("C"), D("D"), F("F");
+    
+    private static final Grade[] VALUES = values();
+    
+    private final String letter;
+    
+    Grade(String letter) {
+        this.letter = letter;
+    }
+    
+    public String getLetter() { return letter; }
+    
+    /**
+     * 🎯 Convert a GPA to its grade
+     * Question: How do we convert GPA to letter grade?
+     * Solution: Use if-else statements or ternary operators
+     */
+    public static Grade of(double gpa) {
+        // Using ternary operator for concise grade calculation
+        return (gpa >= 3.7) ? A :
+               (gpa >= 3.3) ? B_PLUS :
+               (gpa >= 3.0) ? B :
+               (gpa >= 2.7) ? C_PLUS :
+               (gpa >= 2.3) ? C :
+               (gpa >= 2.0) ? D : F;
+    }
+    
+    // values() copies the array on every call; this one is shared
+    static Grade ofOrdinal(int ordinal) {
+        return VALUES[ordinal];
+    }
+    
+    /**
+     * 🔍 Parse "A", "b+", "B_PLUS" and the like
+     */
+    public static Grade parse(String text) {
+        String trimmed = text.trim();
+        for (Grade grade : VALUES) {
+            if (grade.letter.equalsIgnoreCase(trimmed) || grade.name().equalsIgnoreCase(trimmed)) {
+                return grade;
+            }
+        }
+        throw new IllegalArgumentException("Unknown grade '" + text + "' (expected A, B+, B, C+, C, D or F)");
+    }
+    
+    static String[] letters() {
+        String[] letters = new String[VALUES.length];
+        for (Grade grade : VALUES) {
+            letters[grade.ordinal()] = grade.letter;
+        }
+        return letters;
+    }
+}
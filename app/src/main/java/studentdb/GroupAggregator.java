@@ -0,0 +1,478 @@
+package studentdb;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * 🧮 GroupAggregator class - computes a StudentGroups report in one parallel pass over the store
+ * Question: How does a report over ten million students finish in milliseconds?
+ * Solution: No Student objects and no boxed keys - each row's dimensions are packed into one
+ * long (mixed radix, like digits of a number), and totals live in primitive arrays indexed by
+ * group. When the packed keys fit in DENSE_GROUPS (age x grade x active is 85 x 7 x 2 = 1190)
+ * the key IS the array index; bigger key spaces (names) go through an open-addressing long hash
+ * table. Every core fills a table of its own for its share of the rows, and the partial tables
+ * are merged at the end, so the pass itself shares nothing and takes no locks
+ */
+final class GroupAggregator {
+    // Rows per fork-join leaf at least; big rosters are cut into about four leaves per core instead
+    private static final int PARALLEL_THRESHOLD = 64 * 1024;
+    // Largest key space counted in plain arrays; each partial table costs ~36 bytes per group and measure
+    static final int DENSE_GROUPS = 4096;
+    // Rows read per step of a partial aggregation
+    private static final int BLOCK = 1024;
+    
+    private final StudentStore store;
+    // Rows to aggregate, or null for rows 0 until size
+    private final int[] rows;
+    // With rows == null: deleted rows to skip, or null if there are none
+    private final Tombstones dead;
+    private final StudentGroupQuery query;
+    private final StudentGroupQuery.Dimension[] dimensions;
+    // Number of distinct codes along each dimension
+    private final int[] radixes;
+    // Distinct measures the columns need, and which of them each column reads
+    private final StudentGroupQuery.Measure[] measures;
+    private final int[] columnMeasures;
+    // Per measure: whether some column needs its sum (SUM, AVG) or its range (MIN, MAX)
+    private final boolean[] measureSums;
+    private final boolean[] measureRanges;
+    private final int bandWidth;
+    private final int bandBase;
+    // Band code of every age, 0 until MAX_AGE
+    private final int[] ageBands;
+    private final int keySpace;
+    
+    private GroupAggregator(StudentStore store, int[] rows, Tombstones dead, StudentGroupQuery query) {
+        this.store = store;
+        this.rows = rows;
+        this.dead = dead;
+        this.query = query;
+        this.bandWidth = query.getAgeBandWidth();
+        this.bandBase = Student.MIN_AGE / bandWidth;
+        this.ageBands = new int[Student.MAX_AGE + 1];
+        for (int age = Student.MIN_AGE; age <= Student.MAX_AGE; age++) {
+            ageBands[age] = age / bandWidth - bandBase;
+        }
+        
+        dimensions = query.getDimensions().toArray(new StudentGroupQuery.Dimension[0]);
+        radixes = new int[dimensions.length];
+        long space = 1;
+        for (int d = 0; d < dimensions.length; d++) {
+            radixes[d] = radix(dimensions[d]);
+            space *= radixes[d];
+        }
+        keySpace = space <= DENSE_GROUPS ? (int) space : 0;
+        
+        List<StudentGroupQuery.Column> columns = query.getColumns();
+        List<StudentGroupQuery.Measure> used = new ArrayList<>();
+        columnMeasures = new int[columns.size()];
+        for (int c = 0; c < columns.size(); c++) {
+            StudentGroupQuery.Measure measure = columns.get(c).getMeasure();
+            if (measure != null && !used.contains(measure)) {
+                used.add(measure);
+            }
+            columnMeasures[c] = used.indexOf(measure);
+        }
+        measures = used.toArray(new StudentGroupQuery.Measure[0]);
+        measureSums = new boolean[measures.length];
+        measureRanges = new boolean[measures.length];
+        for (int c = 0; c < columns.size(); c++) {
+            StudentGroupQuery.Aggregate aggregate = columns.get(c).getAggregate();
+            if (columnMeasures[c] >= 0) {
+                boolean range = aggregate == StudentGroupQuery.Aggregate.MIN || aggregate == StudentGroupQuery.Aggregate.MAX;
+                measureRanges[columnMeasures[c]] |= range;
+                measureSums[columnMeasures[c]] |= !range;
+            }
+        }
+    }
+    
+    /**
+     * 🚀 Aggregate 'rows' of the store (null: the first 'size' rows, leaving out those dead in 'tombstones')
+     */
+    static StudentGroups aggregate(StudentStore store, int[] rows, int size, Tombstones tombstones, StudentGroupQuery query) {
+        Tombstones dead = rows == null && !tombstones.isEmpty() ? tombstones : null;
+        GroupAggregator aggregator = new GroupAggregator(store, rows, dead, query);
+        int count = rows != null ? rows.length : size;
+        int leaf = Math.max(PARALLEL_THRESHOLD, count / (ForkJoinPool.getCommonPoolParallelism() * 4) + 1);
+        GroupTable totals = count <= leaf
+            ? aggregator.partial(0, count)
+            : ForkJoinPool.commonPool().invoke(aggregator.new GroupTask(0, count, leaf));
+        // Deleted rows were skipped while reading, so the groups themselves say how many rows there were
+        long rowCount = 0;
+        for (int group = 0; group < totals.counts.length; group++) {
+            rowCount += totals.counts[group];
+        }
+        return aggregator.result(totals, rowCount);
+    }
+    
+    private int radix(StudentGroupQuery.Dimension dimension) {
+        switch (dimension) {
+            case AGE:
+                return Student.MAX_AGE - Student.MIN_AGE + 1;
+            case AGE_BAND:
+                return Student.MAX_AGE / bandWidth - bandBase + 1;
+            case GRADE:
+                return Grade.values().length;
+            case ACTIVE:
+                return 2;
+            default:
+                // Read after 'size': every row below it already has its name pooled
+                return Math.max(1, store.getNamePool().size());
+        }
+    }
+    
+    // Append one dimension's code to the packed key of each row in the block; 'codes' is scratch space
+    private void addCodes(StudentGroupQuery.Dimension dimension, int radix, int[] block, int count, int[] codes, long[] keys) {
+        int offset = 0;
+        switch (dimension) {
+            case AGE:
+                store.readAges(block, count, codes);
+                offset = Student.MIN_AGE;
+                break;
+            case AGE_BAND:
+                // A table lookup instead of a division per row
+                store.readAges(block, count, codes);
+                for (int i = 0; i < count; i++) {
+                    codes[i] = ageBands[codes[i]];
+                }
+                break;
+            case GRADE:
+                store.readGrades(block, count, codes);
+                break;
+            case ACTIVE:
+                // Active students come first: code 0
+                store.readActive(block, count, codes);
+                for (int i = 0; i < count; i++) {
+                    codes[i] ^= 1;
+                }
+                break;
+            default:
+                store.readNameIds(block, count, codes);
+        }
+        for (int i = 0; i < count; i++) {
+            keys[i] = keys[i] * radix + (codes[i] - offset);
+        }
+    }
+    
+    // One measure of each row in the block; 'ints' is scratch space
+    private void readValues(StudentGroupQuery.Measure measure, int[] block, int count, int[] ints, double[] values) {
+        if (measure == StudentGroupQuery.Measure.GPA) {
+            store.readGpas(block, count, values);
+            return;
+        }
+        if (measure == StudentGroupQuery.Measure.AGE) {
+            store.readAges(block, count, ints);
+        } else {
+            store.readActive(block, count, ints);
+        }
+        for (int i = 0; i < count; i++) {
+            values[i] = ints[i];
+        }
+    }
+    
+    /**
+     * 🧱 Totals of positions [from, to) of the rows
+     * Question: Why work through BLOCK rows at a time, one dimension after another?
+     * Solution: Deciding what a dimension or measure means once per block instead of once per
+     * row leaves short loops that each read one column - the JIT compiles those to tight code
+     */
+    GroupTable partial(int from, int to) {
+        GroupTable table = new GroupTable(keySpace, measures.length);
+        int[] block = new int[BLOCK];
+        int[] codes = new int[BLOCK];
+        long[] keys = new long[BLOCK];
+        int[] groups = new int[BLOCK];
+        double[] values = new double[BLOCK];
+        for (int start = from; start < to; start += BLOCK) {
+            int end = Math.min(start + BLOCK, to);
+            int count = 0;
+            if (dead != null) {
+                // Word-at-a-time skipping of deleted rows; the block is then simply shorter
+                for (int row = dead.nextLive(start, end); row < end; row = dead.nextLive(row + 1, end)) {
+                    block[count++] = row;
+                }
+            } else {
+                for (int position = start; position < end; position++) {
+                    block[count++] = rows != null ? rows[position] : position;
+                }
+            }
+            Arrays.fill(keys, 0, count, 0L);
+            for (int d = 0; d < dimensions.length; d++) {
+                addCodes(dimensions[d], radixes[d], block, count, codes, keys);
+            }
+            for (int i = 0; i < count; i++) {
+                groups[i] = keySpace > 0 ? (int) keys[i] : table.groupOf(keys[i]);
+                table.counts[groups[i]]++;
+            }
+            for (int m = 0; m < measures.length; m++) {
+                readValues(measures[m], block, count, codes, values);
+                table.add(m, groups, values, count, measureSums[m], measureRanges[m]);
+            }
+        }
+        return table;
+    }
+    
+    // Unpack every non-empty group into labels and column values, in key order
+    private StudentGroups result(GroupTable totals, long rowCount) {
+        long[] keys;
+        if (keySpace > 0) {
+            keys = new long[keySpace];
+            int used = 0;
+            for (int group = 0; group < keySpace; group++) {
+                if (totals.counts[group] > 0) {
+                    keys[used++] = group;
+                }
+            }
+            keys = Arrays.copyOf(keys, used);
+        } else {
+            keys = Arrays.copyOf(totals.keys, totals.groups);
+            Arrays.sort(keys);
+        }
+        
+        List<StudentGroupQuery.Column> columns = query.getColumns();
+        List<StudentGroups.Group> groups = new ArrayList<>(keys.length);
+        for (long key : keys) {
+            int group = keySpace > 0 ? (int) key : totals.groupOf(key);
+            int[] naturalKeys = new int[dimensions.length];
+            String[] labels = new String[dimensions.length];
+            long rest = key;
+            for (int d = dimensions.length - 1; d >= 0; d--) {
+                int code = (int) (rest % radixes[d]);
+                rest /= radixes[d];
+                naturalKeys[d] = naturalKey(dimensions[d], code);
+                labels[d] = label(dimensions[d], naturalKeys[d]);
+            }
+            long count = totals.counts[group];
+            double[] values = new double[columns.size()];
+            for (int c = 0; c < values.length; c++) {
+                int m = columnMeasures[c];
+                values[c] = m < 0
+                    ? columns.get(c).getAggregate().of(count, 0, 0, 0)
+                    : columns.get(c).getAggregate().of(count, totals.sum(group, m), totals.min(group, m), totals.max(group, m));
+            }
+            groups.add(new StudentGroups.Group(naturalKeys, labels, count, values));
+        }
+        return new StudentGroups(query, Collections.unmodifiableList(groups), rowCount);
+    }
+    
+    private int naturalKey(StudentGroupQuery.Dimension dimension, int code) {
+        switch (dimension) {
+            case AGE:
+                return code + Student.MIN_AGE;
+            case AGE_BAND:
+                return Math.max((code + bandBase) * bandWidth, Student.MIN_AGE);
+            case ACTIVE:
+                return code == 0 ? 1 : 0;
+            default:
+                return code;
+        }
+    }
+    
+    private String label(StudentGroupQuery.Dimension dimension, int key) {
+        switch (dimension) {
+            case AGE_BAND:
+                // Bands start at multiples of the width, so the first and last may be cut short
+                int last = Math.min((key / bandWidth + 1) * bandWidth - 1, Student.MAX_AGE);
+                return key == last ? String.valueOf(key) : key + "-" + last;
+            case GRADE:
+                return Grade.ofOrdinal(key).getLetter();
+            case ACTIVE:
+                return key == 1 ? "active" : "inactive";
+            case NAME:
+                return store.getNamePool().get(key);
+            default:
+                return String.valueOf(key);
+        }
+    }
+    
+    /**
+     * 🍴 GroupTask - fork-join task over a range of positions in the rows
+     */
+    private final class GroupTask extends RecursiveTask<GroupTable> {
+        private static final long serialVersionUID = 1L;
+        
+        private final int from;
+        private final int to;
+        private final int leaf;
+        
+        GroupTask(int from, int to, int leaf) {
+            this.from = from;
+            this.to = to;
+            this.leaf = leaf;
+        }
+        
+        @Override
+        protected GroupTable compute() {
+            if (to - from <= leaf) {
+                return partial(from, to);
+            }
+            int middle = (from + to) >>> 1;
+            GroupTask left = new GroupTask(from, middle, leaf);
+            left.fork();
+            GroupTable right = new GroupTask(middle, to, leaf).compute();
+            return left.join().merge(right);
+        }
+    }
+    
+    /**
+     * 🗃️ GroupTable - count, sum, min and max of each measure per group, in parallel primitive arrays
+     * Question: Why not a HashMap<Long, Totals>?
+     * Solution: Boxing every key and chasing a pointer per row would cost more than the
+     * aggregation itself; here a group is an int, and a measure's totals for it sit at
+     * group * measures + measure in four double arrays
+     */
+    static final class GroupTable {
+        private static final int INITIAL_GROUPS = 64;
+        
+        private final int measures;
+        private final boolean dense;
+        long[] counts;
+        // Hash tables only: the key of each group, and per slot the group + 1 (0 = empty)
+        long[] keys;
+        int groups;
+        private int[] slots;
+        private double[] sums;
+        private double[] compensations;
+        private double[] mins;
+        private double[] maxs;
+        
+        // denseGroups > 0: keys 0 until denseGroups are the groups themselves; 0: a hash table
+        GroupTable(int denseGroups, int measures) {
+            this.measures = measures;
+            this.dense = denseGroups > 0;
+            int capacity = dense ? denseGroups : INITIAL_GROUPS;
+            counts = new long[capacity];
+            sums = new double[capacity * measures];
+            compensations = new double[capacity * measures];
+            mins = new double[capacity * measures];
+            maxs = new double[capacity * measures];
+            Arrays.fill(mins, Double.POSITIVE_INFINITY);
+            Arrays.fill(maxs, Double.NEGATIVE_INFINITY);
+            if (dense) {
+                groups = denseGroups;
+            } else {
+                keys = new long[capacity];
+                slots = new int[capacity * 2];
+            }
+        }
+        
+        /**
+         * 🔑 The group of a key, adding it if new (hash tables only)
+         */
+        int groupOf(long key) {
+            int mask = slots.length - 1;
+            for (int slot = hash(key) & mask; ; slot = (slot + 1) & mask) {
+                int entry = slots[slot];
+                if (entry == 0) {
+                    return insert(key, slot);
+                }
+                if (keys[entry - 1] == key) {
+                    return entry - 1;
+                }
+            }
+        }
+        
+        private static int hash(long key) {
+            long mixed = key * 0x9E3779B97F4A7C15L;
+            return (int) (mixed ^ (mixed >>> 32));
+        }
+        
+        private int insert(long key, int slot) {
+            if (groups == keys.length) {
+                grow();
+                return groupOf(key);
+            }
+            keys[groups] = key;
+            slots[slot] = groups + 1;
+            return groups++;
+        }
+        
+        // Double every array, then rehash the keys; the table is kept at most half full
+        private void grow() {
+            int capacity = keys.length * 2;
+            keys = Arrays.copyOf(keys, capacity);
+            counts = Arrays.copyOf(counts, capacity);
+            sums = Arrays.copyOf(sums, capacity * measures);
+            compensations = Arrays.copyOf(compensations, capacity * measures);
+            mins = Arrays.copyOf(mins, capacity * measures);
+            maxs = Arrays.copyOf(maxs, capacity * measures);
+            Arrays.fill(mins, groups * measures, mins.length, Double.POSITIVE_INFINITY);
+            Arrays.fill(maxs, groups * measures, maxs.length, Double.NEGATIVE_INFINITY);
+            slots = new int[capacity * 2];
+            int mask = slots.length - 1;
+            for (int group = 0; group < groups; group++) {
+                int slot = hash(keys[group]) & mask;
+                while (slots[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                slots[slot] = group + 1;
+            }
+        }
+        
+        /**
+         * ➕ Add one measure of a block of rows, row i going to groups[i]; sums and ranges
+         * are only kept when a column needs them
+         */
+        void add(int measure, int[] groups, double[] values, int count, boolean sum, boolean range) {
+            if (sum) {
+                for (int i = 0; i < count; i++) {
+                    addSum(groups[i] * measures + measure, values[i]);
+                }
+            }
+            if (range) {
+                double[] lows = mins;
+                double[] highs = maxs;
+                for (int i = 0; i < count; i++) {
+                    int at = groups[i] * measures + measure;
+                    lows[at] = Math.min(lows[at], values[i]);
+                    highs[at] = Math.max(highs[at], values[i]);
+                }
+            }
+        }
+        
+        // Neumaier summation, as in StatisticsAccumulator: the compensation keeps the lost low-order bits
+        private void addSum(int i, double value) {
+            double sum = sums[i] + value;
+            if (Math.abs(sums[i]) >= Math.abs(value)) {
+                compensations[i] += (sums[i] - sum) + value;
+            } else {
+                compensations[i] += (value - sum) + sums[i];
+            }
+            sums[i] = sum;
+        }
+        
+        /**
+         * 🔗 Add another partial table into this one (both dense with the same size, or both hashed)
+         */
+        GroupTable merge(GroupTable other) {
+            for (int source = 0; source < other.groups; source++) {
+                if (other.counts[source] == 0) {
+                    continue;
+                }
+                int group = dense ? source : groupOf(other.keys[source]);
+                counts[group] += other.counts[source];
+                for (int m = 0; m < measures; m++) {
+                    int i = group * measures + m;
+                    int j = source * measures + m;
+                    addSum(i, other.sums[j]);
+                    compensations[i] += other.compensations[j];
+                    mins[i] = Math.min(mins[i], other.mins[j]);
+                    maxs[i] = Math.max(maxs[i], other.maxs[j]);
+                }
+            }
+            return this;
+        }
+        
+        double sum(int group, int measure) {
+            int i = group * measures + measure;
+            return sums[i] + compensations[i];
+        }
+        
+        double min(int group, int measure) { return mins[group * measures + measure]; }
+        double max(int group, int measure) { return maxs[group * measures + measure]; }
+    }
+}
@@ -0,0 +1,33 @@
+package studentdb;
+
+import java.util.Arrays;
+
+/**
+ * 📏 IntArray class - growable int[] for collecting row numbers without boxing
+ */
+public class IntArray {
+    private int[] values = new int[16];
+    private int size;
+    
+    void add(int value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        values[size++] = value;
+    }
+    
+    void clear() {
+        size = 0;
+    }
+    
+    void sort() {
+        Arrays.sort(values, 0, size);
+    }
+    
+    public int get(int index) { return values[index]; }
+    int size() { return size; }
+    
+    int[] toArray() {
+        return Arrays.copyOf(values, size);
+    }
+}
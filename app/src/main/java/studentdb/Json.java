@@ -0,0 +1,377 @@
+package studentdb;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * 🧾 Json class - just enough JSON writing for machine-readable output
+ * Question: Why not use a JSON library?
+ * Solution: The project has no dependencies, and quoting strings and printing numbers is all it needs
+ */
+class Json {
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    
+    private Json() {
+    }
+    
+    /**
+     * 🔤 Append a quoted string; anything outside printable ASCII is escaped as \\uXXXX,
+     * so the output is the same whatever the console's character encoding is
+     */
+    static StringBuilder string(StringBuilder out, String value) {
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                out.append('\\').append(c);
+            } else if (c >= 0x20 && c < 0x7f) {
+                out.append(c);
+            } else {
+                out.append("\\u").append(HEX[c >>> 12]).append(HEX[(c >>> 8) & 0xf])
+                    .append(HEX[(c >>> 4) & 0xf]).append(HEX[c & 0xf]);
+            }
+        }
+        return out.append('"');
+    }
+    
+    /**
+     * 🔢 Append a number; NaN and infinity have no JSON form, so they become null
+     */
+    static StringBuilder number(StringBuilder out, double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            return out.append("null");
+        }
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            return out.append((long) value);
+        }
+        return out.append(value);
+    }
+    
+    static StringBuilder student(StringBuilder out, Student student) {
+        return studentFields(out, student).append('}');
+    }
+    
+    // A student object left open, so a caller can add fields of its own
+    private static StringBuilder studentFields(StringBuilder out, Student student) {
+        string(out.append("{\"name\":"), student.getName());
+        out.append(",\"age\":").append(student.getAge());
+        number(out.append(",\"gpa\":"), student.getGpa());
+        out.append(",\"active\":").append(student.isActive());
+        return string(out.append(",\"grade\":"), student.getGrade());
+    }
+    
+    // Students of a fuzzy search, each with how it matched: "match", "distance", "similarity"
+    static StringBuilder nameMatches(StringBuilder out, List<NameMatch> matches) {
+        out.append('[');
+        for (int i = 0; i < matches.size(); i++) {
+            NameMatch match = matches.get(i);
+            studentFields(out.append(i > 0 ? "," : ""), match.getStudent());
+            string(out.append(",\"match\":"), match.getKind().name().toLowerCase(Locale.ROOT));
+            out.append(",\"distance\":").append(match.getDistance());
+            number(out.append(",\"similarity\":"), Math.round(match.getSimilarity() * 1000) / 1000.0).append('}');
+        }
+        return out.append(']');
+    }
+    
+    // Students with their GPA rank: "rank"
+    static StringBuilder rankedStudents(StringBuilder out, List<RankedStudent> students) {
+        out.append('[');
+        for (int i = 0; i < students.size(); i++) {
+            studentFields(out.append(i > 0 ? "," : ""), students.get(i).getStudent());
+            out.append(",\"rank\":").append(students.get(i).getRank()).append('}');
+        }
+        return out.append(']');
+    }
+    
+    static StringBuilder students(StringBuilder out, List<Student> students) {
+        out.append('[');
+        for (int i = 0; i < students.size(); i++) {
+            student(out.append(i > 0 ? "," : ""), students.get(i));
+        }
+        return out.append(']');
+    }
+    
+    /*
+     * The helpers below write the fields of an answer after ones the caller has already
+     * started (e.g. a batch line number), so they begin with a comma and leave the object open
+     */
+    
+    // "ids" lists the id of each match, in the same order
+    static StringBuilder searchResult(StringBuilder out, String query, List<Student> matches, IntArray ids,
+                                      List<NameMatch> suggestions) {
+        string(out.append(",\"query\":"), query);
+        students(out.append(",\"matches\":"), matches);
+        out.append(",\"ids\":[");
+        for (int i = 0; i < ids.size(); i++) {
+            out.append(i > 0 ? "," : "").append(ids.get(i));
+        }
+        return nameMatches(out.append("],\"suggestions\":"), suggestions);
+    }
+    
+    static StringBuilder identifiedStudent(StringBuilder out, int id, Student student) {
+        out.append(",\"id\":").append(id);
+        return student(out.append(",\"student\":"), student);
+    }
+    
+    static StringBuilder statistics(StringBuilder out, StudentStatistics stats) {
+        out.append(",\"count\":").append(stats.getCount());
+        out.append(",\"activeCount\":").append(stats.getActiveCount());
+        
+        // Averages and ranges of an empty roster are meaningless, so they are null
+        boolean empty = stats.getCount() == 0;
+        number(out.append(",\"averageAge\":"), empty ? Double.NaN : stats.getAverageAge());
+        number(out.append(",\"minAge\":"), empty ? Double.NaN : stats.getMinAge());
+        number(out.append(",\"maxAge\":"), empty ? Double.NaN : stats.getMaxAge());
+        number(out.append(",\"ageStdDev\":"), empty ? Double.NaN : Math.sqrt(stats.getAgeVariance()));
+        number(out.append(",\"averageGpa\":"), empty ? Double.NaN : stats.getAverageGpa());
+        number(out.append(",\"minGpa\":"), empty ? Double.NaN : stats.getMinGpa());
+        number(out.append(",\"maxGpa\":"), empty ? Double.NaN : stats.getMaxGpa());
+        number(out.append(",\"gpaStdDev\":"), empty ? Double.NaN : Math.sqrt(stats.getGpaVariance()));
+        
+        out.append(",\"grades\":{");
+        for (int i = 0; i < Student.GRADE_LETTERS.length; i++) {
+            string(out.append(i > 0 ? "," : ""), Student.GRADE_LETTERS[i]).append(':').append(stats.getGradeCount(i));
+        }
+        return students(out.append("},\"topStudents\":"), stats.getTopStudents());
+    }
+    
+    static StringBuilder page(StringBuilder out, StudentPageRequest request) {
+        out.append(",\"total\":").append(StudentDatabase.count(request.getActiveFilter()));
+        out.append(",\"offset\":").append(request.getOffset()).append(",\"students\":[");
+        try (Stream<Student> students = StudentDatabase.list(request)) {
+            Iterator<Student> page = students.iterator();
+            for (boolean first = true; page.hasNext(); first = false) {
+                student(out.append(first ? "" : ","), page.next());
+            }
+        }
+        return out.append(']');
+    }
+    
+    /**
+     * 🎯 Query answer: how many students matched, and the first 'limit' of them
+     */
+    static StringBuilder queryResult(StringBuilder out, List<Student> matches, int limit) {
+        out.append(",\"count\":").append(matches.size()).append(",\"students\":");
+        return students(out, matches.subList(0, Math.min(limit, matches.size())));
+    }
+    
+    /**
+     * 📊 Group-by report: how many students went in, then one object per group with its keys
+     * and columns, e.g. {"age":20,"grade":"B+","count":12,"avgGpa":3.41}
+     */
+    static StringBuilder groups(StringBuilder out, StudentGroups groups) {
+        List<StudentGroupQuery.Dimension> dimensions = groups.getQuery().getDimensions();
+        List<StudentGroupQuery.Column> columns = groups.getQuery().getColumns();
+        // "count", "avgGpa", "maxAge" - field names for the columns
+        String[] names = new String[columns.size()];
+        for (int c = 0; c < names.length; c++) {
+            StudentGroupQuery.Column column = columns.get(c);
+            String measure = column.getMeasure() == null ? "" : column.getMeasure().name().toLowerCase(Locale.ROOT);
+            names[c] = column.getAggregate().name().toLowerCase(Locale.ROOT)
+                + (measure.isEmpty() ? "" : Character.toUpperCase(measure.charAt(0)) + measure.substring(1));
+        }
+        
+        out.append(",\"rows\":").append(groups.getRowCount()).append(",\"groups\":[");
+        for (int g = 0; g < groups.getGroups().size(); g++) {
+            StudentGroups.Group group = groups.getGroups().get(g);
+            out.append(g > 0 ? ",{" : "{");
+            for (int d = 0; d < dimensions.size(); d++) {
+                out.append(d > 0 ? "," : "");
+                switch (dimensions.get(d)) {
+                    case AGE:
+                        out.append("\"age\":").append(group.getKey(d));
+                        break;
+                    case AGE_BAND:
+                        string(out.append("\"ageBand\":"), group.getLabel(d));
+                        break;
+                    case GRADE:
+                        string(out.append("\"grade\":"), group.getLabel(d));
+                        break;
+                    case ACTIVE:
+                        out.append("\"active\":").append(group.getKey(d) == 1);
+                        break;
+                    default:
+                        string(out.append("\"name\":"), group.getLabel(d));
+                }
+            }
+            for (int c = 0; c < names.length; c++) {
+                string(out.append(dimensions.isEmpty() && c == 0 ? "" : ","), names[c]).append(':');
+                number(out, group.getValue(c));
+            }
+            out.append('}');
+        }
+        return out.append(']');
+    }
+    
+    /**
+     * ✂️ Remove and return the "limit" option (default 20) that caps how many students are written
+     */
+    static int takeLimit(Map<String, String> options) {
+        String limit = options.remove("limit");
+        if (limit == null) {
+            return 20;
+        }
+        try {
+            int value = Integer.parseInt(limit.trim());
+            if (value >= 0) {
+                return value;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below together with negative numbers
+        }
+        throw new IllegalArgumentException("limit must be a non-negative number");
+    }
+    
+    /**
+     * 📥 Parse a flat JSON object such as {"name":"Ann","age":20,"gpa":3.5,"active":true}
+     * Question: Why only flat objects?
+     * Solution: Request bodies here are single records; strings, numbers, booleans and null
+     * cover them, and anything nested is rejected with a clear message
+     */
+    static Map<String, Object> parseObject(String text) {
+        JsonReader reader = new JsonReader(text);
+        Map<String, Object> values = reader.readObject();
+        reader.skipWhitespace();
+        if (!reader.atEnd()) {
+            throw reader.error("Unexpected text after the object");
+        }
+        return values;
+    }
+    
+    private static final class JsonReader {
+        private final String text;
+        private int position;
+        
+        JsonReader(String text) {
+            this.text = text;
+        }
+        
+        Map<String, Object> readObject() {
+            Map<String, Object> values = new HashMap<>();
+            expect('{');
+            skipWhitespace();
+            if (peek() == '}') {
+                position++;
+                return values;
+            }
+            while (true) {
+                skipWhitespace();
+                String key = readString();
+                skipWhitespace();
+                expect(':');
+                skipWhitespace();
+                values.put(key, readValue());
+                skipWhitespace();
+                if (peek() == ',') {
+                    position++;
+                } else {
+                    expect('}');
+                    return values;
+                }
+            }
+        }
+        
+        private Object readValue() {
+            char c = peek();
+            if (c == '"') {
+                return readString();
+            }
+            if (c == '{' || c == '[') {
+                throw error("Nested objects and arrays are not supported");
+            }
+            int start = position;
+            while (!atEnd() && ",}] \t\r\n".indexOf(text.charAt(position)) < 0) {
+                position++;
+            }
+            String word = text.substring(start, position);
+            switch (word) {
+                case "true":
+                    return Boolean.TRUE;
+                case "false":
+                    return Boolean.FALSE;
+                case "null":
+                    return null;
+                default:
+                    try {
+                        return Double.valueOf(word);
+                    } catch (NumberFormatException e) {
+                        throw error("Unexpected value '" + word + "'");
+                    }
+            }
+        }
+        
+        private String readString() {
+            expect('"');
+            StringBuilder value = new StringBuilder();
+            while (true) {
+                if (atEnd()) {
+                    throw error("Unterminated string");
+                }
+                char c = text.charAt(position++);
+                if (c == '"') {
+                    return value.toString();
+                }
+                if (c != '\\') {
+                    value.append(c);
+                    continue;
+                }
+                if (atEnd()) {
+                    throw error("Unterminated string");
+                }
+                char escaped = text.charAt(position++);
+                switch (escaped) {
+                    case 'b': value.append('\b'); break;
+                    case 'f': value.append('\f'); break;
+                    case 'n': value.append('\n'); break;
+                    case 'r': value.append('\r'); break;
+                    case 't': value.append('\t'); break;
+                    case 'u':
+                        if (position + 4 > text.length()) {
+                            throw error("Bad \\u escape");
+                        }
+                        try {
+                            value.append((char) Integer.parseInt(text.substring(position, position + 4), 16));
+                        } catch (NumberFormatException e) {
+                            throw error("Bad \\u escape");
+                        }
+                        position += 4;
+                        break;
+                    default:
+                        value.append(escaped);
+                }
+            }
+        }
+        
+        void skipWhitespace() {
+            while (!atEnd() && Character.isWhitespace(text.charAt(position))) {
+                position++;
+            }
+        }
+        
+        boolean atEnd() {
+            return position >= text.length();
+        }
+        
+        private char peek() {
+            if (atEnd()) {
+                throw error("Unexpected end of input");
+            }
+            return text.charAt(position);
+        }
+        
+        private void expect(char c) {
+            if (peek() != c) {
+                throw error("Expected '" + c + "'");
+            }
+            position++;
+        }
+        
+        IllegalArgumentException error(String message) {
+            return new IllegalArgumentException("Invalid JSON at position " + position + ": " + message);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package studentdb;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 📊 LatencyHistogram class - counts durations in buckets that grow with the value (HDR-style)
+ * Question: Why not keep every duration and sort them for percentiles?
+ * Solution: Millions of calls would need millions of longs; instead each power of two is split into
+ * 16 equal buckets, so any duration from 1 ns to minutes lands in one of 592 counters and is known
+ * to within 1/16 (about 6%)
+ */
+class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    // Durations of 2^40 ns (about 18 minutes) and more share the last bucket
+    private static final int MAX_EXPONENT = 39;
+    static final int BUCKETS = ((MAX_EXPONENT - SUB_BUCKET_BITS + 1) << SUB_BUCKET_BITS) + SUB_BUCKETS;
+    
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final AtomicLong max = new AtomicLong();
+    
+    /**
+     * ➕ Count one duration; lock-free, a single atomic increment in the common case
+     */
+    public void record(long nanos) {
+        buckets.incrementAndGet(bucketOf(nanos));
+        // Only the rare new maximum pays for a compare-and-set
+        long currentMax = max.get();
+        while (nanos > currentMax && !max.compareAndSet(currentMax, nanos)) {
+            currentMax = max.get();
+        }
+    }
+    
+    public long getMax() {
+        return max.get();
+    }
+    
+    /**
+     * 📸 Copy of the bucket counts (each bucket is read atomically, the whole array is not)
+     */
+    public long[] counts() {
+        long[] counts = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets.get(i);
+        }
+        return counts;
+    }
+    
+    static long total(long[] counts) {
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        return total;
+    }
+    
+    /**
+     * 🎯 The largest duration in the bucket that holds the given percentile; -1 with no samples
+     */
+    static long percentile(long[] counts, long total, double percentile) {
+        if (total == 0) {
+            return -1L;
+        }
+        long wanted = Math.max(1L, (long) Math.ceil(total * percentile / 100.0));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= wanted) {
+                return i == counts.length - 1 ? lowerBound(i) : lowerBound(i + 1) - 1;
+            }
+        }
+        return lowerBound(counts.length - 1);
+    }
+    
+    /**
+     * 🪣 Values below 16 get a bucket each; above that, the top 4 bits after the leading one pick
+     * the bucket within the value's power of two
+     */
+    static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) Math.max(value, 0L);
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        if (exponent > MAX_EXPONENT) {
+            return BUCKETS - 1;
+        }
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return ((exponent - SUB_BUCKET_BITS + 1) << SUB_BUCKET_BITS) + subBucket;
+    }
+    
+    static long lowerBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = (bucket >>> SUB_BUCKET_BITS) + SUB_BUCKET_BITS - 1;
+        long subBucket = bucket & (SUB_BUCKETS - 1);
+        return (SUB_BUCKETS + subBucket) << (exponent - SUB_BUCKET_BITS);
+    }
+}
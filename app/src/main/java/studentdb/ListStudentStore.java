@@ -0,0 +1,93 @@
+package studentdb;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * 📚 ListStudentStore class - one Student object per record
+ * Question: Why fixed-size segments instead of an ArrayList?
+ * Solution: ArrayList copies its array as it grows, which readers on other threads may observe
+ * half-done; filled segments never move, and the segment table is replaced rather than edited
+ */
+class ListStudentStore implements StudentStore {
+    private static final int SEGMENT_BITS = 10;
+    private static final int SEGMENT_SIZE = 1 << SEGMENT_BITS;
+    
+    private final NamePool namePool;
+    private volatile Student[][] segments = new Student[4][];
+    private volatile int[][] nameIdSegments = new int[4][];
+    private volatile int size;
+    
+    public ListStudentStore() {
+        this(new NamePool());
+    }
+    
+    public ListStudentStore(NamePool namePool) {
+        this.namePool = namePool;
+    }
+    
+    public void add(Student student) {
+        int nameId = namePool.internShared(student.getName());
+        String pooled = namePool.get(nameId);
+        if (pooled != student.getName()) {
+            // Keep the pooled copy of the name, so the one the caller read in can be collected
+            student = new Student(pooled, student.getAge(), student.getGpa(), student.isActive());
+        }
+        append(student, nameId);
+    }
+    
+    // A Student per row still, but each distinct name becomes a String once rather than per row
+    public void addAll(int count, int[] nameIds, byte[] ages, double[] gpas, BitSet active) {
+        for (int i = 0; i < count; i++) {
+            append(new Student(namePool.shared(nameIds[i]), ages[i], gpas[i], active.get(i)), nameIds[i]);
+        }
+    }
+    
+    private void append(Student student, int nameId) {
+        int row = size;
+        int segment = row >>> SEGMENT_BITS;
+        Student[][] table = segments;
+        int[][] idTable = nameIdSegments;
+        if (segment == table.length) {
+            table = Arrays.copyOf(table, table.length * 2);
+            idTable = Arrays.copyOf(idTable, idTable.length * 2);
+        }
+        if (table[segment] == null) {
+            table[segment] = new Student[SEGMENT_SIZE];
+            idTable[segment] = new int[SEGMENT_SIZE];
+        }
+        table[segment][row & (SEGMENT_SIZE - 1)] = student;
+        idTable[segment][row & (SEGMENT_SIZE - 1)] = nameId;
+        segments = table;
+        nameIdSegments = idTable;
+        size = row + 1;
+    }
+    
+    public Student get(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Row " + row + " out of bounds for size " + size);
+        }
+        return segments[row >>> SEGMENT_BITS][row & (SEGMENT_SIZE - 1)];
+    }
+    
+    public String getName(int row) { return get(row).getName(); }
+    
+    public int getNameId(int row) {
+        get(row); // bounds check
+        return nameIdSegments[row >>> SEGMENT_BITS][row & (SEGMENT_SIZE - 1)];
+    }
+    
+    public NamePool getNamePool() { return namePool; }
+    public int getAge(int row) { return get(row).getAge(); }
+    public double getGpa(int row) { return get(row).getGpa(); }
+    public Grade getGrade(int row) { return get(row).getGradeLevel(); }
+    public boolean isActive(int row) { return get(row).isActive(); }
+    public int size() { return size; }
+    
+    // The name pool is kept: it may be shared with the store this one replaced
+    public void clear() {
+        segments = new Student[4][];
+        nameIdSegments = new int[4][];
+        size = 0;
+    }
+}
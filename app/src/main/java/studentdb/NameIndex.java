@@ -0,0 +1,647 @@
+package studentdb;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 📇 NameIndex class - case-insensitive name lookups
+ * Question: How do we support both exact and "starts with" searches?
+ * Solution: A concurrent hash map for exact matches, plus a sorted array of the same keys
+ * for prefix ranges
+ */
+class NameIndex {
+    private static final RowList NO_ROWS = new RowList(1);
+    private static final int MIN_MERGE_SIZE = 1024;
+    
+    private final ConcurrentHashMap<String, RowList> exact;
+    
+    // Prefix index - new keys wait in 'pendingKeys' and are merged into the sorted array lazily
+    private String[] sortedKeys = new String[0];
+    private final ArrayList<String> pendingKeys = new ArrayList<>();
+    
+    // Fuzzy index - each distinct key gets an id in arrival order, and trigrams refer to ids, so a
+    // name shared by many students is indexed and compared once
+    private final TrigramIndex trigrams = new TrigramIndex();
+    // Keys below this have their trigrams indexed; findSimilar() indexes the rest in one go first,
+    // so loading a snapshot or adding students never waits for trigrams nobody has searched yet
+    private volatile int trigramKeys;
+    private String[] keysById = new String[1024];
+    // Key lengths (capped at Byte.MAX_VALUE), negative for names of several words - lets a search
+    // rank and drop candidates without touching their strings
+    private byte[] lengthsById = new byte[1024];
+    private volatile int keyCount;
+    
+    // Writer-only cache: rows of each pooled name id, so a repeated name skips folding and hashing
+    private RowList[] rowsByNameId = new RowList[1024];
+    
+    // Deleted rows stay listed under their name; searches skip them, and names left without a live row
+    private final Tombstones tombstones;
+    
+    // The first 'deferredRows' rows of this store are not indexed yet - see addLater()
+    private StudentStore deferredStore;
+    private volatile int deferredRows;
+    
+    NameIndex(Tombstones tombstones) {
+        this(tombstones, 16);
+    }
+    
+    // Sized for about this many distinct names up front, so a bulk build never grows the map
+    NameIndex(Tombstones tombstones, int expectedKeys) {
+        this.tombstones = tombstones;
+        this.exact = new ConcurrentHashMap<>(expectedKeys);
+    }
+    
+    /**
+     * 🔡 Fold a name so that equalsIgnoreCase() matches become equal keys
+     * Question: Why not just call toLowerCase()?
+     * Solution: equalsIgnoreCase() compares upper- then lower-cased chars; doing the same keeps results identical
+     */
+    public static String fold(String name) {
+        char[] chars = name.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toLowerCase(Character.toUpperCase(chars[i]));
+        }
+        return new String(chars);
+    }
+    
+    /**
+     * ➕ Index a row under its name; 'nameId' is the name's id in the store's NamePool
+     */
+    public void add(String name, int nameId, int row) {
+        indexDeferred();
+        if (!addKnown(nameId, row)) {
+            addNew(name, nameId, row);
+        }
+    }
+    
+    /**
+     * ⏳ Index rows 0..rows-1 of a store only when the index is first used - on a new index,
+     * before any add()
+     * Question: Why wait?
+     * Solution: Loading millions of students would otherwise wait for a folded copy and a map
+     * entry per distinct name before the database can answer anything. indexDeferred() does the
+     * work later in one go - in the background right after a load, or in whichever call needs it
+     */
+    void addLater(StudentStore store, int rows) {
+        deferredStore = store;
+        deferredRows = rows;
+    }
+    
+    /**
+     * ⏳ Index the rows handed to addLater(), if that is not done yet - every public method calls
+     * this first, so a caller that arrives while another thread is at it waits for it to finish
+     */
+    void indexDeferred() {
+        if (deferredRows == 0) {
+            return;
+        }
+        synchronized (this) {
+            int rows = deferredRows;
+            StudentStore store = deferredStore;
+            for (int row = 0; row < rows; row++) {
+                int nameId = store.getNameId(row);
+                if (!addKnown(nameId, row)) {
+                    addNew(store.getNamePool().get(nameId), nameId, row);
+                }
+            }
+            deferredStore = null;
+            deferredRows = 0;
+        }
+    }
+    
+    /**
+     * 🏗️ Build everything still left for later - the rows from addLater(), then the trigrams -
+     * so that the first lookups after a load find it done (call it from a background thread)
+     */
+    void indexEverything() {
+        indexDeferred();
+        int keys = keyCount;
+        indexTrigrams(keysById, keys);
+    }
+    
+    // Adds the row if its name id was seen before - no folding or hashing of the name needed
+    private boolean addKnown(int nameId, int row) {
+        if (nameId >= rowsByNameId.length) {
+            rowsByNameId = Arrays.copyOf(rowsByNameId, Math.max(nameId + 1, rowsByNameId.length * 2));
+        }
+        RowList rows = rowsByNameId[nameId];
+        if (rows == null) {
+            return false;
+        }
+        rows.add(row);
+        return true;
+    }
+    
+    private void addNew(String name, int nameId, int row) {
+        String key = fold(name);
+        RowList rows = exact.get(key);
+        if (rows == null) {
+            rows = new RowList();
+            rows.add(row);
+            // Publish the key only once it has a row; map first, so every sorted key has an entry
+            exact.put(key, rows);
+            addPendingKey(key);
+            addKeyId(key);
+        } else {
+            rows.add(row);
+        }
+        rowsByNameId[nameId] = rows;
+    }
+    
+    public RowList find(String name) {
+        indexDeferred();
+        RowList rows = exact.get(fold(name));
+        return rows != null ? rows : NO_ROWS;
+    }
+    
+    /**
+     * 🔤 Rows whose name starts with the prefix, in name order
+     * Question: Why a sorted array instead of a TreeSet?
+     * Solution: Inserting millions of keys into a tree costs a pointer chase per level; appending
+     * and sorting in bulk now and then is several times cheaper, and binary search is just as fast
+     */
+    public RowList findPrefix(String prefix, int limit) {
+        indexDeferred();
+        String key = fold(prefix);
+        List<String> matches = prefixKeys(key, limit);
+        RowList result = new RowList();
+        for (String candidate : matches) {
+            RowList rows = exact.get(candidate);
+            int count = rows.size();
+            for (int i = 0; i < count && result.size() < limit; i++) {
+                if (!tombstones.isDead(rows.get(i))) {
+                    result.add(rows.get(i));
+                }
+            }
+            if (result.size() >= limit) {
+                break;
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * 🪦 Whether some row with this folded name is still live - usually the first one is
+     */
+    private boolean hasLiveRow(String key) {
+        if (tombstones.isEmpty()) {
+            return true;
+        }
+        RowList rows = exact.get(key);
+        int count = rows.size();
+        for (int i = 0; i < count; i++) {
+            if (!tombstones.isDead(rows.get(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private synchronized void addPendingKey(String key) {
+        pendingKeys.add(key);
+    }
+    
+    private void addKeyId(String key) {
+        int id = keyCount;
+        if (id == keysById.length) {
+            keysById = Arrays.copyOf(keysById, id * 2);
+            lengthsById = Arrays.copyOf(lengthsById, id * 2);
+        }
+        keysById[id] = key;
+        int length = Math.min(key.length(), Byte.MAX_VALUE);
+        lengthsById[id] = (byte) (key.indexOf(' ') >= 0 ? -length : length);
+        keyCount = id + 1;
+    }
+    
+    /**
+     * 🔎 Names similar to the query, best first: exact, then starting with it, then containing
+     * it, then within a few typing mistakes
+     * Question: How many typing mistakes are allowed?
+     * Solution: Up to two, but fewer for short queries - two edits turn "bob" into almost any
+     * three-letter name, and the trigram filter can rule out next to nothing - so 1-2 characters
+     * allow none, 3-7 allow one and longer queries two
+     */
+    public List<KeyMatch> findSimilar(String query, int limit) {
+        indexDeferred();
+        String key = fold(query);
+        int keys = keyCount;
+        String[] names = keysById;
+        if (key.isEmpty() || keys == 0 || limit <= 0) {
+            return List.of();
+        }
+        indexTrigrams(names, keys);
+        
+        BestKeys best = new BestKeys(limit);
+        if (key.length() >= 3) {
+            findContaining(key, keys, names, best);
+        } else {
+            // One or two characters make no full trigram, but the padded ones say how each word starts
+            RowList starting = trigrams.postings(key.length() == 1
+                ? TrigramIndex.code(TrigramIndex.START, TrigramIndex.START, key.charAt(0))
+                : TrigramIndex.code(TrigramIndex.START, key.charAt(0), key.charAt(1)));
+            byte[] lengths = lengthsById;
+            int count = starting == null ? 0 : starting.size();
+            for (int i = 0; i < count; i++) {
+                int id = starting.get(i);
+                if (id >= keys) {
+                    break;
+                }
+                // The rank of a prefix match follows from its length, so most names are never read
+                int length = Math.abs(lengths[id]);
+                if (best.mayKeep(length == key.length() ? NameMatch.Kind.EXACT : NameMatch.Kind.PREFIX,
+                        0, (double) key.length() / length, id) && hasLiveRow(names[id])) {
+                    best.offer(key, id, names[id]);
+                }
+            }
+        }
+        
+        // Typos rank below every name containing the query, so once those fill the limit we are done
+        int maxDistance = key.length() <= 2 ? 0 : key.length() <= 7 ? 1 : 2;
+        if (maxDistance > 0 && !best.isFull()) {
+            findTypos(key, maxDistance, keys, names, best);
+        }
+        return best.ranked();
+    }
+    
+    /**
+     * 🧩 Catch the trigram index up with the first 'keys' keys
+     * Question: Two searches may arrive at once - who indexes?
+     * Solution: Whoever gets the lock; the other waits and then finds nothing left to do. The
+     * trigram index has one writer at a time, and searches that only read it never block
+     */
+    private void indexTrigrams(String[] names, int keys) {
+        if (trigramKeys >= keys) {
+            return;
+        }
+        synchronized (trigrams) {
+            int from = trigramKeys;
+            if (from < keys) {
+                trigrams.addAll(names, from, keys);
+                trigramKeys = keys;
+            }
+        }
+    }
+    
+    /**
+     * 📋 Rows of an already-folded key (as returned by findSimilar)
+     */
+    RowList rowsOfKey(String foldedKey) {
+        indexDeferred();
+        RowList rows = exact.get(foldedKey);
+        return rows != null ? rows : NO_ROWS;
+    }
+    
+    // Substring search: a name containing the query contains all of the query's own trigrams
+    private void findContaining(String key, int keys, String[] names, BestKeys best) {
+        long[] codes = new long[key.length()];
+        int count = TrigramIndex.trigrams(key, false, codes);
+        RowList[] lists = new RowList[count];
+        for (int i = 0; i < count; i++) {
+            lists[i] = trigrams.postings(codes[i]);
+            if (lists[i] == null) {
+                return;
+            }
+        }
+        // Walk the shortest list and skip ahead in the others - every list is sorted by id
+        Arrays.sort(lists, (a, b) -> Integer.compare(a.size(), b.size()));
+        int[] sizes = new int[count];
+        int[][] ids = snapshot(lists, keys, sizes);
+        int[] positions = new int[count];
+        byte[] lengths = lengthsById;
+        candidates:
+        for (int i = 0; i < sizes[0]; i++) {
+            int id = ids[0][i];
+            for (int j = 1; j < count; j++) {
+                positions[j] = seek(ids[j], sizes[j], positions[j], id);
+                if (positions[j] == sizes[j]) {
+                    return;
+                }
+                if (ids[j][positions[j]] != id) {
+                    continue candidates;
+                }
+            }
+            // At best this name is a prefix match of its length; if even that loses, leave it unread
+            int length = Math.abs(lengths[id]);
+            if (!best.mayKeep(length == key.length() ? NameMatch.Kind.EXACT : NameMatch.Kind.PREFIX,
+                    0, (double) key.length() / length, id)) {
+                continue;
+            }
+            // Sharing trigrams is not enough ("annan" vs "nanna"): check the real substring
+            if (names[id].contains(key) && hasLiveRow(names[id])) {
+                best.offer(key, id, names[id]);
+            }
+        }
+    }
+    
+    // The lists' backing arrays, with 'sizes' trimmed to the ids that existed when the search began
+    private static int[][] snapshot(RowList[] lists, int keys, int[] sizes) {
+        int[][] ids = new int[lists.length][];
+        for (int i = 0; i < lists.length; i++) {
+            int size = lists[i].size(); // size first: entries below it are final in whichever array we read
+            ids[i] = lists[i].array();
+            while (size > 0 && ids[i][size - 1] >= keys) {
+                size--;
+            }
+            sizes[i] = size;
+        }
+        return ids;
+    }
+    
+    // First position from 'from' on whose id is >= target: gallop forward, then binary search
+    private static int seek(int[] ids, int size, int from, int target) {
+        int low = from;
+        int high = from;
+        int step = 1;
+        while (high < size && ids[high] < target) {
+            low = high + 1;
+            high += step;
+            step <<= 1;
+        }
+        high = Math.min(high, size);
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (ids[middle] < target) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+    
+    /**
+     * ⌨️ Typo search
+     * Question: Which names can be within k edits of the query?
+     * Solution: One edit changes at most 3 padded trigrams, so such a name still shares at least
+     * (query trigrams - 3k) of them. A name sharing that many must appear in one of the shortest
+     * (lists - threshold + 1) lists, so only those are merged; the long ones are just stepped
+     * through alongside, since the candidates arrive in increasing id order
+     */
+    private void findTypos(String key, int maxDistance, int keys, String[] names, BestKeys best) {
+        long[] codes = new long[key.length() + 2];
+        int count = TrigramIndex.trigrams(key, true, codes);
+        int threshold = Math.max(1, count - 3 * maxDistance);
+        
+        RowList[] lists = new RowList[count];
+        for (int i = 0; i < count; i++) {
+            RowList list = trigrams.postings(codes[i]);
+            lists[i] = list != null ? list : NameIndex.NO_ROWS;
+        }
+        Arrays.sort(lists, (a, b) -> Integer.compare(a.size(), b.size()));
+        int shortLists = count - threshold + 1;
+        
+        int[] sizes = new int[count];
+        int[][] ids = snapshot(lists, keys, sizes);
+        
+        // Merge the short lists (all sorted by id), counting how many of them hold each id
+        byte[] lengths = lengthsById;
+        int shortest = key.length() - maxDistance;
+        int longest = key.length() + maxDistance;
+        int[] positions = new int[count];
+        while (true) {
+            int id = keys;
+            for (int i = 0; i < shortLists; i++) {
+                if (positions[i] < sizes[i]) {
+                    id = Math.min(id, ids[i][positions[i]]);
+                }
+            }
+            if (id == keys) {
+                break;
+            }
+            int shared = 0;
+            for (int i = 0; i < shortLists; i++) {
+                if (positions[i] < sizes[i] && ids[i][positions[i]] == id) {
+                    positions[i]++;
+                    shared++;
+                }
+            }
+            
+            // Only whole-name lengths can rule a name out; any word of a longer name might be the typo
+            int length = lengths[id];
+            if (length > 0 && length != Byte.MAX_VALUE && (length < shortest || length > longest)) {
+                continue;
+            }
+            for (int i = shortLists; i < count && shared < threshold && shared + (count - i) >= threshold; i++) {
+                positions[i] = seek(ids[i], sizes[i], positions[i], id);
+                if (positions[i] < sizes[i] && ids[i][positions[i]] == id) {
+                    shared++;
+                }
+            }
+            if (shared < threshold) {
+                continue;
+            }
+            String name = names[id];
+            // Names containing the query were already offered as substring matches
+            if (name.contains(key)) {
+                continue;
+            }
+            int distance = editDistance(key, name, maxDistance);
+            int comparedLength = name.length();
+            if (distance > maxDistance && length < 0) {
+                // A mistyped first or last name: compare with each word on its own
+                for (String word : name.split(" ")) {
+                    int wordDistance = editDistance(key, word, maxDistance);
+                    if (wordDistance < distance) {
+                        distance = wordDistance;
+                        comparedLength = word.length();
+                    }
+                }
+            }
+            if (distance <= maxDistance && hasLiveRow(name)) {
+                best.offerTypo(id, name, distance, 1.0 - (double) distance / Math.max(key.length(), comparedLength));
+            }
+        }
+    }
+    
+    /**
+     * ✏️ Levenshtein distance, giving up (returning limit + 1) as soon as it must exceed 'limit'
+     */
+    static int editDistance(String a, String b, int limit) {
+        if (Math.abs(a.length() - b.length()) > limit) {
+            return limit + 1;
+        }
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMinimum = i;
+            char c = a.charAt(i - 1);
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = c == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMinimum = Math.min(rowMinimum, current[j]);
+            }
+            if (rowMinimum > limit) {
+                return limit + 1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return Math.min(previous[b.length()], limit + 1);
+    }
+    
+    /**
+     * 🏅 BestKeys - keeps only the best 'limit' matches seen so far
+     * Question: Why not collect every match and sort?
+     * Solution: "a" is in a quarter of all names; a bounded heap (worst on top) keeps the work
+     * for the thousands that cannot make the cut to a single comparison each
+     */
+    private static final class BestKeys {
+        private final int limit;
+        private final PriorityQueue<KeyMatch> heap;
+        
+        BestKeys(int limit) {
+            this.limit = limit;
+            this.heap = new PriorityQueue<>(Math.min(limit, 256) + 1, Comparator.reverseOrder());
+        }
+        
+        boolean isFull() {
+            return heap.size() >= limit;
+        }
+        
+        // False when a match ranked like this is certain to lose to everything kept so far
+        boolean mayKeep(NameMatch.Kind kind, int distance, double similarity, int id) {
+            if (!isFull()) {
+                return true;
+            }
+            KeyMatch worst = heap.peek();
+            if (kind != worst.kind) {
+                return kind.compareTo(worst.kind) < 0;
+            }
+            if (distance != worst.distance) {
+                return distance < worst.distance;
+            }
+            if (similarity != worst.similarity) {
+                return similarity > worst.similarity;
+            }
+            return id < worst.id;
+        }
+        
+        // A name containing the query
+        void offer(String query, int id, String name) {
+            NameMatch.Kind kind = name.equals(query) ? NameMatch.Kind.EXACT
+                : name.startsWith(query) ? NameMatch.Kind.PREFIX
+                : NameMatch.Kind.SUBSTRING;
+            add(new KeyMatch(id, name, kind, 0, (double) query.length() / name.length()));
+        }
+        
+        void offerTypo(int id, String name, int distance, double similarity) {
+            add(new KeyMatch(id, name, NameMatch.Kind.TYPO, distance, similarity));
+        }
+        
+        private void add(KeyMatch match) {
+            if (heap.size() < limit) {
+                heap.add(match);
+            } else if (match.compareTo(heap.peek()) < 0) {
+                heap.poll();
+                heap.add(match);
+            }
+        }
+        
+        List<KeyMatch> ranked() {
+            List<KeyMatch> ranked = new ArrayList<>(heap);
+            ranked.sort(null);
+            return ranked;
+        }
+    }
+    
+    /**
+     * 🔎 KeyMatch - a matching folded name, ordered best first (ties: earliest added)
+     */
+    static final class KeyMatch implements Comparable<KeyMatch> {
+        final int id;
+        final String key;
+        final NameMatch.Kind kind;
+        final int distance;
+        final double similarity;
+        
+        KeyMatch(int id, String key, NameMatch.Kind kind, int distance, double similarity) {
+            this.id = id;
+            this.key = key;
+            this.kind = kind;
+            this.distance = distance;
+            this.similarity = similarity;
+        }
+        
+        @Override
+        public int compareTo(KeyMatch other) {
+            if (kind != other.kind) {
+                return kind.compareTo(other.kind);
+            }
+            if (distance != other.distance) {
+                return Integer.compare(distance, other.distance);
+            }
+            if (similarity != other.similarity) {
+                return Double.compare(other.similarity, similarity);
+            }
+            // Equally good names: the one on the roster first wins
+            return Integer.compare(id, other.id);
+        }
+    }
+    
+    /**
+     * 🔤 Every key in order - waiting keys are merged in first
+     */
+    synchronized String[] sortedKeys() {
+        indexDeferred();
+        if (!pendingKeys.isEmpty()) {
+            mergePendingKeys();
+        }
+        return sortedKeys;
+    }
+    
+    private synchronized List<String> prefixKeys(String key, int limit) {
+        // Question: When do we pay for sorting?
+        // Solution: Only once enough keys are waiting; a few stragglers are cheaper to check one by one
+        if (pendingKeys.size() >= Math.max(MIN_MERGE_SIZE, sortedKeys.length >>> 4)) {
+            mergePendingKeys();
+        }
+        
+        List<String> matches = new ArrayList<>();
+        // Binary search finds the first key >= prefix; all matches are contiguous from there
+        int index = Arrays.binarySearch(sortedKeys, key);
+        for (int i = index >= 0 ? index : -index - 1; i < sortedKeys.length && matches.size() < limit; i++) {
+            if (!sortedKeys[i].startsWith(key)) {
+                break;
+            }
+            if (hasLiveRow(sortedKeys[i])) {
+                matches.add(sortedKeys[i]);
+            }
+        }
+        for (String pending : pendingKeys) {
+            if (pending.startsWith(key) && hasLiveRow(pending)) {
+                matches.add(pending);
+            }
+        }
+        matches.sort(null);
+        return matches;
+    }
+    
+    private void mergePendingKeys() {
+        String[] added = pendingKeys.toArray(new String[0]);
+        Arrays.parallelSort(added);
+        String[] merged = new String[sortedKeys.length + added.length];
+        int i = 0;
+        int j = 0;
+        int k = 0;
+        while (i < sortedKeys.length && j < added.length) {
+            merged[k++] = sortedKeys[i].compareTo(added[j]) <= 0 ? sortedKeys[i++] : added[j++];
+        }
+        while (i < sortedKeys.length) {
+            merged[k++] = sortedKeys[i++];
+        }
+        while (j < added.length) {
+            merged[k++] = added[j++];
+        }
+        sortedKeys = merged;
+        pendingKeys.clear();
+    }
+}
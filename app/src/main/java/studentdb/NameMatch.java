@@ -0,0 +1,30 @@
+package studentdb;
+
+/**
+ * 🔎 NameMatch class - one result of a fuzzy name search and how close it is
+ */
+public class NameMatch {
+    /**
+     * How the name matched, best first
+     */
+    enum Kind { EXACT, PREFIX, SUBSTRING, TYPO }
+    
+    private final Student student;
+    private final Kind kind;
+    private final int distance;
+    private final double similarity;
+    
+    NameMatch(Student student, Kind kind, int distance, double similarity) {
+        this.student = student;
+        this.kind = kind;
+        this.distance = distance;
+        this.similarity = similarity;
+    }
+    
+    public Student getStudent() { return student; }
+    public Kind getKind() { return kind; }
+    // Typing mistakes (edits) between the query and the name; 0 unless kind is TYPO
+    public int getDistance() { return distance; }
+    // 1.0 for an exact match, lower for looser ones
+    public double getSimilarity() { return similarity; }
+}
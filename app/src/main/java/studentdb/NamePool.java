@@ -0,0 +1,407 @@
+package studentdb;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.CharBuffer;
+import java.util.Arrays;
+
+/**
+ * 🏷️ NamePool class - each distinct name stored once, numbered in arrival order
+ * Question: Why keep a thousand copies of "Maria Garcia"?
+ * Solution: Stores keep a small int id per student and the text of each distinct name lives
+ * here once, so equal names share memory and two rows have equal names exactly when their ids match
+ * 
+ * A name is kept in one of two forms. intern() packs its characters into one shared run of
+ * text, for stores that only need the text (ColumnarStudentStore, OffHeapStudentStore) - a
+ * String object costs ~40 bytes on top of its characters. internShared() keeps a String, for
+ * stores whose rows all point at the same object (ListStudentStore). The packed text is a char
+ * array, or direct memory for a pool made by offHeap().
+ */
+class NamePool {
+    // Packed name i spans text[offsets[i]] until text[offsets[i + 1]]; empty if it is a String
+    private final Text text;
+    private volatile int[] offsets = new int[1025];
+    // Shared String per id; null until internShared() is first used
+    private volatile String[] strings;
+    // Open addressing on String.hashCode(): each slot holds id + 1, 0 is empty; kept at most half full
+    private volatile int[] slots = new int[2048];
+    // Hash of each name, so probing past other names compares ints instead of chasing their text
+    private volatile int[] hashes = new int[1024];
+    // Written last in add(), so a reader that sees the new size also sees the new name
+    private volatile int size;
+    
+    NamePool() {
+        this(new HeapText());
+    }
+    
+    private NamePool(Text text) {
+        this.text = text;
+    }
+    
+    /**
+     * 🧊 A pool whose packed text lives outside the Java heap
+     */
+    static NamePool offHeap() {
+        return new NamePool(new DirectText());
+    }
+    
+    boolean isOffHeap() {
+        return text instanceof DirectText;
+    }
+    
+    /**
+     * ➕ Id of a name, adding it as packed text if it is new - writers only (the database holds
+     * its write lock)
+     */
+    int intern(String name) {
+        int slot = slotOf(name);
+        int id = slots[slot] - 1;
+        return id >= 0 ? id : add(name, slot, false);
+    }
+    
+    /**
+     * ➕ Id of a name, making sure get() returns one String object for it - writers only
+     */
+    int internShared(String name) {
+        int slot = slotOf(name);
+        int id = slots[slot] - 1;
+        if (id < 0) {
+            return add(name, slot, true);
+        }
+        String[] shared = sharedStrings();
+        if (shared[id] == null) {
+            // Added packed by a columnar store; the list store that replaced it wants the object
+            shared[id] = name;
+        }
+        return id;
+    }
+    
+    /**
+     * 🔗 The one String get() returns for an id from now on - writers only
+     */
+    String shared(int id) {
+        String[] shared = sharedStrings();
+        if (shared[id] == null) {
+            shared[id] = get(id);
+        }
+        return shared[id];
+    }
+    
+    /**
+     * 🔍 Id of a pooled name, or -1 - safe while another thread interns
+     */
+    int find(String name) {
+        int count = size;
+        int[] table = slots;
+        String[] shared = strings;
+        int[] ends = offsets;
+        int[] hashOf = hashes;
+        int hash = name.hashCode();
+        int mask = table.length - 1;
+        for (int slot = mix(hash) & mask; table[slot] != 0; slot = (slot + 1) & mask) {
+            int id = table[slot] - 1;
+            // Ids past 'count' are still being added; treat them as absent
+            if (id < count && hashOf[id] == hash && matches(id, name, shared, ends)) {
+                return id;
+            }
+        }
+        return -1;
+    }
+    
+    String get(int id) {
+        String[] shared = strings;
+        if (shared != null && shared[id] != null) {
+            return shared[id];
+        }
+        int[] ends = offsets;
+        return text.read(ends[id], ends[id + 1] - ends[id]);
+    }
+    
+    int length(int id) {
+        String[] shared = strings;
+        if (shared != null && shared[id] != null) {
+            return shared[id].length();
+        }
+        int[] ends = offsets;
+        return ends[id + 1] - ends[id];
+    }
+    
+    void appendTo(int id, StringBuilder out) {
+        String[] shared = strings;
+        if (shared != null && shared[id] != null) {
+            out.append(shared[id]);
+        } else {
+            int[] ends = offsets;
+            text.appendTo(ends[id], ends[id + 1] - ends[id], out);
+        }
+    }
+    
+    int size() { return size; }
+    
+    /**
+     * 📦 Fill an empty pool with 'count' distinct names packed one after another: name i is
+     * text[ends[i - 1]] until text[ends[i]] (from 0 for the first) - writers only
+     * Question: Why not intern() each name of a loaded snapshot?
+     * Solution: That builds a String per name only to copy its characters in; here the text is
+     * copied in one go, and only the hashes are worked out name by name, straight from it.
+     * The pool may keep the array behind a heap buffer, so the caller must not change it after
+     */
+    void load(CharBuffer names, int[] ends, int count) {
+        if (size != 0) {
+            throw new IllegalStateException("Only an empty pool can be loaded");
+        }
+        int[] starts = new int[count + 1];
+        System.arraycopy(ends, 0, starts, 1, count);
+        int[] hashOf = new int[Math.max(count, 1024)];
+        text.load(names, count == 0 ? 0 : ends[count - 1]);
+        for (int id = 0; id < count; id++) {
+            hashOf[id] = text.hash(starts[id], starts[id + 1] - starts[id]);
+        }
+        offsets = starts.length > 1025 ? starts : Arrays.copyOf(starts, 1025);
+        hashes = hashOf;
+        if (strings != null) {
+            strings = new String[hashOf.length];
+        }
+        int[] table = new int[Math.max(Integer.highestOneBit(Math.max(count, 1)) * 4, 2048)];
+        int mask = table.length - 1;
+        for (int id = 0; id < count; id++) {
+            int slot = mix(hashOf[id]) & mask;
+            for (; table[slot] != 0; slot = (slot + 1) & mask) {
+                int other = table[slot] - 1;
+                if (hashOf[other] == hashOf[id] && get(other).equals(get(id))) {
+                    throw new IllegalArgumentException("Name listed twice: " + get(id));
+                }
+            }
+            table[slot] = id + 1;
+        }
+        slots = table;
+        size = count;
+    }
+    
+    // The slot holding 'name', or the empty slot where it belongs
+    private int slotOf(String name) {
+        int[] table = slots;
+        int[] hashOf = hashes;
+        int hash = name.hashCode();
+        int mask = table.length - 1;
+        int slot = mix(hash) & mask;
+        while (table[slot] != 0 && (hashOf[table[slot] - 1] != hash
+                || !matches(table[slot] - 1, name, strings, offsets))) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+    
+    private int add(String name, int slot, boolean shared) {
+        // Arrays are grown by copying, so readers holding the old ones still see every older name
+        int id = size;
+        if (id == hashes.length) {
+            offsets = Arrays.copyOf(offsets, id * 2 + 1);
+            hashes = Arrays.copyOf(hashes, id * 2);
+            if (strings != null) {
+                strings = Arrays.copyOf(strings, id * 2);
+            }
+        }
+        hashes[id] = name.hashCode();
+        int[] ends = offsets;
+        int start = ends[id];
+        if (shared) {
+            sharedStrings()[id] = name;
+            ends[id + 1] = start;
+        } else {
+            text.write(start, name);
+            ends[id + 1] = start + name.length();
+        }
+        
+        int[] table = slots;
+        table[slot] = id + 1;
+        if ((id + 1) * 2 > table.length) {
+            slots = rehash(table.length * 2, id + 1);
+        }
+        size = id + 1;
+        return id;
+    }
+    
+    private String[] sharedStrings() {
+        if (strings == null) {
+            strings = new String[hashes.length];
+        }
+        return strings;
+    }
+    
+    private boolean matches(int id, String name, String[] shared, int[] ends) {
+        if (shared != null && shared[id] != null) {
+            return shared[id].equals(name);
+        }
+        int start = ends[id];
+        return ends[id + 1] - start == name.length() && text.matches(start, name);
+    }
+    
+    private int[] rehash(int capacity, int count) {
+        int[] table = new int[capacity];
+        int mask = capacity - 1;
+        int[] hashOf = hashes;
+        for (int id = 0; id < count; id++) {
+            int slot = mix(hashOf[id]) & mask;
+            while (table[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = id + 1;
+        }
+        return table;
+    }
+    
+    private static int mix(int hash) {
+        int h = hash * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+    
+    /**
+     * 📜 Text - one growing run of characters, written once and only ever appended to
+     */
+    private interface Text {
+        void write(int start, String name);
+        // Replace the (empty) text with the first 'length' characters of 'source'
+        void load(CharBuffer source, int length);
+        int hash(int start, int length);
+        boolean matches(int start, String name);
+        String read(int start, int length);
+        void appendTo(int start, int length, StringBuilder out);
+    }
+    
+    private static final class HeapText implements Text {
+        private volatile char[] chars = new char[4096];
+        
+        public void write(int start, String name) {
+            int end = start + name.length();
+            if (end > chars.length) {
+                chars = Arrays.copyOf(chars, Math.max(end, chars.length * 2));
+            }
+            name.getChars(0, name.length(), chars, start);
+        }
+        
+        public void load(CharBuffer source, int length) {
+            if (source.hasArray() && source.arrayOffset() + source.position() == 0) {
+                // Already a char array holding just the names - keep it rather than copy it
+                chars = source.array();
+                source.position(length);
+                return;
+            }
+            char[] loaded = new char[Math.max(length, 4096)];
+            source.get(loaded, 0, length);
+            chars = loaded;
+        }
+        
+        // Same as String.hashCode() of the name
+        public int hash(int start, int length) {
+            char[] current = chars;
+            int hash = 0;
+            for (int i = start; i < start + length; i++) {
+                hash = 31 * hash + current[i];
+            }
+            return hash;
+        }
+        
+        public boolean matches(int start, String name) {
+            char[] current = chars;
+            for (int i = 0; i < name.length(); i++) {
+                if (current[start + i] != name.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        
+        public String read(int start, int length) {
+            return new String(chars, start, length);
+        }
+        
+        public void appendTo(int start, int length, StringBuilder out) {
+            out.append(chars, start, length);
+        }
+    }
+    
+    /**
+     * 🧊 DirectText - the characters in fixed-size direct buffers that never move
+     * A name may run from the end of one buffer into the next, so it is read a char at a time
+     * (names are short; the JIT turns each read into a plain memory load)
+     */
+    private static final class DirectText implements Text {
+        private static final int CHUNK_BITS = 20; // 1M chars = 2 MB per buffer
+        private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+        private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+        
+        private volatile CharBuffer[] chunks = new CharBuffer[16];
+        
+        public void write(int start, String name) {
+            if ((long) start + name.length() > Integer.MAX_VALUE) {
+                throw new IllegalStateException("Off-heap name text is full (2^31 characters)");
+            }
+            for (int i = 0; i < name.length(); i++) {
+                int position = start + i;
+                chunkForWrite(position >>> CHUNK_BITS).put(position & CHUNK_MASK, name.charAt(i));
+            }
+        }
+        
+        public void load(CharBuffer source, int length) {
+            for (int start = 0; start < length; start += CHUNK_SIZE) {
+                int end = Math.min(start + CHUNK_SIZE, length);
+                CharBuffer chunk = chunkForWrite(start >>> CHUNK_BITS).duplicate();
+                chunk.put(source.duplicate().position(source.position() + start).limit(source.position() + end));
+            }
+            source.position(source.position() + length);
+        }
+        
+        public int hash(int start, int length) {
+            CharBuffer[] table = chunks;
+            int hash = 0;
+            for (int i = 0; i < length; i++) {
+                int position = start + i;
+                hash = 31 * hash + table[position >>> CHUNK_BITS].get(position & CHUNK_MASK);
+            }
+            return hash;
+        }
+        
+        public boolean matches(int start, String name) {
+            CharBuffer[] table = chunks;
+            for (int i = 0; i < name.length(); i++) {
+                int position = start + i;
+                if (table[position >>> CHUNK_BITS].get(position & CHUNK_MASK) != name.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        
+        public String read(int start, int length) {
+            char[] copy = new char[length];
+            CharBuffer[] table = chunks;
+            for (int i = 0; i < length; i++) {
+                int position = start + i;
+                copy[i] = table[position >>> CHUNK_BITS].get(position & CHUNK_MASK);
+            }
+            return new String(copy);
+        }
+        
+        public void appendTo(int start, int length, StringBuilder out) {
+            CharBuffer[] table = chunks;
+            for (int i = 0; i < length; i++) {
+                int position = start + i;
+                out.append(table[position >>> CHUNK_BITS].get(position & CHUNK_MASK));
+            }
+        }
+        
+        private CharBuffer chunkForWrite(int index) {
+            CharBuffer[] table = chunks;
+            if (index == table.length) {
+                table = Arrays.copyOf(table, table.length * 2);
+            }
+            if (table[index] == null) {
+                table[index] = ByteBuffer.allocateDirect(CHUNK_SIZE * Character.BYTES)
+                    .order(ByteOrder.nativeOrder()).asCharBuffer();
+            }
+            chunks = table;
+            return table[index];
+        }
+    }
+}
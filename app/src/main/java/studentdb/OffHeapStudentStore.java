@@ -0,0 +1,166 @@
+package studentdb;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * 🧊 OffHeapStudentStore class - fixed-size records in direct memory
+ * Question: Why keep students outside the Java heap at all?
+ * Solution: Tens of millions of students become a few hundred MB of plain bytes that the
+ * garbage collector never scans or copies; the heap keeps only a table of buffers, so GC
+ * pauses stay short however large the roster grows
+ * 
+ * Each row is an 8-byte record: name id (int), GPA in hundredths (short), age (byte) and flags
+ * (active, grade, and whether the GPA is kept exactly on the side). Names live in an off-heap
+ * NamePool. Records are grouped into buffers that never move, like ListStudentStore's segments,
+ * so readers on other threads always see whole rows.
+ * (Java 17's foreign memory API is still incubating, so direct ByteBuffers play the part of MemorySegments.)
+ */
+class OffHeapStudentStore implements StudentStore {
+    private static final int RECORD_SIZE = 8;
+    private static final int NAME_ID = 0;
+    private static final int GPA = 4;
+    private static final int AGE = 6;
+    private static final int FLAGS = 7;
+    
+    private static final int ACTIVE = 1;
+    // GPA is not a whole number of hundredths (e.g. 3.456); its exact value is in wideGpas
+    private static final int WIDE_GPA = 2;
+    private static final int GRADE_SHIFT = 2;
+    
+    private static final int CHUNK_BITS = 17; // 128K records = 1 MB per buffer
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    
+    private final NamePool namePool;
+    private volatile ByteBuffer[] chunks = new ByteBuffer[16];
+    // Rows with a wide GPA in ascending order, and their GPAs - rare, so found by binary search
+    private volatile int[] wideGpaRows = new int[16];
+    private volatile double[] wideGpas = new double[16];
+    private volatile int wideGpaCount;
+    // Written last in add(), so a reader that sees the new size also sees the new row
+    private volatile int size;
+    
+    public OffHeapStudentStore() {
+        this(NamePool.offHeap());
+    }
+    
+    public OffHeapStudentStore(NamePool namePool) {
+        this.namePool = namePool;
+    }
+    
+    public void add(Student student) {
+        checkAge(student.getAge());
+        addRecord(namePool.intern(student.getName()), student.getAge(), student.getGpa(), student.isActive());
+    }
+    
+    // Records are written straight from the columns
+    public void addAll(int count, int[] nameIds, byte[] ages, double[] gpas, BitSet active) {
+        for (int i = 0; i < count; i++) {
+            checkAge(ages[i]);
+            addRecord(nameIds[i], ages[i], gpas[i], active.get(i));
+        }
+    }
+    
+    private static void checkAge(int age) {
+        if (age < 0 || age > 0xFF) {
+            throw new IllegalArgumentException("Age " + age + " does not fit an off-heap record");
+        }
+    }
+    
+    private void addRecord(int nameId, int age, double gpa, boolean isActive) {
+        long hundredths = Math.round(gpa * 100);
+        boolean wide = Double.compare(hundredths / 100.0, gpa) != 0
+            || hundredths < Short.MIN_VALUE || hundredths > Short.MAX_VALUE;
+        
+        int row = size;
+        ByteBuffer chunk = chunkForWrite(row >>> CHUNK_BITS);
+        int at = (row & (CHUNK_SIZE - 1)) * RECORD_SIZE;
+        chunk.putInt(at + NAME_ID, nameId);
+        chunk.putShort(at + GPA, wide ? 0 : (short) hundredths);
+        chunk.put(at + AGE, (byte) age);
+        chunk.put(at + FLAGS, (byte) ((isActive ? ACTIVE : 0) | (wide ? WIDE_GPA : 0)
+            | Grade.of(gpa).ordinal() << GRADE_SHIFT));
+        if (wide) {
+            addWideGpa(row, gpa);
+        }
+        size = row + 1;
+    }
+    
+    /**
+     * 🏭 Materialise a Student only when a caller really needs the object
+     */
+    public Student get(int row) {
+        return new Student(getName(row), getAge(row), getGpa(row), isActive(row));
+    }
+    
+    public String getName(int row) { return namePool.get(getNameId(row)); }
+    
+    public void appendName(int row, StringBuilder out) {
+        namePool.appendTo(getNameId(row), out);
+    }
+    
+    public int getNameId(int row) { return chunk(row).getInt(offset(row) + NAME_ID); }
+    public NamePool getNamePool() { return namePool; }
+    public int getAge(int row) { return chunk(row).get(offset(row) + AGE) & 0xFF; }
+    
+    public double getGpa(int row) {
+        ByteBuffer chunk = chunk(row);
+        int at = offset(row);
+        if ((chunk.get(at + FLAGS) & WIDE_GPA) != 0) {
+            // Count first: arrays read after it are at least that long
+            int count = wideGpaCount;
+            return wideGpas[Arrays.binarySearch(wideGpaRows, 0, count, row)];
+        }
+        return chunk.getShort(at + GPA) / 100.0;
+    }
+    
+    public Grade getGrade(int row) {
+        return Grade.ofOrdinal((chunk(row).get(offset(row) + FLAGS) & 0xFF) >>> GRADE_SHIFT);
+    }
+    
+    public boolean isActive(int row) { return (chunk(row).get(offset(row) + FLAGS) & ACTIVE) != 0; }
+    public int size() { return size; }
+    
+    // The buffers are freed by the garbage collector once nothing refers to them
+    public void clear() {
+        size = 0;
+        chunks = new ByteBuffer[16];
+        wideGpaCount = 0;
+    }
+    
+    private ByteBuffer chunk(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Row " + row + " out of bounds for size " + size);
+        }
+        return chunks[row >>> CHUNK_BITS];
+    }
+    
+    private static int offset(int row) {
+        return (row & (CHUNK_SIZE - 1)) * RECORD_SIZE;
+    }
+    
+    private ByteBuffer chunkForWrite(int index) {
+        ByteBuffer[] table = chunks;
+        if (index == table.length) {
+            table = Arrays.copyOf(table, table.length * 2);
+        }
+        if (table[index] == null) {
+            table[index] = ByteBuffer.allocateDirect(CHUNK_SIZE * RECORD_SIZE).order(ByteOrder.nativeOrder());
+        }
+        chunks = table;
+        return table[index];
+    }
+    
+    private void addWideGpa(int row, double gpa) {
+        int count = wideGpaCount;
+        if (count == wideGpaRows.length) {
+            wideGpaRows = Arrays.copyOf(wideGpaRows, count * 2);
+            wideGpas = Arrays.copyOf(wideGpas, count * 2);
+        }
+        wideGpaRows[count] = row;
+        wideGpas[count] = gpa;
+        wideGpaCount = count + 1;
+    }
+}
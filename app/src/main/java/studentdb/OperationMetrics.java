@@ -0,0 +1,374 @@
+package studentdb;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 📈 OperationMetrics class - call counts, latency histograms and allocation per database operation
+ * Question: How do we measure operations that take well under a microsecond without slowing them down?
+ * Solution: Each thread counts its own calls in plain fields - no locks and no atomic instructions,
+ * which would stop the CPU overlapping one lookup's cache misses with the next. An untimed call does
+ * nothing else: it bumps its counter and a countdown, and only when the countdown runs out does it
+ * look at anything shared. The clock and the allocation counter (about 70 ns together) are then read
+ * for the first WARM_UP_SAMPLES calls of each operation; after that the clock is read for about one
+ * call in SAMPLE_EVERY, and the allocation counter for one of every ALLOCATION_SAMPLE_EVERY of those
+ *
+ * Usage around an operation:
+ *   OperationMetrics.Recorder metrics = OperationMetrics.start(OperationMetrics.Operation.SEARCH);
+ *   ...
+ *   OperationMetrics.finish(OperationMetrics.Operation.SEARCH, metrics, matches.size());
+ */
+public class OperationMetrics {
+    // Public so the menu's help text quotes the same numbers the report is built from
+    public static final int SAMPLE_EVERY = 128;
+    // Reading the allocation counter is a native call, so only one timed call in this many does it
+    public static final int ALLOCATION_SAMPLE_EVERY = 8;
+    public static final int WARM_UP_SAMPLES = 1024;
+    // Forget finished threads (e.g. one virtual thread per HTTP request) after this many new ones
+    private static final int RETIRE_EVERY = 256;
+    // Slots in the cache of recent threads' recorders; a power of two
+    private static final int RECENT_RECORDERS = 256;
+    
+    /**
+     * 🏷️ The measured operations; 'records' is what one call handles (students added, found, printed...)
+     */
+    enum Operation {
+        ADD("add"),
+        SEARCH("search"),
+        NAME_SEARCH("find"),
+        STATISTICS("statistics"),
+        LEADERBOARD("leaderboard"),
+        RANK("rank"),
+        GROUP("group"),
+        UPDATE("update"),
+        DELETE("delete"),
+        RENDER("render");
+        
+        private final String label;
+        
+        Operation(String label) {
+            this.label = label;
+        }
+        
+        public String getLabel() { return label; }
+    }
+    
+    private static final int OPERATIONS = Operation.values().length;
+    
+    private static volatile boolean enabled = !"false".equals(System.getProperty("students.metrics"));
+    
+    // Timed calls are rare enough to share lock-free counters between all threads
+    private static volatile TimedCalls[] timed = newTimedCalls();
+    
+    // Every thread that has recorded something; guarded by synchronized (recorders)
+    private static final List<Recorder> recorders = new ArrayList<>();
+    private static final long[] retiredCalls = new long[OPERATIONS];
+    private static final long[] retiredRecords = new long[OPERATIONS];
+    private static final long[] baselineCalls = new long[OPERATIONS];
+    private static final long[] baselineRecords = new long[OPERATIONS];
+    private static int registrations;
+    
+    private static final ThreadLocal<Recorder> RECORDER = ThreadLocal.withInitial(OperationMetrics::register);
+    // Recorders by thread id, so most calls find theirs with one array read instead of a ThreadLocal
+    // lookup. Plain reads are safe: a Recorder's fields are final, and a stale slot only means a miss
+    private static final Recorder[] recentRecorders = new Recorder[RECENT_RECORDERS];
+    
+    // HotSpot counts the bytes each thread allocates; other VMs may not, and then we skip that column
+    private static final com.sun.management.ThreadMXBean ALLOCATIONS = allocationCounter();
+    
+    private OperationMetrics() {
+    }
+    
+    /**
+     * ⏱️ Begin one call; returns this thread's recorder, or null while metrics are off
+     */
+    static Recorder start(Operation operation) {
+        if (!enabled) {
+            return null;
+        }
+        Recorder recorder = recorder();
+        long[] slots = recorder.slots;
+        int slot = operation.ordinal() * Recorder.STRIDE;
+        slots[slot + Recorder.CALLS]++;
+        if (--slots[slot + Recorder.UNTIL_TIMED] <= 0) {
+            startTimer(slots, slot, operation.ordinal());
+        }
+        return recorder;
+    }
+    
+    /**
+     * ⏹️ End one call that handled 'records' records
+     */
+    static void finish(Operation operation, Recorder recorder, long records) {
+        if (recorder == null) {
+            return;
+        }
+        long[] slots = recorder.slots;
+        int slot = operation.ordinal() * Recorder.STRIDE;
+        slots[slot + Recorder.RECORDS] += records;
+        if (slots[slot + Recorder.TIMING] != 0) {
+            stopTimer(slots, slot, operation.ordinal());
+        }
+    }
+    
+    private static Recorder recorder() {
+        Thread thread = Thread.currentThread();
+        Recorder recorder = recentRecorders[(int) thread.getId() & (RECENT_RECORDERS - 1)];
+        return recorder != null && recorder.owner == thread ? recorder : cacheRecorder(thread);
+    }
+    
+    private static Recorder cacheRecorder(Thread thread) {
+        Recorder recorder = RECORDER.get();
+        recentRecorders[(int) thread.getId() & (RECENT_RECORDERS - 1)] = recorder;
+        return recorder;
+    }
+    
+    // Question: Why are the timed parts separate methods?
+    // Solution: start() and finish() are inlined into every measured operation; kept this small,
+    // they do not crowd out the inlining that makes the operations themselves fast
+    private static void startTimer(long[] slots, int slot, int index) {
+        // The warm-up is only looked at here, so untimed calls never read the shared counters. While
+        // it lasts, the countdown is 1 and every call comes here; after reset() it resumes at the next
+        // timed call. Otherwise vary the gap a little so calls in a fixed rhythm are not always skipped
+        boolean warmingUp = timed[index].warmUpLeft > 0;
+        slots[slot + Recorder.UNTIL_TIMED] = warmingUp
+            ? 1
+            : 1 + ThreadLocalRandom.current().nextInt(2 * SAMPLE_EVERY - 1);
+        slots[slot + Recorder.TIMING] = Recorder.TIMING_CLOCK;
+        if (ALLOCATIONS != null && (--slots[slot + Recorder.UNTIL_ALLOCATION] <= 0 || warmingUp)) {
+            slots[slot + Recorder.UNTIL_ALLOCATION] = ALLOCATION_SAMPLE_EVERY;
+            slots[slot + Recorder.TIMING] = Recorder.TIMING_CLOCK_AND_ALLOCATION;
+            slots[slot + Recorder.START_BYTES] = ALLOCATIONS.getCurrentThreadAllocatedBytes();
+        }
+        slots[slot + Recorder.START_NANOS] = System.nanoTime();
+    }
+    
+    private static void stopTimer(long[] slots, int slot, int index) {
+        long nanos = System.nanoTime() - slots[slot + Recorder.START_NANOS];
+        TimedCalls calls = timed[index];
+        if (slots[slot + Recorder.TIMING] == Recorder.TIMING_CLOCK_AND_ALLOCATION) {
+            calls.bytes.add(ALLOCATIONS.getCurrentThreadAllocatedBytes() - slots[slot + Recorder.START_BYTES]);
+            calls.allocationSamples.increment();
+        }
+        slots[slot + Recorder.TIMING] = 0;
+        
+        calls.latency.record(nanos);
+        calls.nanos.add(nanos);
+        if (calls.warmUpLeft > 0) {
+            // Racing threads may both decrement once; that only ends the warm-up a little later
+            calls.warmUpLeft--;
+        }
+    }
+    
+    public static boolean isEnabled() {
+        return enabled;
+    }
+    
+    public static void setEnabled(boolean on) {
+        enabled = on;
+    }
+    
+    /**
+     * 🧹 Start counting from zero
+     * Question: How do we clear counters that other threads are writing without locking them?
+     * Solution: We don't - today's totals become a baseline that reports subtract
+     */
+    public static void reset() {
+        synchronized (recorders) {
+            for (int i = 0; i < OPERATIONS; i++) {
+                baselineCalls[i] = sum(i, true);
+                baselineRecords[i] = sum(i, false);
+            }
+            timed = newTimedCalls();
+        }
+    }
+    
+    /**
+     * 🔢 How many calls of an operation have been counted (other threads' latest calls may be missing)
+     */
+    public static long getCalls(Operation operation) {
+        synchronized (recorders) {
+            return sum(operation.ordinal(), true) - baselineCalls[operation.ordinal()];
+        }
+    }
+    
+    /**
+     * 📋 A text table with one line per operation that has been called
+     */
+    public static String report() {
+        StringBuilder out = new StringBuilder();
+        out.append(String.format("%-12s %9s %10s %9s %9s %9s %9s %9s %10s%n",
+            "OPERATION", "CALLS", "RECORDS", "MEAN", "P50", "P90", "P99", "MAX", "ALLOC/CALL"));
+        boolean any = false;
+        for (Operation operation : Operation.values()) {
+            int index = operation.ordinal();
+            long calls;
+            long records;
+            synchronized (recorders) {
+                calls = sum(index, true) - baselineCalls[index];
+                records = sum(index, false) - baselineRecords[index];
+            }
+            if (calls == 0) {
+                continue;
+            }
+            any = true;
+            TimedCalls sampled = timed[index];
+            long[] counts = sampled.latency.counts();
+            long samples = LatencyHistogram.total(counts);
+            long allocationSamples = sampled.allocationSamples.sum();
+            // A bucket's upper end can lie above anything actually seen, so cap percentiles at the maximum
+            long max = sampled.latency.getMax();
+            out.append(String.format("%-12s %9d %10d %9s %9s %9s %9s %9s %10s%n",
+                operation.getLabel(), calls, records,
+                samples == 0 ? "-" : formatNanos(sampled.nanos.sum() / samples),
+                formatNanos(Math.min(LatencyHistogram.percentile(counts, samples, 50.0), max)),
+                formatNanos(Math.min(LatencyHistogram.percentile(counts, samples, 90.0), max)),
+                formatNanos(Math.min(LatencyHistogram.percentile(counts, samples, 99.0), max)),
+                samples == 0 ? "-" : formatNanos(max),
+                allocationSamples == 0 ? "-" : formatBytes(sampled.bytes.sum() / allocationSamples)));
+        }
+        if (!any) {
+            out.append(enabled ? "(no operations recorded yet)" : "(metrics are off: -Dstudents.metrics=false)")
+                .append(System.lineSeparator());
+        }
+        return out.toString();
+    }
+    
+    /**
+     * 💾 Write the report to a file, e.g. when the program exits with -Dstudents.metrics.report=metrics.txt
+     */
+    public static void writeReport(Path path) throws IOException {
+        Files.writeString(path, report(), StandardCharsets.UTF_8);
+    }
+    
+    // Calls (or records) from every thread, living or finished; the caller holds the recorders lock
+    private static long sum(int index, boolean calls) {
+        long total = calls ? retiredCalls[index] : retiredRecords[index];
+        int slot = index * Recorder.STRIDE + (calls ? Recorder.CALLS : Recorder.RECORDS);
+        for (Recorder recorder : recorders) {
+            total += recorder.slots[slot];
+        }
+        return total;
+    }
+    
+    private static Recorder register() {
+        Recorder recorder = new Recorder(Thread.currentThread());
+        synchronized (recorders) {
+            if (++registrations % RETIRE_EVERY == 0) {
+                retireFinishedThreads();
+            }
+            recorders.add(recorder);
+        }
+        return recorder;
+    }
+    
+    /**
+     * ⚰️ Fold the counts of threads that have ended into the retired totals and drop their recorders
+     * (once a thread has ended, isAlive() guarantees we see everything it wrote)
+     */
+    private static void retireFinishedThreads() {
+        // Drop finished threads from the cache too, so it does not keep them reachable
+        for (int i = 0; i < RECENT_RECORDERS; i++) {
+            Recorder recent = recentRecorders[i];
+            if (recent != null && !recent.owner.isAlive()) {
+                recentRecorders[i] = null;
+            }
+        }
+        recorders.removeIf(recorder -> {
+            if (recorder.owner.isAlive()) {
+                return false;
+            }
+            for (int i = 0; i < OPERATIONS; i++) {
+                retiredCalls[i] += recorder.slots[i * Recorder.STRIDE + Recorder.CALLS];
+                retiredRecords[i] += recorder.slots[i * Recorder.STRIDE + Recorder.RECORDS];
+            }
+            return true;
+        });
+    }
+    
+    private static TimedCalls[] newTimedCalls() {
+        TimedCalls[] calls = new TimedCalls[OPERATIONS];
+        for (int i = 0; i < OPERATIONS; i++) {
+            calls[i] = new TimedCalls();
+        }
+        return calls;
+    }
+    
+    private static String formatNanos(long nanos) {
+        if (nanos < 0) {
+            return "-";
+        }
+        if (nanos < 1_000) {
+            return nanos + " ns";
+        }
+        if (nanos < 1_000_000) {
+            return String.format("%.1f µs", nanos / 1e3);
+        }
+        if (nanos < 1_000_000_000) {
+            return String.format("%.1f ms", nanos / 1e6);
+        }
+        return String.format("%.2f s", nanos / 1e9);
+    }
+    
+    private static String formatBytes(long bytes) {
+        if (bytes < 1024) {
+            return bytes + " B";
+        }
+        if (bytes < 1024 * 1024) {
+            return String.format("%.1f KB", bytes / 1024.0);
+        }
+        return String.format("%.1f MB", bytes / (1024.0 * 1024.0));
+    }
+    
+    private static com.sun.management.ThreadMXBean allocationCounter() {
+        java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean counter = (com.sun.management.ThreadMXBean) threads;
+            if (counter.isThreadAllocatedMemorySupported() && counter.isThreadAllocatedMemoryEnabled()) {
+                return counter;
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * 🧵 Recorder - one thread's counters; only that thread writes them, reports just read them
+     * Question: Why one long[] instead of an array per counter?
+     * Solution: An operation's counters then share one 64-byte cache line, so a call touches
+     * one line instead of four. Each operation has its own line, so one may run inside another.
+     */
+    static final class Recorder {
+        static final int STRIDE = 8;
+        static final int CALLS = 0;
+        static final int RECORDS = 1;
+        static final int UNTIL_TIMED = 2;
+        static final int TIMING = 3;
+        static final int START_NANOS = 4;
+        static final int START_BYTES = 5;
+        static final int UNTIL_ALLOCATION = 6;
+        static final long TIMING_CLOCK = 1;
+        static final long TIMING_CLOCK_AND_ALLOCATION = 2;
+        
+        private final Thread owner;
+        private final long[] slots = new long[OPERATIONS * STRIDE];
+        
+        private Recorder(Thread owner) {
+            this.owner = owner;
+        }
+    }
+    
+    private static final class TimedCalls {
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LongAdder nanos = new LongAdder();
+        private final LongAdder bytes = new LongAdder();
+        private final LongAdder allocationSamples = new LongAdder();
+        private volatile int warmUpLeft = WARM_UP_SAMPLES;
+    }
+}
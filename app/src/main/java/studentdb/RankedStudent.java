@@ -0,0 +1,21 @@
+package studentdb;
+
+/**
+ * 🏅 RankedStudent class - a student and their place in the GPA ranking
+ * Question: Why not just return students in order?
+ * Solution: Equal GPAs share a rank, so a position in a list is not the rank - a student tied
+ * for first is "#1" even when listed second
+ */
+public class RankedStudent {
+    private final Student student;
+    private final int rank;
+    
+    RankedStudent(Student student, int rank) {
+        this.student = student;
+        this.rank = rank;
+    }
+    
+    public Student getStudent() { return student; }
+    // 1 + the number of students with a higher GPA
+    public int getRank() { return rank; }
+}
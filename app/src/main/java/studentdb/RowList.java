@@ -0,0 +1,66 @@
+package studentdb;
+
+import java.util.Arrays;
+
+/**
+ * 🔢 RowList class - growable list of row numbers
+ * Question: Why not use ArrayList<Integer>?
+ * Solution: A plain int[] avoids boxing every row number into an Integer object
+ * 
+ * One thread may add while others read: read size() first, then only rows below it.
+ */
+class RowList {
+    private int[] rows;
+    private volatile int size;
+    // Rows written so far, including those append() has not published yet - writer only
+    private int written;
+    
+    public RowList() {
+        this(4);
+    }
+    
+    public RowList(int initialCapacity) {
+        rows = new int[Math.max(initialCapacity, 1)];
+    }
+    
+    public void add(int row) {
+        append(row);
+        size = written;
+    }
+    
+    /**
+     * ➕ Add a row that readers see only after the next add() or publish()
+     * Question: Why would a writer hold rows back?
+     * Solution: Publishing writes the volatile size, a memory fence on every row; a bulk writer
+     * filling millions of rows publishes each list once at the end instead
+     */
+    void append(int row) {
+        int count = written;
+        if (count == rows.length) {
+            rows = Arrays.copyOf(rows, count * 2);
+        }
+        rows[count] = row;
+        written = count + 1;
+    }
+    
+    void publish() {
+        size = written;
+    }
+    
+    // Whether the last row written (published or not) is this one - writer only
+    boolean endsWith(int row) {
+        return written > 0 && rows[written - 1] == row;
+    }
+    
+    public int get(int index) { return rows[index]; }
+    public int size() { return size; }
+    public boolean isEmpty() { return size == 0; }
+    
+    // The backing array; entries below a size() read before this call are final
+    int[] array() { return rows; }
+    
+    public int[] toArray() {
+        int count = size;
+        return Arrays.copyOf(rows, count);
+    }
+}
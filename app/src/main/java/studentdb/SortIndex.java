@@ -0,0 +1,229 @@
+package studentdb;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * 🗂️ SortIndex class - every row of a store in one sort order, reused until rows are appended
+ * Question: How do we list a million students by GPA without sorting them on every request?
+ * Solution: Each row's key and row number are packed into one long, (key << 32) | row, so the
+ * whole order is a single Arrays.parallelSort() over primitives - no comparator, no boxing, every
+ * core - and equal keys fall into insertion order by themselves. The sorted array is kept; rows
+ * appended later are packed and sorted on their own, then merged in with one linear pass
+ *
+ * Keys: ages as they are, grades by letter (A first), GPAs by gpaKey(), names by their position
+ * among the name index's sorted keys. Descending indexes flip the key, not the row, so ties still
+ * list the earlier student first. An index never changes once built; extendTo() returns a new one.
+ */
+final class SortIndex {
+    private static final int KEY_LIMIT = Integer.MAX_VALUE;
+    private static final long ROW_MASK = 0xFFFFFFFFL;
+    
+    private final StudentStore store;
+    private final StudentPageRequest.SortKey key;
+    private final boolean descending;
+    // (directed key << 32) | row, ascending, for rows 0 until entries.length
+    private final long[] entries;
+    // NAME only: the folded names in order; a row's key is the position of its name
+    private final String[] nameKeys;
+    // GPA only: some GPA lies between two hundredths, so odd-key runs need sortGpaGaps()
+    private final boolean gpaGaps;
+    
+    private SortIndex(StudentStore store, StudentPageRequest.SortKey key, boolean descending,
+                      long[] entries, String[] nameKeys, boolean gpaGaps) {
+        this.store = store;
+        this.key = key;
+        this.descending = descending;
+        this.entries = entries;
+        this.nameKeys = nameKeys;
+        this.gpaGaps = gpaGaps;
+        if (gpaGaps) {
+            sortGpaGaps();
+        }
+    }
+    
+    /**
+     * 🏗️ Sort the first 'size' rows of the store - any key except INSERTION; every one of those
+     * rows must already be in 'names'
+     */
+    static SortIndex build(StudentStore store, NameIndex names, StudentPageRequest.SortKey key,
+                           boolean descending, int size) {
+        switch (key) {
+            case INSERTION:
+                throw new IllegalArgumentException("Insertion order needs no sort index");
+            case NAME:
+                return byName(store, names, descending, size);
+            default:
+                long[] entries = new long[size];
+                boolean gpaGaps = pack(store, key, descending, 0, size, entries);
+                Arrays.parallelSort(entries);
+                return new SortIndex(store, key, descending, entries, null, gpaGaps);
+        }
+    }
+    
+    /**
+     * 🔤 Name order straight from the name index
+     * Question: Why is there no sort here?
+     * Solution: The name index already keeps its folded names sorted and each name's rows in
+     * increasing order, so walking the names and copying their rows yields the entries in order.
+     * That also avoids comparing millions of names, which costs far more than comparing longs
+     */
+    private static SortIndex byName(StudentStore store, NameIndex names, boolean descending, int size) {
+        String[] keys = names.sortedKeys();
+        long[] entries = new long[size];
+        int count = 0;
+        for (int i = 0; i < keys.length; i++) {
+            int position = descending ? keys.length - 1 - i : i;
+            RowList rows = names.rowsOfKey(keys[position]);
+            long keyBits = (long) direct(position, descending) << 32;
+            int rowCount = rows.size();
+            for (int j = 0; j < rowCount && rows.get(j) < size; j++) {
+                entries[count++] = keyBits | rows.get(j);
+            }
+        }
+        if (count != size) {
+            throw new IllegalStateException(size - count + " row(s) are not in the name index yet");
+        }
+        return new SortIndex(store, StudentPageRequest.SortKey.NAME, descending, entries, keys, false);
+    }
+    
+    /**
+     * ➕ The same order over the first 'size' rows (size >= size()): only the new rows are
+     * sorted, then merged with the rows already in order
+     * Question: What if a new row brings a name the index has never seen?
+     * Solution: The names after it move up one position. Old entries are renumbered in one pass,
+     * which keeps them in order, so they still need no sort
+     */
+    SortIndex extendTo(NameIndex names, int size) {
+        int from = entries.length;
+        if (size <= from) {
+            return this;
+        }
+        long[] sorted = entries;
+        String[] keys = nameKeys;
+        long[] added = new long[size - from];
+        boolean addedGaps = false;
+        if (key == StudentPageRequest.SortKey.NAME) {
+            keys = names.sortedKeys();
+            if (keys.length != nameKeys.length) {
+                sorted = renumber(keys);
+            }
+            for (int row = from; row < size; row++) {
+                int position = Arrays.binarySearch(keys, NameIndex.fold(store.getName(row)));
+                if (position < 0) {
+                    throw new IllegalStateException("Row " + row + " is not in the name index yet");
+                }
+                added[row - from] = ((long) direct(position, descending) << 32) | row;
+            }
+        } else {
+            addedGaps = pack(store, key, descending, from, size, added);
+        }
+        Arrays.parallelSort(added);
+        return new SortIndex(store, key, descending, merge(sorted, added), keys, gpaGaps || addedGaps);
+    }
+    
+    // New names were merged into the key order; move every old entry to its name's new position
+    private long[] renumber(String[] keys) {
+        int[] moved = new int[nameKeys.length];
+        int position = 0;
+        for (int old = 0; old < nameKeys.length; old++) {
+            // Merging keeps the same String objects, so identity finds each old key
+            while (keys[position] != nameKeys[old]) {
+                position++;
+            }
+            moved[old] = position++;
+        }
+        long[] renumbered = new long[entries.length];
+        for (int i = 0; i < entries.length; i++) {
+            int old = direct((int) (entries[i] >>> 32), descending);
+            renumbered[i] = ((long) direct(moved[old], descending) << 32) | (entries[i] & ROW_MASK);
+        }
+        return renumbered;
+    }
+    
+    int size() {
+        return entries.length;
+    }
+    
+    int rowAt(int position) {
+        return (int) (entries[position] & ROW_MASK);
+    }
+    
+    // Pack rows [from, to) into 'out'; true when a GPA fell between two hundredths
+    private static boolean pack(StudentStore store, StudentPageRequest.SortKey key, boolean descending,
+                                int from, int to, long[] out) {
+        boolean gaps = false;
+        for (int row = from; row < to; row++) {
+            int value;
+            switch (key) {
+                case AGE:
+                    value = store.getAge(row);
+                    break;
+                case GPA:
+                    value = gpaKey(store.getGpa(row));
+                    gaps |= (value & 1) != 0;
+                    break;
+                default:
+                    value = store.getGrade(row).ordinal();
+            }
+            out[row - from] = ((long) direct(value, descending) << 32) | row;
+        }
+        return gaps;
+    }
+    
+    private static int direct(int value, boolean descending) {
+        return descending ? KEY_LIMIT - value : value;
+    }
+    
+    /**
+     * 🎓 Order-keeping key of a GPA
+     * Question: How does a double fit in 31 bits without losing its order?
+     * Solution: Almost every GPA is a whole number of hundredths (3.45), which gets the even key
+     * 2 x 345. Anything between two hundredths gets the odd key between theirs; those rare rows
+     * are then put in exact order by sortGpaGaps()
+     */
+    static int gpaKey(double gpa) {
+        long hundredths = Math.round(gpa * 100);
+        double whole = hundredths / 100.0;
+        long key = 2 * hundredths + (gpa > whole ? 1 : gpa < whole ? -1 : 0);
+        return (int) Math.max(0L, Math.min(key, KEY_LIMIT));
+    }
+    
+    // Runs of one odd GPA key hold GPAs between the same two hundredths, in row order; sort them exactly
+    private void sortGpaGaps() {
+        Comparator<Integer> byGpa = (a, b) -> Double.compare(store.getGpa(a), store.getGpa(b));
+        Comparator<Integer> order = (descending ? byGpa.reversed() : byGpa).thenComparing(Comparator.naturalOrder());
+        int start = 0;
+        while (start < entries.length) {
+            int end = start + 1;
+            while (end < entries.length && (entries[end] >>> 32) == (entries[start] >>> 32)) {
+                end++;
+            }
+            if ((direct((int) (entries[start] >>> 32), descending) & 1) != 0 && end - start > 1) {
+                Integer[] rows = new Integer[end - start];
+                for (int i = start; i < end; i++) {
+                    rows[i - start] = rowAt(i);
+                }
+                Arrays.sort(rows, order);
+                long keyBits = entries[start] & ~ROW_MASK;
+                for (int i = start; i < end; i++) {
+                    entries[i] = keyBits | rows[i - start];
+                }
+            }
+            start = end;
+        }
+    }
+    
+    private static long[] merge(long[] left, long[] right) {
+        long[] merged = new long[left.length + right.length];
+        int i = 0;
+        int j = 0;
+        int k = 0;
+        while (i < left.length && j < right.length) {
+            merged[k++] = left[i] <= right[j] ? left[i++] : right[j++];
+        }
+        System.arraycopy(left, i, merged, k, left.length - i);
+        System.arraycopy(right, j, merged, k + left.length - i, right.length - j);
+        return merged;
+    }
+}
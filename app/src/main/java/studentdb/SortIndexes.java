@@ -0,0 +1,45 @@
+package studentdb;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 🗄️ SortIndexes class - the sort indexes of one store, built on first use and kept up to date
+ * Question: What does a sorted listing cost once its index exists?
+ * Solution: Nothing if no student was added since; otherwise sorting just the new rows and one
+ * merge. Readers take the current index without locking; building or extending one is done by
+ * one thread at a time, so two listings never sort the same rows twice
+ */
+final class SortIndexes {
+    private final StudentStore store;
+    private final NameIndex names;
+    // One slot per key and direction; null until first asked for
+    private final AtomicReferenceArray<SortIndex> indexes =
+        new AtomicReferenceArray<>(StudentPageRequest.SortKey.values().length * 2);
+    
+    SortIndexes(StudentStore store, NameIndex names) {
+        this.store = store;
+        this.names = names;
+    }
+    
+    /**
+     * 🔍 An index covering at least the first 'size' rows (it may cover rows added since);
+     * all of those rows must already be indexed by name
+     */
+    SortIndex get(StudentPageRequest.SortKey key, boolean descending, int size) {
+        int slot = key.ordinal() * 2 + (descending ? 1 : 0);
+        SortIndex index = indexes.get(slot);
+        if (index != null && index.size() >= size) {
+            return index;
+        }
+        synchronized (this) {
+            index = indexes.get(slot);
+            if (index == null) {
+                index = SortIndex.build(store, names, key, descending, size);
+            } else if (index.size() < size) {
+                index = index.extendTo(names, size);
+            }
+            indexes.set(slot, index);
+            return index;
+        }
+    }
+}
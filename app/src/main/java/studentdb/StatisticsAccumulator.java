@@ -0,0 +1,200 @@
+package studentdb;
+
+import java.util.Arrays;
+
+/**
+ * ➕ StatisticsAccumulator class - running totals that can be merged
+ * Question: Why not just add GPAs into a double?
+ * Solution: Rounding errors pile up over millions of additions; Neumaier summation keeps the lost
+ * low-order bits in a separate compensation term, and Welford's method gives a stable variance
+ */
+class StatisticsAccumulator {
+    long count;
+    long activeCount;
+    
+    long ageSum;
+    int minAge = Integer.MAX_VALUE;
+    int maxAge = Integer.MIN_VALUE;
+    double ageMean;
+    double ageM2;
+    
+    double gpaSum;
+    double gpaCompensation;
+    double minGpa = Double.POSITIVE_INFINITY;
+    double maxGpa = Double.NEGATIVE_INFINITY;
+    double gpaMean;
+    double gpaM2;
+    
+    // Students per letter grade, indexed like Student.GRADE_LETTERS
+    final long[] gradeCounts = new long[Student.GRADE_LETTERS.length];
+    
+    private final TopStudents topStudents;
+    
+    StatisticsAccumulator(int topK) {
+        topStudents = new TopStudents(topK);
+    }
+    
+    private StatisticsAccumulator(StatisticsAccumulator source) {
+        count = source.count;
+        activeCount = source.activeCount;
+        ageSum = source.ageSum;
+        minAge = source.minAge;
+        maxAge = source.maxAge;
+        ageMean = source.ageMean;
+        ageM2 = source.ageM2;
+        gpaSum = source.gpaSum;
+        gpaCompensation = source.gpaCompensation;
+        minGpa = source.minGpa;
+        maxGpa = source.maxGpa;
+        gpaMean = source.gpaMean;
+        gpaM2 = source.gpaM2;
+        System.arraycopy(source.gradeCounts, 0, gradeCounts, 0, gradeCounts.length);
+        topStudents = source.topStudents.copy();
+    }
+    
+    /**
+     * 📸 Independent copy, so a snapshot does not change when the original keeps accumulating
+     */
+    StatisticsAccumulator copy() {
+        return new StatisticsAccumulator(this);
+    }
+    
+    void accept(int row, int age, double gpa, Grade grade, boolean active) {
+        count++;
+        if (active) {
+            activeCount++;
+        }
+        
+        ageSum += age;
+        minAge = Math.min(minAge, age);
+        maxAge = Math.max(maxAge, age);
+        double ageDelta = age - ageMean;
+        ageMean += ageDelta / count;
+        ageM2 += ageDelta * (age - ageMean);
+        
+        addGpa(gpa);
+        minGpa = Math.min(minGpa, gpa);
+        maxGpa = Math.max(maxGpa, gpa);
+        double gpaDelta = gpa - gpaMean;
+        gpaMean += gpaDelta / count;
+        gpaM2 += gpaDelta * (gpa - gpaMean);
+        
+        gradeCounts[grade.ordinal()]++;
+        topStudents.offer(row, gpa);
+    }
+    
+    /**
+     * ➖ Take a deleted row back out of the totals - 'index' must already count it as deleted
+     * Question: Counts, sums and Welford's terms just run backwards, but what about the minimum,
+     * the maximum and the top students?
+     * Solution: Only a deleted row that was one of them changes them; those few are found again
+     * from the attribute index, which knows which ages and GPAs still have live rows
+     */
+    void remove(int row, int age, double gpa, Grade grade, boolean active, AttributeIndex index, StudentStore store) {
+        if (count <= 1) {
+            reset();
+            return;
+        }
+        count--;
+        if (active) {
+            activeCount--;
+        }
+        
+        ageSum -= age;
+        double ageDelta = age - ageMean;
+        ageMean -= ageDelta / count;
+        ageM2 = Math.max(0.0, ageM2 - ageDelta * (age - ageMean));
+        
+        addGpa(-gpa);
+        double gpaDelta = gpa - gpaMean;
+        gpaMean -= gpaDelta / count;
+        gpaM2 = Math.max(0.0, gpaM2 - gpaDelta * (gpa - gpaMean));
+        
+        gradeCounts[grade.ordinal()]--;
+        if (age == minAge || age == maxAge) {
+            minAge = index.liveAgeBound(false);
+            maxAge = index.liveAgeBound(true);
+        }
+        if (gpa == minGpa || gpa == maxGpa) {
+            minGpa = index.liveGpaBound(false, store);
+            maxGpa = index.liveGpaBound(true, store);
+        }
+        if (topStudents.contains(row)) {
+            topStudents.clear();
+            index.fillTop(topStudents, store);
+        }
+        // One student left: its values are the bounds, so drop the rounding the reversal left behind
+        if (count == 1) {
+            ageMean = minAge;
+            ageM2 = 0.0;
+            gpaMean = minGpa;
+            gpaM2 = 0.0;
+        }
+    }
+    
+    // Back to the totals of no students at all
+    private void reset() {
+        count = 0;
+        activeCount = 0;
+        ageSum = 0;
+        minAge = Integer.MAX_VALUE;
+        maxAge = Integer.MIN_VALUE;
+        ageMean = 0.0;
+        ageM2 = 0.0;
+        gpaSum = 0.0;
+        gpaCompensation = 0.0;
+        minGpa = Double.POSITIVE_INFINITY;
+        maxGpa = Double.NEGATIVE_INFINITY;
+        gpaMean = 0.0;
+        gpaM2 = 0.0;
+        Arrays.fill(gradeCounts, 0L);
+        topStudents.clear();
+    }
+    
+    /**
+     * 🔗 Merge another partial into this one (Chan's formula for the variance terms)
+     */
+    StatisticsAccumulator combine(StatisticsAccumulator other) {
+        if (other.count == 0) {
+            return this;
+        }
+        long total = count + other.count;
+        
+        double ageDelta = other.ageMean - ageMean;
+        ageM2 += other.ageM2 + ageDelta * ageDelta * count * other.count / total;
+        ageMean += ageDelta * other.count / total;
+        double gpaDelta = other.gpaMean - gpaMean;
+        gpaM2 += other.gpaM2 + gpaDelta * gpaDelta * count * other.count / total;
+        gpaMean += gpaDelta * other.count / total;
+        
+        count = total;
+        activeCount += other.activeCount;
+        ageSum += other.ageSum;
+        minAge = Math.min(minAge, other.minAge);
+        maxAge = Math.max(maxAge, other.maxAge);
+        addGpa(other.gpaSum);
+        addGpa(other.gpaCompensation);
+        minGpa = Math.min(minGpa, other.minGpa);
+        maxGpa = Math.max(maxGpa, other.maxGpa);
+        for (int i = 0; i < gradeCounts.length; i++) {
+            gradeCounts[i] += other.gradeCounts[i];
+        }
+        topStudents.merge(other.topStudents);
+        return this;
+    }
+    
+    TopStudents getTopStudents() {
+        return topStudents;
+    }
+    
+    private void addGpa(double value) {
+        double sum = gpaSum + value;
+        // Neumaier's variant also handles value being larger than the running sum
+        if (Math.abs(gpaSum) >= Math.abs(value)) {
+            gpaCompensation += (gpaSum - sum) + value;
+        } else {
+            gpaCompensation += (value - sum) + gpaSum;
+        }
+        gpaSum = sum;
+    }
+}
@@ -0,0 +1,24 @@
+package studentdb;
+
+import java.util.Locale;
+
+/**
+ * ⚙️ StorageEngine enum - which StudentStore keeps the students
+ */
+enum StorageEngine {
+    LIST, COLUMNAR, OFF_HEAP;
+    
+    /**
+     * 🔍 Parse "list", "columnar" or "offheap" (-Dstudents.storage); anything else means LIST
+     */
+    static StorageEngine parse(String text) {
+        String engine = text.trim().toLowerCase(Locale.ROOT).replace("-", "").replace("_", "");
+        return engine.equals("columnar") ? COLUMNAR : engine.equals("offheap") ? OFF_HEAP : LIST;
+    }
+    
+    static StorageEngine of(StudentStore store) {
+        return store instanceof ColumnarStudentStore ? COLUMNAR
+            : store instanceof OffHeapStudentStore ? OFF_HEAP
+            : LIST;
+    }
+}
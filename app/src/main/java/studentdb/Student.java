@@ -0,0 +1,101 @@
+package studentdb;
+
+/**
+ * 🎓 Student class - represents a student entity
+ * Question: Why create a separate Student class?
+ * Solution: Better organization, encapsulation, and reusability
+ */
+public class Student {
+    // Letter grades from best to worst; index matches gradeIndex() and Grade.ordinal()
+    public static final String[] GRADE_LETTERS = Grade.letters();
+    
+    // Valid ranges - shared by the menu and the bulk importer
+    public static final int MIN_AGE = 16;
+    public static final int MAX_AGE = 100;
+    public static final double MIN_GPA = 0.0;
+    public static final double MAX_GPA = 4.0;
+    
+    // Instance variables - each student has their own
+    private String name;
+    private int age;
+    private double gpa;
+    private boolean isActive;
+    // Worked out once here - the GPA never changes, so neither does the grade
+    private Grade grade;
+    
+    /**
+     * 🏗️ Constructor - initializes student object
+     */
+    public Student(String name, int age, double gpa, boolean isActive) {
+        this.name = name;
+        this.age = age;
+        this.gpa = gpa;
+        this.isActive = isActive;
+        this.grade = Grade.of(gpa);
+    }
+    
+    // Getter methods - provide read access to private variables
+    public String getName() { return name; }
+    public int getAge() { return age; }
+    public double getGpa() { return gpa; }
+    public boolean isActive() { return isActive; }
+    
+    /**
+     * 🎯 Letter grade based on GPA
+     * Question: Why not convert the GPA every time?
+     * Solution: The table, the details view and toString() all ask for it, so the constructor
+     * converts once and every call is just a field read
+     */
+    public String getGrade() {
+        return grade.getLetter();
+    }
+    
+    public Grade getGradeLevel() { return grade; }
+    
+    /**
+     * ✅ Validation helpers
+     */
+    public static boolean isValidAge(int age) {
+        return age >= MIN_AGE && age <= MAX_AGE;
+    }
+    
+    public static boolean isValidGpa(double gpa) {
+        return gpa >= MIN_GPA && gpa <= MAX_GPA;
+    }
+    
+    /**
+     * 🛡️ Create a student from outside input (batch commands, HTTP requests)
+     * Question: How do different callers report bad input the same way?
+     * Solution: Throw IllegalArgumentException with a message the caller can pass on
+     */
+    public static Student validated(String name, int age, double gpa, boolean isActive) {
+        if (name == null || name.trim().isEmpty()) {
+            throw new IllegalArgumentException("Name cannot be empty");
+        }
+        if (!isValidAge(age)) {
+            throw new IllegalArgumentException("Age must be between " + MIN_AGE + " and " + MAX_AGE);
+        }
+        if (!isValidGpa(gpa)) {
+            throw new IllegalArgumentException("GPA must be between " + MIN_GPA + " and " + MAX_GPA);
+        }
+        return new Student(name, age, gpa, isActive);
+    }
+    
+    /**
+     * 🔢 Position of a GPA's grade in GRADE_LETTERS
+     * Question: Why a number instead of the letter?
+     * Solution: Numbers can index arrays directly, e.g. a histogram of grades
+     */
+    public static int gradeIndex(double gpa) {
+        return Grade.of(gpa).ordinal();
+    }
+    
+    /**
+     * 📝 Override toString for better object representation
+     */
+    @Override
+    public String toString() {
+        return String.format("Student{name='%s', age=%d, gpa=%.2f, grade=%s, active=%s}",
+            name, age, gpa, getGrade(), isActive);
+    }
+}
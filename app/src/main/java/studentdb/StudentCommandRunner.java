@@ -0,0 +1,352 @@
+package studentdb;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 🤖 StudentCommandRunner class - the menu's operations as one-line text commands
+ * Question: How do we push hundreds of thousands of commands per second through the database?
+ * Solution: Consecutive adds are applied in batches, answers are built in one buffer and
+ * written in large chunks, and nothing waits for a keypress or redraws a menu
+ *
+ * Commands (one per line, blank lines and lines starting with # are skipped):
+ *   add <name>,<age>,<gpa>,<active>   (answered with the new id)
+ *   search <name>      (matches come with their ids)
+ *   get <id>
+ *   update <id> <name>,<age>,<gpa>,<active>
+ *   delete <id>
+ *   find <part of a name, typos allowed>
+ *   stats
+ *   top [count]        (best GPAs with their ranks, at most 100)
+ *   rank <name>        (every student with that name and their GPA rank)
+ *   list [offset=N] [limit=N] [sort=none|name|age|gpa|grade] [order=asc|desc] [filter=all|active|inactive]
+ *   query [minAge=N] [maxAge=N] [minGpa=X] [maxGpa=X] [active=true|false] [limit=N]
+ *   group [by=age,band,grade,active,name] [agg=count,avg:gpa,...] [band=N] [minAge=N ... query options]
+ *   import <csv file>
+ */
+public class StudentCommandRunner {
+    private static final int CHUNK_SIZE = 1 << 16;
+    private static final int MAX_SUGGESTIONS = 5;
+    private static final int MAX_FOUND = 20;
+    
+    private final BufferedReader in;
+    private final PrintStream out;
+    private final StringBuilder buffer = new StringBuilder(CHUNK_SIZE + 1024);
+    private final ArrayList<Student> pendingAdds = new ArrayList<>(StudentCsvImporter.BATCH_SIZE);
+    // Where in the buffer each pending add's answer gets its id, once the batch has one
+    private final IntArray pendingIdsAt = new IntArray();
+    private long lineNumber;
+    private long added;
+    private long failed;
+    
+    public StudentCommandRunner(BufferedReader in, PrintStream out) {
+        this.in = in;
+        this.out = out;
+    }
+    
+    public long getAdded() { return added; }
+    public long getFailed() { return failed; }
+    
+    public void run() throws IOException {
+        String line;
+        while ((line = in.readLine()) != null) {
+            lineNumber++;
+            String command = line.trim();
+            if (command.isEmpty() || command.charAt(0) == '#') {
+                continue;
+            }
+            
+            int space = command.indexOf(' ');
+            String name = (space < 0 ? command : command.substring(0, space)).toLowerCase(Locale.ROOT);
+            String argument = space < 0 ? "" : command.substring(space + 1).trim();
+            int answerStart = buffer.length();
+            try {
+                execute(name, argument);
+            } catch (IllegalArgumentException e) {
+                // Drop whatever part of the answer was written before the error
+                buffer.setLength(answerStart);
+                failed++;
+                Json.string(begin(name, false).append(",\"error\":"), e.getMessage()).append("}\n");
+            }
+            
+            // Question: Why flush when no more input is waiting?
+            // Solution: A program feeding commands one at a time still gets each answer straight away
+            if (buffer.length() >= CHUNK_SIZE || !in.ready()) {
+                flush();
+            }
+        }
+        flush();
+    }
+    
+    private void execute(String command, String argument) {
+        if (command.equals("add")) {
+            pendingAdds.add(parseStudent(argument));
+            pendingIdsAt.add(begin(command, true).length());
+            buffer.append("}\n");
+            if (pendingAdds.size() == StudentCsvImporter.BATCH_SIZE) {
+                applyPendingAdds();
+            }
+            return;
+        }
+        
+        // Every other command must see the students added before it
+        applyPendingAdds();
+        switch (command) {
+            case "search":
+                search(argument);
+                break;
+            case "get":
+                get(argument);
+                break;
+            case "update":
+                update(argument);
+                break;
+            case "delete":
+                delete(argument);
+                break;
+            case "find":
+                find(argument);
+                break;
+            case "stats":
+                stats();
+                break;
+            case "top":
+                top(argument);
+                break;
+            case "rank":
+                rank(argument);
+                break;
+            case "list":
+                list(argument);
+                break;
+            case "query":
+                query(argument);
+                break;
+            case "group":
+                group(argument);
+                break;
+            case "import":
+                importFile(argument);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown command '" + command
+                    + "' (expected add, search, get, update, delete, find, stats, top, rank, list, query, group or import)");
+        }
+    }
+    
+    /**
+     * 📝 Parse "name,age,gpa,active" - the name is everything before the last three commas,
+     * optionally in double quotes like a CSV field
+     */
+    private static Student parseStudent(String argument) {
+        int gpaEnd = argument.lastIndexOf(',');
+        int ageEnd = gpaEnd > 0 ? argument.lastIndexOf(',', gpaEnd - 1) : -1;
+        int nameEnd = ageEnd > 0 ? argument.lastIndexOf(',', ageEnd - 1) : -1;
+        if (nameEnd < 0) {
+            throw new IllegalArgumentException("Expected add <name>,<age>,<gpa>,<active>");
+        }
+        
+        String name = argument.substring(0, nameEnd).trim();
+        if (name.length() >= 2 && name.charAt(0) == '"' && name.charAt(name.length() - 1) == '"') {
+            name = name.substring(1, name.length() - 1).replace("\"\"", "\"");
+        }
+        
+        int age;
+        double gpa;
+        try {
+            age = Integer.parseInt(argument.substring(nameEnd + 1, ageEnd).trim());
+            gpa = Double.parseDouble(argument.substring(ageEnd + 1, gpaEnd).trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Age and GPA must be numbers");
+        }
+        
+        String active = argument.substring(gpaEnd + 1).trim();
+        if (!active.equalsIgnoreCase("true") && !active.equalsIgnoreCase("false")) {
+            throw new IllegalArgumentException("Active must be true or false");
+        }
+        return Student.validated(name, age, gpa, active.equalsIgnoreCase("true"));
+    }
+    
+    private void search(String name) {
+        IntArray ids = new IntArray();
+        List<Student> matches = StudentDatabase.findByName(name, ids);
+        List<NameMatch> suggestions = matches.isEmpty() && !name.isEmpty()
+            ? StudentDatabase.searchNames(name, MAX_SUGGESTIONS)
+            : List.of();
+        
+        Json.searchResult(begin("search", true), name, matches, ids, suggestions).append("}\n");
+    }
+    
+    private void get(String argument) {
+        int id = parseId(argument, "get <id>");
+        Student student = StudentDatabase.getStudent(id);
+        if (student == null) {
+            throw new IllegalArgumentException("No student with id " + id);
+        }
+        Json.identifiedStudent(begin("get", true), id, student).append("}\n");
+    }
+    
+    private void update(String argument) {
+        int space = argument.indexOf(' ');
+        if (space < 0) {
+            throw new IllegalArgumentException("Expected update <id> <name>,<age>,<gpa>,<active>");
+        }
+        int id = parseId(argument.substring(0, space), "update <id> <name>,<age>,<gpa>,<active>");
+        Student student = parseStudent(argument.substring(space + 1).trim());
+        if (!StudentDatabase.updateStudent(id, student)) {
+            throw new IllegalArgumentException("No student with id " + id);
+        }
+        Json.identifiedStudent(begin("update", true), id, student).append("}\n");
+    }
+    
+    private void delete(String argument) {
+        int id = parseId(argument, "delete <id>");
+        if (!StudentDatabase.deleteStudent(id)) {
+            throw new IllegalArgumentException("No student with id " + id);
+        }
+        begin("delete", true).append(",\"id\":").append(id).append("}\n");
+    }
+    
+    private static int parseId(String argument, String usage) {
+        try {
+            return Integer.parseInt(argument.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Expected " + usage);
+        }
+    }
+    
+    private void find(String text) {
+        if (text.isEmpty()) {
+            throw new IllegalArgumentException("Expected find <part of a name>");
+        }
+        List<NameMatch> matches = StudentDatabase.searchNames(text, MAX_FOUND);
+        Json.nameMatches(Json.string(begin("find", true).append(",\"query\":"), text).append(",\"matches\":"), matches)
+            .append("}\n");
+    }
+    
+    private void stats() {
+        Json.statistics(begin("stats", true), StudentDatabase.getStatistics()).append("}\n");
+    }
+    
+    private void top(String argument) {
+        int limit = 10;
+        if (!argument.isEmpty()) {
+            try {
+                limit = Integer.parseInt(argument);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Expected top [count]");
+            }
+        }
+        Json.rankedStudents(begin("top", true).append(",\"students\":"), StudentDatabase.getLeaderboard(limit))
+            .append("}\n");
+    }
+    
+    private void rank(String name) {
+        if (name.isEmpty()) {
+            throw new IllegalArgumentException("Expected rank <name>");
+        }
+        StringBuilder out = Json.string(begin("rank", true).append(",\"name\":"), name);
+        out.append(",\"total\":").append(StudentDatabase.getStudentCount());
+        Json.rankedStudents(out.append(",\"matches\":"), StudentDatabase.findRanks(name)).append("}\n");
+    }
+    
+    private void list(String argument) {
+        StudentPageRequest request = StudentPageRequest.fromOptions(parseOptions(argument));
+        Json.page(begin("list", true), request).append("}\n");
+    }
+    
+    private void query(String argument) {
+        Map<String, String> options = parseOptions(argument);
+        int limit = Json.takeLimit(options);
+        List<Student> matches = StudentDatabase.query(StudentQuery.fromOptions(options));
+        Json.queryResult(begin("query", true), matches, limit).append("}\n");
+    }
+    
+    private void group(String argument) {
+        StudentGroups groups = StudentDatabase.groupBy(StudentGroupQuery.fromOptions(parseOptions(argument)));
+        Json.groups(begin("group", true), groups).append("}\n");
+    }
+    
+    // "key=value key=value" -> map; a key without '=' gets an empty value
+    private static Map<String, String> parseOptions(String argument) {
+        Map<String, String> options = new HashMap<>();
+        for (String option : argument.split("\\s+")) {
+            if (!option.isEmpty()) {
+                int equals = option.indexOf('=');
+                options.put(equals < 0 ? option : option.substring(0, equals), equals < 0 ? "" : option.substring(equals + 1));
+            }
+        }
+        return options;
+    }
+    
+    private void importFile(String path) {
+        if (path.isEmpty()) {
+            throw new IllegalArgumentException("Expected import <csv file>");
+        }
+        StudentCsvImporter.ImportResult result;
+        try {
+            result = StudentCsvImporter.importFile(Path.of(path));
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Could not read file: " + e.getMessage());
+        }
+        added += result.getImported();
+        
+        begin("import", true).append(",\"imported\":").append(result.getImported());
+        buffer.append(",\"rejected\":").append(result.getRejected()).append(",\"errors\":[");
+        for (int i = 0; i < result.getErrors().size(); i++) {
+            Json.string(buffer.append(i > 0 ? "," : ""), result.getErrors().get(i));
+        }
+        buffer.append("]}\n");
+    }
+    
+    /**
+     * 🧾 Start an answer: which line it belongs to, the command and whether it succeeded
+     */
+    private StringBuilder begin(String command, boolean ok) {
+        buffer.append("{\"line\":").append(lineNumber).append(",\"command\":");
+        return Json.string(buffer, command).append(",\"ok\":").append(ok);
+    }
+    
+    /**
+     * 📦 Add the queued students in one batch and fill their ids into the answers already written
+     * Question: Why not reserve ids when the adds are queued?
+     * Solution: HTTP clients may add students in between; only addStudents() knows which ids the
+     * batch really got - the first one, and the others follow it one by one
+     */
+    private void applyPendingAdds() {
+        if (pendingAdds.isEmpty()) {
+            return;
+        }
+        int firstId = StudentDatabase.addStudents(pendingAdds);
+        added += pendingAdds.size();
+        
+        // Rewrite the answers from the first pending add on (errors of failed adds may sit between them)
+        int from = pendingIdsAt.get(0);
+        String answers = buffer.substring(from);
+        buffer.setLength(from);
+        for (int i = 0; i < pendingAdds.size(); i++) {
+            int end = i + 1 < pendingAdds.size() ? pendingIdsAt.get(i + 1) : from + answers.length();
+            buffer.append(",\"id\":").append(firstId + i);
+            buffer.append(answers, pendingIdsAt.get(i) - from, end - from);
+        }
+        pendingAdds.clear();
+        pendingIdsAt.clear();
+    }
+    
+    /**
+     * 📤 Send the buffered answers - only once the adds they report are really in the database
+     */
+    private void flush() {
+        applyPendingAdds();
+        out.append(buffer);
+        out.flush();
+        buffer.setLength(0);
+    }
+}
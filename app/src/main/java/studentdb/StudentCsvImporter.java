@@ -0,0 +1,330 @@
+package studentdb;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 📥 StudentCsvImporter class - streams name,age,gpa,active rows into the database
+ * Question: Why parse bytes by hand instead of using Scanner or String.split()?
+ * Solution: Numbers are built digit by digit straight from the read buffer, so only the
+ * name becomes a String - no regular expressions and no throwaway String per field
+ */
+public class StudentCsvImporter {
+    private static final int BUFFER_SIZE = 1 << 20;
+    static final int BATCH_SIZE = 4096;
+    private static final int MAX_REPORTED_ERRORS = 5;
+    
+    // Exact powers of ten for turning "3.75" into 375 / 100.0 without rounding surprises
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15
+    };
+    
+    private final ArrayList<Student> batch = new ArrayList<>(BATCH_SIZE);
+    private final ImportResult result = new ImportResult();
+    private byte[] nameBuffer = new byte[64];
+    private long lineNumber;
+    
+    // Parse position and the field just read; reused for every line
+    private byte[] data;
+    private int pos;
+    private int lineEnd;
+    
+    private StudentCsvImporter() {
+    }
+    
+    /**
+     * 🚀 Import a whole file, reading it through a large buffer one block at a time
+     */
+    public static ImportResult importFile(Path path) throws IOException {
+        StudentCsvImporter importer = new StudentCsvImporter();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            importer.readAll(channel);
+        }
+        return importer.result;
+    }
+    
+    private void readAll(FileChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        boolean endOfFile = false;
+        while (!endOfFile) {
+            endOfFile = channel.read(buffer) < 0;
+            byte[] bytes = buffer.array();
+            int limit = buffer.position();
+            int start = 0;
+            
+            // Parse every complete line; a partial last line waits for the next block
+            for (int i = 0; i < limit; i++) {
+                if (bytes[i] == '\n') {
+                    parseLine(bytes, start, i);
+                    start = i + 1;
+                }
+            }
+            if (endOfFile && start < limit) {
+                parseLine(bytes, start, limit);
+                start = limit;
+            }
+            
+            // Move the unfinished line to the front; grow the buffer if one line fills it
+            int remaining = limit - start;
+            if (remaining == bytes.length) {
+                buffer = ByteBuffer.wrap(Arrays.copyOf(bytes, bytes.length * 2));
+                buffer.position(remaining);
+            } else {
+                System.arraycopy(bytes, start, bytes, 0, remaining);
+                buffer.clear();
+                buffer.position(remaining);
+            }
+        }
+        flushBatch();
+    }
+    
+    private void parseLine(byte[] bytes, int start, int end) {
+        lineNumber++;
+        if (end > start && bytes[end - 1] == '\r') {
+            end--;
+        }
+        if (end == start) {
+            return;
+        }
+        data = bytes;
+        pos = start;
+        lineEnd = end;
+        
+        String name = parseName();
+        if (name == null) {
+            reject("name is missing or badly quoted");
+            return;
+        }
+        
+        int age = parseInt();
+        if (age == Integer.MIN_VALUE) {
+            // A first line whose second column is not a number is taken to be the header
+            if (lineNumber != 1) {
+                reject("age is not a whole number");
+            }
+            return;
+        }
+        if (!Student.isValidAge(age)) {
+            reject("age must be between 16 and 100");
+            return;
+        }
+        
+        double gpa = parseDouble();
+        if (Double.isNaN(gpa)) {
+            reject("GPA is not a number");
+            return;
+        }
+        if (!Student.isValidGpa(gpa)) {
+            reject("GPA must be between 0.0 and 4.0");
+            return;
+        }
+        
+        int active = parseBoolean();
+        if (active < 0 || pos < lineEnd) {
+            reject("active must be true or false");
+            return;
+        }
+        
+        batch.add(new Student(name, age, gpa, active == 1));
+        if (batch.size() == BATCH_SIZE) {
+            flushBatch();
+        }
+    }
+    
+    /**
+     * 📝 Read the name column; double quotes allow commas, and "" stands for one quote
+     */
+    private String parseName() {
+        skipSpaces();
+        int length = 0;
+        if (pos < lineEnd && data[pos] == '"') {
+            pos++;
+            while (true) {
+                if (pos >= lineEnd) {
+                    return null;
+                }
+                byte b = data[pos++];
+                if (b == '"') {
+                    if (pos < lineEnd && data[pos] == '"') {
+                        pos++;
+                    } else {
+                        break;
+                    }
+                }
+                if (length == nameBuffer.length) {
+                    nameBuffer = Arrays.copyOf(nameBuffer, length * 2);
+                }
+                nameBuffer[length++] = b;
+            }
+            skipSpaces();
+            if (!skipComma()) {
+                return null;
+            }
+            String name = new String(nameBuffer, 0, length, StandardCharsets.UTF_8);
+            return name.trim().isEmpty() ? null : name;
+        }
+        
+        int start = pos;
+        while (pos < lineEnd && data[pos] != ',') {
+            pos++;
+        }
+        int end = pos;
+        while (end > start && data[end - 1] == ' ') {
+            end--;
+        }
+        if (end == start || !skipComma()) {
+            return null;
+        }
+        String name = new String(data, start, end - start, StandardCharsets.UTF_8);
+        return name.trim().isEmpty() ? null : name;
+    }
+    
+    /**
+     * 🔢 Read a whole number column; Integer.MIN_VALUE means "not a number"
+     */
+    private int parseInt() {
+        skipSpaces();
+        int value = 0;
+        int digits = 0;
+        boolean negative = pos < lineEnd && data[pos] == '-';
+        if (negative) {
+            pos++;
+        }
+        while (pos < lineEnd && data[pos] >= '0' && data[pos] <= '9') {
+            if (++digits > 9) {
+                return Integer.MIN_VALUE;
+            }
+            value = value * 10 + (data[pos++] - '0');
+        }
+        skipSpaces();
+        if (digits == 0 || !skipComma()) {
+            return Integer.MIN_VALUE;
+        }
+        return negative ? -value : value;
+    }
+    
+    /**
+     * 🔢 Read a decimal column; NaN means "not a number"
+     * Question: How do we get the exact same double as Double.parseDouble()?
+     * Solution: Keep the digits as a whole number and divide once by an exact power of ten;
+     * anything unusual (exponents, very long fractions) falls back to Double.parseDouble()
+     */
+    private double parseDouble() {
+        skipSpaces();
+        int start = pos;
+        boolean negative = pos < lineEnd && data[pos] == '-';
+        if (negative) {
+            pos++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int fractionDigits = 0;
+        boolean seenPoint = false;
+        while (pos < lineEnd) {
+            byte b = data[pos];
+            if (b >= '0' && b <= '9') {
+                mantissa = mantissa * 10 + (b - '0');
+                digits++;
+                if (seenPoint) {
+                    fractionDigits++;
+                }
+            } else if (b == '.' && !seenPoint) {
+                seenPoint = true;
+            } else {
+                break;
+            }
+            pos++;
+        }
+        
+        boolean simple = digits > 0 && digits <= 15 && fractionDigits < POWERS_OF_TEN.length
+            && (pos == lineEnd || data[pos] == ',' || data[pos] == ' ' || data[pos] == '\t');
+        double value;
+        if (simple) {
+            value = mantissa / POWERS_OF_TEN[fractionDigits];
+            value = negative ? -value : value;
+        } else {
+            while (pos < lineEnd && data[pos] != ',' && data[pos] != ' ' && data[pos] != '\t') {
+                pos++;
+            }
+            try {
+                value = Double.parseDouble(new String(data, start, pos - start, StandardCharsets.US_ASCII));
+            } catch (NumberFormatException e) {
+                return Double.NaN;
+            }
+        }
+        skipSpaces();
+        return skipComma() ? value : Double.NaN;
+    }
+    
+    /**
+     * 🔘 Read true/false (any letter case, like Scanner.nextBoolean); -1 means neither
+     */
+    private int parseBoolean() {
+        skipSpaces();
+        int result = matchWord("true") ? 1 : matchWord("false") ? 0 : -1;
+        skipSpaces();
+        return result;
+    }
+    
+    private boolean matchWord(String word) {
+        if (lineEnd - pos < word.length()) {
+            return false;
+        }
+        for (int i = 0; i < word.length(); i++) {
+            if (Character.toLowerCase(data[pos + i]) != word.charAt(i)) {
+                return false;
+            }
+        }
+        pos += word.length();
+        return true;
+    }
+    
+    private void skipSpaces() {
+        while (pos < lineEnd && (data[pos] == ' ' || data[pos] == '\t')) {
+            pos++;
+        }
+    }
+    
+    private boolean skipComma() {
+        if (pos < lineEnd && data[pos] == ',') {
+            pos++;
+            return true;
+        }
+        return false;
+    }
+    
+    private void reject(String reason) {
+        result.rejected++;
+        if (result.errors.size() < MAX_REPORTED_ERRORS) {
+            result.errors.add("line " + lineNumber + ": " + reason);
+        }
+    }
+    
+    private void flushBatch() {
+        if (!batch.isEmpty()) {
+            StudentDatabase.addStudents(batch);
+            result.imported += batch.size();
+            batch.clear();
+        }
+    }
+    
+    /**
+     * 📋 ImportResult - how many rows were imported or skipped, and why
+     */
+    public static class ImportResult {
+        private long imported;
+        private long rejected;
+        private final List<String> errors = new ArrayList<>();
+        
+        public long getImported() { return imported; }
+        public long getRejected() { return rejected; }
+        public List<String> getErrors() { return errors; }
+    }
+}
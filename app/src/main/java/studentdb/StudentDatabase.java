@@ -0,0 +1,945 @@
+package studentdb;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * 🗄️ StudentDatabase class - manages student data
+ * Question: Why separate database logic?
+ * Solution: Single responsibility principle - each class has one job
+ */
+public class StudentDatabase {
+    // Students kept in the live leaderboard, and how many of them statistics report
+    public static final int LEADERBOARD_SIZE = 100;
+    private static final int LIVE_TOP_STUDENTS = 10;
+    
+    // Everything that must change together lives in one State object behind a volatile
+    // reference, so a reader always sees a store and indexes from the same generation
+    private static volatile State state = new State(createStore(StorageEngine.parse(
+        System.getProperty("students.storage", "list"))), 0);
+    
+    // Writers serialise on this lock; readers only use its optimistic (version-checked) mode
+    private static final StampedLock lock = new StampedLock();
+    
+    // Lock-free append log - writers queue here and whoever holds the lock applies the whole batch
+    private static final ConcurrentLinkedQueue<PendingWrite> pendingWrites = new ConcurrentLinkedQueue<>();
+    
+    // Optional write-ahead log; null keeps the database purely in memory
+    private static volatile StudentWriteAheadLog writeAheadLog;
+    
+    // Background compaction starts once deleted rows are this share of the store, and at least MIN_COMPACT_ROWS
+    private static final double COMPACT_RATIO = Double.parseDouble(System.getProperty("students.compact.ratio", "0.25"));
+    private static final int MIN_COMPACT_ROWS = 1024;
+    private static final AtomicBoolean compacting = new AtomicBoolean();
+    
+    /**
+     * ➕ Add student to database - returns the student's id (see getStudent())
+     * Question: How do many threads add students without corrupting the store?
+     * Solution: Each thread queues its student; one thread at a time drains the queue under the
+     * write lock, so a busy writer applies everyone else's students in the same turn
+     */
+    public static int addStudent(Student student) {
+        OperationMetrics.Recorder metrics = OperationMetrics.start(OperationMetrics.Operation.ADD);
+        StudentEvents.Insert event = new StudentEvents.Insert();
+        event.begin();
+        PendingWrite write = new PendingWrite(student);
+        pendingWrites.add(write);
+        int written = 0;
+        for (int spins = 0; !write.applied; spins++) {
+            // Spin briefly: another writer is probably applying our student right now
+            long stamp = spins < 64 ? lock.tryWriteLock() : lock.writeLock();
+            if (stamp == 0L) {
+                Thread.onSpinWait();
+                continue;
+            }
+            try {
+                written += applyPendingWrites();
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+        // Wait outside the lock, so other writers can join the same disk flush
+        awaitDurable(write.logSequence);
+        event.finish(1, written);
+        OperationMetrics.finish(OperationMetrics.Operation.ADD, metrics, 1);
+        return write.id;
+    }
+    
+    /**
+     * 📦 Add many students under a single lock acquisition - returns the id of the first; the
+     * others follow it one by one
+     * Question: Why not call addStudent() in a loop?
+     * Solution: Bulk loads would then pay for the lock and the queue once per student instead of once per batch
+     */
+    public static int addStudents(List<Student> batch) {
+        OperationMetrics.Recorder metrics = OperationMetrics.start(OperationMetrics.Operation.ADD);
+        StudentEvents.Insert event = new StudentEvents.Insert();
+        event.begin();
+        long logSequence = 0L;
+        int written;
+        int firstId;
+        long stamp = lock.writeLock();
+        try {
+            // Students queued earlier by other threads go first, keeping insertion order fair
+            written = applyPendingWrites() + batch.size();
+            State current = state;
+            firstId = current.ids.nextId();
+            for (int i = 0; i < batch.size(); i++) {
+                logSequence = apply(current, batch.get(i));
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        awaitDurable(logSequence);
+        event.finish(batch.size(), written);
+        OperationMetrics.finish(OperationMetrics.Operation.ADD, metrics, batch.size());
+        return firstId;
+    }
+    
+    /**
+     * 🪪 The student with this id, or null if it was deleted or never existed
+     * Question: Why check the lock just to read one number?
+     * Solution: An update moves the id to a new row; the optimistic check guarantees the row
+     * read belongs to a finished write, so its data is in the store
+     */
+    public static Student getStudent(int id) {
+        long stamp = lock.tryOptimisticRead();
+        State current = state;
+        int row = current.ids.rowOf(id);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                current = state;
+                row = current.ids.rowOf(id);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return row >= 0 ? current.store.get(row) : null;
+    }
+    
+    /**
+     * ✏️ Replace the student with this id, e.g. after a change of GPA - false if there is none
+     * Question: How is this done in place when the store and every index only ever append?
+     * Solution: The old row gets a tombstone and the new version is appended under the same id;
+     * to each index that is one O(1) delete and one add. Like any student added now, the new
+     * version comes last in insertion order
+     */
+    public static boolean updateStudent(int id, Student student) {
+        OperationMetrics.Recorder metrics = OperationMetrics.start(OperationMetrics.Operation.UPDATE);
+        boolean updated = change(id, student);
+        OperationMetrics.finish(OperationMetrics.Operation.UPDATE, metrics, updated ? 1 : 0);
+        return updated;
+    }
+    
+    /**
+     * ❌ Delete the student with this id - false if there is none
+     * Question: Why is this O(1) when the student is in a dozen index lists?
+     * Solution: Only a tombstone bit is set and the running totals are adjusted; the lists keep
+     * the row, readers skip it, and compaction reclaims the space later in the background
+     */
+    public static boolean deleteStudent(int id) {
+        OperationMetrics.Recorder metrics = OperationMetrics.start(OperationMetrics.Operation.DELETE);
+        boolean deleted = change(id, null);
+        OperationMetrics.finish(OperationMetrics.Operation.DELETE, metrics, deleted ? 1 : 0);
+        return deleted;
+    }
+    
+    // Delete the id's current row, then append 'replacement' (if any) under the same id
+    private static boolean change(int id, Student replacement) {
+        long logSequence = 0L;
+        boolean found;
+        long stamp = lock.writeLock();
+        try {
+            applyPendingWrites();
+            State current = state;
+            int row = current.ids.rowOf(id);
+            found = row >= 0;
+            if (found) {
+                remove(current, row);
+                if (replacement != null) {
+                    append(current, replacement, id);
+                }
+                StudentWriteAheadLog log = writeAheadLog;
+                if (log != null) {
+                    logSequence = replacement != null ? log.appendUpdate(id, replacement) : log.appendDelete(id);
+                }
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        awaitDurable(logSequence);
+        if (found) {
+            compactIfWorthwhile();
+        }
+        return found;
+    }
+    
+    /**
+     * 📋 Get all students
+     * Question: Why return a snapshot instead of the list itself?
+     * Solution: A snapshot has a fixed size, so other threads adding students cannot disturb the caller
+     */
+    public static List<Student> getStudents() {
+        return snapshot();
+    }
+    
+    /**
+     * 📸 Consistent, read-only view of the students present right now
+     */
+    public static StudentSnapshot snapshot() {
+        State current = state;
+        return snapshot(current, indexedSize(current));
+    }
+    
+    // The first 'size' rows less the deleted ones; listing the live rows is only needed once some are deleted
+    private static StudentSnapshot snapshot(State current, int size) {
+        Tombstones tombstones = current.tombstones;
+        return new StudentSnapshot(current.store, current.ids, tombstones.isEmpty() ? null : tombstones.liveRows(size), size);
+    }
+    
+    /**
+     * 📄 One page of students, filtered and sorted as requested
+     * Question: How do we show "page 3 sorted by GPA" without copying or sorting everyone?
+     * Solution: Unsorted pages are streamed straight from the store; sorted pages walk a cached
+     * sort index (see SortIndex), which is built once and only merges in students added since,
+     * and Student objects are made only for the page
+     */
+    public static Stream<Student> list(StudentPageRequest request) {
+        State current = state;
+        StudentStore store = current.store;
+        int size = store.size();
+        Tombstones tombstones = current.tombstones;
+        IntPredicate filter = tombstones.isEmpty()
+            ? activeFilter(store, request.getActiveFilter())
+            : activeFilter(store, request.getActiveFilter()).and(row -> !tombstones.isDead(row));
+        
+        if (request.getSortKey() == StudentPageRequest.SortKey.INSERTION) {
+            IntStream rows = request.isDescending()
+                ? IntStream.range(0, size).map(i -> size - 1 - i)
+                : IntStream.range(0, size);
+            return rows.filter(filter)
+                .skip(request.getOffset())
+                .limit(request.getLimit())
+                .mapToObj(store::get);
+        }
+        
+        SortIndex index = current.sortIndexes.get(request.getSortKey(), request.isDescending(), indexedSize(current));
+        if (request.getActiveFilter() == StudentPageRequest.ActiveFilter.ALL && tombstones.isEmpty()) {
+            // Every position is a row on the page, so jump straight to the offset
+            int from = Math.min(request.getOffset(), index.size());
+            int to = (int) Math.min((long) from + request.getLimit(), index.size());
+            return IntStream.range(from, to).mapToObj(position -> store.get(index.rowAt(position)));
+        }
+        return IntStream.range(0, index.size())
+            .map(index::rowAt)
+            .filter(filter)
+            .skip(request.getOffset())
+            .limit(request.getLimit())
+            .mapToObj(store::get);
+    }
+    
+    /**
+     * ↕️ Every student in one order, e.g. getStudentsSortedBy(SortKey.NAME, false) - ties keep
+     * insertion order
+     * Question: Why not sort a copy of getStudents()?
+     * Solution: That copies and sorts the whole roster on every call; this is a read-only view
+     * of a cached sort index, which is only extended when students have been added
+     */
+    public static List<Student> getStudentsSortedBy(StudentPageRequest.SortKey key, boolean descending) {
+        State current = state;
+        if (key == StudentPageRequest.SortKey.INSERTION) {
+            return snapshot(current, indexedSize(current));
+        }
+        SortIndex index = current.sortIndexes.get(key, descending, indexedSize(current));
+        if (current.tombstones.isEmpty()) {
+            return new StudentRows(current.store, index);
+        }
+        // Deleted rows stay in the index until compaction; list the live ones in its order
+        int[] rows = new int[index.size()];
+        for (int position = 0; position < rows.length; position++) {
+            rows[position] = index.rowAt(position);
+        }
+        return new StudentRows(current.store, current.tombstones.retainLive(rows));
+    }
+    
+    /**
+     * 🔢 Rows every index already covers
+     * Question: Why not just store.size()?
+     * Solution: A writer adds the row to the store before its indexes, so the last row may not be
+     * indexed yet; once no writer holds the lock, every row below the size is
+     */
+    private static int indexedSize(State current) {
+        long stamp = lock.tryOptimisticRead();
+        int size = current.store.size();
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                size = current.store.size();
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return size;
+    }
+    
+    /**
+     * 🔢 How many students a listing with this filter has in total - O(1) from the live totals
+     */
+    public static long count(StudentPageRequest.ActiveFilter filter) {
+        StudentStatistics statistics = getStatistics();
+        switch (filter) {
+            case ACTIVE:
+                return statistics.getActiveCount();
+            case INACTIVE:
+                return statistics.getCount() - statistics.getActiveCount();
+            default:
+                return statistics.getCount();
+        }
+    }
+    
+    private static IntPredicate activeFilter(StudentStore store, StudentPageRequest.ActiveFilter filter) {
+        switch (filter) {
+            case ACTIVE:
+                return store::isActive;
+            case INACTIVE:
+                return row -> !store.isActive(row);
+            default:
+                return row -> true;
+        }
+    }
+    
+    /**
+     * 🗃️ Get the storage engine for column-wise reads without creating Student objects - rows
+     * deleted since the last compaction are still in it
+     */
+    static StudentStore getStore() {
+        return state.store;
+    }
+    
+    /**
+     * 📊 Get student count - deleted students left out
+     */
+    public static int getStudentCount() {
+        State current = state;
+        return current.store.size() - current.tombstones.count();
+    }
+    
+    /**
+     * 📈 Get statistics for the whole database
+     * Question: How can this be O(1) however many students there are?
+     * Solution: addStudent() and clearDatabase() keep the totals current, so we only copy them
+     */
+    public static StudentStatistics getStatistics() {
+        OperationMetrics.Recorder metrics = OperationMetrics.start(OperationMetrics.Operation.STATISTICS);
+        StudentEvents.Statistics event = new StudentEvents.Statistics();
+        event.begin();
+        // Question: How do we copy the totals without blocking writers?
+        // Solution: Copy optimistically, then check no write happened meanwhile; retry under the read lock if one did
+        long stamp = lock.tryOptimisticRead();
+        State current = state;
+        StatisticsAccumulator totals = current.statistics.copy();
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                current = state;
+                totals = current.statistics.copy();
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        StudentStatistics statistics = StudentStatistics.from(totals, current.store, LIVE_TOP_STUDENTS);
+        event.finish(false, statistics.getCount());
+        OperationMetrics.finish(OperationMetrics.Operation.STATISTICS, metrics, statistics.getCount());
+        return statistics;
+    }
+    
+    /**
+     * 🏅 The best 'limit' students by GPA (at most LEADERBOARD_SIZE), each with their rank
+     * Question: Why not sort everyone by GPA?
+     * Solution: The running totals keep a min-heap of the best LEADERBOARD_SIZE students,
+     * updated in O(log K) as each student is added, so reading it costs O(K log K) however
+     * many students there are
+     * 
+     * Students with equal GPAs share a rank ("1, 2, 2, 4"); among them the earlier one is listed first.
+     */
+    public static List<RankedStudent> getLeaderboard(int limit) {
+        OperationMetrics.Recorder metrics = OperationMetrics.start(OperationMetrics.Operation.LEADERBOARD);
+        long stamp = lock.tryOptimisticRead();
+        State current = state;
+        TopStudents leaders = current.statistics.getTopStudents().copy();
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                current = state;
+                leaders = current.statistics.getTopStudents().copy();
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        
+        int[] rows = leaders.toSortedRows();
+        int count = Math.min(rows.length, Math.max(limit, 0));
+        List<RankedStudent> ranked = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Student student = current.store.get(rows[i]);
+            // Everyone with a higher GPA is listed before this student, so the rank is their count + 1
+            int rank = i > 0 && student.getGpa() == ranked.get(i - 1).getStudent().getGpa()
+                ? ranked.get(i - 1).getRank()
+                : i + 1;
+            ranked.add(new RankedStudent(student, rank));
+        }
+        OperationMetrics.finish(OperationMetrics.Operation.LEADERBOARD, metrics, count);
+        return ranked;
+    }
+    
+    /**
+     * 🥇 Every student with this name (case-insensitive) and their rank by GPA among all students
+     * Question: How do we rank someone outside the top 100 without sorting?
+     * Solution: Their rank is 1 + how many students have a higher GPA, which the GPA index
+     * counts from its bucket sizes, checking only the one bucket the student's GPA falls in
+     */
+    public static List<RankedStudent> findRanks(String name) {
+        OperationMetrics.Recorder metrics = OperationMetrics.start(OperationMetrics.Operation.RANK);
+        State current = state;
+        RowList rows = current.nameIndex.find(name);
+        int count = rows.size();
+        List<RankedStudent> ranked = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            if (current.tombstones.isDead(rows.get(i))) {
+                continue;
+            }
+            Student student = current.store.get(rows.get(i));
+            int above = current.attributeIndex.countGpaAbove(student.getGpa(), current.store);
+            ranked.add(new RankedStudent(student, above + 1));
+        }
+        OperationMetrics.finish(OperationMetrics.Operation.RANK, metrics, ranked.size());
+        return ranked;
+    }
+    
+    /**
+     * 🔀 Switch to another storage engine (list, columnar or off-heap)
+     * Question: What happens to students already in the database?
+     * Solution: They are copied into the new engine, so the switch is invisible to callers
+     */
+    public static void useStorage(StorageEngine engine) {
+        long stamp = lock.writeLock();
+        try {
+            State current = state;
+            if (StorageEngine.of(current.store) == engine) {
+                return;
+            }
+            NamePool namePool = current.store.getNamePool();
+            boolean samePool = namePool.isOffHeap() == (engine == StorageEngine.OFF_HEAP);
+            if (samePool && current.tombstones.isEmpty()) {
+                // Same pool, same rows: every name and row keeps its number and the indexes stay valid
+                StudentStore target = createStore(engine, namePool);
+                for (int row = 0; row < current.store.size(); row++) {
+                    target.add(current.store.get(row));
+                }
+                state = current.withStore(target);
+                return;
+            }
+            // Names moving between the heap and direct memory get new ids, and leaving deleted
+            // rows behind renumbers the rest, so the indexes are rebuilt
+            StudentStore target = createStore(engine);
+            int[] ids = copyLive(current, current.tombstones, current.store.size(), target);
+            state = State.rebuild(target, ids, current.ids.nextId());
+            indexInBackground(state);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+    
+    public static void useColumnarStorage(boolean columnar) {
+        useStorage(columnar ? StorageEngine.COLUMNAR : StorageEngine.LIST);
+    }
+    
+    public static StorageEngine getStorage() {
+        return StorageEngine.of(state.store);
+    }
+    
+    public static boolean isColumnarStorage() {
+        return getStorage() == StorageEngine.COLUMNAR;
+    }
+    
+    /**
+     * 🔍 Find every student whose name matches (case-insensitive)
+     * Question: How do we avoid scanning the whole list on every search?
+     * Solution: Look the folded name up in a hash index - O(1) on average
+     */
+    public static List<Student> findByName(String name) {
+        return findByName(name, null);
+    }
+    
+    /**
+     * 🪪 Same as findByName(name), also appending each match's id to 'ids' - the i-th id is the
+     * i-th student's, which a second lookup could not promise while others update and delete
+     */
+    public static List<Student> findByName(String name, IntArray ids) {
+        OperationMetrics.Recorder metrics = OperationMetrics.start(OperationMetrics.Operation.SEARCH);
+        StudentEvents.Search event = new StudentEvents.Search();
+        event.begin();
+        State current = state;
+        RowList rows = current.nameIndex.find(name);
+        List<Student> matches = toStudents(current, rows, Integer.MAX_VALUE, ids);
+        event.finish(name, "exact", rows.size(), matches.size());
+        OperationMetrics.finish(OperationMetrics.Operation.SEARCH, metrics, matches.size());
+        return matches;
+    }
+    
+    /**
+     * 🔤 Find students whose name starts with the given prefix (case-insensitive)
+     * Question: How do we answer "starts with" queries quickly?
+     * Solution: Walk a sorted set of names from the prefix onwards and stop at the first non-match
+     */
+    public static List<Student> findByNamePrefix(String prefix, int limit) {
+        State current = state;
+        return toStudents(current, current.nameIndex.findPrefix(prefix, limit), limit, null);
+    }
+    
+    /**
+     * 🎯 Find students matching age, GPA and active conditions, e.g.
+     * query(StudentQuery.all().active(true).gpaBetween(3.5, 4.0).ageBetween(18, 22))
+     * Question: How do we avoid checking every student?
+     * Solution: The secondary indexes say how many rows each condition allows; the smallest
+     * of those sets is walked and only its rows are checked against the other conditions
+     */
+    public static List<Student> query(StudentQuery query) {
+        State current = state;
+        return new StudentRows(current.store, current.attributeIndex.select(query, current.store));
+    }
+    
+    /**
+     * 🎓 All students with a grade, e.g. findByGrade(Grade.B_PLUS)
+     * Question: Why is this instant however many students there are?
+     * Solution: The index keeps one list of rows per grade; the result is a view of that list
+     */
+    public static List<Student> findByGrade(Grade grade) {
+        State current = state;
+        RowList members = current.attributeIndex.gradeMembers(grade);
+        if (current.tombstones.isEmpty()) {
+            return new StudentRows(current.store, members, members.size());
+        }
+        return new StudentRows(current.store, current.tombstones.retainLive(members.toArray()));
+    }
+    
+    /**
+     * 🔢 How many students have a grade - the length of its index list less its deleted rows, O(1)
+     */
+    public static int countByGrade(Grade grade) {
+        return state.attributeIndex.countGrade(grade);
+    }
+    
+    /**
+     * 🔢 How many students match, without creating any Student objects
+     */
+    public static int count(StudentQuery query) {
+        State current = state;
+        return current.attributeIndex.select(query, current.store).length;
+    }
+    
+    /**
+     * 📊 Group-by report, e.g. average GPA per age, share of active students per grade, or
+     * students per age band - StudentGroupQuery says what to group by and what to compute
+     * Question: Why not fetch the students and count them in a map?
+     * Solution: GroupAggregator reads the store's columns directly into primitive per-core
+     * tables, so no Student object or boxed key is created however many rows there are
+     */
+    public static StudentGroups groupBy(StudentGroupQuery query) {
+        OperationMetrics.Recorder metrics = OperationMetrics.start(OperationMetrics.Operation.GROUP);
+        State current = state;
+        int size = indexedSize(current);
+        int[] rows = query.getFilter() == StudentQuery.all()
+            ? null
+            : current.attributeIndex.select(query.getFilter(), current.store);
+        StudentGroups groups = GroupAggregator.aggregate(current.store, rows, size, current.tombstones, query);
+        OperationMetrics.finish(OperationMetrics.Operation.GROUP, metrics, groups.getRowCount());
+        return groups;
+    }
+    
+    /**
+     * 🔎 Students whose name is like the query - exact, starting with it, containing it, or
+     * within a couple of typing mistakes - best matches first
+     * Question: How is this fast on millions of students?
+     * Solution: A trigram index narrows the search to names sharing pieces of the query; only
+     * those few names are compared letter by letter
+     */
+    public static List<NameMatch> searchNames(String query, int limit) {
+        OperationMetrics.Recorder metrics = OperationMetrics.start(OperationMetrics.Operation.NAME_SEARCH);
+        StudentEvents.Search event = new StudentEvents.Search();
+        event.begin();
+        State current = state;
+        List<NameMatch> matches = new ArrayList<>();
+        int scanned = 0;
+        for (NameIndex.KeyMatch key : current.nameIndex.findSimilar(query, limit)) {
+            RowList rows = current.nameIndex.rowsOfKey(key.key);
+            int count = rows.size();
+            scanned += count;
+            for (int i = 0; i < count && matches.size() < limit; i++) {
+                if (!current.tombstones.isDead(rows.get(i))) {
+                    matches.add(new NameMatch(current.store.get(rows.get(i)), key.kind, key.distance, key.similarity));
+                }
+            }
+            if (matches.size() >= limit) {
+                break;
+            }
+        }
+        event.finish(query, "similar", scanned, matches.size());
+        OperationMetrics.finish(OperationMetrics.Operation.NAME_SEARCH, metrics, matches.size());
+        return matches;
+    }
+    
+    /**
+     * ♻️ Replace every student with the contents of an already-filled store, whose rows have the given ids
+     * Question: Why not add the loaded students one by one?
+     * Solution: The indexes and totals are rebuilt in one pass, then swapped in all at once; the
+     * name index, the slowest to build, is built by a background thread meanwhile and after; a
+     * name lookup that comes first waits for it
+     */
+    static void restore(StudentStore loaded, int[] ids, int nextId) throws IOException {
+        State restored = State.rebuild(loaded, ids, nextId);
+        indexInBackground(restored);
+        StudentWriteAheadLog log = writeAheadLog;
+        if (log == null) {
+            long stamp = lock.writeLock();
+            try {
+                state = restored;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+            return;
+        }
+        
+        // Question: How does the log learn about a wholesale replacement?
+        // Solution: Save the new students as the log's checkpoint first, then switch to a fresh segment
+        log.beginCheckpoint();
+        try {
+            long checkpoint = log.getGeneration() + 1;
+            log.writeCheckpoint(snapshot(restored, loaded.size()), checkpoint);
+            long stamp = lock.writeLock();
+            try {
+                state = restored;
+                log.rotate();
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+            log.deleteSegmentsBefore(checkpoint);
+        } finally {
+            log.endCheckpoint();
+        }
+    }
+    
+    // Build a new generation's name index on a thread of its own, alongside whatever the caller
+    // does next; a lookup that needs it sooner waits for it to finish
+    private static void indexInBackground(State generation) {
+        Thread indexer = new Thread(generation.nameIndex::indexEverything, "student-indexer");
+        indexer.setDaemon(true);
+        indexer.start();
+    }
+    
+    /**
+     * 🗑️ Clear database
+     * Question: What about threads still reading the old students?
+     * Solution: We swap in a fresh, empty generation instead of emptying the old one in place
+     */
+    public static void clearDatabase() {
+        long logSequence = 0L;
+        long stamp = lock.writeLock();
+        try {
+            // Ids carry on where they were, so an id never refers to two different students
+            state = new State(createStore(StorageEngine.of(state.store)), state.ids.nextId());
+            StudentWriteAheadLog log = writeAheadLog;
+            if (log != null) {
+                logSequence = log.appendClear();
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        awaitDurable(logSequence);
+    }
+    
+    /**
+     * 🛟 Start logging every change to a write-ahead log (after it has been replayed)
+     */
+    static void attachWriteAheadLog(StudentWriteAheadLog log) {
+        long stamp = lock.writeLock();
+        try {
+            writeAheadLog = log;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+    
+    /**
+     * 🔄 Start a new log segment and return the students it does not cover
+     * Question: Why both under the same write lock?
+     * Solution: No student can slip in between, so the snapshot holds exactly the older segments' records
+     */
+    static StudentSnapshot rotateWriteAheadLog(StudentWriteAheadLog log) throws IOException {
+        long stamp = lock.writeLock();
+        try {
+            log.rotate();
+            State current = state;
+            return snapshot(current, current.store.size());
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+    
+    static StudentStore createStore(StorageEngine engine) {
+        return createStore(engine, engine == StorageEngine.OFF_HEAP ? NamePool.offHeap() : new NamePool());
+    }
+    
+    static StudentStore createStore(StorageEngine engine, NamePool namePool) {
+        switch (engine) {
+            case COLUMNAR:
+                return new ColumnarStudentStore(namePool);
+            case OFF_HEAP:
+                return new OffHeapStudentStore(namePool);
+            default:
+                return new ListStudentStore(namePool);
+        }
+    }
+    
+    /**
+     * ✍️ Apply every queued student - caller must hold the write lock
+     */
+    private static int applyPendingWrites() {
+        State current = state;
+        PendingWrite write;
+        int applied = 0;
+        while ((write = pendingWrites.poll()) != null) {
+            write.id = current.ids.nextId();
+            write.logSequence = apply(current, write.student);
+            write.applied = true;
+            applied++;
+        }
+        return applied;
+    }
+    
+    /**
+     * ✍️ Add one new student, with the next id, to the store, indexes, totals and log - returns
+     * the log sequence number
+     */
+    private static long apply(State current, Student student) {
+        append(current, student, current.ids.nextId());
+        StudentWriteAheadLog log = writeAheadLog;
+        return log != null ? log.appendInsert(student) : 0L;
+    }
+    
+    /**
+     * ➕ Append a row to the store, indexes and totals under the given id - a new student, the
+     * new version of an updated one, or one a compaction is catching up with
+     */
+    private static void append(State current, Student student, int id) {
+        int row = current.store.size();
+        // Store first: a row number must never be visible in an index before its data
+        current.store.add(student);
+        current.ids.add(id, row);
+        current.nameIndex.add(student.getName(), current.store.getNameId(row), row);
+        current.attributeIndex.add(row, student.getAge(), student.getGpa(), student.getGradeLevel(), student.isActive());
+        current.statistics.accept(row, student.getAge(), student.getGpa(), student.getGradeLevel(), student.isActive());
+    }
+    
+    /**
+     * 🪦 Tombstone a row and take it out of the id map and totals; the index lists keep it until compaction
+     */
+    private static void remove(State current, int row) {
+        StudentStore store = current.store;
+        current.tombstones.kill(row);
+        current.ids.remove(current.ids.idOf(row), row);
+        int age = store.getAge(row);
+        double gpa = store.getGpa(row);
+        Grade grade = store.getGrade(row);
+        boolean active = store.isActive(row);
+        current.attributeIndex.remove(age, gpa, grade, active);
+        current.statistics.remove(row, age, gpa, grade, active, current.attributeIndex, store);
+    }
+    
+    /**
+     * 🧹 Reclaim the rows of deleted and replaced students - returns how many rows were freed
+     * Question: How is every index rebuilt without holding up writers for the whole rebuild?
+     * Solution: The live rows are copied into a new store and indexed outside the lock; under it,
+     * only the students added or deleted meanwhile are caught up with before the new generation
+     * is swapped in. Ids survive; row numbers do not
+     */
+    public static int compact() {
+        State before;
+        int copied;
+        Tombstones deadAtCopy;
+        long stamp = lock.writeLock();
+        try {
+            before = state;
+            copied = before.store.size();
+            deadAtCopy = before.tombstones.copy(copied);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        if (deadAtCopy.isEmpty()) {
+            return 0;
+        }
+        
+        StudentStore target = createStore(StorageEngine.of(before.store));
+        int[] ids = copyLive(before, deadAtCopy, copied, target);
+        State compacted = State.rebuild(target, ids, before.ids.nextId());
+        // Still outside the lock: the catching up below adds names, which would build the index under it
+        compacted.nameIndex.indexDeferred();
+        
+        stamp = lock.writeLock();
+        try {
+            if (state != before) {
+                return 0; // cleared, restored or moved to another engine meanwhile
+            }
+            // Rows appended since the copy (new students and new versions), then rows deleted since
+            int size = before.store.size();
+            for (int row = before.tombstones.nextLive(copied, size); row < size; row = before.tombstones.nextLive(row + 1, size)) {
+                append(compacted, before.store.get(row), before.ids.idOf(row));
+            }
+            int[] deadBeforeWords = deadAtCopy.deadBeforeWords();
+            for (int row : before.tombstones.killedSince(deadAtCopy, copied)) {
+                remove(compacted, deadAtCopy.positionAfterCompaction(row, deadBeforeWords));
+            }
+            compacted.ids.reserve(before.ids.nextId());
+            state = compacted;
+            return size - compacted.store.size();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+    
+    // Start compact() in the background once deleted rows make up enough of the store
+    private static void compactIfWorthwhile() {
+        State current = state;
+        int dead = current.tombstones.count();
+        if (dead < MIN_COMPACT_ROWS || dead < COMPACT_RATIO * current.store.size()
+                || !compacting.compareAndSet(false, true)) {
+            return;
+        }
+        Thread compactor = new Thread(() -> {
+            try {
+                compact();
+            } finally {
+                compacting.set(false);
+            }
+        }, "student-compactor");
+        compactor.setDaemon(true);
+        compactor.start();
+    }
+    
+    // Copy the rows below 'size' not dead in 'dead' into 'target'; returns their ids in the same order
+    private static int[] copyLive(State from, Tombstones dead, int size, StudentStore target) {
+        IntArray ids = new IntArray();
+        for (int row = dead.nextLive(0, size); row < size; row = dead.nextLive(row + 1, size)) {
+            target.add(from.store.get(row));
+            ids.add(from.ids.idOf(row));
+        }
+        return ids.toArray();
+    }
+    
+    private static void awaitDurable(long logSequence) {
+        StudentWriteAheadLog log = writeAheadLog;
+        if (log != null && logSequence > 0L) {
+            log.awaitDurable(logSequence);
+        }
+    }
+    
+    /**
+     * 🔁 Helper method to turn row numbers into Student objects, skipping deleted rows (and
+     * collecting their ids when 'ids' is not null)
+     */
+    private static List<Student> toStudents(State current, RowList rows, int limit, IntArray ids) {
+        int count = rows.size();
+        List<Student> result = new ArrayList<>(Math.min(count, limit));
+        for (int i = 0; i < count && result.size() < limit; i++) {
+            int row = rows.get(i);
+            if (!current.tombstones.isDead(row)) {
+                result.add(current.store.get(row));
+                if (ids != null) {
+                    ids.add(current.ids.idOf(row));
+                }
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * 🧩 State - one generation of store, indexes and running totals
+     */
+    private static final class State {
+        final StudentStore store;
+        final StudentIds ids;
+        final Tombstones tombstones;
+        final NameIndex nameIndex;
+        final AttributeIndex attributeIndex;
+        final StatisticsAccumulator statistics;
+        final SortIndexes sortIndexes;
+        
+        // An empty generation whose first student gets id 'nextId'
+        State(StudentStore store, int nextId) {
+            this(store, new StudentIds(nextId), new Tombstones());
+        }
+        
+        private State(StudentStore store, StudentIds ids, Tombstones tombstones) {
+            this(store, ids, tombstones, new NameIndex(tombstones), new AttributeIndex(tombstones),
+                new StatisticsAccumulator(LEADERBOARD_SIZE));
+        }
+        
+        private State(StudentStore store, StudentIds ids, Tombstones tombstones, NameIndex nameIndex,
+                      AttributeIndex attributeIndex, StatisticsAccumulator statistics) {
+            this.store = store;
+            this.ids = ids;
+            this.tombstones = tombstones;
+            this.nameIndex = nameIndex;
+            this.attributeIndex = attributeIndex;
+            this.statistics = statistics;
+            this.sortIndexes = new SortIndexes(store, nameIndex);
+        }
+        
+        // A generation holding every row of 'store', row i with id ids[i]
+        // Question: Which parts are built right away?
+        // Solution: The attribute index on a pool thread, while this one does the ids and the totals;
+        // the name index only records which rows it still has to take in (see NameIndex.addLater)
+        static State rebuild(StudentStore store, int[] ids, int nextId) {
+            Tombstones tombstones = new Tombstones();
+            int size = store.size();
+            ForkJoinTask<AttributeIndex> attributeIndex = ForkJoinPool.commonPool().submit(() -> {
+                AttributeIndex index = new AttributeIndex(tombstones);
+                index.addAll(store, size);
+                return index;
+            });
+            NameIndex nameIndex = new NameIndex(tombstones, store.getNamePool().size());
+            nameIndex.addLater(store, size);
+            StudentIds studentIds = new StudentIds(ids, size, nextId);
+            StatisticsAccumulator statistics = StudentStatistics.accumulate(store, LEADERBOARD_SIZE);
+            return new State(store, studentIds, tombstones, nameIndex, attributeIndex.join(), statistics);
+        }
+        
+        State withStore(StudentStore newStore) {
+            return new State(newStore, ids, tombstones, nameIndex, attributeIndex, statistics);
+        }
+    }
+    
+    /**
+     * 📨 PendingWrite - one queued student, the id it was given and whether it has been applied yet
+     */
+    private static final class PendingWrite {
+        final Student student;
+        int id;
+        long logSequence;
+        volatile boolean applied;
+        
+        PendingWrite(Student student) {
+            this.student = student;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package studentdb;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * 🛩️ StudentEvents class - JDK Flight Recorder events for inserts, searches, statistics and rendering
+ * Question: How do we tie a GC pause or a hot CPU sample to the database call that caused it?
+ * Solution: Each call commits an event with its duration and record count, which JFR puts on the
+ * same per-thread timeline as its own GC, allocation and CPU samples
+ *
+ * Nothing is recorded unless the JVM runs a recording, e.g.
+ *   java -XX:StartFlightRecording=filename=students.jfr,settings=profile Main
+ * Until then shouldCommit() is always false and the JIT removes the unused event objects, so
+ * the instrumented calls cost next to nothing. Busy sessions can keep only the slow calls with
+ * a settings file, e.g.
+ *   jfr configure --output slow.jfc +studentdb.Search#enabled=true +studentdb.Search#threshold=1ms
+ * (an event listed in a .jfc file needs "enabled" as well, or it is switched off)
+ *
+ * Usage around an operation:
+ *   StudentEvents.Search event = new StudentEvents.Search();
+ *   event.begin();
+ *   ...
+ *   event.finish(query, "exact", rows.size(), matches.size());
+ */
+final class StudentEvents {
+    static final String CATEGORY = "Student Database";
+    
+    private StudentEvents() {
+    }
+    
+    @Name("studentdb.Insert")
+    @Label("Student Insert")
+    @Description("addStudent() or addStudents(); one lock turn may also write students queued by other threads")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    static final class Insert extends Event {
+        @Label("Batch Size")
+        @Description("Students passed to this call")
+        int batchSize;
+        
+        @Label("Records Written")
+        @Description("Students this call wrote to the store, including ones queued by other threads")
+        int recordCount;
+        
+        void finish(int batchSize, int recordCount) {
+            if (shouldCommit()) {
+                this.batchSize = batchSize;
+                this.recordCount = recordCount;
+                commit();
+            }
+        }
+    }
+    
+    @Name("studentdb.Search")
+    @Label("Student Search")
+    @Description("findByName() or searchNames()")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    static final class Search extends Event {
+        @Label("Query")
+        String query;
+        
+        @Label("Kind")
+        @Description("exact (name index lookup) or similar (prefix, substring and typo search)")
+        String kind;
+        
+        @Label("Hit")
+        boolean hit;
+        
+        @Label("Records Scanned")
+        @Description("Index rows read to answer the query")
+        int recordsScanned;
+        
+        @Label("Records Returned")
+        int recordCount;
+        
+        void finish(String query, String kind, int recordsScanned, int recordCount) {
+            if (shouldCommit()) {
+                this.query = query;
+                this.kind = kind;
+                this.hit = recordCount > 0;
+                this.recordsScanned = recordsScanned;
+                this.recordCount = recordCount;
+                commit();
+            }
+        }
+    }
+    
+    @Name("studentdb.Statistics")
+    @Label("Student Statistics")
+    @Description("A copy of the running totals (getStatistics) or a full pass over the store (rebuild)")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    static final class Statistics extends Event {
+        @Label("Full Pass")
+        @Description("True when every row was read, false when the running totals were copied")
+        boolean fullPass;
+        
+        @Label("Records")
+        @Description("Students the statistics cover")
+        long recordCount;
+        
+        void finish(boolean fullPass, long recordCount) {
+            if (shouldCommit()) {
+                this.fullPass = fullPass;
+                this.recordCount = recordCount;
+                commit();
+            }
+        }
+    }
+    
+    @Name("studentdb.Render")
+    @Label("Student List Render")
+    @Description("Rows formatted and written by StudentTableRenderer")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    static final class Render extends Event {
+        @Label("Rows Printed")
+        int recordCount;
+        
+        void finish(int recordCount) {
+            if (shouldCommit()) {
+                this.recordCount = recordCount;
+                commit();
+            }
+        }
+    }
+}
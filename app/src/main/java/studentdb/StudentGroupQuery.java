@@ -0,0 +1,204 @@
+package studentdb;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 📊 StudentGroupQuery class - what a group-by report groups on and what it works out per group
+ *   StudentGroupQuery.by(Dimension.AGE).aggregate(Aggregate.AVG, Measure.GPA)         average GPA per age
+ *   StudentGroupQuery.by(Dimension.GRADE).aggregate(Aggregate.AVG, Measure.ACTIVE)    share of active students per grade
+ *   StudentGroupQuery.by(Dimension.AGE_BAND).ageBandWidth(10).count()                 students per ten years of age
+ * Like StudentQuery, every method returns a new query; where() limits the report to a query's matches
+ */
+public class StudentGroupQuery {
+    public static final int DEFAULT_BAND_WIDTH = 5;
+    
+    public enum Dimension { AGE, AGE_BAND, GRADE, ACTIVE, NAME }
+    
+    // ACTIVE counts as 1 or 0, so its sum is the number of active students and its average their share
+    enum Measure { AGE, GPA, ACTIVE }
+    
+    /**
+     * 🧮 Aggregate functions - each turns the same running totals of a group into one number
+     * Question: Why keep count, sum, min and max for every measure instead of one value per function?
+     * Solution: All of them merge by simple addition or comparison, so partial results from
+     * different cores combine exactly; an average is only divided out at the very end
+     */
+    enum Aggregate {
+        COUNT {
+            double of(long count, double sum, double min, double max) { return count; }
+        },
+        SUM {
+            double of(long count, double sum, double min, double max) { return sum; }
+        },
+        AVG {
+            double of(long count, double sum, double min, double max) { return sum / count; }
+        },
+        MIN {
+            double of(long count, double sum, double min, double max) { return min; }
+        },
+        MAX {
+            double of(long count, double sum, double min, double max) { return max; }
+        };
+        
+        abstract double of(long count, double sum, double min, double max);
+    }
+    
+    /**
+     * 📐 One number per group: an aggregate of a measure, e.g. avg:gpa (COUNT needs no measure)
+     */
+    public static final class Column {
+        private static final Column COUNT = new Column(Aggregate.COUNT, null);
+        
+        private final Aggregate aggregate;
+        private final Measure measure;
+        
+        private Column(Aggregate aggregate, Measure measure) {
+            this.aggregate = aggregate;
+            this.measure = measure;
+        }
+        
+        public Aggregate getAggregate() { return aggregate; }
+        public Measure getMeasure() { return measure; }
+        
+        // "count", "avg:gpa" - the form fromOptions() reads back
+        public String getLabel() {
+            String function = aggregate.name().toLowerCase(Locale.ROOT);
+            return measure == null ? function : function + ":" + measure.name().toLowerCase(Locale.ROOT);
+        }
+    }
+    
+    private final List<Dimension> dimensions;
+    private final List<Column> columns;
+    private final int bandWidth;
+    private final StudentQuery filter;
+    
+    private StudentGroupQuery(List<Dimension> dimensions, List<Column> columns, int bandWidth, StudentQuery filter) {
+        this.dimensions = dimensions;
+        this.columns = columns;
+        this.bandWidth = bandWidth;
+        this.filter = filter;
+    }
+    
+    /**
+     * 🧭 Group by these dimensions, outermost first; none at all gives one group with every student
+     */
+    public static StudentGroupQuery by(Dimension... dimensions) {
+        boolean[] seen = new boolean[Dimension.values().length];
+        for (Dimension dimension : dimensions) {
+            if (seen[dimension.ordinal()]) {
+                throw new IllegalArgumentException("Cannot group by " + dimension.name().toLowerCase(Locale.ROOT) + " twice");
+            }
+            seen[dimension.ordinal()] = true;
+        }
+        return new StudentGroupQuery(List.of(dimensions), List.of(), DEFAULT_BAND_WIDTH, StudentQuery.all());
+    }
+    
+    public StudentGroupQuery count() {
+        return with(Column.COUNT);
+    }
+    
+    public StudentGroupQuery aggregate(Aggregate aggregate, Measure measure) {
+        if (aggregate == Aggregate.COUNT) {
+            return count();
+        }
+        if (measure == null) {
+            throw new IllegalArgumentException(aggregate.name().toLowerCase(Locale.ROOT) + " needs a measure (age, gpa or active)");
+        }
+        return with(new Column(aggregate, measure));
+    }
+    
+    public StudentGroupQuery ageBandWidth(int years) {
+        if (years < 1 || years > Student.MAX_AGE - Student.MIN_AGE + 1) {
+            throw new IllegalArgumentException("band must be between 1 and " + (Student.MAX_AGE - Student.MIN_AGE + 1));
+        }
+        return new StudentGroupQuery(dimensions, columns, years, filter);
+    }
+    
+    public StudentGroupQuery where(StudentQuery query) {
+        return new StudentGroupQuery(dimensions, columns, bandWidth, query);
+    }
+    
+    private StudentGroupQuery with(Column column) {
+        List<Column> extended = new ArrayList<>(columns);
+        extended.add(column);
+        return new StudentGroupQuery(dimensions, List.copyOf(extended), bandWidth, filter);
+    }
+    
+    /**
+     * 🔧 Build a report from text options (batch "group" arguments, HTTP query parameters)
+     * Recognised keys: by (age, band, grade, active, name; comma-separated), agg (count, or
+     * sum/avg/min/max:age|gpa|active; comma-separated, default count), band (years per age band);
+     * anything else is a StudentQuery option that picks which students are grouped
+     */
+    public static StudentGroupQuery fromOptions(Map<String, String> options) {
+        Map<String, String> where = new HashMap<>(options);
+        String byText = remove(where, "by");
+        String aggText = remove(where, "agg");
+        String bandText = remove(where, "band");
+        
+        List<Dimension> dimensions = new ArrayList<>();
+        if (byText != null) {
+            for (String name : byText.split(",")) {
+                if (!name.isBlank()) {
+                    dimensions.add(parseDimension(name.trim()));
+                }
+            }
+        }
+        StudentGroupQuery query = by(dimensions.toArray(new Dimension[0])).where(StudentQuery.fromOptions(where));
+        if (bandText != null) {
+            try {
+                query = query.ageBandWidth(Integer.parseInt(bandText.trim()));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("band must be a number");
+            }
+        }
+        if (aggText != null) {
+            for (String column : aggText.split(",")) {
+                String[] parts = column.trim().toLowerCase(Locale.ROOT).split(":", 2);
+                Aggregate aggregate = parse(Aggregate.class, "aggregate", parts[0]);
+                query = query.aggregate(aggregate, parts.length > 1 ? parse(Measure.class, "measure", parts[1]) : null);
+            }
+        }
+        return query;
+    }
+    
+    // Option names are matched like StudentQuery's, ignoring case
+    private static String remove(Map<String, String> options, String name) {
+        for (Iterator<String> keys = options.keySet().iterator(); keys.hasNext(); ) {
+            String key = keys.next();
+            if (key.equalsIgnoreCase(name)) {
+                String value = options.get(key);
+                keys.remove();
+                return value;
+            }
+        }
+        return null;
+    }
+    
+    private static Dimension parseDimension(String name) {
+        return name.equalsIgnoreCase("band") ? Dimension.AGE_BAND : parse(Dimension.class, "group", name);
+    }
+    
+    private static <E extends Enum<E>> E parse(Class<E> type, String what, String name) {
+        for (E constant : type.getEnumConstants()) {
+            if (constant.name().equalsIgnoreCase(name)) {
+                return constant;
+            }
+        }
+        StringBuilder expected = new StringBuilder();
+        for (E constant : type.getEnumConstants()) {
+            expected.append(expected.length() > 0 ? ", " : "").append(constant.name().toLowerCase(Locale.ROOT));
+        }
+        throw new IllegalArgumentException("Unknown " + what + " '" + name + "' (expected " + expected + ")");
+    }
+    
+    public List<Dimension> getDimensions() { return dimensions; }
+    public List<Column> getColumns() { return columns.isEmpty() ? List.of(Column.COUNT) : columns; }
+    public int getAgeBandWidth() { return bandWidth; }
+    public StudentQuery getFilter() { return filter; }
+}
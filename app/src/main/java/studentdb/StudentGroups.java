@@ -0,0 +1,47 @@
+package studentdb;
+
+import java.util.List;
+
+/**
+ * 📊 StudentGroups class - the answer to a StudentGroupQuery: one row per non-empty group
+ * Groups come in key order - ages and bands ascending, grades A to F, active before inactive,
+ * names in the order they first appeared - outermost dimension first
+ */
+public class StudentGroups {
+    private final StudentGroupQuery query;
+    private final List<Group> groups;
+    private final long rowCount;
+    
+    StudentGroups(StudentGroupQuery query, List<Group> groups, long rowCount) {
+        this.query = query;
+        this.groups = groups;
+        this.rowCount = rowCount;
+    }
+    
+    public StudentGroupQuery getQuery() { return query; }
+    public List<Group> getGroups() { return groups; }
+    // Students that went into the report (all of them, or the filter's matches)
+    public long getRowCount() { return rowCount; }
+    
+    public static final class Group {
+        private final int[] keys;
+        private final String[] labels;
+        private final long count;
+        private final double[] values;
+        
+        Group(int[] keys, String[] labels, long count, double[] values) {
+            this.keys = keys;
+            this.labels = labels;
+            this.count = count;
+            this.values = values;
+        }
+        
+        // Per dimension: the age, a band's first age, a grade's ordinal, 1 for active, a name's pool id
+        public int getKey(int dimension) { return keys[dimension]; }
+        // Per dimension, as printed: "20", "20-24", "B+", "active", "Alice"
+        public String getLabel(int dimension) { return labels[dimension]; }
+        public long getCount() { return count; }
+        // Per column of the query, e.g. the average GPA for avg:gpa
+        public double getValue(int column) { return values[column]; }
+    }
+}
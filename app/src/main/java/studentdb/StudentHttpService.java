@@ -0,0 +1,372 @@
+package studentdb;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * 🌐 StudentHttpService class - add, change, search, list and statistics over HTTP
+ * Question: How do other programs query the roster without the console?
+ * Solution: The JDK's built-in HTTP server answers JSON, written by hand by the Json helper
+ *
+ *   POST /students          {"name":"Ann","age":20,"gpa":3.5,"active":true}  -> 201 with the new id
+ *   GET  /students/42                                                         -> the student with id 42
+ *   PUT  /students/42       {"name":"Ann","age":21,"gpa":3.6,"active":true}   -> 200, 404 if there is none
+ *   DELETE /students/42                                                       -> 200, 404 if there is none
+ *   GET  /students?offset=0&limit=20&sort=gpa&order=desc&filter=active        -> one page
+ *   GET  /students/search?name=Ann                                           -> matches/suggestions
+ *   GET  /students/find?q=anna&limit=20                                      -> substring and typo matches
+ *   GET  /students/query?minAge=18&maxAge=22&minGpa=3.5&active=true&limit=20  -> count and first matches
+ *   GET  /students/groups?by=age,grade&agg=count,avg:gpa&active=true          -> group-by report
+ *   GET  /students/top?limit=10                                               -> leaderboard with ranks
+ *   GET  /students/rank?name=Ann                                              -> rank of every Ann
+ *   GET  /stats                                                               -> statistics
+ */
+public class StudentHttpService {
+    public static final int DEFAULT_PORT = 8080;
+    private static final int MAX_BODY_SIZE = 64 * 1024;
+    private static final int MAX_SUGGESTIONS = 5;
+    // Connections waiting to be accepted; the OS default (often 50) drops bursts of clients
+    private static final int ACCEPT_BACKLOG = 4096;
+    
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final String executorDescription;
+    
+    private StudentHttpService(HttpServer server, ExecutorService executor, String executorDescription) {
+        this.server = server;
+        this.executor = executor;
+        this.executorDescription = executorDescription;
+    }
+    
+    public static StudentHttpService start(InetSocketAddress address) throws IOException {
+        // Question: Why did every keep-alive request take ~40 ms?
+        // Solution: The server writes headers and body separately, and Nagle's algorithm holds
+        // the body back until the client's delayed ACK arrives; TCP_NODELAY sends it at once.
+        // The JDK reads this property once, so it must be set before the first server is created
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+        HttpServer server = HttpServer.create(address, ACCEPT_BACKLOG);
+        ExecutorService executor = newVirtualThreadExecutor();
+        String description = "virtual threads";
+        if (executor == null) {
+            int threads = Math.max(8, Runtime.getRuntime().availableProcessors() * 4);
+            executor = Executors.newFixedThreadPool(threads, task -> {
+                Thread thread = new Thread(task, "student-http");
+                thread.setDaemon(true);
+                return thread;
+            });
+            description = threads + " worker threads";
+        }
+        
+        StudentHttpService service = new StudentHttpService(server, executor, description);
+        server.createContext("/students", service::handleStudents);
+        server.createContext("/students/search", service::handleSearch);
+        server.createContext("/students/find", service::handleFind);
+        server.createContext("/students/query", service::handleQuery);
+        server.createContext("/students/groups", service::handleGroups);
+        server.createContext("/students/top", service::handleTop);
+        server.createContext("/students/rank", service::handleRank);
+        server.createContext("/stats", service::handleStats);
+        server.setExecutor(executor);
+        server.start();
+        return service;
+    }
+    
+    /**
+     * 🧵 One virtual thread per request when the JDK has them (21+)
+     * Question: Why look the method up by name?
+     * Solution: The project still compiles for Java 17, where the method does not exist; there
+     * a fixed pool is used instead, and extra requests wait in its queue rather than each
+     * getting an expensive platform thread
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            return null;
+        }
+    }
+    
+    public int getPort() { return server.getAddress().getPort(); }
+    public String getExecutorDescription() { return executorDescription; }
+    
+    /**
+     * 🛑 Stop accepting requests, give running ones a moment to finish, then stop the workers
+     */
+    public void stop() {
+        server.stop(1);
+        executor.shutdown();
+    }
+    
+    private void handleStudents(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        if (path.startsWith("/students/")) {
+            handleStudent(exchange, path.substring("/students/".length()));
+        } else if (!path.equals("/students")) {
+            sendError(exchange, 404, "Not found");
+        } else if (exchange.getRequestMethod().equals("POST")) {
+            addStudent(exchange);
+        } else if (exchange.getRequestMethod().equals("GET")) {
+            respond(exchange, () -> {
+                StudentPageRequest request = StudentPageRequest.fromOptions(queryParameters(exchange));
+                return Json.page(new StringBuilder(256).append("{\"ok\":true"), request).append('}');
+            }, 200);
+        } else {
+            sendError(exchange, 405, "Use GET or POST");
+        }
+    }
+    
+    private void addStudent(HttpExchange exchange) throws IOException {
+        byte[] body = readBody(exchange);
+        if (body == null) {
+            return;
+        }
+        respond(exchange, () -> {
+            Student student = parseStudent(body);
+            int id = StudentDatabase.addStudent(student);
+            return Json.identifiedStudent(new StringBuilder(128).append("{\"ok\":true"), id, student).append('}');
+        }, 201);
+    }
+    
+    /**
+     * 🪪 GET, PUT or DELETE /students/{id}
+     */
+    private void handleStudent(HttpExchange exchange, String idText) throws IOException {
+        int id;
+        try {
+            id = Integer.parseInt(idText);
+        } catch (NumberFormatException e) {
+            sendError(exchange, 404, "Not found");
+            return;
+        }
+        String method = exchange.getRequestMethod();
+        if (method.equals("GET")) {
+            Student student = StudentDatabase.getStudent(id);
+            if (student == null) {
+                sendError(exchange, 404, "No student with id " + id);
+                return;
+            }
+            send(exchange, 200, Json.identifiedStudent(new StringBuilder(128).append("{\"ok\":true"), id, student).append('}'));
+        } else if (method.equals("PUT")) {
+            byte[] body = readBody(exchange);
+            if (body == null) {
+                return;
+            }
+            Student student;
+            try {
+                student = parseStudent(body);
+            } catch (IllegalArgumentException e) {
+                sendError(exchange, 400, e.getMessage());
+                return;
+            }
+            if (!StudentDatabase.updateStudent(id, student)) {
+                sendError(exchange, 404, "No student with id " + id);
+                return;
+            }
+            send(exchange, 200, Json.identifiedStudent(new StringBuilder(128).append("{\"ok\":true"), id, student).append('}'));
+        } else if (method.equals("DELETE")) {
+            if (!StudentDatabase.deleteStudent(id)) {
+                sendError(exchange, 404, "No student with id " + id);
+                return;
+            }
+            send(exchange, 200, new StringBuilder(32).append("{\"ok\":true,\"id\":").append(id).append('}'));
+        } else {
+            sendError(exchange, 405, "Use GET, PUT or DELETE");
+        }
+    }
+    
+    // The request body, or null after answering 413 when it is too large
+    private static byte[] readBody(HttpExchange exchange) throws IOException {
+        byte[] body = exchange.getRequestBody().readNBytes(MAX_BODY_SIZE + 1);
+        if (body.length > MAX_BODY_SIZE) {
+            sendError(exchange, 413, "Request body is larger than " + MAX_BODY_SIZE + " bytes");
+            return null;
+        }
+        return body;
+    }
+    
+    private static Student parseStudent(byte[] body) {
+        Map<String, Object> fields = Json.parseObject(new String(body, StandardCharsets.UTF_8));
+        return Student.validated(
+            field(fields, "name", String.class),
+            wholeNumber(field(fields, "age", Double.class)),
+            field(fields, "gpa", Double.class),
+            field(fields, "active", Boolean.class));
+    }
+    
+    private void handleSearch(HttpExchange exchange) throws IOException {
+        if (!exchange.getRequestMethod().equals("GET")) {
+            sendError(exchange, 405, "Use GET");
+            return;
+        }
+        respond(exchange, () -> {
+            String name = queryParameters(exchange).get("name");
+            if (name == null) {
+                throw new IllegalArgumentException("Missing query parameter 'name'");
+            }
+            IntArray ids = new IntArray();
+            List<Student> matches = StudentDatabase.findByName(name, ids);
+            List<NameMatch> suggestions = matches.isEmpty() && !name.isEmpty()
+                ? StudentDatabase.searchNames(name, MAX_SUGGESTIONS)
+                : List.of();
+            return Json.searchResult(new StringBuilder(256).append("{\"ok\":true"), name, matches, ids, suggestions).append('}');
+        }, 200);
+    }
+    
+    private void handleFind(HttpExchange exchange) throws IOException {
+        if (!exchange.getRequestMethod().equals("GET")) {
+            sendError(exchange, 405, "Use GET");
+            return;
+        }
+        respond(exchange, () -> {
+            Map<String, String> options = queryParameters(exchange);
+            String text = options.get("q");
+            if (text == null || text.isEmpty()) {
+                throw new IllegalArgumentException("Missing query parameter 'q'");
+            }
+            List<NameMatch> matches = StudentDatabase.searchNames(text, Json.takeLimit(options));
+            StringBuilder out = Json.string(new StringBuilder(256).append("{\"ok\":true,\"query\":"), text);
+            return Json.nameMatches(out.append(",\"matches\":"), matches).append('}');
+        }, 200);
+    }
+    
+    private void handleQuery(HttpExchange exchange) throws IOException {
+        if (!exchange.getRequestMethod().equals("GET")) {
+            sendError(exchange, 405, "Use GET");
+            return;
+        }
+        respond(exchange, () -> {
+            Map<String, String> options = queryParameters(exchange);
+            int limit = Json.takeLimit(options);
+            List<Student> matches = StudentDatabase.query(StudentQuery.fromOptions(options));
+            return Json.queryResult(new StringBuilder(256).append("{\"ok\":true"), matches, limit).append('}');
+        }, 200);
+    }
+    
+    private void handleGroups(HttpExchange exchange) throws IOException {
+        if (!exchange.getRequestMethod().equals("GET")) {
+            sendError(exchange, 405, "Use GET");
+            return;
+        }
+        respond(exchange, () -> {
+            StudentGroups groups = StudentDatabase.groupBy(StudentGroupQuery.fromOptions(queryParameters(exchange)));
+            return Json.groups(new StringBuilder(1024).append("{\"ok\":true"), groups).append('}');
+        }, 200);
+    }
+    
+    private void handleTop(HttpExchange exchange) throws IOException {
+        if (!exchange.getRequestMethod().equals("GET")) {
+            sendError(exchange, 405, "Use GET");
+            return;
+        }
+        respond(exchange, () -> {
+            int limit = Json.takeLimit(queryParameters(exchange));
+            StringBuilder out = new StringBuilder(256).append("{\"ok\":true,\"students\":");
+            return Json.rankedStudents(out, StudentDatabase.getLeaderboard(limit)).append('}');
+        }, 200);
+    }
+    
+    private void handleRank(HttpExchange exchange) throws IOException {
+        if (!exchange.getRequestMethod().equals("GET")) {
+            sendError(exchange, 405, "Use GET");
+            return;
+        }
+        respond(exchange, () -> {
+            String name = queryParameters(exchange).get("name");
+            if (name == null) {
+                throw new IllegalArgumentException("Missing query parameter 'name'");
+            }
+            StringBuilder out = Json.string(new StringBuilder(256).append("{\"ok\":true,\"name\":"), name);
+            out.append(",\"total\":").append(StudentDatabase.getStudentCount());
+            return Json.rankedStudents(out.append(",\"matches\":"), StudentDatabase.findRanks(name)).append('}');
+        }, 200);
+    }
+    
+    private void handleStats(HttpExchange exchange) throws IOException {
+        if (!exchange.getRequestMethod().equals("GET")) {
+            sendError(exchange, 405, "Use GET");
+            return;
+        }
+        respond(exchange, () -> Json.statistics(new StringBuilder(512).append("{\"ok\":true"),
+            StudentDatabase.getStatistics()).append('}'), 200);
+    }
+    
+    /**
+     * 📨 Build the answer and send it; bad input becomes a 400 with the validation message
+     */
+    private static void respond(HttpExchange exchange, Answer answer, int status) throws IOException {
+        CharSequence json;
+        try {
+            json = answer.build();
+        } catch (IllegalArgumentException e) {
+            sendError(exchange, 400, e.getMessage());
+            return;
+        }
+        send(exchange, status, json);
+    }
+    
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        send(exchange, status, Json.string(new StringBuilder(64).append("{\"ok\":false,\"error\":"), message).append('}'));
+    }
+    
+    private static void send(HttpExchange exchange, int status, CharSequence json) throws IOException {
+        // Json escapes everything outside ASCII, so one byte per char is exact
+        byte[] bytes = json.toString().getBytes(StandardCharsets.US_ASCII);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream body = exchange.getResponseBody()) {
+            body.write(bytes);
+        }
+    }
+    
+    private static Map<String, String> queryParameters(HttpExchange exchange) {
+        Map<String, String> parameters = new HashMap<>();
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null || query.isEmpty()) {
+            return parameters;
+        }
+        for (String pair : query.split("&")) {
+            if (pair.isEmpty()) {
+                continue;
+            }
+            int equals = pair.indexOf('=');
+            String key = equals < 0 ? pair : pair.substring(0, equals);
+            String value = equals < 0 ? "" : pair.substring(equals + 1);
+            parameters.put(URLDecoder.decode(key, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return parameters;
+    }
+    
+    private static <T> T field(Map<String, Object> fields, String name, Class<T> type) {
+        Object value = fields.get(name);
+        if (!type.isInstance(value)) {
+            throw new IllegalArgumentException("Field '" + name + "' must be a "
+                + (type == String.class ? "string" : type == Boolean.class ? "boolean" : "number"));
+        }
+        return type.cast(value);
+    }
+    
+    private static int wholeNumber(double value) {
+        if (value != Math.rint(value) || Math.abs(value) > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Age must be a whole number");
+        }
+        return (int) value;
+    }
+    
+    private interface Answer {
+        CharSequence build();
+    }
+}
@@ -0,0 +1,94 @@
+package studentdb;
+
+import java.util.Arrays;
+
+/**
+ * 🪪 StudentIds class - the stable id of every row, and the current row of every id
+ * Question: Why not use row numbers as ids?
+ * Solution: An update appends the new version as a new row and compaction renumbers every
+ * row; an id stays the same through both, so callers can hold on to it
+ *
+ * Ids are handed out in insertion order and never reused, not even after clearDatabase().
+ */
+final class StudentIds {
+    private static final int NO_ROW = -1;
+    
+    // Row -> id; appended in row order like every other index
+    private final RowList idsByRow = new RowList(16);
+    // Id -> current row, NO_ROW once deleted; 'nextId' is written last, after the array
+    private int[] rowsById;
+    private volatile int nextId;
+    
+    StudentIds(int nextId) {
+        this.rowsById = new int[Math.max(nextId, 16)];
+        Arrays.fill(rowsById, NO_ROW);
+        this.nextId = nextId;
+    }
+    
+    /**
+     * 📦 Ids for rows 0..count-1 at once, row i with id ids[i]
+     */
+    StudentIds(int[] ids, int count, int nextId) {
+        this(nextId);
+        for (int row = 0; row < count; row++) {
+            ensureCapacity(ids[row] + 1);
+            idsByRow.append(ids[row]);
+            rowsById[ids[row]] = row;
+            if (ids[row] >= this.nextId) {
+                this.nextId = ids[row] + 1;
+            }
+        }
+        idsByRow.publish();
+    }
+    
+    int nextId() { return nextId; }
+    int idOf(int row) { return idsByRow.get(row); }
+    
+    /**
+     * 🔍 Current row of an id, or -1 if it was deleted or never handed out
+     */
+    int rowOf(int id) {
+        int limit = nextId;
+        int[] rows = rowsById;
+        return id >= 0 && id < limit ? rows[id] : NO_ROW;
+    }
+    
+    /**
+     * ➕ Record the id of the next row - rows must arrive in order 0, 1, 2, ...
+     */
+    void add(int id, int row) {
+        idsByRow.add(id);
+        ensureCapacity(id + 1);
+        rowsById[id] = row;
+        if (id >= nextId) {
+            nextId = id + 1;
+        }
+    }
+    
+    /**
+     * ➖ Forget a deleted row - unless its id has already moved on to a newer row
+     */
+    void remove(int id, int row) {
+        if (rowsById[id] == row) {
+            rowsById[id] = NO_ROW;
+        }
+    }
+    
+    /**
+     * 🔢 Let the next id start at least here, e.g. after a clear or a compaction
+     */
+    void reserve(int id) {
+        if (id > nextId) {
+            ensureCapacity(id);
+            nextId = id;
+        }
+    }
+    
+    private void ensureCapacity(int capacity) {
+        if (capacity > rowsById.length) {
+            int[] grown = Arrays.copyOf(rowsById, Math.max(capacity, rowsById.length * 2));
+            Arrays.fill(grown, rowsById.length, grown.length, NO_ROW);
+            rowsById = grown;
+        }
+    }
+}
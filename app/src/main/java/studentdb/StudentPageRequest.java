@@ -0,0 +1,117 @@
+package studentdb;
+
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 📄 StudentPageRequest class - which slice of the roster a listing should return
+ * Question: Why an object instead of five method parameters?
+ * Solution: Callers name only what they change (e.g. page(3, 20).sortedBy(GPA, true))
+ */
+public class StudentPageRequest {
+    public enum SortKey { INSERTION, NAME, AGE, GPA, GRADE }
+    public enum ActiveFilter { ALL, ACTIVE, INACTIVE }
+    
+    private final int offset;
+    private final int limit;
+    private final SortKey sortKey;
+    private final boolean descending;
+    private final ActiveFilter activeFilter;
+    
+    public StudentPageRequest(int offset, int limit, SortKey sortKey, boolean descending, ActiveFilter activeFilter) {
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("offset and limit must not be negative");
+        }
+        this.offset = offset;
+        this.limit = limit;
+        this.sortKey = sortKey;
+        this.descending = descending;
+        this.activeFilter = activeFilter;
+    }
+    
+    /**
+     * 📄 Page number 'page' (starting at 1) of 'pageSize' students, in insertion order
+     */
+    public static StudentPageRequest page(int page, int pageSize) {
+        long offset = (long) Math.max(page - 1, 0) * pageSize;
+        return new StudentPageRequest((int) Math.min(offset, Integer.MAX_VALUE), pageSize,
+            SortKey.INSERTION, false, ActiveFilter.ALL);
+    }
+    
+    /**
+     * 🔧 Build a request from text options (batch "list" arguments, HTTP query parameters)
+     * Recognised keys: offset, limit (default 20), sort (none/name/age/gpa/grade), order (asc/desc),
+     * filter (all/active/inactive); anything else is rejected
+     */
+    public static StudentPageRequest fromOptions(Map<String, String> options) {
+        int offset = 0;
+        int limit = 20;
+        SortKey sortKey = SortKey.INSERTION;
+        boolean descending = false;
+        ActiveFilter filter = ActiveFilter.ALL;
+        
+        for (Map.Entry<String, String> option : options.entrySet()) {
+            String key = option.getKey().toLowerCase(Locale.ROOT);
+            String value = option.getValue().toLowerCase(Locale.ROOT);
+            switch (key) {
+                case "offset":
+                    offset = parseCount(key, value);
+                    break;
+                case "limit":
+                    limit = parseCount(key, value);
+                    break;
+                case "sort":
+                    sortKey = value.equals("none") ? SortKey.INSERTION : parseEnum(SortKey.class, key, value);
+                    break;
+                case "order":
+                    if (!value.equals("asc") && !value.equals("desc")) {
+                        throw new IllegalArgumentException("order must be asc or desc");
+                    }
+                    descending = value.equals("desc");
+                    break;
+                case "filter":
+                    filter = parseEnum(ActiveFilter.class, key, value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown list option '" + option.getKey()
+                        + "' (expected offset, limit, sort, order or filter)");
+            }
+        }
+        return new StudentPageRequest(offset, limit, sortKey, descending, filter);
+    }
+    
+    private static int parseCount(String key, String value) {
+        try {
+            int count = Integer.parseInt(value);
+            if (count >= 0) {
+                return count;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below together with negative numbers
+        }
+        throw new IllegalArgumentException(key + " must be a non-negative number");
+    }
+    
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String key, String value) {
+        for (E constant : type.getEnumConstants()) {
+            if (constant.name().equalsIgnoreCase(value)) {
+                return constant;
+            }
+        }
+        throw new IllegalArgumentException("Unknown " + key + " '" + value + "'");
+    }
+    
+    public StudentPageRequest sortedBy(SortKey key, boolean descendingOrder) {
+        return new StudentPageRequest(offset, limit, key, descendingOrder, activeFilter);
+    }
+    
+    public StudentPageRequest filtered(ActiveFilter filter) {
+        return new StudentPageRequest(offset, limit, sortKey, descending, filter);
+    }
+    
+    public int getOffset() { return offset; }
+    public int getLimit() { return limit; }
+    public SortKey getSortKey() { return sortKey; }
+    public boolean isDescending() { return descending; }
+    public ActiveFilter getActiveFilter() { return activeFilter; }
+}
@@ -0,0 +1,104 @@
+package studentdb;
+
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 🎯 StudentQuery class - conditions on age, GPA and active status, all of which must hold
+ * Question: How do we say "any age" or "active or not"?
+ * Solution: Every condition starts wide open (the full valid range, active = null)
+ */
+class StudentQuery {
+    private static final StudentQuery ALL = new StudentQuery(
+        Student.MIN_AGE, Student.MAX_AGE, Student.MIN_GPA, Student.MAX_GPA, null, null);
+    
+    private final int minAge;
+    private final int maxAge;
+    private final double minGpa;
+    private final double maxGpa;
+    private final Boolean active;
+    private final Grade grade;
+    
+    private StudentQuery(int minAge, int maxAge, double minGpa, double maxGpa, Boolean active, Grade grade) {
+        if (Double.isNaN(minGpa) || Double.isNaN(maxGpa)) {
+            throw new IllegalArgumentException("GPA bounds must be numbers");
+        }
+        this.minAge = minAge;
+        this.maxAge = maxAge;
+        this.minGpa = minGpa;
+        this.maxGpa = maxGpa;
+        this.active = active;
+        this.grade = grade;
+    }
+    
+    public static StudentQuery all() {
+        return ALL;
+    }
+    
+    public StudentQuery ageBetween(int min, int max) {
+        return new StudentQuery(min, max, minGpa, maxGpa, active, grade);
+    }
+    
+    public StudentQuery gpaBetween(double min, double max) {
+        return new StudentQuery(minAge, maxAge, min, max, active, grade);
+    }
+    
+    public StudentQuery active(Boolean isActive) {
+        return new StudentQuery(minAge, maxAge, minGpa, maxGpa, isActive, grade);
+    }
+    
+    public StudentQuery grade(Grade onlyGrade) {
+        return new StudentQuery(minAge, maxAge, minGpa, maxGpa, active, onlyGrade);
+    }
+    
+    /**
+     * 🔧 Build a query from text options: minAge, maxAge, minGpa, maxGpa, active (true/false), grade
+     */
+    public static StudentQuery fromOptions(Map<String, String> options) {
+        StudentQuery query = ALL;
+        for (Map.Entry<String, String> option : options.entrySet()) {
+            String value = option.getValue().trim();
+            try {
+                switch (option.getKey().toLowerCase(Locale.ROOT)) {
+                    case "minage":
+                        query = query.ageBetween(Integer.parseInt(value), query.maxAge);
+                        break;
+                    case "maxage":
+                        query = query.ageBetween(query.minAge, Integer.parseInt(value));
+                        break;
+                    case "mingpa":
+                        query = query.gpaBetween(Double.parseDouble(value), query.maxGpa);
+                        break;
+                    case "maxgpa":
+                        query = query.gpaBetween(query.minGpa, Double.parseDouble(value));
+                        break;
+                    case "active":
+                        if (!value.equalsIgnoreCase("true") && !value.equalsIgnoreCase("false")) {
+                            throw new IllegalArgumentException("active must be true or false");
+                        }
+                        query = query.active(value.equalsIgnoreCase("true"));
+                        break;
+                    case "grade":
+                        query = query.grade(Grade.parse(value));
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown query option '" + option.getKey()
+                            + "' (expected minAge, maxAge, minGpa, maxGpa, active or grade)");
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(option.getKey() + " must be a number");
+            }
+        }
+        return query;
+    }
+    
+    public int getMinAge() { return minAge; }
+    public int getMaxAge() { return maxAge; }
+    public double getMinGpa() { return minGpa; }
+    public double getMaxGpa() { return maxGpa; }
+    public Boolean getActive() { return active; }
+    public Grade getGrade() { return grade; }
+    
+    boolean restrictsAge() { return minAge > Student.MIN_AGE || maxAge < Student.MAX_AGE; }
+    boolean restrictsGpa() { return minGpa > Student.MIN_GPA || maxGpa < Student.MAX_GPA; }
+}
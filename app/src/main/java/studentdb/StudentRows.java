@@ -0,0 +1,57 @@
+package studentdb;
+
+import java.util.AbstractList;
+
+/**
+ * 📋 StudentRows class - read-only list of chosen rows, creating Student objects only when read
+ */
+class StudentRows extends AbstractList<Student> {
+    private final StudentStore store;
+    private final int[] rows;
+    private final RowList rowList;
+    private final SortIndex sortIndex;
+    private final int size;
+    
+    StudentRows(StudentStore store, int[] rows) {
+        this.store = store;
+        this.rows = rows;
+        this.rowList = null;
+        this.sortIndex = null;
+        this.size = rows.length;
+    }
+    
+    /**
+     * 👀 A view of the first 'size' entries of an index list - they never change once written
+     */
+    StudentRows(StudentStore store, RowList rowList, int size) {
+        this.store = store;
+        this.rows = null;
+        this.rowList = rowList;
+        this.sortIndex = null;
+        this.size = size;
+    }
+    
+    /**
+     * 👀 Every row of a sort index, in its order
+     */
+    StudentRows(StudentStore store, SortIndex sortIndex) {
+        this.store = store;
+        this.rows = null;
+        this.rowList = null;
+        this.sortIndex = sortIndex;
+        this.size = sortIndex.size();
+    }
+    
+    @Override
+    public Student get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+        return store.get(rows != null ? rows[index] : rowList != null ? rowList.get(index) : sortIndex.rowAt(index));
+    }
+    
+    @Override
+    public int size() {
+        return size;
+    }
+}
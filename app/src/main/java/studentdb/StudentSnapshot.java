@@ -0,0 +1,62 @@
+package studentdb;
+
+import java.util.AbstractList;
+
+/**
+ * 📸 StudentSnapshot class - fixed-size, read-only view of the database
+ * Question: Why is it safe to read while other threads add students?
+ * Solution: Stores only ever append, so the first 'size' rows never change once published;
+ * when some of them are deleted, the live ones are listed once, up front
+ */
+public class StudentSnapshot extends AbstractList<Student> {
+    private final StudentStore store;
+    private final StudentIds ids;
+    // Live rows in order, or null when they are simply 0 until size
+    private final int[] rows;
+    private final int size;
+    private final int nextId;
+    
+    StudentSnapshot(StudentStore store, StudentIds ids, int[] rows, int size) {
+        this.store = store;
+        this.ids = ids;
+        this.rows = rows;
+        this.size = rows != null ? rows.length : size;
+        this.nextId = ids.nextId();
+    }
+    
+    @Override
+    public Student get(int index) {
+        return store.get(rowAt(index));
+    }
+    
+    @Override
+    public int size() {
+        return size;
+    }
+    
+    /**
+     * 🔢 Row of the store holding the index-th student
+     */
+    int rowAt(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+        return rows != null ? rows[index] : index;
+    }
+    
+    /**
+     * 🪪 Stable id of the index-th student
+     */
+    int idAt(int index) {
+        return ids.idOf(rowAt(index));
+    }
+    
+    // The id the next new student would have been given when the snapshot was taken
+    int getNextId() {
+        return nextId;
+    }
+    
+    StudentStore getStore() {
+        return store;
+    }
+}
@@ -0,0 +1,385 @@
+package studentdb;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * 💾 StudentSnapshotFile class - saves and loads the database as one binary file
+ * Question: Why binary instead of CSV?
+ * Solution: Fixed-width columns can be copied straight into arrays; nothing has to be parsed
+ * 
+ * Layout (big-endian):
+ *   header  - magic "STDB", format version, student count, name block length in bytes,
+ *             (version 2+) the write-ahead log checkpoint the snapshot covers,
+ *             (version 3+) the id the next new student gets
+ *             and (version 4) how many distinct names there are
+ *   ages    - one byte per student (16-100 always fits)
+ *   gpas    - one 8-byte double per student, starting on an 8-byte boundary
+ *   active  - one bit per student, packed into 8-byte words
+ *   ids     - (version 3+) one 4-byte id per student, padded to an 8-byte boundary
+ *   names   - version 4: a dictionary - one 4-byte name number per student, then for each
+ *             distinct name (numbered in order of first use) where its text ends, counted in
+ *             Java chars, both padded to an 8-byte boundary, then all those names back to
+ *             back as one block of UTF-8
+ *             versions 1-3: per student, UTF-8 byte length as a varint, then the bytes
+ */
+public class StudentSnapshotFile {
+    private static final int MAGIC = 0x53544442; // "STDB"
+    private static final int VERSION = 4;
+    private static final int V1_HEADER_SIZE = 4 + 4 + 4 + 8;
+    private static final int V2_HEADER_SIZE = V1_HEADER_SIZE + 8;
+    private static final int V3_HEADER_SIZE = V2_HEADER_SIZE + 8;
+    private static final int V4_HEADER_SIZE = V3_HEADER_SIZE + 8;
+    private static final int WRITE_BUFFER_SIZE = 1 << 20;
+    
+    private StudentSnapshotFile() {
+    }
+    
+    /**
+     * 💾 Write the current students to a file
+     */
+    public static int save(Path path) throws IOException {
+        return save(path, StudentDatabase.snapshot(), 0L);
+    }
+    
+    /**
+     * 💾 Write a snapshot of students to a file
+     * Question: What if the program crashes halfway through saving?
+     * Solution: Write to a temporary file first and rename it over the old snapshot only when complete
+     */
+    public static int save(Path path, StudentSnapshot snapshot, long checkpoint) throws IOException {
+        StudentStore store = snapshot.getStore();
+        int count = snapshot.size();
+        
+        // Number the names the snapshot uses in order of first use; a loaded store interns them
+        // in that order too, so they keep these numbers as pool ids
+        NamePool pool = store.getNamePool();
+        int[] numberOf = new int[pool.size()];
+        Arrays.fill(numberOf, -1);
+        IntArray names = new IntArray();
+        int[] nameNumbers = new int[count];
+        for (int i = 0; i < count; i++) {
+            int nameId = store.getNameId(snapshot.rowAt(i));
+            if (numberOf[nameId] < 0) {
+                numberOf[nameId] = names.size();
+                names.add(nameId);
+            }
+            nameNumbers[i] = numberOf[nameId];
+        }
+        int[] nameEnds = new int[names.size()];
+        long nameChars = 0;
+        long nameBytes = 0;
+        for (int i = 0; i < nameEnds.length; i++) {
+            nameBytes += utf8Length(pool.get(names.get(i)));
+            nameChars += pool.length(names.get(i));
+            if (nameChars > Integer.MAX_VALUE) {
+                throw new IOException("Too much name text for one snapshot: over " + Integer.MAX_VALUE + " chars");
+            }
+            nameEnds[i] = (int) nameChars;
+        }
+        
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocate(WRITE_BUFFER_SIZE);
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(count).putLong(nameBytes).putLong(checkpoint)
+                .putLong(snapshot.getNextId()).putLong(nameEnds.length);
+            
+            // Deleted students are not in the snapshot, so student i is the snapshot's i-th live row
+            for (int i = 0; i < count; i++) {
+                ensureRoom(channel, buffer, 1);
+                buffer.put((byte) store.getAge(snapshot.rowAt(i)));
+            }
+            ensureRoom(channel, buffer, 8);
+            buffer.put(new byte[padding(V4_HEADER_SIZE + count)]);
+            for (int i = 0; i < count; i++) {
+                ensureRoom(channel, buffer, 8);
+                buffer.putDouble(store.getGpa(snapshot.rowAt(i)));
+            }
+            for (int word = 0; word < wordCount(count); word++) {
+                long bits = 0L;
+                int end = Math.min(count, (word + 1) * 64);
+                for (int i = word * 64; i < end; i++) {
+                    if (store.isActive(snapshot.rowAt(i))) {
+                        bits |= 1L << (i & 63);
+                    }
+                }
+                ensureRoom(channel, buffer, 8);
+                buffer.putLong(bits);
+            }
+            for (int i = 0; i < count; i++) {
+                ensureRoom(channel, buffer, 4);
+                buffer.putInt(snapshot.idAt(i));
+            }
+            ensureRoom(channel, buffer, 8);
+            buffer.put(new byte[padding(4L * count)]);
+            putInts(channel, buffer, nameNumbers);
+            putInts(channel, buffer, nameEnds);
+            for (int i = 0; i < nameEnds.length; i++) {
+                byte[] name = pool.get(names.get(i)).getBytes(StandardCharsets.UTF_8);
+                for (int offset = 0; offset < name.length; ) {
+                    ensureRoom(channel, buffer, 1);
+                    int chunk = Math.min(buffer.remaining(), name.length - offset);
+                    buffer.put(name, offset, chunk);
+                    offset += chunk;
+                }
+            }
+            drain(channel, buffer);
+            channel.force(true);
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return count;
+    }
+    
+    // Bytes String.getBytes(UTF_8) would give, without making the array
+    private static long utf8Length(String text) {
+        long bytes = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                bytes++;
+            } else if (c < 0x800) {
+                bytes += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < text.length() && Character.isLowSurrogate(text.charAt(i + 1))) {
+                bytes += 4;
+                i++;
+            } else {
+                bytes += 3;
+            }
+        }
+        return bytes;
+    }
+    
+    // One 4-byte int per value, then padding to an 8-byte boundary
+    private static void putInts(FileChannel channel, ByteBuffer buffer, int[] values) throws IOException {
+        for (int value : values) {
+            ensureRoom(channel, buffer, 4);
+            buffer.putInt(value);
+        }
+        ensureRoom(channel, buffer, 8);
+        buffer.put(new byte[padding(4L * values.length)]);
+    }
+    
+    /**
+     * 📂 Replace the database with the students in a snapshot file
+     */
+    public static int load(Path path) throws IOException {
+        Contents contents = read(path);
+        StudentDatabase.restore(contents.store, contents.ids, contents.nextId);
+        return contents.store.size();
+    }
+    
+    /**
+     * 📖 Read a snapshot file into a new store without touching the database
+     * Question: How do we read a large file quickly?
+     * Solution: Memory-map it, then bulk-copy each column into a primitive array
+     */
+    static Contents read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize > Integer.MAX_VALUE) {
+                throw new IOException("Snapshot is too large to map: " + fileSize + " bytes");
+            }
+            if (fileSize < V1_HEADER_SIZE) {
+                throw new IOException("Not a student snapshot: file is too short");
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize);
+            
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("Not a student snapshot: bad magic number");
+            }
+            int version = buffer.getInt();
+            if (version < 1 || version > VERSION) {
+                throw new IOException("Unsupported snapshot version " + version);
+            }
+            int headerSize = version == 1 ? V1_HEADER_SIZE : version == 2 ? V2_HEADER_SIZE
+                : version == 3 ? V3_HEADER_SIZE : V4_HEADER_SIZE;
+            if (fileSize < headerSize) {
+                throw new IOException("Not a student snapshot: file is too short");
+            }
+            int count = buffer.getInt();
+            long nameBytes = buffer.getLong();
+            long checkpoint = version == 1 ? 0L : buffer.getLong();
+            // Before version 3 there were no ids: students are numbered in file order
+            long nextId = version < 3 ? count : buffer.getLong();
+            long nameCount = version < 4 ? 0L : buffer.getLong();
+            long idBytes = version < 3 ? 0L : 4L * count + padding(4L * count);
+            long dictionaryBytes = version < 4 ? 0L
+                : 4L * count + padding(4L * count) + 4L * nameCount + padding(4L * nameCount);
+            long expected = headerSize + (long) count + padding(headerSize + count)
+                + 8L * count + 8L * wordCount(count) + idBytes + dictionaryBytes + nameBytes;
+            if (count < 0 || nameBytes < 0 || nameCount < 0 || nameCount > count || expected != fileSize) {
+                throw new IOException("Corrupt snapshot: expected " + expected + " bytes but found " + fileSize);
+            }
+            if (nextId < count || nextId > Integer.MAX_VALUE) {
+                throw new IOException("Corrupt snapshot: bad next student id " + nextId);
+            }
+            
+            byte[] ages = new byte[count];
+            buffer.get(ages);
+            buffer.position(buffer.position() + padding(headerSize + count));
+            double[] gpas = new double[count];
+            buffer.asDoubleBuffer().get(gpas);
+            buffer.position(buffer.position() + 8 * count);
+            long[] words = new long[wordCount(count)];
+            buffer.asLongBuffer().get(words);
+            buffer.position(buffer.position() + 8 * words.length);
+            BitSet active = BitSet.valueOf(words);
+            int[] ids = new int[count];
+            if (version < 3) {
+                Arrays.setAll(ids, i -> i);
+            } else {
+                buffer.asIntBuffer().get(ids);
+                buffer.position(buffer.position() + (int) idBytes);
+                for (int id : ids) {
+                    if (id < 0 || id >= nextId) {
+                        throw new IOException("Corrupt snapshot: student id " + id + " is not below " + nextId);
+                    }
+                }
+            }
+            
+            StudentStore store = StudentDatabase.createStore(StudentDatabase.getStorage());
+            if (version >= 4) {
+                readDictionary(buffer, store, (int) nameCount, nameBytes, ages, gpas, active);
+                return new Contents(store, ids, (int) nextId, checkpoint);
+            }
+            byte[] nameBuffer = new byte[64];
+            for (int row = 0; row < count; row++) {
+                int length = getVarInt(buffer);
+                if (length < 0 || length > buffer.remaining()) {
+                    throw new IOException("Corrupt snapshot: bad name length at student " + row);
+                }
+                if (length > nameBuffer.length) {
+                    nameBuffer = new byte[Math.max(length, nameBuffer.length * 2)];
+                }
+                buffer.get(nameBuffer, 0, length);
+                String name = new String(nameBuffer, 0, length, StandardCharsets.UTF_8);
+                store.add(new Student(name, ages[row], gpas[row], active.get(row)));
+            }
+            return new Contents(store, ids, (int) nextId, checkpoint);
+        }
+    }
+    
+    /**
+     * 📚 Version 4 names - the dictionary becomes the store's name pool as it is, and since its
+     * names are numbered in order of first use, each student's name number is already its pool
+     * id; the store then takes every column in one call, so no name is decoded or looked up
+     */
+    private static void readDictionary(ByteBuffer buffer, StudentStore store, int nameCount, long nameBytes,
+                                       byte[] ages, double[] gpas, BitSet active) throws IOException {
+        int count = ages.length;
+        int[] nameIds = new int[count];
+        buffer.asIntBuffer().get(nameIds);
+        buffer.position(buffer.position() + 4 * count + padding(4L * count));
+        for (int row = 0; row < count; row++) {
+            if (nameIds[row] < 0 || nameIds[row] >= nameCount) {
+                throw new IOException("Corrupt snapshot: bad name number at student " + row);
+            }
+        }
+        int[] nameEnds = new int[nameCount];
+        buffer.asIntBuffer().get(nameEnds);
+        buffer.position(buffer.position() + 4 * nameCount + padding(4L * nameCount));
+        int previous = 0;
+        for (int end : nameEnds) {
+            if (end < previous) {
+                throw new IOException("Corrupt snapshot: name text out of order");
+            }
+            previous = end;
+        }
+        // One decode for all the names together; the ends then say where each one stops
+        byte[] text = new byte[(int) nameBytes];
+        buffer.get(text);
+        CharBuffer chars = StandardCharsets.UTF_8.decode(ByteBuffer.wrap(text));
+        if (chars.remaining() != previous) {
+            throw new IOException("Corrupt snapshot: names decode to " + chars.remaining()
+                + " chars instead of " + previous);
+        }
+        
+        try {
+            store.getNamePool().load(chars, nameEnds, nameCount);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Corrupt snapshot: " + e.getMessage(), e);
+        }
+        store.addAll(count, nameIds, ages, gpas, active);
+    }
+    
+    /**
+     * 📦 Contents - students read from a snapshot, their ids, and the log checkpoint they include
+     */
+    static class Contents {
+        final StudentStore store;
+        // Id of each row of the store, and the id the next new student gets
+        final int[] ids;
+        final int nextId;
+        final long checkpoint;
+        
+        Contents(StudentStore store, int[] ids, int nextId, long checkpoint) {
+            this.store = store;
+            this.ids = ids;
+            this.nextId = nextId;
+            this.checkpoint = checkpoint;
+        }
+    }
+    
+    private static int wordCount(int count) {
+        return (count + 63) >>> 6;
+    }
+    
+    // Bytes needed after a section ending at 'offset' so that the next one starts 8-byte aligned
+    private static int padding(long offset) {
+        return (int) ((8 - (offset & 7)) & 7);
+    }
+    
+    private static void ensureRoom(FileChannel channel, ByteBuffer buffer, int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            drain(channel, buffer);
+        }
+    }
+    
+    private static void drain(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+    
+    /**
+     * 🔢 Variable-length int: 7 bits per byte, high bit set on every byte except the last
+     */
+    static int putVarInt(ByteBuffer buffer, int value) {
+        int written = 1;
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+            written++;
+        }
+        buffer.put((byte) value);
+        return written;
+    }
+    
+    static int getVarInt(ByteBuffer buffer) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            if (!buffer.hasRemaining()) {
+                throw new IOException("Corrupt data: truncated length");
+            }
+            byte b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IOException("Corrupt data: length too long");
+    }
+}
@@ -0,0 +1,115 @@
+package studentdb;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * 📈 StudentStatistics class - immutable result of one statistics pass
+ * Question: Why not print while we calculate?
+ * Solution: Keeping the numbers in an object lets the menu, reports and tests all reuse them
+ */
+public class StudentStatistics {
+    // Rows per fork-join leaf; smaller ranges are cheaper to do on one thread
+    private static final int PARALLEL_THRESHOLD = 64 * 1024;
+    
+    private final StatisticsAccumulator totals;
+    private final List<Student> topStudents;
+    
+    private StudentStatistics(StatisticsAccumulator totals, List<Student> topStudents) {
+        this.totals = totals;
+        this.topStudents = topStudents;
+    }
+    
+    /**
+     * 🚀 Compute every statistic in a single pass over the store
+     * Question: How do we use all CPU cores?
+     * Solution: Split the rows with fork-join, accumulate each half separately, then combine the partials
+     */
+    public static StudentStatistics compute(StudentStore store, int topK) {
+        return from(accumulate(store, topK), store, topK);
+    }
+    
+    /**
+     * ➕ Same pass as compute(), returning the raw totals so they can keep accumulating
+     */
+    static StatisticsAccumulator accumulate(StudentStore store, int topK) {
+        StudentEvents.Statistics event = new StudentEvents.Statistics();
+        event.begin();
+        int size = store.size();
+        StatisticsAccumulator totals = size <= PARALLEL_THRESHOLD
+            ? new StatisticsTask(store, 0, size, topK).computeDirectly()
+            : ForkJoinPool.commonPool().invoke(new StatisticsTask(store, 0, size, topK));
+        event.finish(true, totals.count);
+        return totals;
+    }
+    
+    /**
+     * 🏗️ Build the result from finished totals, materialising only the best 'topK' students
+     */
+    static StudentStatistics from(StatisticsAccumulator totals, StudentStore store, int topK) {
+        int[] topRows = totals.getTopStudents().toSortedRows();
+        int count = Math.min(topRows.length, topK);
+        List<Student> topStudents = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            topStudents.add(store.get(topRows[i]));
+        }
+        return new StudentStatistics(totals, topStudents);
+    }
+    
+    public long getCount() { return totals.count; }
+    public long getAgeSum() { return totals.ageSum; }
+    public int getMinAge() { return totals.minAge; }
+    public int getMaxAge() { return totals.maxAge; }
+    public double getAverageAge() { return totals.ageMean; }
+    public double getAgeVariance() { return totals.count > 0 ? totals.ageM2 / totals.count : 0.0; }
+    public double getGpaSum() { return totals.gpaSum + totals.gpaCompensation; }
+    public double getMinGpa() { return totals.minGpa; }
+    public double getMaxGpa() { return totals.maxGpa; }
+    public double getAverageGpa() { return totals.count > 0 ? getGpaSum() / totals.count : 0.0; }
+    public double getGpaVariance() { return totals.count > 0 ? totals.gpaM2 / totals.count : 0.0; }
+    public long getActiveCount() { return totals.activeCount; }
+    public double getActiveRatio() { return totals.count > 0 ? (double) totals.activeCount / totals.count : 0.0; }
+    public long getGradeCount(int gradeIndex) { return totals.gradeCounts[gradeIndex]; }
+    public List<Student> getTopStudents() { return topStudents; }
+    
+    /**
+     * 🍴 StatisticsTask - fork-join task over a range of rows
+     */
+    private static class StatisticsTask extends RecursiveTask<StatisticsAccumulator> {
+        private static final long serialVersionUID = 1L;
+        
+        private final StudentStore store;
+        private final int from;
+        private final int to;
+        private final int topK;
+        
+        StatisticsTask(StudentStore store, int from, int to, int topK) {
+            this.store = store;
+            this.from = from;
+            this.to = to;
+            this.topK = topK;
+        }
+        
+        @Override
+        protected StatisticsAccumulator compute() {
+            if (to - from <= PARALLEL_THRESHOLD) {
+                return computeDirectly();
+            }
+            int middle = (from + to) >>> 1;
+            StatisticsTask left = new StatisticsTask(store, from, middle, topK);
+            left.fork();
+            StatisticsAccumulator right = new StatisticsTask(store, middle, to, topK).compute();
+            return left.join().combine(right);
+        }
+        
+        StatisticsAccumulator computeDirectly() {
+            StatisticsAccumulator partial = new StatisticsAccumulator(topK);
+            for (int row = from; row < to; row++) {
+                partial.accept(row, store.getAge(row), store.getGpa(row), store.getGrade(row), store.isActive(row));
+            }
+            return partial;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package studentdb;
+
+import java.util.BitSet;
+
+/**
+ * 🗃️ StudentStore interface - storage engine behind StudentDatabase
+ * Question: Why read single fields by row instead of always returning a Student?
+ * Solution: Aggregates can then run over primitive columns without creating any objects
+ * 
+ * Implementations accept one writer at a time and any number of concurrent readers:
+ * a row is written completely before size() is allowed to include it.
+ */
+interface StudentStore {
+    void add(Student student);
+    
+    /**
+     * 📦 Append 'count' rows whose names are already in getNamePool(): row i has name id
+     * nameIds[i], age ages[i], GPA gpas[i] and active bit i
+     * Question: Why not add() a Student per row?
+     * Solution: A loaded snapshot has its columns ready; the stores keeping arrays or records
+     * take them nearly as they are, without a Student object or a name lookup per row
+     */
+    default void addAll(int count, int[] nameIds, byte[] ages, double[] gpas, BitSet active) {
+        NamePool namePool = getNamePool();
+        for (int i = 0; i < count; i++) {
+            add(new Student(namePool.get(nameIds[i]), ages[i], gpas[i], active.get(i)));
+        }
+    }
+    Student get(int row);
+    String getName(int row);
+    
+    /**
+     * 🏷️ The row's name as an id in getNamePool() - equal names always get equal ids
+     */
+    int getNameId(int row);
+    NamePool getNamePool();
+    
+    /**
+     * 🔤 Append a name to a buffer - stores that keep raw characters can skip creating a String
+     */
+    default void appendName(int row, StringBuilder out) {
+        out.append(getName(row));
+    }
+    
+    int getAge(int row);
+    double getGpa(int row);
+    Grade getGrade(int row);
+    boolean isActive(int row);
+    int size();
+    void clear();
+    
+    /**
+     * 📦 Read one column for a block of rows: out[i] is the value of rows[i]
+     * Question: Why read a block when getAge() reads a row?
+     * Solution: Scans like the group-by aggregator call these instead; a store that keeps
+     * arrays overrides them to look up its arrays once per block instead of once per row
+     */
+    default void readAges(int[] rows, int count, int[] out) {
+        for (int i = 0; i < count; i++) {
+            out[i] = getAge(rows[i]);
+        }
+    }
+    
+    default void readGpas(int[] rows, int count, double[] out) {
+        for (int i = 0; i < count; i++) {
+            out[i] = getGpa(rows[i]);
+        }
+    }
+    
+    // Grades as ordinals
+    default void readGrades(int[] rows, int count, int[] out) {
+        for (int i = 0; i < count; i++) {
+            out[i] = getGrade(rows[i]).ordinal();
+        }
+    }
+    
+    // 1 for an active student, 0 otherwise
+    default void readActive(int[] rows, int count, int[] out) {
+        for (int i = 0; i < count; i++) {
+            out[i] = isActive(rows[i]) ? 1 : 0;
+        }
+    }
+    
+    default void readNameIds(int[] rows, int count, int[] out) {
+        for (int i = 0; i < count; i++) {
+            out[i] = getNameId(rows[i]);
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package studentdb;
+
+import java.io.PrintStream;
+import java.text.DecimalFormatSymbols;
+import java.util.Iterator;
+import java.util.Locale;
+
+/**
+ * 🖨️ StudentTableRenderer class - prints the student table without String.format()
+ * Question: How do we keep the output identical to the old printf() version?
+ * Solution: Pad and round exactly like "%-20s %-6d %-6.2f %-10s %-8s%n" does, and fall back to
+ * String.format() for the rare values (or locales) where doing it by hand could differ
+ */
+public class StudentTableRenderer {
+    static final String ROW_FORMAT = "%-20s %-6d %-6.2f %-10s %-8s%n";
+    static final String ACTIVE = "✅ Active";
+    static final String INACTIVE = "❌ Inactive";
+    
+    private static final int CHUNK_SIZE = 64 * 1024;
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+    
+    // printf() formats numbers for the default locale
+    private static final NumberStyle DEFAULT_STYLE = new NumberStyle(Locale.getDefault(Locale.Category.FORMAT));
+    
+    private StudentTableRenderer() {
+    }
+    
+    /**
+     * 🖨️ Print every row of the snapshot, one large chunk at a time
+     */
+    public static void printRows(StudentSnapshot students, PrintStream out) {
+        OperationMetrics.Recorder metrics = OperationMetrics.start(OperationMetrics.Operation.RENDER);
+        StudentEvents.Render event = new StudentEvents.Render();
+        event.begin();
+        StudentStore store = students.getStore();
+        StringBuilder buffer = new StringBuilder(CHUNK_SIZE + 256);
+        for (int i = 0; i < students.size(); i++) {
+            appendRow(buffer, store, students.rowAt(i));
+            if (buffer.length() >= CHUNK_SIZE) {
+                out.append(buffer);
+                buffer.setLength(0);
+            }
+        }
+        out.append(buffer);
+        out.flush();
+        event.finish(students.size());
+        OperationMetrics.finish(OperationMetrics.Operation.RENDER, metrics, students.size());
+    }
+    
+    /**
+     * 📝 Append one table row, e.g. "Alice                20     3.80   ✅ Active   A       "
+     */
+    static void appendRow(StringBuilder out, StudentStore store, int row) {
+        int start = out.length();
+        store.appendName(row, out);
+        appendColumns(out, start, store.getAge(row), store.getGpa(row), store.getGrade(row), store.isActive(row),
+            DEFAULT_STYLE);
+    }
+    
+    public static void appendRow(StringBuilder out, Student student) {
+        appendRow(out, student, DEFAULT_STYLE);
+    }
+    
+    // The row as String.format(locale, ROW_FORMAT, ...) would write it
+    static void appendRow(StringBuilder out, Student student, Locale locale) {
+        appendRow(out, student, new NumberStyle(locale));
+    }
+    
+    private static void appendRow(StringBuilder out, Student student, NumberStyle style) {
+        int start = out.length();
+        out.append(student.getName());
+        appendColumns(out, start, student.getAge(), student.getGpa(), student.getGradeLevel(), student.isActive(), style);
+    }
+    
+    /**
+     * 🖨️ Print already-materialised students, e.g. one page of a listing
+     */
+    public static void printStudents(Iterator<Student> students, PrintStream out) {
+        OperationMetrics.Recorder metrics = OperationMetrics.start(OperationMetrics.Operation.RENDER);
+        StudentEvents.Render event = new StudentEvents.Render();
+        event.begin();
+        StringBuilder buffer = new StringBuilder(CHUNK_SIZE + 256);
+        int printed = 0;
+        while (students.hasNext()) {
+            appendRow(buffer, students.next());
+            printed++;
+            if (buffer.length() >= CHUNK_SIZE) {
+                out.append(buffer);
+                buffer.setLength(0);
+            }
+        }
+        out.append(buffer);
+        out.flush();
+        event.finish(printed);
+        OperationMetrics.finish(OperationMetrics.Operation.RENDER, metrics, printed);
+    }
+    
+    // Everything after the name, which the caller has just appended starting at 'start'
+    private static void appendColumns(StringBuilder out, int start, int age, double gpa, Grade grade,
+                                      boolean active, NumberStyle style) {
+        long hundredths = style.asciiDigits ? hundredths(gpa) : -1L;
+        if (hundredths < 0) {
+            String name = out.substring(start);
+            out.setLength(start);
+            out.append(String.format(style.locale, ROW_FORMAT, name, age, gpa,
+                active ? ACTIVE : INACTIVE, grade.getLetter()));
+            return;
+        }
+        
+        pad(out, start, 20);
+        out.append(' ');
+        
+        start = out.length();
+        out.append(age);
+        pad(out, start, 6);
+        out.append(' ');
+        
+        start = out.length();
+        out.append(hundredths / 100).append(style.decimalSeparator);
+        int fraction = (int) (hundredths % 100);
+        if (fraction < 10) {
+            out.append('0');
+        }
+        out.append(fraction);
+        pad(out, start, 6);
+        out.append(' ');
+        
+        start = out.length();
+        out.append(active ? ACTIVE : INACTIVE);
+        pad(out, start, 10);
+        out.append(' ');
+        
+        start = out.length();
+        out.append(grade.getLetter());
+        pad(out, start, 8);
+        out.append(LINE_SEPARATOR);
+    }
+    
+    /**
+     * 🔢 GPA rounded to hundredths the way "%.2f" does, or -1 when that is not certain
+     * Question: Why not just Math.round(gpa * 100)?
+     * Solution: printf rounds the shortest decimal form half-up, so 2.675 prints as 2.68 even though
+     * the double is slightly below it; values that close to a half are left to String.format()
+     */
+    static long hundredths(double gpa) {
+        // Negative values (including -0.0), NaN and huge values are left to String.format()
+        if (Double.doubleToRawLongBits(gpa) < 0 || !(gpa < 1e12)) {
+            return -1L;
+        }
+        double scaled = gpa * 100.0;
+        double fraction = scaled - Math.floor(scaled);
+        if (Math.abs(fraction - 0.5) < 1e-6) {
+            return -1L;
+        }
+        return Math.round(scaled);
+    }
+    
+    /**
+     * 🔢 NumberStyle - how a locale writes numbers; only plain '0'-'9' digits are handled by hand
+     */
+    private static final class NumberStyle {
+        final Locale locale;
+        final boolean asciiDigits;
+        final char decimalSeparator;
+        
+        NumberStyle(Locale locale) {
+            DecimalFormatSymbols symbols = DecimalFormatSymbols.getInstance(locale);
+            this.locale = locale;
+            this.asciiDigits = symbols.getZeroDigit() == '0';
+            this.decimalSeparator = symbols.getDecimalSeparator();
+        }
+    }
+    
+    // Left-justify: pad with spaces until the text appended since 'start' is 'width' chars wide
+    private static void pad(StringBuilder out, int start, int width) {
+        for (int i = out.length() - start; i < width; i++) {
+            out.append(' ');
+        }
+    }
+}
@@ -0,0 +1,465 @@
+package studentdb;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * 🛟 StudentWriteAheadLog class - makes every change durable without rewriting the roster
+ * Question: Why not save a snapshot after every added student?
+ * Solution: Appending one small record is far cheaper; the snapshot is only rewritten
+ * (and the log emptied) once the log has grown past a threshold
+ * 
+ * The log is a series of segment files named <log>.<generation>. A snapshot saved with
+ * checkpoint N contains every record from segments below N, so recovery loads the snapshot
+ * and replays only segments N and up.
+ * 
+ * Segment layout (big-endian): magic "STWL", version, generation, then records of
+ * [payload length][CRC32 of payload][payload]. A torn or corrupt record ends replay.
+ * A payload is an insert (the student), a clear, an update (id and new version) or a delete (id).
+ */
+public class StudentWriteAheadLog implements Closeable {
+    private static final int MAGIC = 0x5354574C; // "STWL"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 4 + 4 + 8;
+    private static final byte INSERT = 1;
+    private static final byte CLEAR = 2;
+    private static final byte UPDATE = 3;
+    private static final byte DELETE = 4;
+    private static final long DEFAULT_COMPACT_BYTES = 64L << 20;
+    private static final int REPLAY_BATCH_SIZE = 4096;
+    
+    private final Path logPath;
+    private final Path snapshotPath;
+    private final long compactThreshold;
+    
+    // Segment file - written by the flusher, swapped by rotate(); guarded by fileLock
+    private final ReentrantLock fileLock = new ReentrantLock();
+    private FileChannel channel;
+    private volatile long generation;
+    private long segmentBytes;
+    
+    // Group commit state - guarded by monitor
+    private final Object monitor = new Object();
+    private final CRC32 crc = new CRC32();
+    private ByteBuffer pending = ByteBuffer.allocate(64 * 1024);
+    private ByteBuffer spare = ByteBuffer.allocate(64 * 1024);
+    private int recordStart;
+    private long appendedSequence;
+    private long durableSequence;
+    private IOException failure;
+    private boolean closed;
+    
+    // Checkpoints (compaction or restore) run one at a time, always before the database lock
+    private final ReentrantLock checkpointLock = new ReentrantLock();
+    private final AtomicBoolean compacting = new AtomicBoolean();
+    private final Thread flusher;
+    private long replayedRecords;
+    
+    private StudentWriteAheadLog(Path logPath, Path snapshotPath, long compactThreshold) {
+        this.logPath = logPath;
+        this.snapshotPath = snapshotPath;
+        this.compactThreshold = compactThreshold;
+        flusher = new Thread(this::runFlusher, "student-wal-flusher");
+        flusher.setDaemon(true);
+    }
+    
+    public static StudentWriteAheadLog open(Path logPath, Path snapshotPath) throws IOException {
+        return open(logPath, snapshotPath, DEFAULT_COMPACT_BYTES);
+    }
+    
+    /**
+     * 🚀 Recover the database from snapshot + log, then start logging new changes
+     */
+    public static StudentWriteAheadLog open(Path logPath, Path snapshotPath, long compactThreshold) throws IOException {
+        StudentWriteAheadLog log = new StudentWriteAheadLog(logPath, snapshotPath, compactThreshold);
+        long checkpoint = 0L;
+        if (Files.exists(snapshotPath)) {
+            StudentSnapshotFile.Contents contents = StudentSnapshotFile.read(snapshotPath);
+            StudentDatabase.restore(contents.store, contents.ids, contents.nextId);
+            checkpoint = contents.checkpoint;
+        }
+        
+        long lastGeneration = 0L;
+        for (long segment : log.listSegments()) {
+            if (segment < checkpoint) {
+                // Already part of the snapshot; left behind by an interrupted compaction
+                Files.deleteIfExists(log.segmentPath(segment));
+            } else {
+                log.replayedRecords += log.replay(segment);
+            }
+            lastGeneration = Math.max(lastGeneration, segment);
+        }
+        
+        // Always start a fresh segment, so a torn tail in the last one is never appended to
+        log.openSegment(Math.max(Math.max(checkpoint, lastGeneration + 1), 1L));
+        StudentDatabase.attachWriteAheadLog(log);
+        log.flusher.start();
+        return log;
+    }
+    
+    public long getReplayedRecords() { return replayedRecords; }
+    public long getGeneration() { return generation; }
+    public Path getSnapshotPath() { return snapshotPath; }
+    
+    /**
+     * ➕ Queue an insert record - called under the database write lock, so records keep their order
+     */
+    long appendInsert(Student student) {
+        byte[] name = student.getName().getBytes(StandardCharsets.UTF_8);
+        synchronized (monitor) {
+            putStudent(beginRecord(1 + 1 + 8 + 1 + 5 + name.length).put(INSERT), student, name);
+            return endRecord();
+        }
+    }
+    
+    /**
+     * ✏️ Queue an update record: the id, then the new version laid out like an insert
+     */
+    long appendUpdate(int id, Student student) {
+        byte[] name = student.getName().getBytes(StandardCharsets.UTF_8);
+        synchronized (monitor) {
+            putStudent(beginRecord(1 + 4 + 1 + 8 + 1 + 5 + name.length).put(UPDATE).putInt(id), student, name);
+            return endRecord();
+        }
+    }
+    
+    long appendDelete(int id) {
+        synchronized (monitor) {
+            beginRecord(1 + 4).put(DELETE).putInt(id);
+            return endRecord();
+        }
+    }
+    
+    private static void putStudent(ByteBuffer buffer, Student student, byte[] name) {
+        buffer.put((byte) student.getAge())
+            .putDouble(student.getGpa())
+            .put((byte) (student.isActive() ? 1 : 0));
+        StudentSnapshotFile.putVarInt(buffer, name.length);
+        buffer.put(name);
+    }
+    
+    long appendClear() {
+        synchronized (monitor) {
+            beginRecord(1).put(CLEAR);
+            return endRecord();
+        }
+    }
+    
+    /**
+     * ⏳ Block until the record with this sequence number is on disk
+     */
+    void awaitDurable(long sequence) {
+        synchronized (monitor) {
+            while (durableSequence < sequence) {
+                if (failure != null) {
+                    throw new UncheckedIOException("Write-ahead log failed", failure);
+                }
+                try {
+                    monitor.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new UncheckedIOException(new InterruptedIOException("Interrupted waiting for the write-ahead log"));
+                }
+            }
+        }
+    }
+    
+    /**
+     * 🗜️ Fold the log into the snapshot file and delete the segments it now covers
+     */
+    public void compact() throws IOException {
+        beginCheckpoint();
+        try {
+            StudentSnapshot covered = StudentDatabase.rotateWriteAheadLog(this);
+            long checkpoint = generation;
+            writeCheckpoint(covered, checkpoint);
+            deleteSegmentsBefore(checkpoint);
+        } finally {
+            endCheckpoint();
+        }
+    }
+    
+    void beginCheckpoint() {
+        checkpointLock.lock();
+    }
+    
+    void endCheckpoint() {
+        checkpointLock.unlock();
+    }
+    
+    void writeCheckpoint(StudentSnapshot snapshot, long checkpoint) throws IOException {
+        StudentSnapshotFile.save(snapshotPath, snapshot, checkpoint);
+    }
+    
+    void deleteSegmentsBefore(long checkpoint) throws IOException {
+        for (long segment : listSegments()) {
+            if (segment < checkpoint) {
+                Files.deleteIfExists(segmentPath(segment));
+            }
+        }
+    }
+    
+    /**
+     * 🔄 Flush and close the current segment and open the next one
+     * Must be called under the database write lock, so no record can be appended meanwhile.
+     */
+    void rotate() throws IOException {
+        fileLock.lock();
+        try {
+            flush();
+            channel.close();
+            openSegment(generation + 1);
+        } finally {
+            fileLock.unlock();
+        }
+    }
+    
+    /**
+     * 🚪 Write out everything queued, stop the flusher and close the segment
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (monitor) {
+            closed = true;
+            monitor.notifyAll();
+        }
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        fileLock.lock();
+        try {
+            flush();
+            channel.close();
+        } finally {
+            fileLock.unlock();
+        }
+        StudentDatabase.attachWriteAheadLog(null);
+    }
+    
+    /**
+     * 🧵 Flusher thread - group commit
+     * Question: How do we avoid one fsync per student?
+     * Solution: While one batch is being forced to disk, new records pile up in the other
+     * buffer; the next fsync then covers all of them at once
+     */
+    private void runFlusher() {
+        while (true) {
+            synchronized (monitor) {
+                while (pending.position() == 0 && !closed) {
+                    try {
+                        monitor.wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (pending.position() == 0 && closed) {
+                    return;
+                }
+            }
+            fileLock.lock();
+            try {
+                flush();
+            } catch (IOException e) {
+                synchronized (monitor) {
+                    failure = e;
+                    monitor.notifyAll();
+                }
+                return;
+            } finally {
+                fileLock.unlock();
+            }
+            if (segmentBytes > compactThreshold && compacting.compareAndSet(false, true)) {
+                startCompaction();
+            }
+        }
+    }
+    
+    private void startCompaction() {
+        Thread compactor = new Thread(() -> {
+            try {
+                compact();
+            } catch (IOException | UncheckedIOException e) {
+                System.err.println("⚠️ Write-ahead log compaction failed: " + e.getMessage());
+            } finally {
+                compacting.set(false);
+            }
+        }, "student-wal-compactor");
+        compactor.setDaemon(true);
+        compactor.start();
+    }
+    
+    /**
+     * 💽 Write the queued records and fsync - caller must hold fileLock
+     */
+    private void flush() throws IOException {
+        ByteBuffer batch;
+        long upTo;
+        synchronized (monitor) {
+            if (failure != null) {
+                throw failure;
+            }
+            if (pending.position() == 0) {
+                return;
+            }
+            batch = pending;
+            pending = spare;
+            upTo = appendedSequence;
+        }
+        batch.flip();
+        segmentBytes += batch.remaining();
+        while (batch.hasRemaining()) {
+            channel.write(batch);
+        }
+        channel.force(false);
+        batch.clear();
+        synchronized (monitor) {
+            spare = batch;
+            durableSequence = upTo;
+            monitor.notifyAll();
+        }
+    }
+    
+    private ByteBuffer beginRecord(int maxPayload) {
+        if (closed || failure != null) {
+            throw new UncheckedIOException(new IOException("Write-ahead log is closed"));
+        }
+        int needed = 8 + maxPayload;
+        if (pending.remaining() < needed) {
+            ByteBuffer larger = ByteBuffer.allocate(Math.max(pending.capacity() * 2, pending.position() + needed));
+            pending.flip();
+            larger.put(pending);
+            pending = larger;
+        }
+        // Length and checksum are filled in by endRecord()
+        recordStart = pending.position();
+        return pending.putInt(0).putInt(0);
+    }
+    
+    private long endRecord() {
+        int payload = pending.position() - recordStart - 8;
+        crc.reset();
+        crc.update(pending.array(), recordStart + 8, payload);
+        pending.putInt(recordStart, payload).putInt(recordStart + 4, (int) crc.getValue());
+        if (recordStart == 0) {
+            // The buffer was empty, so the flusher may be asleep
+            monitor.notifyAll();
+        }
+        return ++appendedSequence;
+    }
+    
+    private void openSegment(long newGeneration) throws IOException {
+        FileChannel segment = FileChannel.open(segmentPath(newGeneration), StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(VERSION).putLong(newGeneration);
+        header.flip();
+        while (header.hasRemaining()) {
+            segment.write(header);
+        }
+        segment.force(true);
+        channel = segment;
+        generation = newGeneration;
+        segmentBytes = HEADER_SIZE;
+    }
+    
+    /**
+     * ▶️ Re-apply one segment's records to the database; returns how many were applied
+     */
+    private long replay(long segment) throws IOException {
+        Path path = segmentPath(segment);
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path));
+        if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC
+                || buffer.getInt() != VERSION || buffer.getLong() != segment) {
+            throw new IOException("Not a write-ahead log segment: " + path);
+        }
+        
+        List<Student> batch = new ArrayList<>(REPLAY_BATCH_SIZE);
+        long records = 0;
+        CRC32 check = new CRC32();
+        while (buffer.remaining() >= 8) {
+            int payload = buffer.getInt();
+            int expectedCrc = buffer.getInt();
+            if (payload <= 0 || payload > buffer.remaining()) {
+                break;
+            }
+            check.reset();
+            check.update(buffer.array(), buffer.position(), payload);
+            if ((int) check.getValue() != expectedCrc) {
+                break;
+            }
+            ByteBuffer record = ByteBuffer.wrap(buffer.array(), buffer.position(), payload);
+            buffer.position(buffer.position() + payload);
+            
+            byte type = record.get();
+            if (type == INSERT) {
+                batch.add(getStudent(record));
+                if (batch.size() == REPLAY_BATCH_SIZE) {
+                    StudentDatabase.addStudents(batch);
+                    batch.clear();
+                }
+            } else if (type == CLEAR || type == UPDATE || type == DELETE) {
+                // Inserts before this record must get their ids first
+                StudentDatabase.addStudents(batch);
+                batch.clear();
+                if (type == CLEAR) {
+                    StudentDatabase.clearDatabase();
+                } else if (type == UPDATE) {
+                    int id = record.getInt();
+                    StudentDatabase.updateStudent(id, getStudent(record));
+                } else {
+                    StudentDatabase.deleteStudent(record.getInt());
+                }
+            } else {
+                throw new IOException("Unknown record type " + type + " in " + path);
+            }
+            records++;
+        }
+        StudentDatabase.addStudents(batch);
+        return records;
+    }
+    
+    private static Student getStudent(ByteBuffer record) throws IOException {
+        int age = record.get();
+        double gpa = record.getDouble();
+        boolean active = record.get() != 0;
+        int length = StudentSnapshotFile.getVarInt(record);
+        String name = new String(record.array(), record.position(), length, StandardCharsets.UTF_8);
+        return new Student(name, age, gpa, active);
+    }
+    
+    private Path segmentPath(long segment) {
+        return logPath.resolveSibling(logPath.getFileName() + "." + segment);
+    }
+    
+    private List<Long> listSegments() throws IOException {
+        Path directory = logPath.toAbsolutePath().getParent();
+        String prefix = logPath.getFileName() + ".";
+        List<Long> segments = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                String suffix = name.startsWith(prefix) ? name.substring(prefix.length()) : "";
+                if (!suffix.isEmpty() && suffix.chars().allMatch(Character::isDigit)) {
+                    segments.add(Long.parseLong(suffix));
+                }
+            }
+        }
+        segments.sort(null);
+        return segments;
+    }
+}
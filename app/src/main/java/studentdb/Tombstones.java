@@ -0,0 +1,172 @@
+package studentdb;
+
+import java.util.Arrays;
+
+/**
+ * 🪦 Tombstones class - which rows of a store have been deleted (or replaced by an update)
+ * Question: How can a delete be O(1) when every index lists rows in insertion order?
+ * Solution: The row stays where it is and only its bit is set here; readers skip rows whose
+ * bit is set, and compaction later copies the live rows into a fresh store and fresh indexes
+ *
+ * One writer, many readers, like RowList: the word array is replaced before the count is
+ * raised, so a reader that sees a count also sees the bits it counts.
+ */
+final class Tombstones {
+    private long[] words;
+    private volatile int count;
+    
+    Tombstones() {
+        words = new long[16];
+    }
+    
+    private Tombstones(long[] words, int count) {
+        this.words = words;
+        this.count = count;
+    }
+    
+    int count() { return count; }
+    boolean isEmpty() { return count == 0; }
+    
+    boolean isDead(int row) {
+        long[] bits = words;
+        int word = row >>> 6;
+        return word < bits.length && (bits[word] & (1L << row)) != 0;
+    }
+    
+    /**
+     * 🪦 Mark a row deleted - writer only; false if it already was
+     */
+    boolean kill(int row) {
+        int word = row >>> 6;
+        if (word >= words.length) {
+            words = Arrays.copyOf(words, Math.max(word + 1, words.length * 2));
+        }
+        if ((words[word] & (1L << row)) != 0) {
+            return false;
+        }
+        words[word] |= 1L << row;
+        count = count + 1;
+        return true;
+    }
+    
+    /**
+     * ⏭️ First live row in [from, to), or 'to' if there is none
+     * Question: Why not test isDead() row by row?
+     * Solution: A run of deleted rows is a run of all-ones words, so 64 of them are skipped per
+     * step, and a word without any deletions answers at once
+     */
+    int nextLive(int from, int to) {
+        long[] bits = words;
+        int row = from;
+        while (row < to) {
+            int word = row >>> 6;
+            if (word >= bits.length) {
+                return row;
+            }
+            // Live rows of this word at or after 'row'
+            long live = ~bits[word] & (-1L << row);
+            if (live != 0) {
+                return Math.min((word << 6) + Long.numberOfTrailingZeros(live), to);
+            }
+            row = (word + 1) << 6;
+        }
+        return to;
+    }
+    
+    /**
+     * 📋 Live rows below 'size', in order
+     */
+    int[] liveRows(int size) {
+        IntArray rows = new IntArray();
+        for (int row = nextLive(0, size); row < size; row = nextLive(row + 1, size)) {
+            rows.add(row);
+        }
+        return rows.toArray();
+    }
+    
+    /**
+     * 🧹 The live rows of 'rows', in the same order - 'rows' itself when none is dead
+     */
+    int[] retainLive(int[] rows) {
+        if (isEmpty()) {
+            return rows;
+        }
+        int live = 0;
+        int[] kept = new int[rows.length];
+        for (int row : rows) {
+            if (!isDead(row)) {
+                kept[live++] = row;
+            }
+        }
+        return live == rows.length ? rows : Arrays.copyOf(kept, live);
+    }
+    
+    /**
+     * 🔢 Dead rows below 'size'
+     */
+    int countBelow(int size) {
+        long[] bits = words;
+        int full = Math.min(size >>> 6, bits.length);
+        int dead = 0;
+        for (int word = 0; word < full; word++) {
+            dead += Long.bitCount(bits[word]);
+        }
+        if (full < bits.length && (size & 63) != 0) {
+            dead += Long.bitCount(bits[full] & ((1L << size) - 1));
+        }
+        return dead;
+    }
+    
+    /**
+     * 📸 Independent copy of the bits below 'size'
+     */
+    Tombstones copy(int size) {
+        long[] bits = Arrays.copyOf(words, Math.max((size + 63) >>> 6, 1));
+        if ((size & 63) != 0) {
+            bits[size >>> 6] &= (1L << size) - 1;
+        }
+        return new Tombstones(bits, countBelow(size));
+    }
+    
+    /**
+     * 🆕 Rows below 'size' that are dead here but were live in 'earlier'
+     */
+    int[] killedSince(Tombstones earlier, int size) {
+        IntArray rows = new IntArray();
+        long[] bits = words;
+        long[] before = earlier.words;
+        for (int word = 0; word < Math.min((size + 63) >>> 6, bits.length); word++) {
+            long fresh = bits[word] & ~(word < before.length ? before[word] : 0L);
+            if (word == size >>> 6) {
+                fresh &= (1L << size) - 1;
+            }
+            for (; fresh != 0; fresh &= fresh - 1) {
+                rows.add((word << 6) + Long.numberOfTrailingZeros(fresh));
+            }
+        }
+        return rows.toArray();
+    }
+    
+    /**
+     * 🔢 Dead rows before each word - with positionAfterCompaction() this gives every live row
+     * its number in a store holding only the live rows
+     */
+    int[] deadBeforeWords() {
+        long[] bits = words;
+        int[] before = new int[bits.length];
+        int dead = 0;
+        for (int word = 0; word < bits.length; word++) {
+            before[word] = dead;
+            dead += Long.bitCount(bits[word]);
+        }
+        return before;
+    }
+    
+    int positionAfterCompaction(int row, int[] deadBeforeWords) {
+        int word = row >>> 6;
+        if (word >= deadBeforeWords.length) {
+            return row - count;
+        }
+        return row - deadBeforeWords[word] - Long.bitCount(words[word] & ((1L << row) - 1));
+    }
+}
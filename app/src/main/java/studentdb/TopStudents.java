@@ -0,0 +1,128 @@
+package studentdb;
+
+/**
+ * 🏆 TopStudents class - bounded heap of the K highest GPAs
+ * Question: How do we find the best K students without sorting everyone?
+ * Solution: Keep a min-heap of size K; a new student only gets in by beating the weakest one kept
+ */
+class TopStudents {
+    private final int capacity;
+    private final int[] rows;
+    private final double[] gpas;
+    private int size;
+    
+    TopStudents(int capacity) {
+        this.capacity = capacity;
+        rows = new int[capacity];
+        gpas = new double[capacity];
+    }
+    
+    void offer(int row, double gpa) {
+        if (size < capacity) {
+            rows[size] = row;
+            gpas[size] = gpa;
+            siftUp(size++);
+        } else if (capacity > 0 && isBetter(row, gpa, rows[0], gpas[0])) {
+            rows[0] = row;
+            gpas[0] = gpa;
+            siftDown(0);
+        }
+    }
+    
+    TopStudents copy() {
+        TopStudents copy = new TopStudents(capacity);
+        System.arraycopy(rows, 0, copy.rows, 0, size);
+        System.arraycopy(gpas, 0, copy.gpas, 0, size);
+        copy.size = size;
+        return copy;
+    }
+    
+    void merge(TopStudents other) {
+        for (int i = 0; i < other.size; i++) {
+            offer(other.rows[i], other.gpas[i]);
+        }
+    }
+    
+    int size() {
+        return size;
+    }
+    
+    boolean isFull() {
+        return size == capacity;
+    }
+    
+    boolean contains(int row) {
+        for (int i = 0; i < size; i++) {
+            if (rows[i] == row) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    void clear() {
+        size = 0;
+    }
+    
+    /**
+     * 📋 Rows from best to worst; equal GPAs keep the earlier row first
+     * Question: Why pop a copy instead of sorting?
+     * Solution: The root is always the weakest student kept, so taking it K times fills the
+     * answer from the back in O(K log K) - no boxed indexes for a comparator-based sort
+     */
+    int[] toSortedRows() {
+        TopStudents heap = copy();
+        int[] sorted = new int[size];
+        for (int i = size - 1; i >= 0; i--) {
+            sorted[i] = heap.rows[0];
+            heap.size--;
+            heap.swap(0, heap.size);
+            heap.siftDown(0);
+        }
+        return sorted;
+    }
+    
+    // Higher GPA wins; on a tie the earlier row wins, like the original topStudent scan
+    private static boolean isBetter(int row, double gpa, int otherRow, double otherGpa) {
+        return gpa > otherGpa || (gpa == otherGpa && row < otherRow);
+    }
+    
+    private void siftUp(int index) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!isBetter(rows[parent], gpas[parent], rows[index], gpas[index])) {
+                break;
+            }
+            swap(index, parent);
+            index = parent;
+        }
+    }
+    
+    private void siftDown(int index) {
+        while (true) {
+            int weakest = index;
+            int left = 2 * index + 1;
+            int right = left + 1;
+            if (left < size && isBetter(rows[weakest], gpas[weakest], rows[left], gpas[left])) {
+                weakest = left;
+            }
+            if (right < size && isBetter(rows[weakest], gpas[weakest], rows[right], gpas[right])) {
+                weakest = right;
+            }
+            if (weakest == index) {
+                return;
+            }
+            swap(index, weakest);
+            index = weakest;
+        }
+    }
+    
+    private void swap(int a, int b) {
+        int row = rows[a];
+        rows[a] = rows[b];
+        rows[b] = row;
+        double gpa = gpas[a];
+        gpas[a] = gpas[b];
+        gpas[b] = gpa;
+    }
+}
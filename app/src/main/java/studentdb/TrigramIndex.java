@@ -0,0 +1,182 @@
+package studentdb;
+
+import java.util.Arrays;
+
+/**
+ * 🧩 TrigramIndex class - which names contain each three-letter sequence
+ * Question: How do we find "nna" inside "Joanna" without reading every name?
+ * Solution: Every name is cut into overlapping trigrams ("joa", "oan", "ann", "nna") and each
+ * trigram keeps the list of name ids containing it; a search only reads the lists of the
+ * trigrams it is made of. Names - and each word of a longer name - are padded with marker
+ * characters so trigrams also record how words start and end, which typo search relies on.
+ */
+class TrigramIndex {
+    static final char START = '\u0002';
+    static final char END = '\u0003';
+    
+    // Set on every code so that 0 can mean "empty slot"
+    private static final long PRESENT = 1L << 48;
+    
+    private volatile Table table = new Table(1 << 12);
+    
+    /**
+     * ➕ Index the names with ids from..to-1 (names[id]) - ids must arrive in increasing order,
+     * so every list stays sorted. One thread at a time; searches may read meanwhile
+     * Question: Why not collect a name's trigrams, sort them and drop repeats first?
+     * Solution: Millions of names are indexed at once after a load, and a per-name sort was most
+     * of the cost. Since ids only grow, a trigram repeated within a name is always the last entry
+     * of its list, so one comparison drops it - and the trigrams are read straight from the name,
+     * without building padded copies of it and its words. The lists are published once at the
+     * end, so a search running meanwhile sees none of the new ids (it only asks about older ones)
+     */
+    void addAll(String[] names, int from, int to) {
+        for (int id = from; id < to; id++) {
+            String foldedName = names[id];
+            addPadded(id, foldedName, 0, foldedName.length());
+            // Then each word of a longer name on its own
+            if (foldedName.indexOf(' ') >= 0) {
+                for (int start = 0; start <= foldedName.length(); ) {
+                    int end = foldedName.indexOf(' ', start);
+                    if (end < 0) {
+                        end = foldedName.length();
+                    }
+                    if (end > start) {
+                        addPadded(id, foldedName, start, end);
+                    }
+                    start = end + 1;
+                }
+            }
+        }
+        Table current = table;
+        for (RowList list : current.lists) {
+            if (list != null) {
+                list.publish();
+            }
+        }
+    }
+    
+    // The trigrams of text[start..end) with two start and two end markers, as padded() would give
+    private void addPadded(int id, String text, int start, int end) {
+        char a = START;
+        char b = START;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            addPosting(code(a, b, c), id);
+            a = b;
+            b = c;
+        }
+        addPosting(code(a, b, END), id);
+        addPosting(code(b, END, END), id);
+    }
+    
+    private void addPosting(long code, int id) {
+        RowList list = postingsForWrite(code);
+        if (!list.endsWith(id)) {
+            list.append(id);
+        }
+    }
+    
+    /**
+     * 📜 Ids of names containing a trigram, or null if none does
+     */
+    RowList postings(long code) {
+        Table current = table;
+        int mask = current.codes.length - 1;
+        for (int slot = mix(code) & mask; current.codes[slot] != 0L; slot = (slot + 1) & mask) {
+            if (current.codes[slot] == code) {
+                return current.lists[slot]; // may still be null for a moment while being added
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * ✂️ Distinct trigram codes of a text, sorted; padded adds two start and two end markers
+     * Returns how many codes were written to 'out' (which needs room for length + 2 codes)
+     */
+    static int trigrams(String text, boolean padded, long[] out) {
+        return distinct(out, append(padded ? padded(text) : text, out, 0));
+    }
+    
+    private static String padded(String text) {
+        return "" + START + START + text + END + END;
+    }
+    
+    private static int append(String source, long[] out, int count) {
+        for (int i = 0; i + 3 <= source.length(); i++) {
+            out[count++] = code(source.charAt(i), source.charAt(i + 1), source.charAt(i + 2));
+        }
+        return count;
+    }
+    
+    // Sort and drop repeats; returns how many codes remain
+    private static int distinct(long[] out, int count) {
+        Arrays.sort(out, 0, count);
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (distinct == 0 || out[distinct - 1] != out[i]) {
+                out[distinct++] = out[i];
+            }
+        }
+        return distinct;
+    }
+    
+    static long code(char a, char b, char c) {
+        return PRESENT | ((long) a << 32) | ((long) b << 16) | c;
+    }
+    
+    private RowList postingsForWrite(long code) {
+        Table current = table;
+        int mask = current.codes.length - 1;
+        int slot = mix(code) & mask;
+        for (; current.codes[slot] != 0L; slot = (slot + 1) & mask) {
+            if (current.codes[slot] == code) {
+                return current.lists[slot];
+            }
+        }
+        RowList list = new RowList();
+        // List before code: a reader that finds the code sees a list (or null, never garbage)
+        current.lists[slot] = list;
+        current.codes[slot] = code;
+        if (++current.used * 2 > current.codes.length) {
+            table = current.grow();
+        }
+        return list;
+    }
+    
+    private static int mix(long code) {
+        long h = code * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+    
+    /**
+     * 🗂️ Table - open addressing; grown by copying into a new table that is then published
+     */
+    private static final class Table {
+        final long[] codes;
+        final RowList[] lists;
+        int used;
+        
+        Table(int capacity) {
+            codes = new long[capacity];
+            lists = new RowList[capacity];
+        }
+        
+        Table grow() {
+            Table bigger = new Table(codes.length * 2);
+            int mask = bigger.codes.length - 1;
+            for (int i = 0; i < codes.length; i++) {
+                if (codes[i] != 0L) {
+                    int slot = mix(codes[i]) & mask;
+                    while (bigger.codes[slot] != 0L) {
+                        slot = (slot + 1) & mask;
+                    }
+                    bigger.lists[slot] = lists[i];
+                    bigger.codes[slot] = codes[i];
+                }
+            }
+            bigger.used = used;
+            return bigger;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package studentdb;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+/**
+ * 🎓 GradeTest - stored grades, per-grade lists and grade counts agree with converting every GPA
+ */
+class GradeTest {
+    private static final int STUDENTS = 200_000;
+    
+    @AfterEach
+    void reset() {
+        StudentDatabase.clearDatabase();
+        StudentDatabase.useStorage(StorageEngine.LIST);
+    }
+    
+    @Test
+    void gradeBoundariesBelongToTheHigherGrade() {
+        double[] lowest = {3.7, 3.3, 3.0, 2.7, 2.3, 2.0, 0.0};
+        for (Grade grade : Grade.values()) {
+            assertSame(grade, Grade.of(lowest[grade.ordinal()]), "lowest " + grade);
+            assertEquals(grade.getLetter(), new Student("Ann", 20, lowest[grade.ordinal()], true).getGrade());
+            if (grade.ordinal() > 0) {
+                assertSame(grade, Grade.of(Math.nextDown(lowest[grade.ordinal() - 1])), "highest " + grade);
+            }
+        }
+        assertSame(Grade.A, Grade.of(4.0));
+        assertSame(Grade.B_PLUS, Grade.parse("b+"));
+        assertSame(Grade.B_PLUS, Grade.parse(" B_PLUS "));
+    }
+    
+    @ParameterizedTest
+    @EnumSource(StorageEngine.class)
+    void perGradeListsAndCountsMatchNaiveScan(StorageEngine engine) {
+        StudentDatabase.clearDatabase();
+        StudentDatabase.useStorage(engine);
+        StudentModel model = new StudentModel(13);
+        List<Student> batch = new ArrayList<>();
+        for (int i = 0; i < STUDENTS; i++) {
+            Student student = model.randomStudent();
+            // Every fourth GPA right at or just below a grade boundary
+            double gpa = i % 4 != 0 ? student.getGpa() : boundaryGpa(model.random);
+            batch.add(new Student(student.getName(), student.getAge(), gpa, student.isActive()));
+        }
+        model.addAll(batch);
+        assertGradesMatch(model, engine + " after load");
+        
+        model.randomChanges(10_000, 0.3, 0.4);
+        assertGradesMatch(model, engine + " after updates and deletes");
+        
+        StudentDatabase.compact();
+        assertGradesMatch(model, engine + " after compaction");
+        
+        Random random = new Random(engine.ordinal());
+        for (int q = 0; q < 50; q++) {
+            Grade grade = Grade.values()[random.nextInt(Grade.values().length)];
+            int minAge = 16 + random.nextInt(40);
+            boolean active = random.nextBoolean();
+            StudentQuery query = StudentQuery.all().grade(grade);
+            if (random.nextBoolean()) {
+                query = query.ageBetween(minAge, minAge + 10).active(active);
+                StudentQueryTest.assertMatches(model, query, student -> student.getGradeLevel() == grade
+                    && student.getAge() >= minAge && student.getAge() <= minAge + 10 && student.isActive() == active,
+                    "grade query " + q);
+            } else {
+                StudentQueryTest.assertMatches(model, query, student -> student.getGradeLevel() == grade, "grade query " + q);
+            }
+        }
+    }
+    
+    private static double boundaryGpa(Random random) {
+        double[] boundaries = {3.7, 3.3, 3.0, 2.7, 2.3, 2.0};
+        double boundary = boundaries[random.nextInt(boundaries.length)];
+        return random.nextBoolean() ? boundary : Math.nextDown(boundary);
+    }
+    
+    private static void assertGradesMatch(StudentModel model, String where) {
+        StudentStatistics statistics = StudentDatabase.getStatistics();
+        for (Grade grade : Grade.values()) {
+            List<Student> expected = new ArrayList<>();
+            for (Student student : model.students.values()) {
+                if (Grade.of(student.getGpa()) == grade) {
+                    expected.add(student);
+                }
+            }
+            StudentModel.assertSameStudents(expected, StudentDatabase.findByGrade(grade), where + ": findByGrade " + grade);
+            assertEquals(expected.size(), StudentDatabase.countByGrade(grade), where + ": countByGrade " + grade);
+            assertEquals(expected.size(), statistics.getGradeCount(grade.ordinal()), where + ": histogram " + grade);
+        }
+        
+        // The grade each store keeps per row, next to the GPA it came from
+        StudentSnapshot snapshot = StudentDatabase.snapshot();
+        StudentStore store = snapshot.getStore();
+        for (int i = 0; i < snapshot.size(); i++) {
+            int row = snapshot.rowAt(i);
+            assertSame(Grade.of(store.getGpa(row)), store.getGrade(row), where + ": stored grade of row " + row);
+        }
+    }
+}
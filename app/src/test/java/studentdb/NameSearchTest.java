@@ -0,0 +1,218 @@
+package studentdb;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+/**
+ * 🔎 NameSearchTest - searchNames() through the trigram index finds what reading every name would
+ * Question: What does "reading every name" mean here?
+ * Solution: naiveSearch() applies searchNames()' rules to each distinct name directly - exact,
+ * then starting with the query, then containing it, then within 1 (3-7 chars) or 2 (8+) typing
+ * mistakes of the whole name or one of its words; 1-2 chars match the start of any word.
+ * Better similarity ranks first, then the name added earliest
+ */
+class NameSearchTest {
+    private static final String[] FIRST = {"Ann", "Anna", "Annabel", "Hannah", "Joanna", "Jon", "John", "Johan",
+        "Maria", "Mario", "Marianne", "Mia", "Nan", "Nina", "Bob", "Robert", "Roberta", "Eve", "Steven", "Li"};
+    private static final String[] LAST = {"Smith", "Smyth", "Schmidt", "Nanna", "Annan", "Jones", "Johnson",
+        "Lee", "Li", "Garcia", "Marquez", "Bo"};
+    private static final int[] LIMITS = {1, 3, 10, 50, 100_000};
+    
+    // Every folded name in the order the database first saw it - the tie-breaker between equal matches
+    private final Map<String, Integer> firstSeen = new LinkedHashMap<>();
+    
+    @AfterEach
+    void reset() {
+        StudentDatabase.clearDatabase();
+        StudentDatabase.useStorage(StorageEngine.LIST);
+    }
+    
+    @ParameterizedTest
+    @EnumSource(StorageEngine.class)
+    void searchMatchesNaiveScan(StorageEngine engine) {
+        StudentDatabase.clearDatabase();
+        StudentDatabase.useStorage(engine);
+        StudentModel model = new StudentModel(14);
+        Random random = new Random(engine.ordinal());
+        addRandom(model, random, 8_000);
+        assertQueriesMatch(model, random, 300);
+        
+        // Names added after the first search are indexed by the next one
+        addRandom(model, random, 4_000);
+        for (int i = 0; i < 600; i++) {
+            int id = model.randomId();
+            if (random.nextBoolean()) {
+                model.delete(id);
+            } else {
+                Student student = randomStudent(random);
+                firstSeen.putIfAbsent(NameIndex.fold(student.getName()), firstSeen.size());
+                model.update(id, student);
+            }
+        }
+        assertQueriesMatch(model, random, 300);
+    }
+    
+    private void addRandom(StudentModel model, Random random, int count) {
+        List<Student> batch = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Student student = randomStudent(random);
+            firstSeen.putIfAbsent(NameIndex.fold(student.getName()), firstSeen.size());
+            batch.add(student);
+        }
+        model.addAll(batch);
+    }
+    
+    private static Student randomStudent(Random random) {
+        String name = FIRST[random.nextInt(FIRST.length)];
+        if (random.nextInt(4) != 0) {
+            name += " " + LAST[random.nextInt(LAST.length)];
+        }
+        if (random.nextInt(3) == 0) {
+            name += random.nextInt(100);
+        }
+        // Case differences fold away, so several spellings share one key
+        name = random.nextInt(5) == 0 ? name.toUpperCase() : name;
+        return new Student(name, 16 + random.nextInt(40), random.nextInt(401) / 100.0, random.nextBoolean());
+    }
+    
+    private void assertQueriesMatch(StudentModel model, Random random, int queries) {
+        List<String> names = new ArrayList<>(firstSeen.keySet());
+        for (int q = 0; q < queries; q++) {
+            String query = randomQuery(names.get(random.nextInt(names.size())), random);
+            int limit = LIMITS[random.nextInt(LIMITS.length)];
+            List<NameMatch> expected = naiveSearch(model, query, limit);
+            List<NameMatch> actual = StudentDatabase.searchNames(query, limit);
+            String where = "searchNames(\"" + query + "\", " + limit + ")";
+            assertEquals(expected.size(), actual.size(), where + ": size");
+            for (int i = 0; i < expected.size(); i++) {
+                NameMatch want = expected.get(i);
+                NameMatch got = actual.get(i);
+                StudentModel.assertSameStudent(want.getStudent(), got.getStudent(), where + " at " + i);
+                assertEquals(want.getKind(), got.getKind(), where + " at " + i + ": kind");
+                assertEquals(want.getDistance(), got.getDistance(), where + " at " + i + ": distance");
+                assertEquals(want.getSimilarity(), got.getSimilarity(), where + " at " + i + ": similarity");
+            }
+        }
+    }
+    
+    // A piece of a real name, often with a typing mistake or two, in any case
+    private static String randomQuery(String name, Random random) {
+        int start = random.nextInt(3) == 0 ? random.nextInt(name.length()) : 0;
+        int end = start + 1 + random.nextInt(name.length() - start);
+        StringBuilder query = new StringBuilder(name.substring(start, end));
+        for (int edits = random.nextInt(3); edits > 0 && query.length() > 0; edits--) {
+            int at = random.nextInt(query.length());
+            char letter = (char) ('a' + random.nextInt(26));
+            switch (random.nextInt(3)) {
+                case 0:
+                    query.setCharAt(at, letter);
+                    break;
+                case 1:
+                    query.insert(at, letter);
+                    break;
+                default:
+                    query.deleteCharAt(at);
+                    break;
+            }
+        }
+        return random.nextBoolean() ? query.toString().toUpperCase() : query.toString();
+    }
+    
+    /**
+     * 🐢 The same search, one distinct name at a time
+     */
+    private List<NameMatch> naiveSearch(StudentModel model, String query, int limit) {
+        String key = NameIndex.fold(query);
+        Map<String, List<Student>> liveByName = new LinkedHashMap<>();
+        for (Student student : model.students.values()) {
+            liveByName.computeIfAbsent(NameIndex.fold(student.getName()), name -> new ArrayList<>()).add(student);
+        }
+        List<Object[]> matches = new ArrayList<>(); // {name, kind, distance, similarity}
+        if (!key.isEmpty()) {
+            for (String name : liveByName.keySet()) {
+                Object[] match = key.length() <= 2 ? startsAWord(key, name) : containsOrTypo(key, name);
+                if (match != null) {
+                    matches.add(match);
+                }
+            }
+        }
+        matches.sort(Comparator.<Object[], NameMatch.Kind>comparing(match -> (NameMatch.Kind) match[1])
+            .thenComparingInt(match -> (Integer) match[2])
+            .thenComparing(match -> -(Double) match[3])
+            .thenComparingInt(match -> firstSeen.get((String) match[0])));
+        
+        List<NameMatch> results = new ArrayList<>();
+        for (Object[] match : matches.subList(0, Math.min(limit, matches.size()))) {
+            for (Student student : liveByName.get((String) match[0])) {
+                if (results.size() < limit) {
+                    results.add(new NameMatch(student, (NameMatch.Kind) match[1], (Integer) match[2], (Double) match[3]));
+                }
+            }
+        }
+        return results;
+    }
+    
+    private static Object[] startsAWord(String key, String name) {
+        boolean starts = name.startsWith(key);
+        for (String word : name.split(" ")) {
+            starts |= word.startsWith(key);
+        }
+        if (!starts) {
+            return null;
+        }
+        return containing(key, name);
+    }
+    
+    // Starting a later word only counts as containing the query
+    private static Object[] containing(String key, String name) {
+        NameMatch.Kind kind = name.equals(key) ? NameMatch.Kind.EXACT
+            : name.startsWith(key) ? NameMatch.Kind.PREFIX
+            : NameMatch.Kind.SUBSTRING;
+        return new Object[] {name, kind, 0, (double) key.length() / name.length()};
+    }
+    
+    private static Object[] containsOrTypo(String key, String name) {
+        if (name.contains(key)) {
+            return containing(key, name);
+        }
+        int maxDistance = key.length() <= 7 ? 1 : 2;
+        int distance = levenshtein(key, name);
+        int comparedLength = name.length();
+        if (distance > maxDistance) {
+            for (String word : name.split(" ")) {
+                int wordDistance = levenshtein(key, word);
+                if (wordDistance < distance) {
+                    distance = wordDistance;
+                    comparedLength = word.length();
+                }
+            }
+        }
+        if (distance > maxDistance) {
+            return null;
+        }
+        return new Object[] {name, NameMatch.Kind.TYPO, distance,
+            1.0 - (double) distance / Math.max(key.length(), comparedLength)};
+    }
+    
+    // Full table, no early exit
+    private static int levenshtein(String a, String b) {
+        int[][] distance = new int[a.length() + 1][b.length() + 1];
+        for (int i = 0; i <= a.length(); i++) {
+            for (int j = 0; j <= b.length(); j++) {
+                distance[i][j] = i == 0 ? j : j == 0 ? i
+                    : Math.min(Math.min(distance[i - 1][j] + 1, distance[i][j - 1] + 1),
+                        distance[i - 1][j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1));
+            }
+        }
+        return distance[a.length()][b.length()];
+    }
+}
@@ -0,0 +1,99 @@
+package studentdb;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+/**
+ * 🤖 StudentCommandRunnerTest - batched adds answer with the ids that get, update and delete take
+ * Question: Which ids could come out wrong?
+ * Solution: Adds queued across a full batch and a partial one, with failed adds between them and
+ * students already in the database, so the first id is not 0 and answers sit between the adds
+ */
+class StudentCommandRunnerTest {
+    private static final Pattern ID = Pattern.compile("\"id\":(\\d+)");
+    
+    @AfterEach
+    void reset() {
+        StudentDatabase.clearDatabase();
+        StudentDatabase.useStorage(StorageEngine.LIST);
+    }
+    
+    private static List<String> run(String commands) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        StudentCommandRunner runner = new StudentCommandRunner(new BufferedReader(new StringReader(commands)),
+            new PrintStream(bytes, false, StandardCharsets.UTF_8));
+        runner.run();
+        return List.of(bytes.toString(StandardCharsets.UTF_8).split("\n"));
+    }
+    
+    private static int idOf(String answer) {
+        Matcher matcher = ID.matcher(answer);
+        assertTrue(matcher.find(), "no id in " + answer);
+        return Integer.parseInt(matcher.group(1));
+    }
+    
+    @ParameterizedTest
+    @EnumSource(StorageEngine.class)
+    void addAnswersWithTheIdOfTheNewStudent(StorageEngine engine) throws IOException {
+        StudentDatabase.clearDatabase();
+        StudentDatabase.useStorage(engine);
+        StudentDatabase.addStudent(new Student("Already Here", 30, 2.0, false));
+    
+        int count = StudentCsvImporter.BATCH_SIZE + 500;
+        StringBuilder commands = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            commands.append("add Student ").append(i).append(',').append(16 + i % 40).append(",3.0,true\n");
+            if (i % 1000 == 7) {
+                commands.append("add Not A Student,abc,3.0,true\n");
+            }
+        }
+        List<String> answers = run(commands.toString());
+    
+        List<Integer> ids = new ArrayList<>();
+        for (String answer : answers) {
+            if (answer.contains("\"ok\":true")) {
+                ids.add(idOf(answer));
+            } else {
+                assertFalse(answer.contains("\"id\""), "failed add with an id: " + answer);
+            }
+        }
+        assertEquals(count, ids.size(), "answered adds");
+        for (int i = 0; i < count; i++) {
+            assertEquals("Student " + i, StudentDatabase.getStudent(ids.get(i)).getName(), "id " + ids.get(i));
+        }
+    
+        // A later run changes the rows through the ids it was given
+        int updated = ids.get(3);
+        int deleted = ids.get(count - 1);
+        List<String> changes = run("update " + updated + " Renamed,40,1.5,false\ndelete " + deleted + "\n"
+            + "get " + updated + "\nget " + deleted + "\n");
+        assertTrue(changes.get(0).contains("\"ok\":true"), changes.get(0));
+        assertTrue(changes.get(1).contains("\"ok\":true"), changes.get(1));
+        assertTrue(changes.get(2).contains("\"name\":\"Renamed\""), changes.get(2));
+        assertTrue(changes.get(3).contains("\"ok\":false"), changes.get(3));
+        assertEquals("Renamed", StudentDatabase.getStudent(updated).getName());
+        assertNull(StudentDatabase.getStudent(deleted));
+        assertEquals(count, StudentDatabase.getStudentCount());
+    
+        // Within one run too: ids are never reused, so the next add gets the one after the deleted student
+        List<String> sameRun = run("add Eve Moss,22,3.9,true\nget " + (deleted + 1) + "\n");
+        assertEquals(idOf(sameRun.get(0)), idOf(sameRun.get(1)));
+        assertTrue(sameRun.get(1).contains("\"name\":\"Eve Moss\""), sameRun.get(1));
+    }
+}
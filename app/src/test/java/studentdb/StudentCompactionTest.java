@@ -0,0 +1,137 @@
+package studentdb;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+/**
+ * 🧹 StudentCompactionTest - compaction running while students keep being added, updated and deleted
+ * Question: compact() copies the live rows outside the lock - what about changes made meanwhile?
+ * Solution: One writer changes the database (and the model) nonstop while another thread
+ * compacts over and over and readers look up students that never change; afterwards the
+ * database must still match the model exactly
+ */
+class StudentCompactionTest {
+    
+    @AfterEach
+    void reset() {
+        StudentDatabase.clearDatabase();
+        StudentDatabase.useStorage(StorageEngine.LIST);
+    }
+    
+    @ParameterizedTest
+    @EnumSource(StorageEngine.class)
+    void compactionDuringChangesLosesNothing(StorageEngine engine) throws Exception {
+        StudentDatabase.clearDatabase();
+        StudentDatabase.useStorage(engine);
+        StudentModel model = new StudentModel(6);
+        model.randomChanges(2000, 0.1, 0.1);
+        // Students the writer never touches, so readers know exactly what to expect
+        List<Integer> fixedIds = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            fixedIds.add(model.add(new Student("Fixed " + i, 16 + i % 40, (i % 401) / 100.0, i % 2 == 0)));
+        }
+        List<Integer> fixed = List.copyOf(fixedIds);
+        
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        AtomicInteger compactions = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+        threads.add(new Thread(() -> {
+            while (!done.get()) {
+                if (StudentDatabase.compact() > 0) {
+                    compactions.incrementAndGet();
+                }
+            }
+        }, "test-compactor"));
+        for (int t = 0; t < 2; t++) {
+            Random random = new Random(t);
+            threads.add(new Thread(() -> {
+                try {
+                    while (!done.get()) {
+                        int i = random.nextInt(fixed.size());
+                        Student student = StudentDatabase.getStudent(fixed.get(i));
+                        assertNotNull(student, "fixed student " + fixed.get(i));
+                        assertEquals("Fixed " + i, student.getName());
+                        assertEquals(1, StudentDatabase.findByName("fixed " + i).size(), "findByName");
+                        assertTrue(StudentDatabase.getStatistics().getCount() >= fixed.size(), "statistics count");
+                    }
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            }, "test-reader-" + t));
+        }
+        threads.forEach(Thread::start);
+        try {
+            for (int round = 0; round < 40 && failure.get() == null; round++) {
+                // Only the writer's own students change; the fixed ones are left alone
+                for (int i = 0; i < 250; i++) {
+                    double choice = model.random.nextDouble();
+                    int target = model.randomId();
+                    if (choice < 0.35 && !fixed.contains(target)) {
+                        model.delete(target);
+                    } else if (choice < 0.6 && !fixed.contains(target)) {
+                        model.update(target, model.randomStudent());
+                    } else {
+                        model.add(model.randomStudent());
+                    }
+                }
+            }
+        } finally {
+            done.set(true);
+            for (Thread thread : threads) {
+                thread.join();
+            }
+        }
+        if (failure.get() != null) {
+            throw new AssertionError("reader failed", failure.get());
+        }
+        
+        assertTrue(compactions.get() > 0, "compact() never freed a row");
+        model.assertDatabaseMatches();
+        // A background compaction started by the writer may still swap in its generation first
+        for (int attempt = 0; attempt < 100 && StudentDatabase.getStore().size() > model.students.size(); attempt++) {
+            StudentDatabase.compact();
+            Thread.sleep(10);
+        }
+        assertEquals(model.students.size(), StudentDatabase.getStore().size(), "rows after a final compact()");
+        model.assertDatabaseMatches();
+    }
+    
+    @ParameterizedTest
+    @EnumSource(StorageEngine.class)
+    void manyDeletesStartCompactionInTheBackground(StorageEngine engine) throws Exception {
+        StudentDatabase.clearDatabase();
+        StudentDatabase.useStorage(engine);
+        StudentModel model = new StudentModel(7);
+        for (int i = 0; i < 6000; i++) {
+            model.add(model.randomStudent());
+        }
+        List<Integer> ids = new ArrayList<>(model.students.keySet());
+        for (int i = 0; i < ids.size(); i += 4) {
+            for (int j = i; j < i + 3 && j < ids.size(); j++) {
+                model.delete(ids.get(j));
+            }
+        }
+        
+        // The compactor thread is started by a delete; wait for a generation with fewer rows
+        long deadline = System.nanoTime() + 30_000_000_000L;
+        while (StudentDatabase.getStore().size() == ids.size() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(StudentDatabase.getStore().size() < ids.size(), "no background compaction");
+        model.assertDatabaseMatches();
+        model.randomChanges(500, 0.3, 0.3);
+        model.assertDatabaseMatches();
+    }
+}
@@ -0,0 +1,221 @@
+package studentdb;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * 🧪 StudentModel class - what the database should hold, kept the slow and obvious way
+ * Question: How do we know every index and total is still right after updates and deletes?
+ * Solution: The same changes go into a plain id -> student map, and assertDatabaseMatches()
+ * compares each view of the database against a straightforward scan of that map
+ */
+class StudentModel {
+    // A few names that differ only in case, so name lookups group several students together
+    static final String[] NAMES = {"Ann", "Bob", "Cara", "Dan", "Eve", "Finn", "anna", "ANN", "Ivy", "Jon"};
+    
+    // In database order: a new student, or a new version of one, goes to the end
+    final Map<Integer, Student> students = new LinkedHashMap<>();
+    final Random random;
+    // The same ids in no particular order, and where each one is, so randomId() needs no scan
+    private final List<Integer> ids = new ArrayList<>();
+    private final Map<Integer, Integer> positions = new HashMap<>();
+    
+    StudentModel(long seed) {
+        random = new Random(seed);
+    }
+    
+    Student randomStudent() {
+        String name = NAMES[random.nextInt(NAMES.length)] + (random.nextInt(4) == 0 ? " " + random.nextInt(30) : "");
+        return new Student(name, 16 + random.nextInt(40), random.nextInt(401) / 100.0, random.nextBoolean());
+    }
+    
+    int add(Student student) {
+        int id = StudentDatabase.addStudent(student);
+        added(id, student);
+        return id;
+    }
+    
+    void addAll(List<Student> batch) {
+        int first = StudentDatabase.addStudents(batch);
+        for (int i = 0; i < batch.size(); i++) {
+            added(first + i, batch.get(i));
+        }
+    }
+    
+    private void added(int id, Student student) {
+        assertFalse(students.containsKey(id), "id " + id + " handed out twice");
+        students.put(id, student);
+        positions.put(id, ids.size());
+        ids.add(id);
+    }
+    
+    void update(int id, Student student) {
+        assertTrue(StudentDatabase.updateStudent(id, student), "update of " + id);
+        students.remove(id);
+        students.put(id, student);
+    }
+    
+    void delete(int id) {
+        assertTrue(StudentDatabase.deleteStudent(id), "delete of " + id);
+        students.remove(id);
+        // Move the last id into the deleted one's place
+        int position = positions.remove(id);
+        int last = ids.remove(ids.size() - 1);
+        if (last != id) {
+            ids.set(position, last);
+            positions.put(last, position);
+        }
+    }
+    
+    int randomId() {
+        return ids.get(random.nextInt(ids.size()));
+    }
+    
+    /**
+     * 🧹 Forget everything, as clearDatabase() does
+     */
+    void clear() {
+        students.clear();
+        ids.clear();
+        positions.clear();
+    }
+    
+    /**
+     * 🎲 Apply 'count' random adds (single and batched), updates and deletes
+     */
+    void randomChanges(int count, double deleteShare, double updateShare) {
+        for (int i = 0; i < count; i++) {
+            double choice = random.nextDouble();
+            if (!students.isEmpty() && choice < deleteShare) {
+                delete(randomId());
+            } else if (!students.isEmpty() && choice < deleteShare + updateShare) {
+                update(randomId(), randomStudent());
+            } else if (random.nextInt(10) == 0) {
+                List<Student> batch = new ArrayList<>();
+                for (int size = 1 + random.nextInt(5); size > 0; size--) {
+                    batch.add(randomStudent());
+                }
+                addAll(batch);
+            } else {
+                add(randomStudent());
+            }
+        }
+    }
+    
+    /**
+     * ✅ Every view of the database agrees with the model
+     */
+    void assertDatabaseMatches() {
+        List<Student> expected = new ArrayList<>(students.values());
+        int count = expected.size();
+        assertEquals(count, StudentDatabase.getStudentCount(), "student count");
+        assertSameStudents(expected, StudentDatabase.getStudents(), "getStudents()");
+        
+        StudentSnapshot snapshot = StudentDatabase.snapshot();
+        assertEquals(count, snapshot.size(), "snapshot size");
+        List<Integer> inOrder = new ArrayList<>(students.keySet());
+        for (int i = 0; i < count; i++) {
+            assertEquals(inOrder.get(i), snapshot.idAt(i), "snapshot id at " + i);
+        }
+        for (Map.Entry<Integer, Student> entry : students.entrySet()) {
+            Student found = StudentDatabase.getStudent(entry.getKey());
+            assertNotNull(found, "getStudent(" + entry.getKey() + ")");
+            assertSameStudent(entry.getValue(), found, "getStudent(" + entry.getKey() + ")");
+        }
+        
+        StudentStatistics statistics = StudentDatabase.getStatistics();
+        assertEquals(count, statistics.getCount(), "statistics count");
+        assertEquals(expected.stream().filter(Student::isActive).count(), statistics.getActiveCount(), "active count");
+        if (count > 0) {
+            assertEquals(expected.stream().mapToLong(Student::getAge).sum(), statistics.getAgeSum(), "age sum");
+            assertEquals(expected.stream().mapToDouble(Student::getGpa).sum(), statistics.getGpaSum(), 1e-6, "GPA sum");
+            assertEquals(expected.stream().mapToInt(Student::getAge).min().getAsInt(), statistics.getMinAge(), "min age");
+            assertEquals(expected.stream().mapToInt(Student::getAge).max().getAsInt(), statistics.getMaxAge(), "max age");
+            assertEquals(expected.stream().mapToDouble(Student::getGpa).min().getAsDouble(), statistics.getMinGpa(), "min GPA");
+            assertEquals(expected.stream().mapToDouble(Student::getGpa).max().getAsDouble(), statistics.getMaxGpa(), "max GPA");
+        }
+        for (Grade grade : Grade.values()) {
+            long inGrade = expected.stream().filter(s -> s.getGradeLevel() == grade).count();
+            assertEquals(inGrade, statistics.getGradeCount(grade.ordinal()), "statistics grade " + grade);
+            assertEquals(inGrade, StudentDatabase.countByGrade(grade), "countByGrade " + grade);
+            assertEquals(inGrade, StudentDatabase.findByGrade(grade).size(), "findByGrade " + grade);
+        }
+        
+        double[] bestGpas = expected.stream().mapToDouble(Student::getGpa).boxed()
+            .sorted(Comparator.reverseOrder()).mapToDouble(Double::doubleValue).toArray();
+        List<RankedStudent> leaderboard = StudentDatabase.getLeaderboard(10);
+        assertEquals(Math.min(10, count), leaderboard.size(), "leaderboard size");
+        for (int i = 0; i < leaderboard.size(); i++) {
+            assertEquals(bestGpas[i], leaderboard.get(i).getStudent().getGpa(), "leaderboard place " + i);
+        }
+        
+        for (String name : NAMES) {
+            IntArray foundIds = new IntArray();
+            List<Student> found = StudentDatabase.findByName(name, foundIds);
+            Set<Integer> wanted = new HashSet<>();
+            students.forEach((id, student) -> {
+                if (student.getName().equalsIgnoreCase(name)) {
+                    wanted.add(id);
+                }
+            });
+            Set<Integer> got = new HashSet<>();
+            for (int i = 0; i < foundIds.size(); i++) {
+                got.add(foundIds.get(i));
+                assertSameStudent(students.get(foundIds.get(i)), found.get(i), "findByName(" + name + ")");
+            }
+            assertEquals(wanted, got, "findByName(" + name + ")");
+            assertEquals(wanted.size(), StudentDatabase.findRanks(name).size(), "findRanks(" + name + ")");
+            
+            String prefix = name.substring(0, 2);
+            long withPrefix = expected.stream()
+                .filter(s -> s.getName().toLowerCase().startsWith(prefix.toLowerCase())).count();
+            assertEquals(withPrefix, StudentDatabase.findByNamePrefix(prefix, count + 1).size(), "prefix " + prefix);
+        }
+        
+        StudentQuery query = StudentQuery.all().ageBetween(20, 30).gpaBetween(2.0, 3.5).active(true);
+        long matching = expected.stream()
+            .filter(s -> s.getAge() >= 20 && s.getAge() <= 30 && s.getGpa() >= 2.0 && s.getGpa() <= 3.5 && s.isActive())
+            .count();
+        assertEquals(matching, StudentDatabase.count(query), "count(query)");
+        assertEquals(matching, StudentDatabase.query(query).size(), "query()");
+        
+        List<Student> byAge = new ArrayList<>(expected);
+        byAge.sort(Comparator.comparingInt(Student::getAge));
+        assertSameStudents(byAge, StudentDatabase.getStudentsSortedBy(StudentPageRequest.SortKey.AGE, false), "sorted by age");
+        
+        StudentGroups groups = StudentDatabase.groupBy(StudentGroupQuery.by(StudentGroupQuery.Dimension.GRADE).count());
+        long grouped = 0;
+        for (StudentGroups.Group group : groups.getGroups()) {
+            Grade grade = Grade.values()[group.getKey(0)];
+            assertEquals(expected.stream().filter(s -> s.getGradeLevel() == grade).count(), group.getCount(), "group " + grade);
+            grouped += group.getCount();
+        }
+        assertEquals(count, grouped, "students in groups");
+    }
+    
+    static void assertSameStudents(List<Student> expected, List<Student> actual, String where) {
+        assertEquals(expected.size(), actual.size(), where + ": size");
+        for (int i = 0; i < expected.size(); i++) {
+            assertSameStudent(expected.get(i), actual.get(i), where + " at " + i);
+        }
+    }
+    
+    static void assertSameStudent(Student expected, Student actual, String where) {
+        assertEquals(expected.getName(), actual.getName(), where + ": name");
+        assertEquals(expected.getAge(), actual.getAge(), where + ": age");
+        assertEquals(expected.getGpa(), actual.getGpa(), where + ": GPA");
+        assertEquals(expected.isActive(), actual.isActive(), where + ": active");
+    }
+}
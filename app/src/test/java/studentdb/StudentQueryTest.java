@@ -0,0 +1,98 @@
+package studentdb;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Predicate;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+/**
+ * 🎯 StudentQueryTest - indexed queries return exactly what filtering every student would
+ * Question: Where could the index plan go wrong?
+ * Solution: Random queries with random subsets of conditions - bounds outside the valid range,
+ * bounds falling inside a GPA bucket, empty ranges - over students that have been updated and
+ * deleted, each compared with a plain filter over the model
+ */
+class StudentQueryTest {
+    private static final int QUERIES = 300;
+    
+    @AfterEach
+    void reset() {
+        StudentDatabase.clearDatabase();
+        StudentDatabase.useStorage(StorageEngine.LIST);
+    }
+    
+    @ParameterizedTest
+    @EnumSource(StorageEngine.class)
+    void queriesMatchNaiveFilter(StorageEngine engine) {
+        StudentDatabase.clearDatabase();
+        StudentDatabase.useStorage(engine);
+        StudentModel model = new StudentModel(12);
+        List<Student> batch = new ArrayList<>();
+        for (int i = 0; i < 50_000; i++) {
+            // Some GPAs off the hundredths grid, so bucket edges need the exact check
+            Student student = model.randomStudent();
+            batch.add(i % 5 != 0 ? student : new Student(student.getName(), student.getAge(),
+                model.random.nextDouble() * 4.0, student.isActive()));
+        }
+        model.addAll(batch);
+        model.randomChanges(5_000, 0.3, 0.3);
+        
+        Random random = new Random(engine.ordinal());
+        for (int q = 0; q < QUERIES; q++) {
+            StudentQuery query = StudentQuery.all();
+            Predicate<Student> filter = student -> true;
+            if (random.nextBoolean()) {
+                int min = 10 + random.nextInt(100);
+                int max = random.nextInt(8) == 0 ? min - 1 : min + random.nextInt(20);
+                query = query.ageBetween(min, max);
+                filter = filter.and(student -> student.getAge() >= min && student.getAge() <= max);
+            }
+            if (random.nextBoolean()) {
+                double min = randomBound(random);
+                double max = random.nextInt(8) == 0 ? min - 0.01 : min + randomBound(random) / 2;
+                query = query.gpaBetween(min, max);
+                filter = filter.and(student -> student.getGpa() >= min && student.getGpa() <= max);
+            }
+            if (random.nextInt(3) != 0) {
+                boolean active = random.nextBoolean();
+                query = query.active(active);
+                filter = filter.and(student -> student.isActive() == active);
+            }
+            assertMatches(model, query, filter, "query " + q);
+        }
+    }
+    
+    // A GPA bound, sometimes on the hundredths grid, sometimes between, sometimes out of range
+    private static double randomBound(Random random) {
+        switch (random.nextInt(4)) {
+            case 0:
+                return random.nextInt(401) / 100.0;
+            case 1:
+                return random.nextDouble() * 4.0;
+            case 2:
+                return -1.0 + random.nextDouble() * 6.0;
+            default:
+                return random.nextInt(801) / 200.0;
+        }
+    }
+    
+    static void assertMatches(StudentModel model, StudentQuery query, Predicate<Student> filter, String where) {
+        List<Student> expected = new ArrayList<>();
+        for (Map.Entry<Integer, Student> entry : model.students.entrySet()) {
+            if (filter.test(entry.getValue())) {
+                expected.add(entry.getValue());
+            }
+        }
+        String description = where + " (age " + query.getMinAge() + "-" + query.getMaxAge() + ", GPA "
+            + query.getMinGpa() + "-" + query.getMaxGpa() + ", active " + query.getActive() + ", grade "
+            + query.getGrade() + ")";
+        assertEquals(expected.size(), StudentDatabase.count(query), description + ": count()");
+        StudentModel.assertSameStudents(expected, StudentDatabase.query(query), description + ": query()");
+    }
+}
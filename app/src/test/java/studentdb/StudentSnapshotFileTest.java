@@ -0,0 +1,178 @@
+package studentdb;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+/**
+ * 💾 StudentSnapshotFileTest - snapshots written now, and by older versions, load back the same students
+ * Question: The code that wrote version 1 and 2 files is gone - how do we test reading them?
+ * Solution: legacySnapshot() writes those layouts byte by byte, as StudentSnapshotFile documents them
+ */
+class StudentSnapshotFileTest {
+    private static final int MAGIC = 0x53544442; // "STDB"
+    
+    // Names that need 2, 3 and 4 UTF-8 bytes per character, and one longer than a 1-byte length
+    private static final List<Student> STUDENTS = List.of(
+        new Student("Ann", 20, 3.5, true),
+        new Student("José Müller", 31, 2.25, false),
+        new Student("李小龙", 45, 4.0, true),
+        new Student("Zoë 🎓", 16, 0.0, false),
+        new Student("ann", 100, 1.75, true),
+        new Student("B".repeat(200), 58, 3.0, true));
+    
+    @TempDir
+    Path directory;
+    
+    @AfterEach
+    void reset() {
+        StudentDatabase.clearDatabase();
+        StudentDatabase.useStorage(StorageEngine.LIST);
+    }
+    
+    @ParameterizedTest
+    @EnumSource(StorageEngine.class)
+    void loadsVersion1Files(StorageEngine engine) throws IOException {
+        StudentDatabase.clearDatabase();
+        StudentDatabase.useStorage(engine);
+        Path path = directory.resolve("v1.db");
+        Files.write(path, legacySnapshot(1, STUDENTS, 0L));
+        
+        assertEquals(STUDENTS.size(), StudentSnapshotFile.load(path));
+        assertLoadedInFileOrder();
+    }
+    
+    @ParameterizedTest
+    @EnumSource(StorageEngine.class)
+    void loadsVersion2FilesWithTheirCheckpoint(StorageEngine engine) throws IOException {
+        StudentDatabase.clearDatabase();
+        StudentDatabase.useStorage(engine);
+        Path path = directory.resolve("v2.db");
+        Files.write(path, legacySnapshot(2, STUDENTS, 7L));
+        
+        assertEquals(7L, StudentSnapshotFile.read(path).checkpoint);
+        assertEquals(STUDENTS.size(), StudentSnapshotFile.load(path));
+        assertLoadedInFileOrder();
+    }
+    
+    // Before version 3 there were no ids: students are numbered 0, 1, 2... in file order
+    private static void assertLoadedInFileOrder() {
+        StudentModel.assertSameStudents(STUDENTS, StudentDatabase.getStudents(), "loaded students");
+        for (int id = 0; id < STUDENTS.size(); id++) {
+            StudentModel.assertSameStudent(STUDENTS.get(id), StudentDatabase.getStudent(id), "student " + id);
+        }
+        assertEquals(2, StudentDatabase.findByName("ANN").size());
+        assertEquals(1, StudentDatabase.findByName("josé müller").size());
+        assertEquals(STUDENTS.size(), StudentDatabase.addStudent(new Student("New", 20, 2.0, true)));
+    }
+    
+    @ParameterizedTest
+    @EnumSource(StorageEngine.class)
+    void currentVersionKeepsIdsNamesAndDeletes(StorageEngine engine) throws IOException {
+        StudentDatabase.clearDatabase();
+        StudentDatabase.useStorage(engine);
+        StudentModel model = new StudentModel(11);
+        STUDENTS.forEach(model::add);
+        model.randomChanges(1000, 0.25, 0.25);
+        Path path = directory.resolve("current.db");
+        assertEquals(model.students.size(), StudentSnapshotFile.save(path));
+        
+        StudentDatabase.clearDatabase();
+        assertEquals(model.students.size(), StudentSnapshotFile.load(path));
+        model.assertDatabaseMatches();
+        // New students still get ids above every saved one
+        int id = model.add(model.randomStudent());
+        assertTrue(model.students.keySet().stream().allMatch(other -> other <= id), "id " + id + " reused");
+        model.randomChanges(300, 0.3, 0.3);
+        model.assertDatabaseMatches();
+    }
+    
+    @Test
+    void emptyDatabaseRoundTrips() throws IOException {
+        StudentDatabase.clearDatabase();
+        Path path = directory.resolve("empty.db");
+        assertEquals(0, StudentSnapshotFile.save(path));
+        StudentDatabase.addStudent(new Student("Ann", 20, 3.0, true));
+        assertEquals(0, StudentSnapshotFile.load(path));
+        assertEquals(0, StudentDatabase.getStudentCount());
+    }
+    
+    @Test
+    void rejectsDamagedFiles() throws IOException {
+        StudentDatabase.clearDatabase();
+        STUDENTS.forEach(StudentDatabase::addStudent);
+        Path path = directory.resolve("good.db");
+        StudentSnapshotFile.save(path);
+        byte[] good = Files.readAllBytes(path);
+        
+        Path truncated = directory.resolve("truncated.db");
+        Files.write(truncated, Arrays.copyOf(good, good.length - 1));
+        assertThrows(IOException.class, () -> StudentSnapshotFile.read(truncated));
+        
+        Path wrongMagic = directory.resolve("magic.db");
+        byte[] bytes = good.clone();
+        bytes[0] = 'X';
+        Files.write(wrongMagic, bytes);
+        assertThrows(IOException.class, () -> StudentSnapshotFile.read(wrongMagic));
+        
+        Path future = directory.resolve("future.db");
+        bytes = good.clone();
+        bytes[7] = 99;
+        Files.write(future, bytes);
+        assertThrows(IOException.class, () -> StudentSnapshotFile.read(future));
+        assertEquals(STUDENTS.size(), StudentDatabase.getStudentCount(), "a failed read changes nothing");
+    }
+    
+    /**
+     * 📜 A version 1 or 2 file: header, ages, GPAs, active bits, then each name as a varint
+     * length and its UTF-8 bytes (version 2 adds the log checkpoint to the header)
+     */
+    private static byte[] legacySnapshot(int version, List<Student> students, long checkpoint) {
+        ByteArrayOutputStream names = new ByteArrayOutputStream();
+        for (Student student : students) {
+            byte[] name = student.getName().getBytes(StandardCharsets.UTF_8);
+            int length = name.length;
+            while (length >= 0x80) {
+                names.write((length & 0x7F) | 0x80);
+                length >>>= 7;
+            }
+            names.write(length);
+            names.writeBytes(name);
+        }
+        int count = students.size();
+        int headerSize = version == 1 ? 20 : 28;
+        int padding = (8 - (headerSize + count) % 8) % 8;
+        int words = (count + 63) / 64;
+        ByteBuffer buffer = ByteBuffer.allocate(headerSize + count + padding + 8 * count + 8 * words + names.size());
+        buffer.putInt(MAGIC).putInt(version).putInt(count).putLong(names.size());
+        if (version >= 2) {
+            buffer.putLong(checkpoint);
+        }
+        students.forEach(student -> buffer.put((byte) student.getAge()));
+        buffer.put(new byte[padding]);
+        students.forEach(student -> buffer.putDouble(student.getGpa()));
+        long[] active = new long[words];
+        for (int i = 0; i < count; i++) {
+            if (students.get(i).isActive()) {
+                active[i / 64] |= 1L << (i % 64);
+            }
+        }
+        Arrays.stream(active).forEach(buffer::putLong);
+        buffer.put(names.toByteArray());
+        return buffer.array();
+    }
+}
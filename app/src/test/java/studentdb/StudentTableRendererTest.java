@@ -0,0 +1,108 @@
+package studentdb;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * 🖨️ StudentTableRendererTest - rows written by hand are byte-for-byte what String.format() writes
+ * Question: Which GPAs are risky?
+ * Solution: Besides random ones, exact half-hundredths like 2.675 and 1.005 (stored slightly
+ * below or above the half), -0.0, NaN and infinities, which the renderer leaves to String.format()
+ */
+class StudentTableRendererTest {
+    private static final double[] EDGE_GPAS = {
+        0.0, -0.0, 4.0, 2.675, 1.005, 0.005, 0.015, 3.995, 2.5, 1e-7, 0.0049999999,
+        -1.25, Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, 123456.785, 1e13};
+    private static final String[] EDGE_NAMES = {
+        "", "Al", "Exactly Twenty Chars", "A name longer than twenty characters", "José Müller", "李小龙", "Zoë 🎓"};
+    
+    @AfterEach
+    void reset() {
+        StudentDatabase.clearDatabase();
+        StudentDatabase.useStorage(StorageEngine.LIST);
+    }
+    
+    private static List<Student> students(long seed, int count) {
+        Random random = new Random(seed);
+        List<Student> students = new ArrayList<>();
+        for (double gpa : EDGE_GPAS) {
+            for (String name : EDGE_NAMES) {
+                students.add(new Student(name, random.nextBoolean() ? 16 : 1234567, gpa, random.nextBoolean()));
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            double gpa;
+            switch (random.nextInt(3)) {
+                case 0:
+                    gpa = random.nextInt(401) / 100.0;
+                    break;
+                case 1:
+                    gpa = random.nextInt(801) / 200.0; // every other one is a half-hundredth
+                    break;
+                default:
+                    gpa = random.nextDouble() * 4.0;
+                    break;
+            }
+            String name = EDGE_NAMES[random.nextInt(EDGE_NAMES.length)] + random.nextInt(1000);
+            students.add(new Student(name, 16 + random.nextInt(85), gpa, random.nextBoolean()));
+        }
+        return students;
+    }
+    
+    private static String formatted(Locale locale, Student student) {
+        return String.format(locale, StudentTableRenderer.ROW_FORMAT, student.getName(), student.getAge(),
+            student.getGpa(), student.isActive() ? StudentTableRenderer.ACTIVE : StudentTableRenderer.INACTIVE,
+            student.getGrade());
+    }
+    
+    @ParameterizedTest
+    @ValueSource(strings = {"en", "de", "ar"})
+    void rowsMatchStringFormat(String language) {
+        Locale locale = Locale.forLanguageTag(language);
+        StringBuilder row = new StringBuilder();
+        for (Student student : students(language.hashCode(), 50_000)) {
+            row.setLength(0);
+            StudentTableRenderer.appendRow(row, student, locale);
+            assertEquals(formatted(locale, student), row.toString(), "GPA " + student.getGpa() + " in " + locale);
+        }
+    }
+    
+    @ParameterizedTest
+    @EnumSource(StorageEngine.class)
+    void printedTableMatchesStringFormat(StorageEngine engine) {
+        StudentDatabase.clearDatabase();
+        StudentDatabase.useStorage(engine);
+        List<Student> students = new ArrayList<>();
+        // The stores only keep valid students
+        for (Student student : students(engine.ordinal(), 20_000)) {
+            if (Student.isValidAge(student.getAge()) && student.getGpa() >= Student.MIN_GPA
+                    && student.getGpa() <= Student.MAX_GPA) {
+                students.add(student);
+            }
+        }
+        StudentDatabase.addStudents(students);
+        StringBuilder expected = new StringBuilder();
+        Locale locale = Locale.getDefault(Locale.Category.FORMAT);
+        students.forEach(student -> expected.append(formatted(locale, student)));
+        
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        StudentTableRenderer.printRows(StudentDatabase.snapshot(), new PrintStream(bytes, false, StandardCharsets.UTF_8));
+        assertEquals(expected.toString(), bytes.toString(StandardCharsets.UTF_8), "printRows()");
+        
+        bytes.reset();
+        StudentTableRenderer.printStudents(StudentDatabase.getStudents().iterator(),
+            new PrintStream(bytes, false, StandardCharsets.UTF_8));
+        assertEquals(expected.toString(), bytes.toString(StandardCharsets.UTF_8), "printStudents()");
+    }
+}
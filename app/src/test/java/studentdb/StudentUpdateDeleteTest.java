@@ -0,0 +1,106 @@
+package studentdb;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+/**
+ * ✏️ StudentUpdateDeleteTest - updates and deletes keep every index and total right, on every engine
+ */
+class StudentUpdateDeleteTest {
+    
+    @AfterEach
+    void reset() {
+        StudentDatabase.clearDatabase();
+        StudentDatabase.useStorage(StorageEngine.LIST);
+    }
+    
+    private static StudentModel start(StorageEngine engine, long seed) {
+        StudentDatabase.clearDatabase();
+        StudentDatabase.useStorage(engine);
+        return new StudentModel(seed);
+    }
+    
+    @ParameterizedTest
+    @EnumSource(StorageEngine.class)
+    void randomChangesMatchTheModel(StorageEngine engine) {
+        StudentModel model = start(engine, 1);
+        for (int round = 0; round < 8; round++) {
+            // Every third round deletes heavily, so names and grades empty out and fill up again
+            model.randomChanges(400, round % 3 == 0 ? 0.45 : 0.15, 0.2);
+            model.assertDatabaseMatches();
+        }
+    }
+    
+    @ParameterizedTest
+    @EnumSource(StorageEngine.class)
+    void deletedIdsStayGoneAndAreNeverReused(StorageEngine engine) {
+        StudentModel model = start(engine, 2);
+        int kept = model.add(new Student("Ann", 20, 3.0, true));
+        int deleted = model.add(new Student("Ann", 21, 2.0, false));
+        model.delete(deleted);
+        
+        assertNull(StudentDatabase.getStudent(deleted));
+        assertFalse(StudentDatabase.deleteStudent(deleted), "second delete");
+        assertFalse(StudentDatabase.updateStudent(deleted, new Student("Bob", 30, 1.0, true)), "update after delete");
+        assertFalse(StudentDatabase.deleteStudent(-1), "negative id");
+        assertFalse(StudentDatabase.updateStudent(1 << 29, new Student("Bob", 30, 1.0, true)), "id never handed out");
+        
+        int next = model.add(new Student("Cara", 22, 3.5, true));
+        assertTrue(next > deleted, "new id " + next + " after deleted " + deleted);
+        assertEquals(1, StudentDatabase.findByName("ann").size());
+        assertEquals(kept, StudentDatabase.snapshot().idAt(0));
+        model.assertDatabaseMatches();
+    }
+    
+    @ParameterizedTest
+    @EnumSource(StorageEngine.class)
+    void updateKeepsTheIdAndReplacesEveryIndexEntry(StorageEngine engine) {
+        StudentModel model = start(engine, 3);
+        int id = model.add(new Student("Ann", 20, 3.9, true));
+        model.add(new Student("Bob", 40, 1.0, false));
+        model.update(id, new Student("Dan", 45, 0.5, false));
+        
+        assertTrue(StudentDatabase.findByName("Ann").isEmpty(), "old name still found");
+        assertEquals(1, StudentDatabase.findByName("dan").size());
+        assertEquals(0, StudentDatabase.countByGrade(Grade.of(3.9)));
+        assertEquals(1.0, StudentDatabase.getLeaderboard(1).get(0).getStudent().getGpa());
+        assertEquals(45, StudentDatabase.getStatistics().getMaxAge());
+        model.assertDatabaseMatches();
+    }
+    
+    @ParameterizedTest
+    @EnumSource(StorageEngine.class)
+    void compactionFreesDeletedRowsAndKeepsIds(StorageEngine engine) {
+        StudentModel model = start(engine, 4);
+        model.randomChanges(800, 0.3, 0.3);
+        int rows = StudentDatabase.getStore().size();
+        int freed = StudentDatabase.compact();
+        
+        assertEquals(rows - model.students.size(), freed, "rows freed");
+        assertEquals(model.students.size(), StudentDatabase.getStore().size(), "rows left");
+        assertEquals(0, StudentDatabase.compact(), "nothing left to free");
+        model.assertDatabaseMatches();
+        model.randomChanges(300, 0.3, 0.3);
+        model.assertDatabaseMatches();
+    }
+    
+    @ParameterizedTest
+    @EnumSource(StorageEngine.class)
+    void switchingEnginesKeepsDeletesAndUpdates(StorageEngine engine) {
+        StudentModel model = start(engine, 5);
+        model.randomChanges(600, 0.3, 0.3);
+        for (StorageEngine other : StorageEngine.values()) {
+            StudentDatabase.useStorage(other);
+            model.assertDatabaseMatches();
+            model.randomChanges(100, 0.3, 0.3);
+        }
+        StudentDatabase.useStorage(engine);
+        model.assertDatabaseMatches();
+    }
+}
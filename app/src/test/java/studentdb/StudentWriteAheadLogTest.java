@@ -0,0 +1,95 @@
+package studentdb;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+/**
+ * 🛟 StudentWriteAheadLogTest - replaying the log gives back the same students under the same ids
+ * Question: How do we test recovery without restarting the JVM?
+ * Solution: Close the log, clear the database and open the log again - the database then holds
+ * only what the snapshot and the replayed segments put back
+ */
+class StudentWriteAheadLogTest {
+    @TempDir
+    Path directory;
+    
+    private StudentWriteAheadLog log;
+    
+    @AfterEach
+    void reset() throws Exception {
+        if (log != null) {
+            log.close();
+        }
+        StudentDatabase.clearDatabase();
+        StudentDatabase.useStorage(StorageEngine.LIST);
+    }
+    
+    /**
+     * 🔌 An empty database whose ids start from 0, as in a process that has just started
+     * Question: Why not clearDatabase()?
+     * Solution: Ids keep counting after a clear, but replayed inserts take their ids from the
+     * counter - they only get back their old ids if it starts where it did when the log was opened
+     */
+    private void startProcess(StorageEngine engine) throws Exception {
+        if (log != null) {
+            log.close();
+        }
+        StudentDatabase.restore(StudentDatabase.createStore(engine), new int[0], 0);
+        log = StudentWriteAheadLog.open(directory.resolve("students.wal"), directory.resolve("students.db"));
+    }
+    
+    @ParameterizedTest
+    @EnumSource(StorageEngine.class)
+    void replayRestoresIdsAndStudents(StorageEngine engine) throws Exception {
+        startProcess(engine);
+        StudentModel model = new StudentModel(8);
+        model.randomChanges(1500, 0.2, 0.3);
+        
+        startProcess(engine);
+        assertTrue(log.getReplayedRecords() >= 1500, "replayed " + log.getReplayedRecords());
+        model.assertDatabaseMatches();
+        
+        // Carry on after the replay, then recover once more
+        model.randomChanges(500, 0.3, 0.3);
+        startProcess(engine);
+        model.assertDatabaseMatches();
+    }
+    
+    @ParameterizedTest
+    @EnumSource(StorageEngine.class)
+    void replayAfterCompactionCombinesSnapshotAndLog(StorageEngine engine) throws Exception {
+        startProcess(engine);
+        StudentModel model = new StudentModel(9);
+        model.randomChanges(800, 0.2, 0.3);
+        log.compact();
+        // Deletes and updates after the checkpoint refer to students that only the snapshot holds
+        model.randomChanges(800, 0.3, 0.3);
+        
+        startProcess(engine);
+        model.assertDatabaseMatches();
+        int id = model.add(new Student("After replay", 25, 3.0, true));
+        assertFalse(model.students.keySet().stream().anyMatch(other -> other > id), "id " + id + " below an older id");
+    }
+    
+    @ParameterizedTest
+    @EnumSource(StorageEngine.class)
+    void replayedClearLeavesOnlyLaterStudents(StorageEngine engine) throws Exception {
+        startProcess(engine);
+        StudentModel model = new StudentModel(10);
+        model.randomChanges(300, 0.2, 0.2);
+        StudentDatabase.clearDatabase();
+        model.clear();
+        model.randomChanges(300, 0.2, 0.2);
+        
+        startProcess(engine);
+        assertEquals(model.students.size(), StudentDatabase.getStudentCount());
+        model.assertDatabaseMatches();
+    }
+}
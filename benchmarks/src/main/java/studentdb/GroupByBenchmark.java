@@ -0,0 +1,76 @@
+package studentdb;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 📊 GroupByBenchmark - what a group-by report costs as the roster grows
+ * Question: Which reports does it cover?
+ * Solution: One small key space (average GPA per age), one multi-dimensional one counted in
+ * plain arrays (age x grade x active), one filtered through the attribute index, and one by
+ * name, which needs the hash table
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx6g")
+public class GroupByBenchmark {
+    private static final StudentGroupQuery GPA_BY_AGE = StudentGroupQuery.by(StudentGroupQuery.Dimension.AGE)
+        .aggregate(StudentGroupQuery.Aggregate.AVG, StudentGroupQuery.Measure.GPA);
+    private static final StudentGroupQuery AGE_GRADE_ACTIVE = StudentGroupQuery.by(
+            StudentGroupQuery.Dimension.AGE, StudentGroupQuery.Dimension.GRADE, StudentGroupQuery.Dimension.ACTIVE)
+        .count()
+        .aggregate(StudentGroupQuery.Aggregate.AVG, StudentGroupQuery.Measure.GPA)
+        .aggregate(StudentGroupQuery.Aggregate.MAX, StudentGroupQuery.Measure.GPA);
+    private static final StudentGroupQuery ACTIVE_SHARE_OF_YOUNG = StudentGroupQuery.by(StudentGroupQuery.Dimension.GRADE)
+        .aggregate(StudentGroupQuery.Aggregate.AVG, StudentGroupQuery.Measure.ACTIVE)
+        .where(StudentQuery.all().ageBetween(18, 25));
+    private static final StudentGroupQuery GPA_BY_NAME = StudentGroupQuery.by(StudentGroupQuery.Dimension.NAME)
+        .aggregate(StudentGroupQuery.Aggregate.AVG, StudentGroupQuery.Measure.GPA);
+
+    @Param({"1000000", "10000000"})
+    public int rosterSize;
+
+    @Param({"list", "columnar", "offheap"})
+    public String storage;
+
+    @Setup(Level.Trial)
+    public void loadRoster() {
+        // 2000 x 5000 common names: a few hundred thousand distinct ones, as in a large school district
+        Rosters.load(Rosters.generateCommon(rosterSize, 2000, 5000, 42), storage);
+    }
+
+    @Benchmark
+    public StudentGroups gpaByAge() {
+        return StudentDatabase.groupBy(GPA_BY_AGE);
+    }
+
+    @Benchmark
+    public StudentGroups ageGradeActive() {
+        return StudentDatabase.groupBy(AGE_GRADE_ACTIVE);
+    }
+
+    @Benchmark
+    public StudentGroups filteredActiveShare() {
+        return StudentDatabase.groupBy(ACTIVE_SHARE_OF_YOUNG);
+    }
+
+    @Benchmark
+    public StudentGroups gpaByName() {
+        return StudentDatabase.groupBy(GPA_BY_NAME);
+    }
+}
@@ -0,0 +1,92 @@
+package studentdb;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 🔥 HttpLoadTest - drive a running "java Main --serve" with many concurrent requests
+ * Question: What does the mix look like?
+ * Solution: Out of every 10 requests: 1 add, 6 name searches, 2 page listings, 1 statistics call,
+ * so most reads hit names that were added earlier in the run
+ *
+ * Usage: java -cp benchmarks.jar studentdb.HttpLoadTest [baseUrl] [concurrency] [requests]
+ */
+public class HttpLoadTest {
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://127.0.0.1:8080";
+        int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 256;
+        int requests = args.length > 2 ? Integer.parseInt(args[2]) : 100_000;
+        
+        HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+        Semaphore inFlight = new Semaphore(concurrency);
+        CountDownLatch done = new CountDownLatch(requests);
+        long[] latencies = new long[requests];
+        AtomicLong failures = new AtomicLong();
+        SplittableRandom random = new SplittableRandom(42);
+        
+        long start = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            HttpRequest request = nextRequest(baseUrl, i, random);
+            inFlight.acquire();
+            int index = i;
+            long sent = System.nanoTime();
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+                latencies[index] = System.nanoTime() - sent;
+                if (error != null || response.statusCode() >= 300) {
+                    failures.incrementAndGet();
+                }
+                inFlight.release();
+                done.countDown();
+            });
+        }
+        done.await();
+        long elapsed = System.nanoTime() - start;
+        
+        Arrays.sort(latencies);
+        System.out.printf("%d requests, %d concurrent, %d failed%n", requests, concurrency, failures.get());
+        System.out.printf("throughput: %.0f requests/s%n", requests / (elapsed / 1e9));
+        System.out.printf("latency: p50 %.2f ms, p99 %.2f ms, max %.2f ms%n",
+            percentile(latencies, 0.50), percentile(latencies, 0.99), latencies[requests - 1] / 1e6);
+    }
+    
+    private static HttpRequest nextRequest(String baseUrl, int i, SplittableRandom random) {
+        switch (i % 10) {
+            case 0:
+                String body = String.format("{\"name\":\"Load Student %d\",\"age\":%d,\"gpa\":%.2f,\"active\":%b}",
+                    i, 16 + random.nextInt(85), random.nextInt(401) / 100.0, random.nextInt(10) < 8);
+                return HttpRequest.newBuilder(URI.create(baseUrl + "/students"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build();
+            case 7:
+            case 8:
+                return get(baseUrl + "/students?sort=gpa&order=desc&limit=20&offset=" + 20 * random.nextInt(5));
+            case 9:
+                return get(baseUrl + "/stats");
+            default:
+                String name = "Load Student " + 10 * random.nextInt(i / 10 + 1);
+                return get(baseUrl + "/students/search?name=" + URLEncoder.encode(name, StandardCharsets.UTF_8));
+        }
+    }
+    
+    private static HttpRequest get(String url) {
+        return HttpRequest.newBuilder(URI.create(url)).GET().build();
+    }
+    
+    private static double percentile(long[] sorted, double fraction) {
+        return sorted[Math.min(sorted.length - 1, (int) (sorted.length * fraction))] / 1e6;
+    }
+}
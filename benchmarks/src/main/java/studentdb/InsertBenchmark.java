@@ -0,0 +1,80 @@
+package studentdb;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * ➕ InsertBenchmark - how long it takes to fill an empty database with a whole roster
+ * Question: Why time the whole roster instead of one addStudent() call?
+ * Solution: The database only grows, so a per-call benchmark would measure a different roster
+ * size on every iteration; filling exactly rosterSize students keeps runs comparable
+ * (throughput = rosterSize / score)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class InsertBenchmark {
+    @Param({"1000", "100000", "1000000", "10000000"})
+    public int rosterSize;
+    
+    @Param({"list", "columnar", "offheap"})
+    public String storage;
+    
+    private Student[] students;
+    
+    @Setup(Level.Trial)
+    public void generateRoster() {
+        students = Rosters.generate(rosterSize, 42);
+        StudentDatabase.useStorage(StorageEngine.parse(storage));
+    }
+    
+    @Setup(Level.Invocation)
+    public void emptyDatabase() {
+        StudentDatabase.clearDatabase();
+    }
+    
+    /**
+     * 🐢 One student at a time, the way Main.addStudent() inserts
+     */
+    @Benchmark
+    public int addStudent() {
+        for (Student student : students) {
+            StudentDatabase.addStudent(student);
+        }
+        return StudentDatabase.getStudentCount();
+    }
+    
+    /**
+     * 📦 Batches under one lock acquisition, the way the CSV importer inserts
+     */
+    @Benchmark
+    public int addStudents() {
+        List<Student> batch = new ArrayList<>(StudentCsvImporter.BATCH_SIZE);
+        for (Student student : students) {
+            batch.add(student);
+            if (batch.size() == StudentCsvImporter.BATCH_SIZE) {
+                StudentDatabase.addStudents(batch);
+                batch.clear();
+            }
+        }
+        StudentDatabase.addStudents(batch);
+        return StudentDatabase.getStudentCount();
+    }
+}
@@ -0,0 +1,81 @@
+package studentdb;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 📈 MetricsBenchmark - what the operation metrics cost the operations they measure
+ * Question: How do we know the instrumentation stays cheap?
+ * Solution: Run the fastest instrumented calls with metrics on and off; the difference between
+ * the two scores is the overhead, and it should stay within a few percent
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class MetricsBenchmark {
+    private static final int QUERY_COUNT = 4096;
+    
+    @Param({"100000", "1000000"})
+    public int rosterSize;
+    
+    @Param({"true", "false"})
+    public boolean metrics;
+    
+    private Student[] students;
+    private String[] queries;
+    private int next;
+    
+    @Setup(Level.Trial)
+    public void loadRoster() {
+        students = Rosters.generate(rosterSize, 42);
+        queries = Rosters.queries(students, 1.0, QUERY_COUNT, 7);
+        OperationMetrics.setEnabled(metrics);
+    }
+    
+    /**
+     * 🧹 Start every iteration from the same roster, so addStudent() always inserts into the same size
+     * Question: Why only when the roster has grown?
+     * Solution: The GC profiler counts what this setup allocates against the iteration's calls;
+     * reloading for findByName and statistics would add a made-up per-call allocation that grows
+     * as the calls get slower
+     */
+    @Setup(Level.Iteration)
+    public void reloadRoster() {
+        if (StudentDatabase.getStudentCount() != rosterSize) {
+            Rosters.load(students, "list");
+        }
+        OperationMetrics.reset();
+    }
+    
+    @Benchmark
+    public List<Student> findByName() {
+        return StudentDatabase.findByName(queries[next++ & (QUERY_COUNT - 1)]);
+    }
+    
+    @Benchmark
+    public StudentStatistics statistics() {
+        return StudentDatabase.getStatistics();
+    }
+    
+    @Benchmark
+    public int addStudent() {
+        StudentDatabase.addStudent(students[next++ & (QUERY_COUNT - 1)]);
+        return next;
+    }
+}
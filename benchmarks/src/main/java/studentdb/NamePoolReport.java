@@ -0,0 +1,124 @@
+package studentdb;
+
+import java.lang.management.ManagementFactory;
+import java.lang.ref.Reference;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * 🏷️ NamePoolReport - how much heap sharing equal names saves
+ * Question: Why a report instead of a JMH benchmark?
+ * Solution: JMH measures time; this loads a roster with realistic name repetition once and
+ * compares the heap kept alive by each way of storing the names
+ *
+ * Usage: java -cp benchmarks.jar studentdb.NamePoolReport [students] [firstNames] [lastNames]
+ */
+public class NamePoolReport {
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int firstNames = args.length > 1 ? Integer.parseInt(args[1]) : 2_000;
+        int lastNames = args.length > 2 ? Integer.parseInt(args[2]) : 20_000;
+        
+        Student[] students = Rosters.generateCommon(size, firstNames, lastNames, 42);
+        Map<String, Integer> counts = new HashMap<>();
+        long characters = 0;
+        for (Student student : students) {
+            counts.merge(student.getName(), 1, Integer::sum);
+            characters += student.getName().length();
+        }
+        int mostCommon = counts.values().stream().mapToInt(Integer::intValue).max().orElse(0);
+        System.out.printf("%,d students named from %,d first and %,d last names: %,d distinct names,"
+            + " the most common %,d times%n", size, firstNames, lastNames, counts.size(), mostCommon);
+        counts = null;
+        
+        // Names only: what each layout keeps for the text of every student's name
+        long copies = retained(() -> {
+            String[] names = new String[size];
+            for (int i = 0; i < size; i++) {
+                names[i] = copy(students[i].getName());
+            }
+            return names;
+        });
+        long packed = 2 * characters + 4L * (size + 1); // exact size of a char[] plus offset array
+        long pooled = retained(() -> {
+            NamePool pool = new NamePool();
+            int[] ids = new int[size];
+            for (int i = 0; i < size; i++) {
+                ids[i] = pool.intern(copy(students[i].getName()));
+            }
+            return new Object[] {pool, ids};
+        });
+        long shared = retained(() -> {
+            NamePool pool = new NamePool();
+            String[] names = new String[size];
+            for (int i = 0; i < size; i++) {
+                String name = copy(students[i].getName());
+                names[i] = pool.get(pool.internShared(name));
+            }
+            return new Object[] {pool, names};
+        });
+        System.out.println();
+        System.out.println("Name storage                           bytes/student");
+        row("String per student (old list)", copies, size);
+        row("shared String per name (list)", shared, size);
+        row("packed chars + offsets (old columnar)", packed, size);
+        row("pool id, text packed once (columnar)", pooled, size);
+        
+        // Whole list store: Student objects with their own names against the pooled store
+        long listBefore = retained(() -> {
+            Student[] copy = new Student[size];
+            for (int i = 0; i < size; i++) {
+                Student s = students[i];
+                copy[i] = new Student(copy(s.getName()), s.getAge(), s.getGpa(), s.isActive());
+            }
+            return copy;
+        });
+        long listAfter = retained(() -> fill(new ListStudentStore(), students));
+        long columnarAfter = retained(() -> fill(new ColumnarStudentStore(), students));
+        System.out.println();
+        System.out.println("Whole store                            before MB   after MB   saved");
+        store("list", listBefore, listAfter);
+        // The other columns did not change, so the old columnar store differs only in its names
+        store("columnar (before derived)", columnarAfter - pooled + packed, columnarAfter);
+    }
+    
+    // A String with its own characters - new String(String) would share the original's
+    private static String copy(String name) {
+        return new String(name.toCharArray());
+    }
+    
+    // Fresh copies, as if read from input - the roster's own objects are already on the heap
+    private static StudentStore fill(StudentStore store, Student[] students) {
+        for (Student s : students) {
+            store.add(new Student(copy(s.getName()), s.getAge(), s.getGpa(), s.isActive()));
+        }
+        return store;
+    }
+    
+    private static void row(String label, long bytes, int size) {
+        System.out.printf("  %-37s %8.1f%n", label, (double) bytes / size);
+    }
+    
+    private static void store(String label, long before, long after) {
+        System.out.printf("  %-37s %8.1f %10.1f %6.0f%%%n", label, before / 1e6, after / 1e6, 100.0 * (before - after) / before);
+    }
+    
+    /**
+     * 📏 Heap still reachable from what 'build' returns - the growth in used heap across full GCs
+     */
+    private static long retained(Supplier<Object> build) {
+        long before = usedHeap();
+        Object kept = build.get();
+        long after = usedHeap();
+        Reference.reachabilityFence(kept);
+        return after - before;
+    }
+    
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,69 @@
+package studentdb;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 🔎 NameSearchBenchmark - substring and typo search through the trigram index
+ * Question: What would the same search cost without the index?
+ * Solution: fullScan() checks every distinct name like the index's final check does, so
+ * the two show how much of the roster the trigrams rule out
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class NameSearchBenchmark {
+    private static final int QUERY_COUNT = 4096;
+    
+    @Param({"1000", "100000", "1000000", "5000000"})
+    public int rosterSize;
+    
+    private String[] queries;
+    private String[] names;
+    private int next;
+    
+    @Setup(Level.Trial)
+    public void loadRoster() {
+        Student[] students = Rosters.generate(rosterSize, 42);
+        Rosters.load(students, "columnar");
+        queries = Rosters.fuzzyQueries(students, QUERY_COUNT, 7);
+        names = new String[students.length];
+        for (int i = 0; i < students.length; i++) {
+            names[i] = NameIndex.fold(students[i].getName());
+        }
+    }
+    
+    @Benchmark
+    public List<NameMatch> searchNames() {
+        return StudentDatabase.searchNames(queries[next++ & (QUERY_COUNT - 1)], 20);
+    }
+    
+    @Benchmark
+    public int fullScan() {
+        String query = NameIndex.fold(queries[next++ & (QUERY_COUNT - 1)]);
+        int maxDistance = query.length() <= 2 ? 0 : query.length() <= 7 ? 1 : 2;
+        int found = 0;
+        for (String name : names) {
+            if (name.contains(query) || NameIndex.editDistance(query, name, maxDistance) <= maxDistance) {
+                found++;
+            }
+        }
+        return found;
+    }
+}
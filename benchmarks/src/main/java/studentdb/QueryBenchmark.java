@@ -0,0 +1,77 @@
+package studentdb;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 🎯 QueryBenchmark - secondary-index queries against a plain scan of every student
+ * Question: Which queries show the difference?
+ * Solution: "active, GPA >= 3.5, aged 18-22" starts from the age index; "GPA 3.9-4.0" from
+ * the GPA index; "inactive" from the active bitmap
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class QueryBenchmark {
+    private static final StudentQuery COMPOSITE = StudentQuery.all().active(true).gpaBetween(3.5, 4.0).ageBetween(18, 22);
+    private static final StudentQuery TOP_GPA = StudentQuery.all().gpaBetween(3.9, 4.0);
+    private static final StudentQuery INACTIVE = StudentQuery.all().active(false);
+    
+    @Param({"1000", "100000", "1000000", "10000000"})
+    public int rosterSize;
+    
+    @Param({"list", "columnar", "offheap"})
+    public String storage;
+    
+    @Setup(Level.Trial)
+    public void loadRoster() {
+        Rosters.load(Rosters.generate(rosterSize, 42), storage);
+    }
+    
+    @Benchmark
+    public int compositeQuery() {
+        return StudentDatabase.count(COMPOSITE);
+    }
+    
+    @Benchmark
+    public int gpaRangeQuery() {
+        return StudentDatabase.count(TOP_GPA);
+    }
+    
+    @Benchmark
+    public int inactiveQuery() {
+        return StudentDatabase.count(INACTIVE);
+    }
+    
+    /**
+     * 🐢 The same composite query without indexes - what every query cost before
+     */
+    @Benchmark
+    public int compositeFullScan() {
+        StudentStore store = StudentDatabase.getStore();
+        int size = store.size();
+        int count = 0;
+        for (int row = 0; row < size; row++) {
+            int age = store.getAge(row);
+            if (store.isActive(row) && store.getGpa(row) >= 3.5 && age >= 18 && age <= 22) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,158 @@
+package studentdb;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * 🎲 Rosters class - repeatable fake students for the benchmarks
+ * Question: Why not "Student 1", "Student 2", ...?
+ * Solution: Real names share prefixes and collide in hash tables; syllable names do too,
+ * and a fixed seed makes every run load exactly the same roster
+ */
+final class Rosters {
+    private static final String[] SYLLABLES = {
+        "an", "be", "ca", "da", "el", "fi", "go", "ha", "is", "jo", "ka", "li", "ma", "no", "ra", "su"
+    };
+    
+    private Rosters() {
+    }
+    
+    static Student[] generate(int size, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        Student[] students = new Student[size];
+        for (int i = 0; i < size; i++) {
+            int age = Student.MIN_AGE + random.nextInt(Student.MAX_AGE - Student.MIN_AGE + 1);
+            double gpa = random.nextInt(401) / 100.0;
+            boolean active = random.nextInt(10) < 8;
+            students[i] = new Student(name(random), age, gpa, active);
+        }
+        return students;
+    }
+    
+    /**
+     * 👪 Students named from small pools of first and last names, where the k-th most common
+     * name is k times rarer than the most common one (Zipf) - so "Anbeca Dalima" turns up
+     * again and again, the way a real school has many Maria Garcias
+     * Every name is a fresh String, as Scanner.nextLine() or the CSV importer would give
+     */
+    static Student[] generateCommon(int size, int firstNames, int lastNames, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        String[] first = words(firstNames, 3, random);
+        String[] last = words(lastNames, 4, random);
+        double[] firstOdds = zipf(firstNames);
+        double[] lastOdds = zipf(lastNames);
+        Student[] students = new Student[size];
+        for (int i = 0; i < size; i++) {
+            String name = new StringBuilder(24)
+                .append(first[pick(firstOdds, random)]).append(' ').append(last[pick(lastOdds, random)])
+                .toString();
+            int age = Student.MIN_AGE + random.nextInt(Student.MAX_AGE - Student.MIN_AGE + 1);
+            students[i] = new Student(name, age, random.nextInt(401) / 100.0, random.nextInt(10) < 8);
+        }
+        return students;
+    }
+    
+    /**
+     * 📥 Load a roster the way the CSV importer does - in batches under one lock each
+     */
+    static void load(Student[] students, String storage) {
+        StudentDatabase.clearDatabase();
+        StudentDatabase.useStorage(StorageEngine.parse(storage));
+        List<Student> batch = new ArrayList<>(StudentCsvImporter.BATCH_SIZE);
+        for (Student student : students) {
+            batch.add(student);
+            if (batch.size() == StudentCsvImporter.BATCH_SIZE) {
+                StudentDatabase.addStudents(batch);
+                batch.clear();
+            }
+        }
+        StudentDatabase.addStudents(batch);
+    }
+    
+    /**
+     * 🔍 Search terms: 'hitRate' of them name a student on the roster, the rest do not
+     * Misses are roster names with an extra letter, so they look just as plausible
+     */
+    static String[] queries(Student[] students, double hitRate, int count, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        String[] queries = new String[count];
+        for (int i = 0; i < count; i++) {
+            String name = students[random.nextInt(students.length)].getName();
+            queries[i] = random.nextDouble() < hitRate ? name : name + "x";
+        }
+        return queries;
+    }
+    
+    /**
+     * 🔎 Fuzzy search terms: half are a piece of a roster name ("beca"), half a roster name with
+     * one letter mistyped ("Anbxca Dael")
+     */
+    static String[] fuzzyQueries(Student[] students, int count, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        String[] queries = new String[count];
+        for (int i = 0; i < count; i++) {
+            String name = students[random.nextInt(students.length)].getName();
+            if (random.nextBoolean()) {
+                int start = random.nextInt(name.length() - 3);
+                queries[i] = name.substring(start, start + 4);
+            } else {
+                char[] letters = name.toCharArray();
+                letters[random.nextInt(letters.length)] = (char) ('a' + random.nextInt(26));
+                queries[i] = new String(letters);
+            }
+        }
+        return queries;
+    }
+    
+    private static String name(SplittableRandom random) {
+        StringBuilder name = new StringBuilder(16);
+        appendWord(name, 3, random);
+        name.append(' ');
+        appendWord(name, 3, random);
+        return name.toString();
+    }
+    
+    // 'count' different words
+    private static String[] words(int count, int syllables, SplittableRandom random) {
+        if (count > Math.pow(SYLLABLES.length, syllables)) {
+            throw new IllegalArgumentException("At most " + (long) Math.pow(SYLLABLES.length, syllables)
+                + " different words of " + syllables + " syllables, asked for " + count);
+        }
+        Set<String> words = new LinkedHashSet<>();
+        while (words.size() < count) {
+            StringBuilder word = new StringBuilder(2 * syllables);
+            appendWord(word, syllables, random);
+            words.add(word.toString());
+        }
+        return words.toArray(new String[0]);
+    }
+    
+    // Running totals of 1/1, 1/2, 1/3, ... - pick() then finds where a random point falls
+    private static double[] zipf(int count) {
+        double[] cumulative = new double[count];
+        double total = 0;
+        for (int i = 0; i < count; i++) {
+            total += 1.0 / (i + 1);
+            cumulative[i] = total;
+        }
+        return cumulative;
+    }
+    
+    private static int pick(double[] cumulative, SplittableRandom random) {
+        double point = random.nextDouble() * cumulative[cumulative.length - 1];
+        int index = Arrays.binarySearch(cumulative, point);
+        return Math.min(index < 0 ? -index - 1 : index, cumulative.length - 1);
+    }
+    
+    private static void appendWord(StringBuilder out, int syllables, SplittableRandom random) {
+        int start = out.length();
+        for (int i = 0; i < syllables; i++) {
+            out.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+        }
+        out.setCharAt(start, Character.toUpperCase(out.charAt(start)));
+    }
+}
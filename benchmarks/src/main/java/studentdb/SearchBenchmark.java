@@ -0,0 +1,70 @@
+package studentdb;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 🔍 SearchBenchmark - latency of a name search against rosters of different sizes
+ * Question: Why does the hit rate matter?
+ * Solution: A hit is one hash lookup, but a miss also asks the trigram index for suggestions,
+ * just like Main.searchStudent() - so hitRate = 0.0 is the slow path
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class SearchBenchmark {
+    private static final int QUERY_COUNT = 4096;
+    
+    @Param({"1000", "100000", "1000000", "10000000"})
+    public int rosterSize;
+    
+    @Param({"1.0", "0.5", "0.0"})
+    public double hitRate;
+    
+    @Param({"list", "columnar", "offheap"})
+    public String storage;
+    
+    private String[] queries;
+    private int next;
+    
+    @Setup(Level.Trial)
+    public void loadRoster() {
+        Student[] students = Rosters.generate(rosterSize, 42);
+        Rosters.load(students, storage);
+        queries = Rosters.queries(students, hitRate, QUERY_COUNT, 7);
+    }
+    
+    /**
+     * 🔍 Same lookups as Main.searchStudent(), without the console output
+     */
+    @Benchmark
+    public List<?> searchStudent() {
+        String name = queries[next++ & (QUERY_COUNT - 1)];
+        List<Student> matches = StudentDatabase.findByName(name);
+        return matches.isEmpty() ? StudentDatabase.searchNames(name, 5) : matches;
+    }
+    
+    /**
+     * 🎯 The exact-match lookup on its own
+     */
+    @Benchmark
+    public List<Student> findByName() {
+        return StudentDatabase.findByName(queries[next++ & (QUERY_COUNT - 1)]);
+    }
+}
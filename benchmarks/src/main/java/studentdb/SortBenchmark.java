@@ -0,0 +1,79 @@
+package studentdb;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * ↕️ SortBenchmark - sorted pages from the cached sort indexes
+ * Question: What does a sorted listing cost once its index exists, and after a student is added?
+ * Solution: firstPage and middlePage read an unchanged index; pageAfterAdd adds one student
+ * first, so every call pays for sorting that row and merging it in
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class SortBenchmark {
+    private static final int PAGE_SIZE = 20;
+    
+    @Param({"100000", "1000000"})
+    public int rosterSize;
+    
+    @Param({"name", "gpa", "age", "grade"})
+    public String sort;
+    
+    private Student[] students;
+    private StudentPageRequest.SortKey sortKey;
+    private int next;
+    
+    @Setup(Level.Trial)
+    public void generateRoster() {
+        students = Rosters.generateCommon(rosterSize, 2000, 5000, 42);
+        sortKey = StudentPageRequest.SortKey.valueOf(sort.toUpperCase());
+    }
+    
+    /**
+     * 🧹 Start every iteration from the same roster with its index built, so pageAfterAdd
+     * always merges into the same size
+     */
+    @Setup(Level.Iteration)
+    public void reloadRoster() {
+        Rosters.load(students, "list");
+        page(0);
+    }
+    
+    @Benchmark
+    public long firstPage() {
+        return page(0);
+    }
+    
+    @Benchmark
+    public long middlePage() {
+        return page(rosterSize / 2);
+    }
+    
+    @Benchmark
+    public long pageAfterAdd() {
+        StudentDatabase.addStudent(students[next++ % rosterSize]);
+        return page(0);
+    }
+    
+    private long page(int offset) {
+        return StudentDatabase.list(new StudentPageRequest(offset, PAGE_SIZE, sortKey, false,
+            StudentPageRequest.ActiveFilter.ALL)).mapToLong(Student::getAge).sum();
+    }
+}
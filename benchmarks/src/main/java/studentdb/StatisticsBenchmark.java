@@ -0,0 +1,66 @@
+package studentdb;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 📊 StatisticsBenchmark - what Main.calculateStatistics() and the leaderboard cost
+ * Question: Why several benchmarks?
+ * Solution: The menu reads the live totals; a full fork-join pass over the store is what a
+ * restore or a rebuild pays, and shows how well the scan scales with roster size. The
+ * leaderboard and a rank lookup should stay flat as the roster grows
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class StatisticsBenchmark {
+    @Param({"1000", "100000", "1000000", "10000000"})
+    public int rosterSize;
+    
+    @Param({"list", "columnar", "offheap"})
+    public String storage;
+    
+    private String rankedName;
+    
+    @Setup(Level.Trial)
+    public void loadRoster() {
+        Rosters.load(Rosters.generate(rosterSize, 42), storage);
+        rankedName = StudentDatabase.getStore().getName(rosterSize / 2);
+    }
+    
+    @Benchmark
+    public StudentStatistics liveStatistics() {
+        return StudentDatabase.getStatistics();
+    }
+    
+    @Benchmark
+    public StudentStatistics fullScan() {
+        return StudentStatistics.compute(StudentDatabase.getStore(), 3);
+    }
+    
+    @Benchmark
+    public List<RankedStudent> leaderboard() {
+        return StudentDatabase.getLeaderboard(StudentDatabase.LEADERBOARD_SIZE);
+    }
+    
+    @Benchmark
+    public List<RankedStudent> rankLookup() {
+        return StudentDatabase.findRanks(rankedName);
+    }
+}
@@ -0,0 +1,40 @@
+package studentdb;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 🏆 StudentBenchmark - Student.getGrade() over GPAs spread across every grade
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StudentBenchmark {
+    private static final int STUDENT_COUNT = 1024;
+    
+    private Student[] students;
+    private int next;
+    
+    @Setup
+    public void generateStudents() {
+        students = Rosters.generate(STUDENT_COUNT, 42);
+    }
+    
+    @Benchmark
+    public String getGrade() {
+        return students[next++ & (STUDENT_COUNT - 1)].getGrade();
+    }
+}
@@ -0,0 +1,81 @@
+package studentdb;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * ✏️ UpdateDeleteBenchmark - what changing or removing one student costs
+ * Question: Do updates and deletes stay cheap while tombstones pile up and compaction runs?
+ * Solution: update changes a random student's GPA, deleteAndAdd removes one and adds a new one
+ * so the roster keeps its size; both leave a tombstone behind on every call, so background
+ * compactions are part of the score
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class UpdateDeleteBenchmark {
+    @Param({"100000", "1000000"})
+    public int rosterSize;
+    
+    @Param({"list", "columnar", "offheap"})
+    public String storage;
+    
+    private Student[] students;
+    private int[] ids;
+    private int next;
+    
+    @Setup(Level.Trial)
+    public void generateRoster() {
+        students = Rosters.generate(rosterSize, 42);
+    }
+    
+    /**
+     * 🧹 Start every iteration from the same roster, without tombstones
+     */
+    @Setup(Level.Iteration)
+    public void reloadRoster() {
+        Rosters.load(students, storage);
+        StudentSnapshot snapshot = StudentDatabase.snapshot();
+        ids = new int[snapshot.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = snapshot.idAt(i);
+        }
+    }
+    
+    @Benchmark
+    public boolean update() {
+        int index = nextIndex();
+        Student student = students[index];
+        return StudentDatabase.updateStudent(ids[index],
+            new Student(student.getName(), student.getAge(), (next & 255) / 64.0, student.isActive()));
+    }
+    
+    @Benchmark
+    public int deleteAndAdd() {
+        int index = nextIndex();
+        StudentDatabase.deleteStudent(ids[index]);
+        ids[index] = StudentDatabase.addStudent(students[index]);
+        return ids[index];
+    }
+    
+    // Students in a scattered but repeatable order, so tombstones land all over the store
+    private int nextIndex() {
+        next++;
+        return (int) ((next * 0x9E3779B1L & 0xFFFFFFFFL) % rosterSize);
+    }
+}
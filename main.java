@@ -1,6 +1,39 @@
-import java.util.Scanner;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.InputMismatchException;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+import studentdb.IntArray;
+import studentdb.NameMatch;
+import studentdb.OperationMetrics;
+import studentdb.RankedStudent;
+import studentdb.Student;
+import studentdb.StudentCommandRunner;
+import studentdb.StudentCsvImporter;
+import studentdb.StudentDatabase;
+import studentdb.StudentGroupQuery;
+import studentdb.StudentGroups;
+import studentdb.StudentHttpService;
+import studentdb.StudentPageRequest;
+import studentdb.StudentSnapshot;
+import studentdb.StudentSnapshotFile;
+import studentdb.StudentStatistics;
+import studentdb.StudentTableRenderer;
+import studentdb.StudentWriteAheadLog;
 
 /**
  * 🎓 Advanced Student Management System
@@ -12,7 +45,7 @@ import java.util.List;
  * - Loops (for, while, do-while, enhanced for)
  * - Methods (static, instance, overloaded)
  * - Arrays and ArrayList
- * - Scanner for user input
+ * - Reading user input (FastInput, a buffered replacement for Scanner)
  * - String manipulation
  * - Object-oriented programming basics
  */
@@ -20,9 +53,21 @@ import java.util.List;
 public class Main {
     
     // Static variable - belongs to the class, shared across all instances
-    private static int totalStudents = 0;
+    // Question: Why LongAdder instead of int?
+    // Solution: Threads increment separate cells, so concurrent adds never fight over one counter
+    private static final LongAdder totalStudents = new LongAdder();
     private static final String SCHOOL_NAME = "Java Academy";
     
+    // Snapshot loaded at startup and saved at exit when -Dstudents.snapshot=<file> is given
+    private static final String SNAPSHOT_PATH = System.getProperty("students.snapshot");
+    
+    // Write-ahead log used when -Dstudents.wal=<file> is given; makes every change crash-safe
+    private static final String WAL_PATH = System.getProperty("students.wal");
+    private static StudentWriteAheadLog writeAheadLog;
+    
+    // Operation metrics written at exit when -Dstudents.metrics.report=<file> is given
+    private static final String METRICS_REPORT_PATH = System.getProperty("students.metrics.report");
+    
     // Instance variable - belongs to each object
     private String adminName;
     
@@ -46,32 +91,182 @@ public class Main {
      * Solution: It needs to be called without creating an object first
      */
     public static void main(String[] args) {
+        // Question: How do scripts and other programs use the system without the menu?
+        // Solution: "java Main --batch [file]" runs commands from the file (or stdin) instead
+        if (args.length > 0 && args[0].equals("--batch")) {
+            runBatch(args.length > 1 ? args[1] : null);
+            return;
+        }
+        // "java Main --serve [port]" answers the same operations over HTTP instead
+        if (args.length > 0 && args[0].equals("--serve")) {
+            runServer(args.length > 1 ? args[1] : null);
+            return;
+        }
+        
         // Question: How do we handle user input in Java?
-        // Solution: Use Scanner class with System.in for keyboard input
-        Scanner scanner = new Scanner(System.in);
+        // Solution: Wrap System.in once in a reader; FastInput parses numbers straight from its
+        // buffer instead of matching regular expressions the way Scanner does, so piped files read fast
+        FastInput input = new FastInput(System.in);
         
         // Create instance of Main class
         Main system = new Main("System Administrator");
         
+        // Question: How do we keep students between runs?
+        // Solution: Load the snapshot file at startup and write it back before exiting;
+        // with a write-ahead log, also replay the changes made after that snapshot
+        openStorage();
+        
         // Demonstrate all concepts through interactive menu
-        runInteractiveMenu(scanner, system);
+        runInteractiveMenu(input, system);
         
-        // Question: Why is it important to close Scanner?
+        // Question: Why is it important to close the input?
         // Solution: Prevents resource leaks and frees up system resources
-        scanner.close();
+        try {
+            input.close();
+        } catch (IOException e) {
+            System.out.println("⚠️ Could not close input: " + e.getMessage());
+        }
+        
+        closeStorage();
+        writeMetricsReport();
         
         // Final statistics using static variable
         System.out.println("\n📊 Final Statistics:");
-        System.out.println("Total students processed: " + totalStudents);
+        System.out.println("Total students processed: " + totalStudents.sum());
         System.out.println("Thank you for using " + SCHOOL_NAME + " Management System!");
     }
     
+    /**
+     * 🤖 Run commands one per line without the menu, answering each with one JSON line
+     * Question: How do we keep the answers machine-readable when loading a snapshot prints messages?
+     * Solution: Results go to the real stdout; everything meant for people is sent to stderr
+     */
+    private static void runBatch(String scriptPath) {
+        PrintStream results = System.out;
+        System.setOut(System.err);
+        openStorage();
+        
+        long failed;
+        try (BufferedReader commands = scriptPath != null
+                ? Files.newBufferedReader(Path.of(scriptPath), StandardCharsets.UTF_8)
+                : new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8), 1 << 16)) {
+            StudentCommandRunner runner = new StudentCommandRunner(commands, results);
+            runner.run();
+            totalStudents.add(runner.getAdded());
+            failed = runner.getFailed();
+        } catch (IOException e) {
+            System.out.println("❌ Could not read commands: " + e.getMessage());
+            failed = 1;
+        }
+        closeStorage();
+        writeMetricsReport();
+        
+        // A non-zero exit status tells the calling script that some command failed
+        if (failed > 0) {
+            System.exit(1);
+        }
+    }
+    
+    /**
+     * 🌐 Serve add/search/list/statistics over HTTP until the process is stopped (Ctrl+C)
+     * Question: How do we still save the students when the server is killed?
+     * Solution: A shutdown hook stops the server first, then closes the log or saves the snapshot
+     */
+    private static void runServer(String portText) {
+        int port;
+        try {
+            port = portText != null ? Integer.parseInt(portText) : StudentHttpService.DEFAULT_PORT;
+        } catch (NumberFormatException e) {
+            System.out.println("❌ Port must be a number: " + portText);
+            return;
+        }
+        
+        openStorage();
+        // Loopback only unless asked otherwise - the service has no authentication
+        String host = System.getProperty("students.http.host", "127.0.0.1");
+        try {
+            StudentHttpService service = StudentHttpService.start(new InetSocketAddress(host, port));
+            System.out.printf("🌐 Serving %d student(s) on http://%s:%d/ (%s, Ctrl+C to stop)%n",
+                StudentDatabase.getStudentCount(), host, service.getPort(), service.getExecutorDescription());
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                service.stop();
+                closeStorage();
+                writeMetricsReport();
+            }, "student-http-shutdown"));
+        } catch (IOException e) {
+            System.out.println("❌ Could not start HTTP server: " + e.getMessage());
+            closeStorage();
+        }
+    }
+    
+    /**
+     * 💾 Load the students a run starts with: write-ahead log, else snapshot file, else nothing
+     */
+    private static void openStorage() {
+        if (WAL_PATH != null) {
+            openWriteAheadLog();
+        } else if (SNAPSHOT_PATH != null && Files.exists(Path.of(SNAPSHOT_PATH))) {
+            loadSnapshot(Path.of(SNAPSHOT_PATH));
+        }
+    }
+    
+    private static void closeStorage() {
+        if (writeAheadLog != null) {
+            closeWriteAheadLog();
+        } else if (SNAPSHOT_PATH != null) {
+            saveSnapshot(Path.of(SNAPSHOT_PATH));
+        }
+    }
+    
+    /**
+     * 📈 Leave the operation metrics behind in a text file, for runs nobody watches (batch, server)
+     */
+    private static void writeMetricsReport() {
+        if (METRICS_REPORT_PATH == null) {
+            return;
+        }
+        try {
+            OperationMetrics.writeReport(Path.of(METRICS_REPORT_PATH));
+            System.out.println("📈 Wrote operation metrics to " + METRICS_REPORT_PATH);
+        } catch (IOException e) {
+            System.out.println("❌ Could not write metrics report: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * 🛟 Recover students from the write-ahead log and keep logging every change
+     */
+    private static void openWriteAheadLog() {
+        Path snapshot = Path.of(SNAPSHOT_PATH != null ? SNAPSHOT_PATH : WAL_PATH + ".snapshot");
+        try {
+            long start = System.nanoTime();
+            writeAheadLog = StudentWriteAheadLog.open(Path.of(WAL_PATH), snapshot);
+            System.out.printf("🛟 Recovered %d student(s) (%d log record(s) replayed) in %d ms%n",
+                StudentDatabase.getStudentCount(), writeAheadLog.getReplayedRecords(),
+                (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException e) {
+            System.out.println("❌ Could not open write-ahead log: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * 🛟 Fold the log into its snapshot so the next start-up has nothing to replay
+     */
+    private static void closeWriteAheadLog() {
+        try {
+            writeAheadLog.compact();
+            writeAheadLog.close();
+        } catch (IOException e) {
+            System.out.println("❌ Could not close write-ahead log: " + e.getMessage());
+        }
+    }
+    
     /**
      * 🎯 Interactive menu system
      * Question: How do we create a user-friendly interface?
      * Solution: Use loops for continuous operation and switch for menu options
      */
-    private static void runInteractiveMenu(Scanner scanner, Main system) {
+    private static void runInteractiveMenu(FastInput input, Main system) {
         boolean running = true;
         
         // Question: Why use a while loop instead of for loop here?
@@ -79,21 +274,31 @@ public class Main {
         while (running) {
             displayMenu();
             
-            System.out.print("🔹 Enter your choice (1-8): ");
-            int choice = scanner.nextInt();
-            scanner.nextLine(); // Consume newline - important bug fix!
+            System.out.print("🔹 Enter your choice (1-16): ");
+            int choice;
+            try {
+                choice = input.nextInt();
+                input.nextLine(); // Consume newline - important bug fix!
+            } catch (InputMismatchException e) {
+                choice = 0; // Not a number - reported as an invalid choice below
+            } catch (NoSuchElementException e) {
+                // Question: What if the input ends, like a piped file without an exit command?
+                // Solution: Leave the menu normally so the students are still saved
+                System.out.println();
+                break;
+            }
             
             // Question: How do we handle multiple menu options efficiently?
             // Solution: Use switch statement for cleaner code than multiple if-else
             switch (choice) {
                 case 1:
-                    system.addStudent(scanner);
+                    system.addStudent(input);
                     break;
                 case 2:
                     system.viewAllStudents();
                     break;
                 case 3:
-                    system.searchStudent(scanner);
+                    system.searchStudent(input);
                     break;
                 case 4:
                     system.calculateStatistics();
@@ -108,6 +313,30 @@ public class Main {
                     system.demonstrateMethods();
                     break;
                 case 8:
+                    system.importStudents(input);
+                    break;
+                case 9:
+                    system.saveSnapshot(input);
+                    break;
+                case 10:
+                    system.loadSnapshot(input);
+                    break;
+                case 11:
+                    system.browseStudents(input);
+                    break;
+                case 12:
+                    system.showLeaderboard(input);
+                    break;
+                case 13:
+                    system.showMetrics(input);
+                    break;
+                case 14:
+                    system.showGroupReport(input);
+                    break;
+                case 15:
+                    system.changeStudent(input);
+                    break;
+                case 16:
                     running = false;
                     System.out.println("👋 Exiting system...");
                     break;
@@ -117,7 +346,11 @@ public class Main {
             
             if (running) {
                 System.out.println("\nPress Enter to continue...");
-                scanner.nextLine();
+                try {
+                    input.nextLine();
+                } catch (NoSuchElementException e) {
+                    running = false;
+                }
             }
         }
     }
@@ -138,23 +371,31 @@ public class Main {
         System.out.println("5. 🎯 Demonstrate Data Types");
         System.out.println("6. 🔄 Demonstrate Loops");
         System.out.println("7. 🔧 Demonstrate Methods");
-        System.out.println("8. 🚪 Exit");
+        System.out.println("8. 📥 Import Students from CSV");
+        System.out.println("9. 💾 Save Database Snapshot");
+        System.out.println("10. 📂 Load Database Snapshot");
+        System.out.println("11. 📄 Browse Students (paged)");
+        System.out.println("12. 🏅 GPA Leaderboard");
+        System.out.println("13. 📈 Operation Metrics");
+        System.out.println("14. 📊 Group Report");
+        System.out.println("15. ✏️ Update or Delete Student");
+        System.out.println("16. 🚪 Exit");
         System.out.println("=".repeat(50));
     }
     
     /**
      * ➕ Add new student to the system
      * Question: How do we handle different data types when collecting student info?
-     * Solution: Use appropriate Scanner methods for each data type and handle type conversion
+     * Solution: Use the input's nextInt/nextDouble/nextBoolean methods for each data type
      */
-    private void addStudent(Scanner scanner) {
+    private void addStudent(FastInput input) {
         System.out.println("\n➕ Adding New Student");
         System.out.println("-".repeat(30));
         
         // Question: How do we collect string input with spaces?
         // Solution: Use nextLine() instead of next() to read entire line
         System.out.print("📝 Enter student name: ");
-        String name = scanner.nextLine();
+        String name = input.nextLine();
         
         // Question: How do we validate string input?
         // Solution: Use String methods like isEmpty() and equals()
@@ -164,17 +405,17 @@ public class Main {
         }
         
         // Question: How do we handle numeric input safely?
-        // Solution: Use appropriate Scanner methods and validate ranges
+        // Solution: Use nextInt() for whole numbers and validate ranges
         System.out.print("🎂 Enter age (16-100): ");
-        int age = scanner.nextInt();
+        int age = input.nextInt();
         
         // Question: How do we validate numeric input?
         // Solution: Use if-else statements and ternary operators
-        String ageValidation = (age >= 16 && age <= 100) ? 
+        String ageValidation = Student.isValidAge(age) ? 
             "✅ Valid age" : "❌ Invalid age range";
         System.out.println(ageValidation);
         
-        if (age < 16 || age > 100) {
+        if (!Student.isValidAge(age)) {
             System.out.println("❌ Age must be between 16 and 100!");
             return;
         }
@@ -182,7 +423,7 @@ public class Main {
         // Question: How do we handle decimal numbers?
         // Solution: Use double for GPA with proper precision
         System.out.print("📊 Enter GPA (0.0-4.0): ");
-        double gpa = scanner.nextDouble();
+        double gpa = input.nextDouble();
         
         // Question: How do we use ternary operator for GPA validation?
         // Solution: (condition) ? value_if_true : value_if_false
@@ -192,23 +433,133 @@ public class Main {
         
         System.out.println("GPA Status: " + gpaStatus);
         
+        if (!Student.isValidGpa(gpa)) {
+            System.out.println("❌ GPA must be between 0.0 and 4.0!");
+            return;
+        }
+        
         // Question: How do we handle boolean input?
         // Solution: Parse string input to boolean
         System.out.print("🎓 Is the student active? (true/false): ");
-        boolean isActive = scanner.nextBoolean();
+        boolean isActive = input.nextBoolean();
         
         // Create student object and add to list
         Student student = new Student(name, age, gpa, isActive);
         StudentDatabase.addStudent(student);
         
         // Update static counter
-        totalStudents++;
+        totalStudents.increment();
         
         // Display success message with formatted output
         System.out.printf("✅ Student %s added successfully!%n", name);
         System.out.printf("📈 Total students in database: %d%n", StudentDatabase.getStudentCount());
     }
     
+    /**
+     * 📥 Import students from a CSV file
+     * Question: Why not reuse addStudent() for every row?
+     * Solution: Scanner parses with regular expressions; a byte-level parser is many times faster for big files
+     */
+    private void importStudents(FastInput input) {
+        System.out.println("\n📥 Import Students from CSV");
+        System.out.println("-".repeat(30));
+        System.out.println("Expected columns: name,age,gpa,active (a header line is optional)");
+        
+        System.out.print("📂 Enter CSV file path: ");
+        String path = input.nextLine().trim();
+        
+        if (path.isEmpty()) {
+            System.out.println("❌ File path cannot be empty!");
+            return;
+        }
+        
+        // Question: How do we handle errors like a missing file?
+        // Solution: Catch the checked IOException and report it instead of crashing
+        try {
+            StudentCsvImporter.ImportResult result = StudentCsvImporter.importFile(Path.of(path));
+            totalStudents.add(result.getImported());
+            
+            System.out.printf("✅ Imported %d student(s)%n", result.getImported());
+            if (result.getRejected() > 0) {
+                System.out.printf("⚠️ Skipped %d invalid line(s):%n", result.getRejected());
+                for (String error : result.getErrors()) {
+                    System.out.println("  - " + error);
+                }
+            }
+            System.out.printf("📈 Total students in database: %d%n", StudentDatabase.getStudentCount());
+        } catch (IOException e) {
+            System.out.println("❌ Could not read file: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * 💾 Save all students to a binary snapshot file
+     */
+    private void saveSnapshot(FastInput input) {
+        System.out.println("\n💾 Save Database Snapshot");
+        System.out.println("-".repeat(30));
+        Path path = askSnapshotPath(input);
+        if (path != null) {
+            saveSnapshot(path);
+        }
+    }
+    
+    /**
+     * 📂 Replace all students with the contents of a snapshot file
+     */
+    private void loadSnapshot(FastInput input) {
+        System.out.println("\n📂 Load Database Snapshot");
+        System.out.println("-".repeat(30));
+        Path path = askSnapshotPath(input);
+        if (path != null) {
+            loadSnapshot(path);
+        }
+    }
+    
+    private static Path askSnapshotPath(FastInput input) {
+        // With a write-ahead log, its snapshot is the natural default
+        String defaultPath = writeAheadLog != null ? writeAheadLog.getSnapshotPath().toString() : SNAPSHOT_PATH;
+        System.out.print("📂 Enter snapshot file path" + (defaultPath != null ? " [" + defaultPath + "]" : "") + ": ");
+        String path = input.nextLine().trim();
+        if (path.isEmpty()) {
+            if (defaultPath == null) {
+                System.out.println("❌ File path cannot be empty!");
+                return null;
+            }
+            path = defaultPath;
+        }
+        return Path.of(path);
+    }
+    
+    private static void saveSnapshot(Path path) {
+        try {
+            long start = System.nanoTime();
+            // The log's own snapshot must record which log segments it covers, so compact instead
+            if (writeAheadLog != null && path.toAbsolutePath().equals(writeAheadLog.getSnapshotPath().toAbsolutePath())) {
+                writeAheadLog.compact();
+                System.out.printf("💾 Compacted the write-ahead log into %s in %d ms%n",
+                    path, (System.nanoTime() - start) / 1_000_000);
+                return;
+            }
+            int saved = StudentSnapshotFile.save(path);
+            System.out.printf("💾 Saved %d student(s) to %s in %d ms%n",
+                saved, path, (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException e) {
+            System.out.println("❌ Could not save snapshot: " + e.getMessage());
+        }
+    }
+    
+    private static void loadSnapshot(Path path) {
+        try {
+            long start = System.nanoTime();
+            int loaded = StudentSnapshotFile.load(path);
+            System.out.printf("📂 Loaded %d student(s) from %s in %d ms%n",
+                loaded, path, (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException e) {
+            System.out.println("❌ Could not load snapshot: " + e.getMessage());
+        }
+    }
+    
     /**
      * 👁️ View all students in the system
      * Question: How do we iterate through collections efficiently?
@@ -219,8 +570,9 @@ public class Main {
         System.out.println("-".repeat(50));
         
         // Question: How do we check if collection is empty?
-        // Solution: Use isEmpty() method from ArrayList
-        if (StudentDatabase.getStudents().isEmpty()) {
+        // Solution: Use isEmpty() method from List
+        StudentSnapshot students = StudentDatabase.snapshot();
+        if (students.isEmpty()) {
             System.out.println("📭 No students in database yet!");
             return;
         }
@@ -231,20 +583,231 @@ public class Main {
             "NAME", "AGE", "GPA", "STATUS", "GRADE");
         System.out.println("-".repeat(50));
         
-        // Enhanced for-loop - iterate through each student
-        for (Student student : StudentDatabase.getStudents()) {
-            // Question: How do we format output nicely?
-            // Solution: Use printf with format specifiers
-            System.out.printf("%-20s %-6d %-6.2f %-10s %-8s%n",
-                student.getName(),
-                student.getAge(),
-                student.getGpa(),
-                student.isActive() ? "✅ Active" : "❌ Inactive",
-                student.getGrade());
+        // Question: Why not printf() once per student?
+        // Solution: printf re-parses the format and boxes every number on each call; the renderer
+        // builds rows in one reusable buffer and prints them in large chunks instead
+        StudentTableRenderer.printRows(students, System.out);
+        
+        System.out.println("-".repeat(50));
+        System.out.printf("📊 Total Students: %d%n", students.size());
+    }
+    
+    /**
+     * 📄 Browse students one page at a time
+     * Question: How do we look through a huge roster without printing all of it?
+     * Solution: Ask for a page size, sort order and filter, then fetch only the page being shown
+     */
+    private void browseStudents(FastInput input) {
+        System.out.println("\n📄 Browse Students");
+        System.out.println("-".repeat(50));
+        
+        System.out.print("📏 Students per page [20]: ");
+        String sizeText = input.nextLine().trim();
+        int pageSize = 20;
+        try {
+            if (!sizeText.isEmpty()) {
+                pageSize = Integer.parseInt(sizeText);
+            }
+        } catch (NumberFormatException e) {
+            System.out.println("⚠️ Not a number, using 20");
+        }
+        if (pageSize < 1) {
+            System.out.println("⚠️ Page size must be at least 1, using 20");
+            pageSize = 20;
+        }
+        
+        System.out.print("↕️ Sort by (none/name/age/gpa/grade) [none]: ");
+        String sortText = input.nextLine().trim().toLowerCase();
+        StudentPageRequest.SortKey sortKey;
+        switch (sortText) {
+            case "name": sortKey = StudentPageRequest.SortKey.NAME; break;
+            case "age": sortKey = StudentPageRequest.SortKey.AGE; break;
+            case "gpa": sortKey = StudentPageRequest.SortKey.GPA; break;
+            case "grade": sortKey = StudentPageRequest.SortKey.GRADE; break;
+            default: sortKey = StudentPageRequest.SortKey.INSERTION;
+        }
+        // Highest GPA first is what people usually want; names and ages read best ascending
+        boolean descending = sortKey == StudentPageRequest.SortKey.GPA;
+        
+        System.out.print("🎓 Show (all/active/inactive) [all]: ");
+        String filterText = input.nextLine().trim().toLowerCase();
+        StudentPageRequest.ActiveFilter filter =
+            filterText.equals("active") ? StudentPageRequest.ActiveFilter.ACTIVE :
+            filterText.equals("inactive") ? StudentPageRequest.ActiveFilter.INACTIVE :
+            StudentPageRequest.ActiveFilter.ALL;
+        
+        int page = 1;
+        while (true) {
+            long total = StudentDatabase.count(filter);
+            long pages = Math.max(1, (total + pageSize - 1) / pageSize);
+            page = (int) Math.min(Math.max(page, 1), pages);
+            
+            StudentPageRequest request = StudentPageRequest.page(page, pageSize)
+                .sortedBy(sortKey, descending)
+                .filtered(filter);
+            
+            System.out.printf("%n📄 Page %d of %d (%d student(s))%n", page, pages, total);
+            System.out.printf("%-20s %-6s %-6s %-10s %-8s%n", 
+                "NAME", "AGE", "GPA", "STATUS", "GRADE");
+            System.out.println("-".repeat(50));
+            try (Stream<Student> students = StudentDatabase.list(request)) {
+                StudentTableRenderer.printStudents(students.iterator(), System.out);
+            }
+            System.out.println("-".repeat(50));
+            
+            System.out.print("➡️ [n]ext, [p]revious, page number, or [q]uit: ");
+            String command = input.nextLine().trim().toLowerCase();
+            if (command.equals("n") || command.isEmpty()) {
+                if (page == pages) {
+                    break;
+                }
+                page++;
+            } else if (command.equals("p")) {
+                page--;
+            } else if (command.equals("q")) {
+                break;
+            } else {
+                try {
+                    page = Integer.parseInt(command);
+                } catch (NumberFormatException e) {
+                    System.out.println("❌ Invalid choice! Please try again.");
+                }
+            }
+        }
+    }
+    
+    /**
+     * 🏅 Show the best students by GPA, then look up anyone's rank
+     * Question: How do we show a top 100 that is never out of date?
+     * Solution: The database keeps the leaderboard current as students are added, so showing it
+     * sorts 100 entries instead of the whole roster
+     */
+    private void showLeaderboard(FastInput input) {
+        System.out.println("\n🏅 GPA Leaderboard");
+        System.out.println("-".repeat(56));
+        
+        List<RankedStudent> leaders = StudentDatabase.getLeaderboard(StudentDatabase.LEADERBOARD_SIZE);
+        if (leaders.isEmpty()) {
+            System.out.println("📭 No students yet!");
+            return;
+        }
+        
+        System.out.printf("%-5s %-20s %-6s %-6s %-10s %-8s%n", "RANK", "NAME", "AGE", "GPA", "STATUS", "GRADE");
+        System.out.println("-".repeat(56));
+        StringBuilder table = new StringBuilder(leaders.size() * 64);
+        for (RankedStudent leader : leaders) {
+            table.append(String.format("%-5s ", "#" + leader.getRank()));
+            StudentTableRenderer.appendRow(table, leader.getStudent());
         }
+        System.out.print(table);
+        System.out.println("-".repeat(56));
         
+        // Question: What about students further down?
+        // Solution: Ranks come from the GPA index, so anyone can be looked up by name
+        System.out.print("🔍 Name to look up a rank (Enter to skip): ");
+        String name = input.nextLine().trim();
+        if (name.isEmpty()) {
+            return;
+        }
+        List<RankedStudent> ranks = StudentDatabase.findRanks(name);
+        if (ranks.isEmpty()) {
+            System.out.println("❌ Student '" + name + "' not found!");
+            return;
+        }
+        int total = StudentDatabase.getStudentCount();
+        for (RankedStudent ranked : ranks) {
+            System.out.printf("🏅 %s (GPA: %.2f) is #%d of %d%n",
+                ranked.getStudent().getName(), ranked.getStudent().getGpa(), ranked.getRank(), total);
+        }
+    }
+    
+    /**
+     * 📈 Show how often each database operation ran and how long it took
+     * Question: Why measure inside the database instead of around each menu choice?
+     * Solution: A menu choice mostly waits for typing; the database calls are what get slow under
+     * load, and batch commands and HTTP requests are measured by the same code
+     */
+    private void showMetrics(FastInput input) {
+        System.out.println("\n📈 Operation Metrics");
+        System.out.println("-".repeat(100));
+        System.out.print(OperationMetrics.report());
+        System.out.println("-".repeat(100));
+        System.out.println("ℹ️ Calls and records count every call; latency and allocation come from the first "
+            + OperationMetrics.WARM_UP_SAMPLES + " calls of each operation, then latency from about 1 in "
+            + OperationMetrics.SAMPLE_EVERY + " and allocation from 1 in "
+            + OperationMetrics.SAMPLE_EVERY * OperationMetrics.ALLOCATION_SAMPLE_EVERY);
+        
+        System.out.print("🧹 Reset the counters? (y/N): ");
+        if (input.nextLine().trim().equalsIgnoreCase("y")) {
+            OperationMetrics.reset();
+            System.out.println("✅ Counters reset");
+        }
+    }
+    
+    /**
+     * 📊 Break the roster down into groups, e.g. average GPA per age or students per age band
+     * Question: How do we answer "how do the grades differ by age?" without a spreadsheet?
+     * Solution: Ask what to group by and what to compute, and let the database aggregate
+     * every student in one pass - the same report the batch "group" command gives
+     */
+    private void showGroupReport(FastInput input) {
+        System.out.println("\n📊 Group Report");
         System.out.println("-".repeat(50));
-        System.out.printf("📊 Total Students: %d%n", StudentDatabase.getStudentCount());
+        
+        Map<String, String> options = new HashMap<>();
+        System.out.print("🧭 Group by (age/band/grade/active/name, comma-separated) [grade]: ");
+        String by = input.nextLine().trim();
+        options.put("by", by.isEmpty() ? "grade" : by);
+        System.out.print("🧮 Compute (count, sum/avg/min/max:age|gpa|active, comma-separated) [count,avg:gpa]: ");
+        String aggregates = input.nextLine().trim();
+        options.put("agg", aggregates.isEmpty() ? "count,avg:gpa" : aggregates);
+        if (options.get("by").toLowerCase(Locale.ROOT).contains("band")) {
+            System.out.print("📏 Years per age band [" + StudentGroupQuery.DEFAULT_BAND_WIDTH + "]: ");
+            String band = input.nextLine().trim();
+            if (!band.isEmpty()) {
+                options.put("band", band);
+            }
+        }
+        
+        StudentGroups groups;
+        try {
+            groups = StudentDatabase.groupBy(StudentGroupQuery.fromOptions(options));
+        } catch (IllegalArgumentException e) {
+            System.out.println("❌ " + e.getMessage());
+            return;
+        }
+        if (groups.getGroups().isEmpty()) {
+            System.out.println("📭 No students yet!");
+            return;
+        }
+        
+        List<StudentGroupQuery.Dimension> dimensions = groups.getQuery().getDimensions();
+        List<StudentGroupQuery.Column> columns = groups.getQuery().getColumns();
+        StringBuilder table = new StringBuilder();
+        for (StudentGroupQuery.Dimension dimension : dimensions) {
+            table.append(String.format("%-12s ", dimension.name().replace('_', ' ')));
+        }
+        for (StudentGroupQuery.Column column : columns) {
+            table.append(String.format("%12s ", column.getLabel().toUpperCase(Locale.ROOT)));
+        }
+        int width = table.length();
+        table.append('\n').append("-".repeat(width)).append('\n');
+        for (StudentGroups.Group group : groups.getGroups()) {
+            for (int d = 0; d < dimensions.size(); d++) {
+                table.append(String.format("%-12s ", group.getLabel(d)));
+            }
+            for (int c = 0; c < columns.size(); c++) {
+                // Counts and sums of whole numbers print as integers, averages with three decimals
+                double value = group.getValue(c);
+                table.append(value == Math.rint(value)
+                    ? String.format("%12d ", (long) value)
+                    : String.format("%12.3f ", value));
+            }
+            table.append('\n');
+        }
+        System.out.print(table);
+        System.out.println("-".repeat(width));
+        System.out.printf("📊 %d group(s) from %d student(s)%n", groups.getGroups().size(), groups.getRowCount());
     }
     
     /**
@@ -252,91 +815,183 @@ public class Main {
      * Question: How do we search through collections?
      * Solution: Use loops and String comparison methods
      */
-    private void searchStudent(Scanner scanner) {
+    private void searchStudent(FastInput input) {
         System.out.println("\n🔍 Search Student");
         System.out.println("-".repeat(30));
         
         System.out.print("📝 Enter student name to search: ");
-        String searchName = scanner.nextLine();
+        String searchName = input.nextLine();
         
         // Question: How do we perform case-insensitive search?
-        // Solution: Use equalsIgnoreCase() instead of equals()
-        boolean found = false;
+        // Solution: Look the name up in the database's index instead of comparing every record
+        List<Student> matches = StudentDatabase.findByName(searchName);
         
-        // Traditional for-loop with index - useful when we need index
-        for (int i = 0; i < StudentDatabase.getStudents().size(); i++) {
-            Student student = StudentDatabase.getStudents().get(i);
-            
-            // Question: Why use equalsIgnoreCase()?
-            // Solution: Makes search user-friendly (case-insensitive)
-            if (student.getName().equalsIgnoreCase(searchName)) {
-                System.out.println("✅ Student found!");
-                displayStudentDetails(student);
-                found = true;
-                break; // Exit loop once found
+        if (!matches.isEmpty()) {
+            System.out.println("✅ Student found!");
+            displayStudentDetails(matches.get(0));
+            if (matches.size() > 1) {
+                System.out.printf("ℹ️ %d more student(s) share this name%n", matches.size() - 1);
             }
+            return;
         }
         
         // Question: How do we handle not found case?
-        // Solution: Use boolean flag to track if student was found
-        if (!found) {
-            System.out.println("❌ Student '" + searchName + "' not found!");
+        // Solution: Tell the user, then offer names that contain what they typed or are a
+        // typo or two away from it
+        System.out.println("❌ Student '" + searchName + "' not found!");
+        
+        if (!searchName.isEmpty()) {
+            List<NameMatch> suggestions = StudentDatabase.searchNames(searchName, 5);
+            if (!suggestions.isEmpty()) {
+                System.out.println("💡 Did you mean:");
+                for (NameMatch suggestion : suggestions) {
+                    System.out.println("  - " + suggestion.getStudent().getName());
+                }
+            }
         }
     }
     
+    /**
+     * ✏️ Update or delete one student
+     * Question: Which student do we change when several share a name?
+     * Solution: List every match with its id and let the user pick one; pressing Enter at a
+     * field keeps its current value
+     */
+    private void changeStudent(FastInput input) {
+        System.out.println("\n✏️ Update or Delete Student");
+        System.out.println("-".repeat(30));
+        
+        System.out.print("📝 Enter student name: ");
+        String name = input.nextLine();
+        IntArray ids = new IntArray();
+        List<Student> matches = StudentDatabase.findByName(name, ids);
+        if (matches.isEmpty()) {
+            System.out.println("❌ Student '" + name + "' not found!");
+            return;
+        }
+        
+        System.out.printf("%-8s %-20s %-6s %-6s %-10s%n", "ID", "NAME", "AGE", "GPA", "STATUS");
+        for (int i = 0; i < matches.size(); i++) {
+            Student match = matches.get(i);
+            System.out.printf("%-8d %-20s %-6d %-6.2f %-10s%n", ids.get(i), match.getName(),
+                match.getAge(), match.getGpa(), match.isActive() ? "Active" : "Inactive");
+        }
+        
+        int id = ids.get(0);
+        if (matches.size() > 1) {
+            System.out.print("🪪 Enter student id [" + id + "]: ");
+            String idText = input.nextLine().trim();
+            try {
+                if (!idText.isEmpty()) {
+                    id = Integer.parseInt(idText);
+                }
+            } catch (NumberFormatException e) {
+                System.out.println("❌ Not a student id!");
+                return;
+            }
+        }
+        Student current = StudentDatabase.getStudent(id);
+        if (current == null) {
+            System.out.println("❌ No student with id " + id);
+            return;
+        }
+        
+        System.out.print("➡️ [u]pdate, [d]elete, or [q]uit: ");
+        String command = input.nextLine().trim().toLowerCase();
+        if (command.equals("d")) {
+            if (StudentDatabase.deleteStudent(id)) {
+                System.out.printf("🗑️ Student %s deleted%n", current.getName());
+                System.out.printf("📈 Total students in database: %d%n", StudentDatabase.getStudentCount());
+            } else {
+                System.out.println("❌ No student with id " + id);
+            }
+        } else if (command.equals("u")) {
+            try {
+                Student student = Student.validated(
+                    ask(input, "📝 Name", current.getName()),
+                    Integer.parseInt(ask(input, "🎂 Age", String.valueOf(current.getAge()))),
+                    Double.parseDouble(ask(input, "📊 GPA", String.valueOf(current.getGpa()))),
+                    Boolean.parseBoolean(ask(input, "🎓 Active", String.valueOf(current.isActive()))));
+                if (StudentDatabase.updateStudent(id, student)) {
+                    System.out.printf("✅ Student %s updated!%n", student.getName());
+                    displayStudentDetails(student);
+                } else {
+                    System.out.println("❌ No student with id " + id);
+                }
+            } catch (IllegalArgumentException e) {
+                System.out.println("❌ " + e.getMessage());
+            }
+        }
+    }
+    
+    // One field of the student being updated; an empty line keeps the current value
+    private static String ask(FastInput input, String field, String current) {
+        System.out.print(field + " [" + current + "]: ");
+        String value = input.nextLine().trim();
+        return value.isEmpty() ? current : value;
+    }
+    
     /**
      * 📊 Calculate and display statistics
      * Question: How do we perform calculations on collections?
-     * Solution: Use loops to iterate and accumulate values
+     * Solution: Let the statistics engine gather everything in one (parallel) pass over the store
      */
     private void calculateStatistics() {
         System.out.println("\n📊 Student Statistics");
         System.out.println("-".repeat(30));
         
-        List<Student> students = StudentDatabase.getStudents();
+        // Question: Why not loop over every student here?
+        // Solution: The database keeps running totals up to date, so reading them is instant
+        StudentStatistics stats = StudentDatabase.getStatistics();
         
-        if (students.isEmpty()) {
+        if (stats.getCount() == 0) {
             System.out.println("📭 No data available for statistics!");
             return;
         }
         
-        // Initialize variables for calculations
-        int totalAge = 0;
-        double totalGpa = 0.0;
-        int activeCount = 0;
+        // Display statistics with formatted output
+        System.out.printf("📊 Total Students: %d%n", stats.getCount());
+        System.out.printf("🎂 Average Age: %.2f years%n", stats.getAverageAge());
+        System.out.printf("📈 Average GPA: %.2f%n", stats.getAverageGpa());
+        System.out.printf("✅ Active Students: %d (%.1f%%)%n", 
+            stats.getActiveCount(), stats.getActiveRatio() * 100);
+        System.out.printf("📏 Age Range: %d - %d (std dev %.2f)%n",
+            stats.getMinAge(), stats.getMaxAge(), Math.sqrt(stats.getAgeVariance()));
+        System.out.printf("📏 GPA Range: %.2f - %.2f (std dev %.2f)%n",
+            stats.getMinGpa(), stats.getMaxGpa(), Math.sqrt(stats.getGpaVariance()));
         
-        // Question: How do we calculate averages?
-        // Solution: Accumulate values in loop, then divide by count
-        for (Student student : students) {
-            totalAge += student.getAge();
-            totalGpa += student.getGpa();
-            if (student.isActive()) {
-                activeCount++;
-            }
+        StringBuilder grades = new StringBuilder("🎓 Grades:");
+        for (int i = 0; i < Student.GRADE_LETTERS.length; i++) {
+            grades.append(' ').append(Student.GRADE_LETTERS[i]).append('=').append(stats.getGradeCount(i));
         }
+        System.out.println(grades);
         
-        // Calculate averages using double division
-        double averageAge = (double) totalAge / students.size();
-        double averageGpa = totalGpa / students.size();
-        
-        // Display statistics with formatted output
-        System.out.printf("📊 Total Students: %d%n", students.size());
-        System.out.printf("🎂 Average Age: %.2f years%n", averageAge);
-        System.out.printf("📈 Average GPA: %.2f%n", averageGpa);
-        System.out.printf("✅ Active Students: %d (%.1f%%)%n", 
-            activeCount, (double) activeCount / students.size() * 100);
-        
-        // Question: How do we find the best student?
-        // Solution: Track maximum GPA while iterating
-        Student topStudent = students.get(0);
-        for (Student student : students) {
-            if (student.getGpa() > topStudent.getGpa()) {
-                topStudent = student;
+        // Question: How do we find the best students?
+        // Solution: The leaderboard is kept up to date as students are added
+        // Question: What if several students share the best GPA?
+        // Solution: Say so - picking the first one added would hide the others
+        List<RankedStudent> leaders = StudentDatabase.getLeaderboard(StudentDatabase.LEADERBOARD_SIZE);
+        int tied = 0;
+        while (tied < leaders.size() && leaders.get(tied).getRank() == 1) {
+            tied++;
+        }
+        Student topStudent = leaders.get(0).getStudent();
+        if (tied == 1) {
+            System.out.println("🏆 Top Student: " + topStudent.getName() + 
+                              " (GPA: " + topStudent.getGpa() + ")");
+        } else {
+            StringBuilder names = new StringBuilder();
+            for (int i = 0; i < Math.min(tied, 3); i++) {
+                names.append(i > 0 ? ", " : "").append(leaders.get(i).getStudent().getName());
             }
+            System.out.printf("🏆 Top Students: %s%s tied at GPA %s (%s%s)%n",
+                tied, tied == StudentDatabase.LEADERBOARD_SIZE ? "+" : "", topStudent.getGpa(),
+                names, tied > 3 ? ", ..." : "");
+        }
+        for (int i = tied; i < Math.min(leaders.size(), tied + 2); i++) {
+            System.out.printf("   #%d %s (GPA: %s)%n", leaders.get(i).getRank(),
+                leaders.get(i).getStudent().getName(), leaders.get(i).getStudent().getGpa());
         }
-        
-        System.out.println("🏆 Top Student: " + topStudent.getName() + 
-                          " (GPA: " + topStudent.getGpa() + ")");
     }
     
     /**
@@ -594,94 +1249,3 @@ public class Main {
         System.out.println("-".repeat(30));
     }
 }
-
-/**
- * 🎓 Student class - represents a student entity
- * Question: Why create a separate Student class?
- * Solution: Better organization, encapsulation, and reusability
- */
-class Student {
-    // Instance variables - each student has their own
-    private String name;
-    private int age;
-    private double gpa;
-    private boolean isActive;
-    
-    /**
-     * 🏗️ Constructor - initializes student object
-     */
-    public Student(String name, int age, double gpa, boolean isActive) {
-        this.name = name;
-        this.age = age;
-        this.gpa = gpa;
-        this.isActive = isActive;
-    }
-    
-    // Getter methods - provide read access to private variables
-    public String getName() { return name; }
-    public int getAge() { return age; }
-    public double getGpa() { return gpa; }
-    public boolean isActive() { return isActive; }
-    
-    /**
-     * 🎯 Calculate grade based on GPA
-     * Question: How do we convert GPA to letter grade?
-     * Solution: Use if-else statements or ternary operators
-     */
-    public String getGrade() {
-        // Using ternary operator for concise grade calculation
-        return (gpa >= 3.7) ? "A" :
-               (gpa >= 3.3) ? "B+" :
-               (gpa >= 3.0) ? "B" :
-               (gpa >= 2.7) ? "C+" :
-               (gpa >= 2.3) ? "C" :
-               (gpa >= 2.0) ? "D" : "F";
-    }
-    
-    /**
-     * 📝 Override toString for better object representation
-     */
-    @Override
-    public String toString() {
-        return String.format("Student{name='%s', age=%d, gpa=%.2f, grade=%s, active=%s}",
-            name, age, gpa, getGrade(), isActive);
-    }
-}
-
-/**
- * 🗄️ StudentDatabase class - manages student data
- * Question: Why separate database logic?
- * Solution: Single responsibility principle - each class has one job
- */
-class StudentDatabase {
-    // Static variable - shared across all instances
-    private static final ArrayList<Student> students = new ArrayList<>();
-    
-    /**
-     * ➕ Add student to database
-     */
-    public static void addStudent(Student student) {
-        students.add(student);
-    }
-    
-    /**
-     * 📋 Get all students
-     */
-    public static ArrayList<Student> getStudents() {
-        return students;
-    }
-    
-    /**
-     * 📊 Get student count
-     */
-    public static int getStudentCount() {
-        return students.size();
-    }
-    
-    /**
-     * 🗑️ Clear database
-     */
-    public static void clearDatabase() {
-        students.clear();
-    }
-}
@@ -1,16 +1,14 @@
 // Your first Java task will go here
 // Follow the instructions below to get started!
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.util.Scanner;
 
 public class Try {
     public static void main(String[] args) throws IOException {
-        Scanner input = new Scanner(System.in);
+        // FastInput (FastInput.java) works like Scanner but parses numbers straight from a byte buffer
+        FastInput input = new FastInput(System.in);
 
-        // ==================== USER INPUT WITH SCANNER ====================
+        // ==================== USER INPUT ====================
         System.out.println("What is your name:: ");
         String name = input.nextLine();
 
@@ -139,18 +137,18 @@ public class Try {
             System.out.println("⚠️ Not a valid integer!");
         }
 
-        // ==================== BUFFEREDREADER DEMONSTRATION ====================
-        System.out.println("\n--- BufferedReader Example (for large/fast input) ---");
-        System.out.print("Enter a line using BufferedReader: ");
-        BufferedReader br = new BufferedReader(new InputStreamReader(System.in));
-        String brInput = br.readLine();
-        System.out.println("You entered (via BufferedReader): " + brInput);
+        // ==================== FAST INPUT DEMONSTRATION ====================
+        System.out.println("\n--- Reading a Whole Line (for large/fast input) ---");
+        System.out.print("Enter a line: ");
+        String lineInput = input.nextLine();
+        System.out.println("You entered: " + lineInput);
 
-        // Note: To read numbers with BufferedReader, you must parse manually:
-        // int num = Integer.parseInt(br.readLine());
+        // ⚠️ DISCLAIMER: Never wrap System.in in a second reader (e.g. a BufferedReader next to a
+        // Scanner). Each one reads ahead into its own buffer, so piped lines meant for one reader
+        // silently disappear into the other. Keep ONE reader and use it for everything.
+        // With BufferedReader, numbers are parsed by hand: int num = Integer.parseInt(br.readLine());
 
         // Close resources
-        br.close();
         input.close();
 
         // ==================== ARRAYS AND LOOPS SECTION ====================